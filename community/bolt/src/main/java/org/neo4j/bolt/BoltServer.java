@@ -48,6 +48,7 @@ import org.neo4j.bolt.protocol.common.connector.connection.Connection;
 import org.neo4j.bolt.protocol.common.connector.executor.ExecutorServiceFactory;
 import org.neo4j.bolt.protocol.common.connector.executor.NettyThreadFactory;
 import org.neo4j.bolt.protocol.common.connector.executor.ThreadPoolExecutorServiceFactory;
+import org.neo4j.bolt.protocol.common.connector.executor.WorkStealingExecutorServiceFactory;
 import org.neo4j.bolt.protocol.common.connector.listener.AuthenticationTimeoutConnectorListener;
 import org.neo4j.bolt.protocol.common.connector.listener.KeepAliveConnectorListener;
 import org.neo4j.bolt.protocol.common.connector.listener.MetricsConnectorListener;
@@ -168,13 +169,22 @@ public class BoltServer extends LifecycleAdapter {
         this.defaultDatabaseResolver = defaultDatabaseResolver;
         this.connectionHintProvider = CONNECTION_HINT_PROVIDER_FUNCTION.apply(config);
 
-        this.executorServiceFactory = new ThreadPoolExecutorServiceFactory(
-                config.get(BoltConnector.thread_pool_min_size),
-                config.get(BoltConnector.thread_pool_max_size),
-                true,
-                config.get(BoltConnector.thread_pool_keep_alive),
-                config.get(BoltConnectorInternalSettings.unsupported_thread_pool_queue_size),
-                this.jobScheduler.threadFactory(Group.BOLT_WORKER));
+        if (config.get(BoltConnectorInternalSettings.thread_pool_work_stealing)) {
+            this.executorServiceFactory = new WorkStealingExecutorServiceFactory(
+                    config.get(BoltConnector.thread_pool_min_size),
+                    config.get(BoltConnector.thread_pool_max_size),
+                    config.get(BoltConnector.thread_pool_keep_alive),
+                    config.get(BoltConnectorInternalSettings.unsupported_thread_pool_queue_size),
+                    this.jobScheduler.threadFactory(Group.BOLT_WORKER));
+        } else {
+            this.executorServiceFactory = new ThreadPoolExecutorServiceFactory(
+                    config.get(BoltConnector.thread_pool_min_size),
+                    config.get(BoltConnector.thread_pool_max_size),
+                    true,
+                    config.get(BoltConnector.thread_pool_keep_alive),
+                    config.get(BoltConnectorInternalSettings.unsupported_thread_pool_queue_size),
+                    this.jobScheduler.threadFactory(Group.BOLT_WORKER));
+        }
 
         this.sslPolicyLoader = dependencyResolver.resolveDependency(SslPolicyLoader.class);
         this.authConfigProvider = dependencyResolver.resolveDependency(AuthConfigProvider.class);
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.DecompressionException;
+import java.util.List;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.memory.HeapEstimator;
+
+/**
+ * Decompresses the inbound byte stream of a connection which has negotiated compression.
+ * <p>
+ * The stream consists of blocks which are prefixed with an unsigned short length. A length of zero denotes an empty
+ * block which carries no further data, thus keeping plain NOOP chunks valid within a compressed stream. Otherwise,
+ * the length is followed by a flags byte and, for compressed blocks, the unsigned short length of the decompressed
+ * data:
+ * <pre>
+ *     raw block:        [length: u16][0x00][data]
+ *     compressed block: [length: u16][0x01][decompressed length: u16][LZ4 compressed data]
+ * </pre>
+ */
+public class CompressionDecoder extends ByteToMessageDecoder {
+    public static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance(CompressionDecoder.class);
+
+    static final int MAX_BLOCK_LENGTH = (1 << 16) - 1;
+    static final int MAX_HEADER_LENGTH = Short.BYTES + Byte.BYTES + Short.BYTES;
+    static final int RAW_FLAG = 0x00;
+    static final int COMPRESSED_FLAG = 0x01;
+
+    private static final LZ4SafeDecompressor DECOMPRESSOR =
+            LZ4Factory.fastestInstance().safeDecompressor();
+
+    private final Connection connection;
+
+    public CompressionDecoder(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (in.readableBytes() < Short.BYTES) {
+            return;
+        }
+
+        var offset = in.readerIndex();
+        var length = in.getUnsignedShort(offset);
+        if (length == 0) {
+            in.skipBytes(Short.BYTES);
+            return;
+        }
+
+        if (in.readableBytes() < Short.BYTES + Byte.BYTES) {
+            return;
+        }
+
+        var flags = in.getUnsignedByte(offset + Short.BYTES);
+        switch (flags) {
+            case RAW_FLAG -> {
+                if (in.readableBytes() < Short.BYTES + Byte.BYTES + length) {
+                    return;
+                }
+
+                in.skipBytes(Short.BYTES + Byte.BYTES);
+                out.add(in.readRetainedSlice(length));
+
+                this.connection.notifyListeners(
+                        listener -> listener.onInboundDecompressed(Short.BYTES + Byte.BYTES + length, length, 0));
+            }
+            case COMPRESSED_FLAG -> {
+                if (in.readableBytes() < MAX_HEADER_LENGTH + length) {
+                    return;
+                }
+
+                var decompressedLength = in.getUnsignedShort(offset + Short.BYTES + Byte.BYTES);
+                in.skipBytes(MAX_HEADER_LENGTH);
+
+                out.add(this.decompress(ctx, in.readSlice(length), decompressedLength));
+            }
+            default -> throw new DecompressionException("Illegal block flags: 0x" + Integer.toHexString(flags));
+        }
+    }
+
+    private ByteBuf decompress(ChannelHandlerContext ctx, ByteBuf compressed, int decompressedLength) {
+        var length = compressed.readableBytes();
+        var block = ctx.alloc().heapBuffer(decompressedLength);
+        var success = false;
+
+        try {
+            var start = System.nanoTime();
+            var actualLength = DECOMPRESSOR.decompress(
+                    compressed.nioBuffer(), 0, length, block.nioBuffer(0, decompressedLength), 0, decompressedLength);
+            var elapsed = System.nanoTime() - start;
+
+            if (actualLength != decompressedLength) {
+                throw new DecompressionException("Block decompressed to " + actualLength + " bytes while "
+                        + decompressedLength + " bytes were expected");
+            }
+
+            block.writerIndex(decompressedLength);
+            success = true;
+
+            this.connection.notifyListeners(listener ->
+                    listener.onInboundDecompressed(MAX_HEADER_LENGTH + length, decompressedLength, elapsed));
+            return block;
+        } catch (LZ4Exception ex) {
+            throw new DecompressionException("Malformed compressed block", ex);
+        } finally {
+            if (!success) {
+                block.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.codec;
+
+import static org.neo4j.bolt.protocol.common.codec.CompressionDecoder.COMPRESSED_FLAG;
+import static org.neo4j.bolt.protocol.common.codec.CompressionDecoder.MAX_BLOCK_LENGTH;
+import static org.neo4j.bolt.protocol.common.codec.CompressionDecoder.MAX_HEADER_LENGTH;
+import static org.neo4j.bolt.protocol.common.codec.CompressionDecoder.RAW_FLAG;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import org.neo4j.bolt.BoltServer;
+import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.bolt.protocol.common.signal.StateSignal;
+import org.neo4j.memory.HeapEstimator;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Compresses the outbound byte stream of a connection into LZ4 compressed blocks.
+ * <p>
+ * Outbound data is collected until the channel is flushed or a block of {@link CompressionDecoder#MAX_BLOCK_LENGTH}
+ * bytes has been filled. Blocks smaller than a minimum size as well as blocks which do not shrink when compressed
+ * are transmitted raw.
+ * <p>
+ * Since compression is negotiated as part of the connection handshake, the response to the handshake itself is
+ * still transmitted uncompressed. As such, this encoder passes on data as-is until the job which enabled compression
+ * has finished processing.
+ *
+ * @see CompressionDecoder for a description of the block format.
+ */
+public class CompressionEncoder extends MessageToByteEncoder<ByteBuf> {
+    public static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance(CompressionEncoder.class);
+
+    private static final int MIN_COMPRESSED_LENGTH =
+            FeatureToggles.getInteger(BoltServer.class, "min_compressed_block_length", 256);
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final int MAX_COMPRESSED_LENGTH = COMPRESSOR.maxCompressedLength(MAX_BLOCK_LENGTH);
+
+    public static final long BUFFERS_SIZE =
+            HeapEstimator.alignObjectSize(HeapEstimator.ARRAY_HEADER_BYTES + MAX_BLOCK_LENGTH)
+                    + HeapEstimator.alignObjectSize(HeapEstimator.ARRAY_HEADER_BYTES + MAX_COMPRESSED_LENGTH);
+
+    private final Connection connection;
+    private final int minCompressedLength;
+
+    private byte[] block;
+    private byte[] compressed;
+    private int blockLength;
+
+    public CompressionEncoder(Connection connection, int minCompressedLength) {
+        this.connection = connection;
+        this.minCompressedLength = minCompressedLength;
+    }
+
+    public CompressionEncoder(Connection connection) {
+        this(connection, MIN_COMPRESSED_LENGTH);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        // the handshake response has been written once the job that negotiated compression has finished processing
+        if (msg == StateSignal.END_JOB_PROCESSING && this.block == null) {
+            this.block = new byte[MAX_BLOCK_LENGTH];
+            this.compressed = new byte[MAX_COMPRESSED_LENGTH];
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception {
+        if (this.block == null) {
+            return super.allocateBuffer(ctx, msg, preferDirect);
+        }
+
+        // blocks are only written when filled up entirely or when the channel is flushed
+        var blocks = (this.blockLength + msg.readableBytes()) / MAX_BLOCK_LENGTH;
+        if (blocks == 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+
+        return ctx.alloc().buffer(blocks * (MAX_BLOCK_LENGTH + MAX_HEADER_LENGTH));
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        if (this.block == null) {
+            out.writeBytes(msg);
+            return;
+        }
+
+        while (msg.isReadable()) {
+            var length = Math.min(MAX_BLOCK_LENGTH - this.blockLength, msg.readableBytes());
+            msg.readBytes(this.block, this.blockLength, length);
+            this.blockLength += length;
+
+            if (this.blockLength == MAX_BLOCK_LENGTH) {
+                this.writeBlock(out);
+            }
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (this.blockLength != 0) {
+            var out = ctx.alloc().buffer(this.blockLength + MAX_HEADER_LENGTH);
+            this.writeBlock(out);
+            ctx.write(out);
+        }
+
+        ctx.flush();
+    }
+
+    private void writeBlock(ByteBuf out) {
+        var length = this.blockLength;
+        this.blockLength = 0;
+
+        var start = out.writerIndex();
+        var compressionNanos = 0L;
+        var compressedLength = length;
+        if (length >= this.minCompressedLength) {
+            var compressionStart = System.nanoTime();
+            compressedLength = COMPRESSOR.compress(this.block, 0, length, this.compressed, 0, this.compressed.length);
+            compressionNanos = System.nanoTime() - compressionStart;
+        }
+
+        if (compressedLength < length) {
+            out.writeShort(compressedLength)
+                    .writeByte(COMPRESSED_FLAG)
+                    .writeShort(length)
+                    .writeBytes(this.compressed, 0, compressedLength);
+        } else {
+            out.writeShort(length).writeByte(RAW_FLAG).writeBytes(this.block, 0, length);
+        }
+
+        var writtenLength = out.writerIndex() - start;
+        var elapsed = compressionNanos;
+        this.connection.notifyListeners(listener -> listener.onOutboundCompressed(length, writtenLength, elapsed));
+    }
+}
@@ -43,4 +43,8 @@ public interface BoltConnectionMetricsMonitor {
     void responseFailed(Status status);
 
     void connectionClosed();
+
+    default void bytesCompressed(long uncompressedBytes, long transmittedBytes, long compressionNanos) {}
+
+    default void bytesDecompressed(long receivedBytes, long decompressedBytes, long decompressionNanos) {}
 }
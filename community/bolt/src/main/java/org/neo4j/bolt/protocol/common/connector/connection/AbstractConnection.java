@@ -41,6 +41,7 @@ import org.neo4j.bolt.protocol.common.fsm.response.NetworkResponseHandler;
 import org.neo4j.bolt.protocol.common.fsm.response.ResponseHandler;
 import org.neo4j.bolt.protocol.io.pipeline.PipelineContext;
 import org.neo4j.bolt.protocol.io.pipeline.WriterPipeline;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceTable;
 import org.neo4j.bolt.protocol.v41.message.request.RoutingContext;
 import org.neo4j.bolt.security.error.AuthenticationException;
 import org.neo4j.internal.kernel.api.connectioninfo.ClientConnectionInfo;
@@ -306,6 +307,8 @@ public abstract class AbstractConnection implements Connection {
         } while (pipeline == null);
         feature.configureWriterPipeline(pipeline);
 
+        feature.configureNetworkPipeline(this, this.channel.pipeline());
+
         return true;
     }
 
@@ -317,13 +320,13 @@ public abstract class AbstractConnection implements Connection {
     }
 
     @Override
-    public PipelineContext writerContext(PackstreamBuf buf) {
+    public PipelineContext writerContext(PackstreamBuf buf, EntityReferenceTable entityReferences) {
         var pipeline = this.writerPipeline;
         if (pipeline == null) {
             throw new IllegalStateException("Connection has yet to select a protocol version");
         }
 
-        return pipeline.forBuffer(buf);
+        return pipeline.forBuffer(buf, entityReferences);
     }
 
     @Override
@@ -284,6 +284,12 @@ public class AtomicSchedulingConnection extends AbstractConnection {
                     break;
                 }
 
+                // while the client has yet to request more results, we'll produce some of them ahead of time in order
+                // to overlap their execution with the transmission of prior results
+                if (this.prefetchResults()) {
+                    continue;
+                }
+
                 // since we're unable to retrieve jobs at the moment, we'll switch to single-job polling for the next
                 // iteration as the queue will notify us as soon as a new job is queued (or the timeout is exceeded)
                 Job job = null;
@@ -336,6 +342,20 @@ public class AtomicSchedulingConnection extends AbstractConnection {
         }
     }
 
+    /**
+     * Prefetches results of the latest statement within the current transaction (if any).
+     *
+     * @return true if further results may be prefetched, false otherwise.
+     */
+    private boolean prefetchResults() {
+        if (this.isInterrupted()) {
+            return false;
+        }
+
+        var transaction = this.transaction.get();
+        return transaction != null && transaction.prefetch();
+    }
+
     private void executeJob(StateMachine fsm, Job job) {
         this.channel.write(StateSignal.BEGIN_JOB_PROCESSING);
 
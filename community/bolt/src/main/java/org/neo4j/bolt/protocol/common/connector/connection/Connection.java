@@ -41,6 +41,7 @@ import org.neo4j.bolt.protocol.common.fsm.StateMachine;
 import org.neo4j.bolt.protocol.common.message.AccessMode;
 import org.neo4j.bolt.protocol.common.message.request.RequestMessage;
 import org.neo4j.bolt.protocol.io.pipeline.PipelineContext;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceTable;
 import org.neo4j.bolt.protocol.v41.message.request.RoutingContext;
 import org.neo4j.bolt.security.error.AuthenticationException;
 import org.neo4j.bolt.tx.Transaction;
@@ -204,7 +205,19 @@ public interface Connection extends TrackedNetworkConnection, TransactionOwner {
      * @param buf a buffer.
      * @return a packstream value writer.
      */
-    PipelineContext writerContext(PackstreamBuf buf);
+    default PipelineContext writerContext(PackstreamBuf buf) {
+        return this.writerContext(buf, null);
+    }
+
+    /**
+     * Creates a writer context around a given target buffer which references previously transmitted entities.
+     *
+     * @param buf a buffer.
+     * @param entityReferences a table of previously transmitted entities or null if entities shall always be
+     *                         transmitted in full.
+     * @return a packstream value writer.
+     */
+    PipelineContext writerContext(PackstreamBuf buf, EntityReferenceTable entityReferences);
 
     /**
      * Enables a designated feature for use with this connection.
@@ -19,13 +19,18 @@
  */
 package org.neo4j.bolt.protocol.common.connector.connection;
 
+import io.netty.channel.ChannelPipeline;
 import java.util.HashMap;
 import java.util.Map;
+import org.neo4j.bolt.protocol.common.codec.CompressionDecoder;
+import org.neo4j.bolt.protocol.common.codec.CompressionEncoder;
 import org.neo4j.bolt.protocol.io.StructType;
 import org.neo4j.bolt.protocol.io.pipeline.WriterPipeline;
 import org.neo4j.bolt.protocol.io.reader.DateTimeReader;
 import org.neo4j.bolt.protocol.io.reader.DateTimeZoneIdReader;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceWriter;
 import org.neo4j.bolt.protocol.io.writer.UtcStructWriter;
+import org.neo4j.packstream.codec.transport.FrameSignalEncoder;
 import org.neo4j.packstream.struct.StructRegistry;
 import org.neo4j.values.storable.Value;
 
@@ -56,6 +61,44 @@ public enum Feature {
         public void configureWriterPipeline(WriterPipeline pipeline) {
             pipeline.addFirst(UtcStructWriter.getInstance());
         }
+    },
+
+    /**
+     * Enables LZ4 compression of the chunked byte stream in both directions.
+     * <p />
+     * The response to the handshake which negotiates this feature is transmitted uncompressed. Clients are expected to
+     * await this response before transmitting any compressed data.
+     */
+    COMPRESSION("compression") {
+        @Override
+        public void configureNetworkPipeline(Connection connection, ChannelPipeline pipeline) {
+            connection
+                    .memoryTracker()
+                    .allocateHeap(CompressionDecoder.SHALLOW_SIZE
+                            + CompressionEncoder.SHALLOW_SIZE
+                            + CompressionEncoder.BUFFERS_SIZE);
+
+            // compression applies to the chunked stream including any frame signals, thus the codec is placed in
+            // front of the frame signal encoder and chunk decoder
+            var frameSignalEncoder = pipeline.context(FrameSignalEncoder.class).name();
+            pipeline.addBefore(frameSignalEncoder, "compressionDecoder", new CompressionDecoder(connection))
+                    .addBefore(frameSignalEncoder, "compressionEncoder", new CompressionEncoder(connection));
+        }
+    },
+
+    /**
+     * Enables the replacement of nodes and relationships which have previously been transmitted within the same
+     * response with a reference to their index.
+     * <p />
+     * Every node and relationship structure which is transmitted in full as part of a record is assigned the next
+     * consecutive index (beginning at zero) within its response. Unbound relationships within paths are not assigned
+     * an index. Clients are expected to discard all indices when a response completes.
+     */
+    ENTITY_REFERENCES("entity_references") {
+        @Override
+        public void configureWriterPipeline(WriterPipeline pipeline) {
+            pipeline.addFirst(EntityReferenceWriter.getInstance());
+        }
     };
 
     private static final Map<String, Feature> idToFeatureMap = new HashMap<>();
@@ -106,4 +149,14 @@ public enum Feature {
      * @param pipeline a pipeline.
      */
     public void configureWriterPipeline(WriterPipeline pipeline) {}
+
+    /**
+     * Decorates the network pipeline of a given connection.
+     * <p />
+     * If a feature does not alter the transport encoding, this method should be left unimplemented.
+     *
+     * @param connection a connection.
+     * @param pipeline a network pipeline.
+     */
+    public void configureNetworkPipeline(Connection connection, ChannelPipeline pipeline) {}
 }
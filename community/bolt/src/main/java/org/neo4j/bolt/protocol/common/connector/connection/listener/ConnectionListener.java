@@ -174,6 +174,24 @@ public interface ConnectionListener {
      */
     default void onResponseIgnored() {}
 
+    /**
+     * Handles the transmission of a block of outbound data on a connection which has negotiated compression.
+     *
+     * @param uncompressedBytes the number of bytes prior to compression.
+     * @param transmittedBytes the number of bytes transmitted including the block header.
+     * @param compressionNanos the amount of nanoseconds spent compressing the block or zero if it was sent raw.
+     */
+    default void onOutboundCompressed(long uncompressedBytes, long transmittedBytes, long compressionNanos) {}
+
+    /**
+     * Handles the receipt of a block of inbound data on a connection which has negotiated compression.
+     *
+     * @param receivedBytes the number of bytes received including the block header.
+     * @param decompressedBytes the number of bytes after decompression.
+     * @param decompressionNanos the amount of nanoseconds spent decompressing the block or zero if it was sent raw.
+     */
+    default void onInboundDecompressed(long receivedBytes, long decompressedBytes, long decompressionNanos) {}
+
     /**
      * Handles the scheduled closure of the connection.
      * <p />
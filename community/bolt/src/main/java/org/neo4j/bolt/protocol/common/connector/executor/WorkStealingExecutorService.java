@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes tasks using a set of workers which each maintain their own task queue.
+ * <p />
+ * Every thread which submits tasks to this executor is assigned a fixed queue (and thus a preferred worker) upon its
+ * first submission. Since Bolt connections are scheduled from their respective network event loop (or the worker
+ * which previously executed them), jobs of a given connection will typically be executed by the same worker thus
+ * keeping its state cache-warm while distributing contention across multiple queues. Workers which run out of tasks
+ * within their own queue will steal tasks from the queues of other workers.
+ * <p />
+ * Additional workers which do not own a queue are started on demand when all workers are busy (e.g. when they are
+ * blocked within an explicit transaction) until the maximum pool size is reached. These workers are terminated once
+ * they have been idle for the configured keep alive duration.
+ */
+public class WorkStealingExecutorService extends AbstractExecutorService {
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+
+    private final int maxPoolSize;
+    private final long keepAliveNanos;
+    private final int queueSize;
+    private final ThreadFactory threadFactory;
+
+    private final ConcurrentLinkedDeque<Runnable>[] queues;
+    private final Worker[] owners;
+    private final AtomicInteger nextQueue = new AtomicInteger();
+    private final ThreadLocal<Integer> queueAffinity;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedDeque<Worker> idleWorkers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    private final Object stateLock = new Object();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile int state = RUNNING;
+
+    @SuppressWarnings("unchecked")
+    public WorkStealingExecutorService(
+            int corePoolSize, int maxPoolSize, long keepAliveNanos, int queueSize, ThreadFactory threadFactory) {
+        if (corePoolSize < 1 || maxPoolSize < corePoolSize) {
+            throw new IllegalArgumentException(
+                    String.format("Illegal pool size configuration: core=%d, max=%d", corePoolSize, maxPoolSize));
+        }
+
+        this.maxPoolSize = maxPoolSize;
+        this.keepAliveNanos = keepAliveNanos;
+        this.queueSize = queueSize;
+        this.threadFactory = threadFactory;
+
+        this.queues = new ConcurrentLinkedDeque[corePoolSize];
+        for (var i = 0; i < corePoolSize; ++i) {
+            this.queues[i] = new ConcurrentLinkedDeque<>();
+        }
+        this.owners = new Worker[corePoolSize];
+        this.queueAffinity =
+                ThreadLocal.withInitial(() -> Math.floorMod(this.nextQueue.getAndIncrement(), this.queues.length));
+
+        // core workers own a queue each and are started up front as they are never retired
+        for (var i = 0; i < corePoolSize; ++i) {
+            this.owners[i] = this.startWorker(i);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("command");
+        }
+        if (this.state != RUNNING) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+
+        var queueIndex = this.selectQueue();
+        var queue = this.queues[queueIndex];
+
+        queue.offerLast(command);
+        var pending = this.pendingTasks.incrementAndGet();
+
+        // the executor may have been shut down concurrently in which case there may be no worker left to pick up
+        // the task
+        if (this.state != RUNNING && queue.removeLastOccurrence(command)) {
+            this.pendingTasks.decrementAndGet();
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+
+        if (this.signal(queueIndex)) {
+            return;
+        }
+
+        // workers which are not currently executing a task (e.g. because they are just about to go idle) will pick up
+        // the task shortly, thus we'll only start additional workers when all existing workers are busy
+        var available = this.workerCount.get() - this.activeWorkers.get();
+        if (pending <= available || this.tryStartHelper()) {
+            return;
+        }
+
+        // the pool has reached its capacity - tasks are only permitted to remain queued up to the configured queue
+        // size in order to retain the rejection semantics of regular thread pools
+        if (this.queueSize != ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE
+                && pending > available + this.queueSize
+                && queue.removeLastOccurrence(command)) {
+            this.pendingTasks.decrementAndGet();
+            throw new RejectedExecutionException("No workers available to execute task");
+        }
+    }
+
+    private int selectQueue() {
+        // tasks submitted by workers which own a queue (e.g. connections which reschedule themselves) remain with
+        // their current worker
+        var worker = this.currentWorker.get();
+        if (worker != null && worker.queueIndex != Worker.NO_QUEUE) {
+            return worker.queueIndex;
+        }
+
+        return this.queueAffinity.get();
+    }
+
+    /**
+     * Wakes an idle worker in order to process a newly submitted task while preferring the owner of its queue.
+     *
+     * @param queueIndex the queue to which the task has been submitted.
+     * @return true if a worker has been signalled, false otherwise.
+     */
+    private boolean signal(int queueIndex) {
+        var owner = this.owners[queueIndex];
+        if (owner != null && owner.wake()) {
+            return true;
+        }
+
+        Worker worker;
+        while ((worker = this.idleWorkers.pollFirst()) != null) {
+            // workers which have been woken through their queue may still be listed here - they will list themselves
+            // again once they return to being idle
+            worker.listed.set(false);
+            if (worker.wake()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean tryStartHelper() {
+        int current;
+        do {
+            current = this.workerCount.get();
+            if (current >= this.maxPoolSize) {
+                return false;
+            }
+        } while (!this.workerCount.compareAndSet(current, current + 1));
+
+        this.startWorker(Worker.NO_QUEUE, false);
+        return true;
+    }
+
+    private Worker startWorker(int queueIndex) {
+        this.workerCount.incrementAndGet();
+        return this.startWorker(queueIndex, true);
+    }
+
+    private Worker startWorker(int queueIndex, boolean core) {
+        var worker = new Worker(queueIndex, core);
+        var thread = this.threadFactory.newThread(worker);
+        if (thread == null) {
+            this.onWorkerTerminated(worker);
+            throw new RejectedExecutionException("Thread factory failed to create worker thread");
+        }
+
+        worker.thread = thread;
+        this.workers.add(worker);
+        thread.start();
+        return worker;
+    }
+
+    private Runnable take(int queueIndex) {
+        Runnable task = null;
+        if (queueIndex != Worker.NO_QUEUE) {
+            task = this.queues[queueIndex].pollFirst();
+        }
+
+        if (task == null) {
+            // steal from the other queues beginning at a random offset in order to avoid all idle workers contending
+            // on the same queue
+            var offset = ThreadLocalRandom.current().nextInt(this.queues.length);
+            for (var i = 0; i < this.queues.length && task == null; ++i) {
+                var candidate = (offset + i) % this.queues.length;
+                if (candidate != queueIndex) {
+                    task = this.queues[candidate].pollFirst();
+                }
+            }
+        }
+
+        if (task != null) {
+            this.pendingTasks.decrementAndGet();
+        }
+        return task;
+    }
+
+    private void onWorkerTerminated(Worker worker) {
+        this.workers.remove(worker);
+        this.idleWorkers.remove(worker);
+
+        if (this.workerCount.decrementAndGet() == 0 && this.state != RUNNING) {
+            this.terminated.countDown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (this.stateLock) {
+            if (this.state == RUNNING) {
+                this.state = SHUTDOWN;
+            }
+        }
+
+        this.workers.forEach(Worker::wake);
+        this.tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        synchronized (this.stateLock) {
+            this.state = STOP;
+        }
+
+        var remaining = new ArrayList<Runnable>();
+        for (var queue : this.queues) {
+            Runnable task;
+            while ((task = queue.pollFirst()) != null) {
+                this.pendingTasks.decrementAndGet();
+                remaining.add(task);
+            }
+        }
+
+        this.workers.forEach(worker -> {
+            worker.wake();
+            worker.thread.interrupt();
+        });
+        this.tryTerminate();
+
+        return remaining;
+    }
+
+    private void tryTerminate() {
+        if (this.workerCount.get() == 0) {
+            this.terminated.countDown();
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.state != RUNNING;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.terminated.await(timeout, unit);
+    }
+
+    private final class Worker implements Runnable {
+        private static final int NO_QUEUE = -1;
+
+        private final int queueIndex;
+        private final boolean core;
+        private final AtomicBoolean idle = new AtomicBoolean();
+        private final AtomicBoolean listed = new AtomicBoolean();
+        private volatile Thread thread;
+
+        private Worker(int queueIndex, boolean core) {
+            this.queueIndex = queueIndex;
+            this.core = core;
+        }
+
+        /**
+         * Wakes this worker if it is currently idle.
+         *
+         * @return true if this worker has been idle and will pick up tasks, false otherwise.
+         */
+        private boolean wake() {
+            if (this.idle.compareAndSet(true, false)) {
+                LockSupport.unpark(this.thread);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            try {
+                this.runTasks();
+            } finally {
+                onWorkerTerminated(this);
+            }
+        }
+
+        private void runTasks() {
+            var idleSince = System.nanoTime();
+
+            while (state != STOP) {
+                var task = take(this.queueIndex);
+                if (task != null) {
+                    // ensure that we do not leak interrupts from previous tasks or shutdownNow into the next task
+                    Thread.interrupted();
+
+                    activeWorkers.incrementAndGet();
+                    try {
+                        task.run();
+                    } catch (Throwable ex) {
+                        // retain the worker (and thus its queue) when a task fails unexpectedly
+                        var thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+                    } finally {
+                        activeWorkers.decrementAndGet();
+                    }
+                    idleSince = System.nanoTime();
+                    continue;
+                }
+
+                if (state != RUNNING) {
+                    return;
+                }
+
+                // additional workers are retired once they have been idle for the configured keep alive duration
+                var remainingNanos = keepAliveNanos - (System.nanoTime() - idleSince);
+                if (!this.core && remainingNanos <= 0) {
+                    return;
+                }
+
+                this.idle.set(true);
+                if (this.listed.compareAndSet(false, true)) {
+                    idleWorkers.offerFirst(this);
+                }
+
+                // a task may have been submitted before we announced ourselves as idle, in which case nobody will
+                // signal us - check once more before parking
+                if (pendingTasks.get() == 0 && state == RUNNING) {
+                    if (this.core) {
+                        LockSupport.park(this);
+                    } else {
+                        LockSupport.parkNanos(this, remainingNanos);
+                    }
+                }
+
+                if (this.idle.compareAndSet(true, false) && idleWorkers.remove(this)) {
+                    this.listed.set(false);
+                }
+            }
+        }
+    }
+}
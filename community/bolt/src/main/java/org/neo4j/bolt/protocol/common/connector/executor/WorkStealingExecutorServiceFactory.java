@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates a work stealing executor service which retains the affinity of connections to their workers.
+ *
+ * @see WorkStealingExecutorService
+ */
+public class WorkStealingExecutorServiceFactory implements ExecutorServiceFactory {
+    private final int corePoolSize;
+    private final int maxPoolSize;
+    private final Duration keepAlive;
+
+    private final int queueSize;
+    private final ThreadFactory threadFactory;
+
+    public WorkStealingExecutorServiceFactory(
+            int corePoolSize, int maxPoolSize, Duration keepAlive, int queueSize, ThreadFactory threadFactory) {
+        this.corePoolSize = corePoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.keepAlive = keepAlive;
+        this.queueSize = queueSize;
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public ExecutorService create() {
+        if (this.queueSize < ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE) {
+            throw new IllegalArgumentException(
+                    String.format("Unsupported queue size %d for thread pool creation.", this.queueSize));
+        }
+
+        // each core worker owns a queue, thus at least one core worker is required to accept tasks
+        var corePoolSize = Math.max(1, this.corePoolSize);
+
+        return new WorkStealingExecutorService(
+                corePoolSize,
+                Math.max(corePoolSize, this.maxPoolSize),
+                this.keepAlive.toNanos(),
+                this.queueSize,
+                this.threadFactory);
+    }
+}
@@ -85,6 +85,16 @@ public class MetricsConnectorListener implements ConnectorListener, ConnectionLi
         this.monitor.messageProcessingFailed();
     }
 
+    @Override
+    public void onOutboundCompressed(long uncompressedBytes, long transmittedBytes, long compressionNanos) {
+        this.monitor.bytesCompressed(uncompressedBytes, transmittedBytes, compressionNanos);
+    }
+
+    @Override
+    public void onInboundDecompressed(long receivedBytes, long decompressedBytes, long decompressionNanos) {
+        this.monitor.bytesDecompressed(receivedBytes, decompressedBytes, decompressionNanos);
+    }
+
     @Override
     public void onClosed() {
         this.monitor.connectionClosed();
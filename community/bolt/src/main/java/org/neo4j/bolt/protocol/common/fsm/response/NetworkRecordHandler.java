@@ -21,12 +21,19 @@ package org.neo4j.bolt.protocol.common.fsm.response;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelPipeline;
 import io.netty.util.ReferenceCountUtil;
 import java.io.Closeable;
 import java.util.LinkedList;
 import java.util.List;
 import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.bolt.protocol.common.handler.ProtocolLoggingHandler;
 import org.neo4j.bolt.protocol.io.pipeline.PipelineContext;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceTable;
+import org.neo4j.packstream.codec.transport.ChunkFrameEncoder;
+import org.neo4j.packstream.codec.transport.ChunkedMessages;
+import org.neo4j.packstream.codec.transport.FrameSignalEncoder;
+import org.neo4j.packstream.codec.transport.WebSocketFramePackingEncoder;
 import org.neo4j.packstream.io.PackstreamBuf;
 import org.neo4j.packstream.signal.FrameSignal;
 import org.neo4j.packstream.struct.StructHeader;
@@ -39,16 +46,23 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
     private final int numberOfFields;
     private final int bufferSize;
     private final int flushThreshold;
+    private final EntityReferenceTable entityReferences;
 
     private PackstreamBuf buffer;
     private PipelineContext writerContext;
     private final List<ByteBuf> pendingMessages = new LinkedList<>();
 
+    // when framing is enabled, records are chunked and terminated within the buffer directly
+    private boolean framed;
+    private int messageOffset;
+    private int completedIndex;
+
     public NetworkRecordHandler(Connection connection, int numberOfFields, int bufferSize, int flushThreshold) {
         this.connection = connection;
         this.numberOfFields = numberOfFields;
         this.bufferSize = bufferSize;
         this.flushThreshold = flushThreshold;
+        this.entityReferences = new EntityReferenceTable(connection);
     }
 
     @Override
@@ -56,8 +70,19 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
         // if no buffer has been allocated yet (e.g. because a prior record was flushed or this is
         // the first record), we'll allocate a new instance
         if (this.buffer == null) {
-            this.buffer = PackstreamBuf.wrap(connection.channel().alloc().buffer(bufferSize));
-            this.writerContext = connection.writerContext(this.buffer);
+            var channel = this.connection.channel();
+
+            this.buffer = PackstreamBuf.wrap(channel.alloc().buffer(bufferSize));
+            this.writerContext = connection.writerContext(this.buffer, this.entityReferences);
+            this.framed = isFramingSupported(channel.pipeline());
+            this.completedIndex = 0;
+        }
+
+        if (this.framed) {
+            // reserve space for the chunk header as the length of the record is not known yet
+            var target = this.buffer.getTarget();
+            this.messageOffset = target.writerIndex();
+            target.writeShort(0);
         }
 
         this.buffer.writeStructHeader(new StructHeader(1, RECORD_TAG)).writeListHeader(this.numberOfFields);
@@ -72,8 +97,12 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
     public void onCompleted() {
         var buffer = this.buffer.getTarget();
 
-        this.pendingMessages.add(buffer.readRetainedSlice(buffer.readableBytes()));
-        buffer.markWriterIndex();
+        if (this.framed) {
+            this.frameMessage(buffer);
+        } else {
+            this.pendingMessages.add(buffer.readRetainedSlice(buffer.readableBytes()));
+            buffer.markWriterIndex();
+        }
 
         if (this.flushThreshold == 0 || this.buffer.getTarget().writerIndex() >= this.flushThreshold) {
             // if there is no flush threshold, or we have exceeded the configured amount, we'll flush
@@ -88,7 +117,37 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
         this.close();
     }
 
+    private void frameMessage(ByteBuf buffer) {
+        var length = buffer.writerIndex() - this.messageOffset - Short.BYTES;
+
+        if (length <= ChunkFrameEncoder.MAX_CHUNK_LENGTH) {
+            buffer.setShort(this.messageOffset, length);
+        } else {
+            // records which exceed the chunk length are rare, so we simply copy them and split them into multiple
+            // chunks instead of reserving space for additional chunk headers up front
+            var message = buffer.copy(this.messageOffset + Short.BYTES, length);
+            buffer.writerIndex(this.messageOffset);
+
+            try {
+                while (message.isReadable()) {
+                    var chunkLength = Math.min(ChunkFrameEncoder.MAX_CHUNK_LENGTH, message.readableBytes());
+                    buffer.writeShort(chunkLength).writeBytes(message, chunkLength);
+                }
+            } finally {
+                message.release();
+            }
+        }
+
+        buffer.writeShort(FrameSignal.MESSAGE_END.getTag());
+        this.completedIndex = buffer.writerIndex();
+    }
+
     private void writePending() {
+        if (this.framed) {
+            this.writeFramed();
+            return;
+        }
+
         // ensure that we release our copy of the buffer as all slices are retained separately
         // resulting in them not being released by netty upon write completion
         ReferenceCountUtil.release(this.buffer);
@@ -103,6 +162,22 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
         this.pendingMessages.clear();
     }
 
+    private void writeFramed() {
+        var buffer = this.buffer.getTarget();
+        this.buffer = null;
+
+        // discard any dangling record which has yet to be completed
+        buffer.writerIndex(this.completedIndex);
+
+        if (!buffer.isReadable()) {
+            buffer.release();
+            return;
+        }
+
+        // all pending records are passed to the pipeline at once as they have already been framed
+        this.connection.write(new ChunkedMessages(buffer)).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+    }
+
     private void flush() {
         this.writePending();
         this.connection.flush();
@@ -113,8 +188,24 @@ public class NetworkRecordHandler implements RecordHandler, Closeable {
         this.writerContext = null;
     }
 
+    /**
+     * Evaluates whether records may be framed directly within the record buffer.
+     * <p>
+     * WebSocket transports and raw protocol logging expect each message to be passed through the pipeline
+     * separately, thus requiring records to be written individually.
+     */
+    private static boolean isFramingSupported(ChannelPipeline pipeline) {
+        return pipeline.get(ChunkFrameEncoder.class) != null
+                && pipeline.get(FrameSignalEncoder.class) != null
+                && pipeline.get(WebSocketFramePackingEncoder.class) == null
+                && pipeline.get(ProtocolLoggingHandler.RAW_NAME) == null;
+    }
+
     @Override
     public void close() {
+        // entities are only referenced within the response which transmitted them
+        this.entityReferences.close();
+
         if (this.buffer == null) {
             return;
         }
@@ -25,6 +25,7 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceTable;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.TextArray;
 import org.neo4j.values.storable.TextValue;
@@ -34,6 +35,13 @@ import org.neo4j.values.virtual.RelationshipValue;
 
 public interface WriterContext extends PipelineContext {
 
+    /**
+     * Retrieves the table of entities which have been transmitted within the current response.
+     *
+     * @return a reference table or null if entities shall not be referenced within this context.
+     */
+    EntityReferenceTable entityReferences();
+
     void firePoint(CoordinateReferenceSystem crs, double[] coords);
 
     void fireDuration(long months, long days, long seconds, int nanos);
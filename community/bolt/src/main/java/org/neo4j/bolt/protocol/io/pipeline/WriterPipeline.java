@@ -28,6 +28,7 @@ import java.time.ZonedDateTime;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.bolt.protocol.io.writer.EntityReferenceTable;
 import org.neo4j.bolt.protocol.io.writer.StructWriter;
 import org.neo4j.packstream.io.PackstreamBuf;
 import org.neo4j.values.AnyValue;
@@ -50,7 +51,11 @@ public class WriterPipeline {
     }
 
     public PipelineContext forBuffer(PackstreamBuf buf) {
-        return new Context(buf);
+        return this.forBuffer(buf, null);
+    }
+
+    public PipelineContext forBuffer(PackstreamBuf buf, EntityReferenceTable entityReferences) {
+        return new Context(buf, entityReferences);
     }
 
     public WriterPipeline addLast(StructWriter writer) {
@@ -189,12 +194,14 @@ public class WriterPipeline {
     private class Context implements WriterContext {
         private final PackstreamBuf buf;
         private final PipelineAnyValueWriter valueWriter;
+        private final EntityReferenceTable entityReferences;
 
         private ChainElement current;
 
-        public Context(PackstreamBuf buf) {
+        public Context(PackstreamBuf buf, EntityReferenceTable entityReferences) {
             this.buf = buf;
             this.valueWriter = new PipelineAnyValueWriter(buf, this);
+            this.entityReferences = entityReferences;
         }
 
         @Override
@@ -207,6 +214,11 @@ public class WriterPipeline {
             return this.buf;
         }
 
+        @Override
+        public EntityReferenceTable entityReferences() {
+            return this.entityReferences;
+        }
+
         private void fire(String eventName, Consumer<StructWriter> consumer) {
             var prev = this.current;
             var next = prev.next;
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.io.writer;
+
+import java.util.Objects;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.neo4j.bolt.BoltServer;
+import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.memory.HeapEstimator;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.TextArray;
+import org.neo4j.values.virtual.MapValue;
+
+/**
+ * Keeps track of the nodes and relationships which have been transmitted in full within a given response.
+ * <p />
+ * Every node and relationship which is transmitted in full is assigned a consecutive index. Entities which are
+ * encountered again within the same response may be replaced with a reference to this index as long as their state
+ * has not changed in the meantime. Only the first {@link #DEFAULT_CAPACITY} entities of each kind are retained in
+ * order to limit the amount of memory consumed by a given response.
+ * <p />
+ * Tables are confined to the thread which produces the records of a response and are thus not thread safe.
+ */
+public final class EntityReferenceTable implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY =
+            FeatureToggles.getInteger(BoltServer.class, "max_entity_references", 4096);
+
+    public static final int NO_REFERENCE = -1;
+
+    private static final long ENTRY_SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance(Entry.class);
+
+    private final Connection connection;
+    private final int capacity;
+
+    private MutableLongObjectMap<Entry> nodes;
+    private MutableLongObjectMap<Entry> relationships;
+    private int nextIndex;
+    private long allocatedHeap;
+
+    public EntityReferenceTable(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+    }
+
+    public EntityReferenceTable(Connection connection) {
+        this(connection, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Retrieves the index of a previously transmitted node.
+     *
+     * @param nodeId a node identifier.
+     * @param labels the labels of the node.
+     * @param properties the properties of the node.
+     * @param isDeleted true if the node has been deleted.
+     * @return an index or {@link #NO_REFERENCE} if the node has not been transmitted in this exact state.
+     */
+    public int findNode(long nodeId, TextArray labels, MapValue properties, boolean isDeleted) {
+        if (this.nodes == null) {
+            return NO_REFERENCE;
+        }
+
+        var entry = this.nodes.get(nodeId);
+        if (entry == null || !entry.matches(labels, properties, isDeleted)) {
+            return NO_REFERENCE;
+        }
+
+        return entry.index;
+    }
+
+    /**
+     * Retrieves the index of a previously transmitted relationship.
+     *
+     * @param relationshipId a relationship identifier.
+     * @param properties the properties of the relationship.
+     * @param isDeleted true if the relationship has been deleted.
+     * @return an index or {@link #NO_REFERENCE} if the relationship has not been transmitted in this exact state.
+     */
+    public int findRelationship(long relationshipId, MapValue properties, boolean isDeleted) {
+        if (this.relationships == null) {
+            return NO_REFERENCE;
+        }
+
+        var entry = this.relationships.get(relationshipId);
+        if (entry == null || !entry.matches(null, properties, isDeleted)) {
+            return NO_REFERENCE;
+        }
+
+        return entry.index;
+    }
+
+    /**
+     * Registers a node which has been transmitted in full.
+     *
+     * @param nodeId a node identifier.
+     * @param labels the labels of the node.
+     * @param properties the properties of the node.
+     * @param isDeleted true if the node has been deleted.
+     */
+    public void registerNode(long nodeId, TextArray labels, MapValue properties, boolean isDeleted) {
+        if (this.nodes == null) {
+            this.nodes = new LongObjectHashMap<>();
+        }
+
+        this.register(this.nodes, nodeId, labels, properties, isDeleted);
+    }
+
+    /**
+     * Registers a relationship which has been transmitted in full.
+     *
+     * @param relationshipId a relationship identifier.
+     * @param properties the properties of the relationship.
+     * @param isDeleted true if the relationship has been deleted.
+     */
+    public void registerRelationship(long relationshipId, MapValue properties, boolean isDeleted) {
+        if (this.relationships == null) {
+            this.relationships = new LongObjectHashMap<>();
+        }
+
+        this.register(this.relationships, relationshipId, null, properties, isDeleted);
+    }
+
+    private void register(
+            MutableLongObjectMap<Entry> entries, long id, TextArray labels, MapValue properties, boolean isDeleted) {
+        // every entity which is transmitted in full occupies an index on the client side regardless of whether we
+        // are capable of retaining it here
+        var index = this.nextIndex++;
+
+        // entities which have been modified since their last transmission replace their previous entry as their prior
+        // state will no longer be referenced
+        var previous = entries.get(id);
+        if (previous == null && entries.size() >= this.capacity) {
+            return;
+        }
+
+        long heapUsage = ENTRY_SHALLOW_SIZE + properties.estimatedHeapUsage();
+        if (labels != null) {
+            heapUsage += labels.estimatedHeapUsage();
+        }
+
+        var memoryTracker = this.connection.memoryTracker();
+        memoryTracker.allocateHeap(heapUsage);
+        this.allocatedHeap += heapUsage;
+
+        if (previous != null) {
+            memoryTracker.releaseHeap(previous.heapUsage);
+            this.allocatedHeap -= previous.heapUsage;
+        }
+
+        entries.put(id, new Entry(index, labels, properties, isDeleted, heapUsage));
+    }
+
+    @Override
+    public void close() {
+        this.nodes = null;
+        this.relationships = null;
+
+        if (this.allocatedHeap != 0) {
+            this.connection.memoryTracker().releaseHeap(this.allocatedHeap);
+            this.allocatedHeap = 0;
+        }
+    }
+
+    private static final class Entry {
+        private final int index;
+        private final TextArray labels;
+        private final MapValue properties;
+        private final boolean isDeleted;
+        private final long heapUsage;
+
+        Entry(int index, TextArray labels, MapValue properties, boolean isDeleted, long heapUsage) {
+            this.index = index;
+            this.labels = labels;
+            this.properties = properties;
+            this.isDeleted = isDeleted;
+            this.heapUsage = heapUsage;
+        }
+
+        boolean matches(TextArray labels, MapValue properties, boolean isDeleted) {
+            return this.isDeleted == isDeleted
+                    && Objects.equals(this.labels, labels)
+                    && this.properties.equals(properties);
+        }
+    }
+}
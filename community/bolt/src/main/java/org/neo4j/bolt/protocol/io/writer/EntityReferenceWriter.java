@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.io.writer;
+
+import static org.neo4j.bolt.protocol.io.StructType.ENTITY_REFERENCE;
+
+import org.neo4j.bolt.protocol.io.pipeline.WriterContext;
+import org.neo4j.values.storable.TextArray;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.virtual.MapValue;
+
+/**
+ * Replaces nodes and relationships which have previously been transmitted within the same response with a reference
+ * to their index.
+ * <p />
+ * This writer implementation is present on connections which negotiated support for the entity references feature.
+ * Values which are written outside of records (e.g. as part of response metadata) are always transmitted in full.
+ *
+ * @see EntityReferenceTable
+ */
+public final class EntityReferenceWriter implements StructWriter {
+    private static final EntityReferenceWriter INSTANCE = new EntityReferenceWriter();
+
+    private EntityReferenceWriter() {}
+
+    public static StructWriter getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void writeNode(
+            WriterContext ctx,
+            String elementId,
+            long nodeId,
+            TextArray labels,
+            MapValue properties,
+            boolean isDeleted) {
+        var references = ctx.entityReferences();
+        if (references == null) {
+            ctx.fireNode(elementId, nodeId, labels, properties, isDeleted);
+            return;
+        }
+
+        var index = references.findNode(nodeId, labels, properties, isDeleted);
+        if (index != EntityReferenceTable.NO_REFERENCE) {
+            writeReference(ctx, index);
+            return;
+        }
+
+        ctx.fireNode(elementId, nodeId, labels, properties, isDeleted);
+        references.registerNode(nodeId, labels, properties, isDeleted);
+    }
+
+    @Override
+    public void writeRelationship(
+            WriterContext ctx,
+            String elementId,
+            long relId,
+            String startNodeElementId,
+            long startNodeId,
+            String endNodeElementId,
+            long endNodeId,
+            TextValue type,
+            MapValue properties,
+            boolean isDeleted) {
+        var references = ctx.entityReferences();
+        if (references == null) {
+            ctx.fireRelationship(
+                    elementId,
+                    relId,
+                    startNodeElementId,
+                    startNodeId,
+                    endNodeElementId,
+                    endNodeId,
+                    type,
+                    properties,
+                    isDeleted);
+            return;
+        }
+
+        var index = references.findRelationship(relId, properties, isDeleted);
+        if (index != EntityReferenceTable.NO_REFERENCE) {
+            writeReference(ctx, index);
+            return;
+        }
+
+        ctx.fireRelationship(
+                elementId,
+                relId,
+                startNodeElementId,
+                startNodeId,
+                endNodeElementId,
+                endNodeId,
+                type,
+                properties,
+                isDeleted);
+        references.registerRelationship(relId, properties, isDeleted);
+    }
+
+    private static void writeReference(WriterContext ctx, int index) {
+        ENTITY_REFERENCE.writeHeader(ctx);
+        ctx.buffer().writeInt(index);
+    }
+}
@@ -95,6 +95,14 @@ public interface Transaction {
      */
     Optional<Statement> getStatement(long id);
 
+    /**
+     * Produces a batch of results of the latest statement ahead of time.
+     *
+     * @return true if further results may be prefetched, false otherwise.
+     * @see Statement#prefetch()
+     */
+    boolean prefetch();
+
     /**
      * Commits the transaction in its current state and returns a bookmark which refers to the applied
      * changes.
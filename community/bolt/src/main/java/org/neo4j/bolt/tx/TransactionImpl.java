@@ -46,6 +46,8 @@ import org.neo4j.bolt.tx.statement.StatementQuerySubscriber;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.database.DatabaseReference;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 public class TransactionImpl implements Transaction {
@@ -54,6 +56,8 @@ public class TransactionImpl implements Transaction {
     private final DatabaseReference database;
     private final Clock clock;
     private final BoltTransaction transaction;
+    private final int prefetchSize;
+    private final MemoryTracker memoryTracker;
     private final AtomicReference<State> state = new AtomicReference<>(State.OPEN);
     private final AtomicBoolean interrupted = new AtomicBoolean();
     private final EventPublisher<Listener> eventPublisher = new CopyOnWriteEventPublisher<>();
@@ -70,11 +74,28 @@ public class TransactionImpl implements Transaction {
 
     public TransactionImpl(
             String id, TransactionType type, DatabaseReference database, Clock clock, BoltTransaction transaction) {
+        this(id, type, database, clock, transaction, 0, EmptyMemoryTracker.INSTANCE);
+    }
+
+    /**
+     * @param prefetchSize maximum number of records to produce ahead of time or zero to disable prefetching.
+     * @param memoryTracker a memory tracker which accounts for prefetched records.
+     */
+    public TransactionImpl(
+            String id,
+            TransactionType type,
+            DatabaseReference database,
+            Clock clock,
+            BoltTransaction transaction,
+            int prefetchSize,
+            MemoryTracker memoryTracker) {
         this.id = id;
         this.type = type;
         this.database = database;
         this.clock = clock;
         this.transaction = transaction;
+        this.prefetchSize = prefetchSize;
+        this.memoryTracker = memoryTracker;
     }
 
     @Override
@@ -123,7 +144,8 @@ public class TransactionImpl implements Transaction {
         } catch (Exception ex) {
             throw new StatementExecutionException("Failed to execute query in transaction \"" + this.id + "\"", ex);
         }
-        var handle = new StatementImpl(statementId, this.database, this.clock, query, subscriber);
+        var handle = new StatementImpl(
+                statementId, this.database, this.clock, query, subscriber, this.prefetchSize, this.memoryTracker);
 
         // register a lifecycle listener with the new statement to ensure that we are notified once
         // the statement is closed by its owner
@@ -149,6 +171,23 @@ public class TransactionImpl implements Transaction {
         }
     }
 
+    @Override
+    public boolean prefetch() {
+        if (this.prefetchSize == 0) {
+            return false;
+        }
+
+        Statement statement;
+        this.statementLock.lock();
+        try {
+            statement = this.statementMap.get(this.latestStatementId);
+        } finally {
+            this.statementLock.unlock();
+        }
+
+        return statement != null && statement.prefetch();
+    }
+
     @Override
     public Bookmark commit() throws TransactionException {
         var updatedValue = this.state.compareAndExchange(State.OPEN, State.COMMITTED);
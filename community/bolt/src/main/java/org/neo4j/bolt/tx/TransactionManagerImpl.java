@@ -42,14 +42,25 @@ import org.neo4j.kernel.impl.query.QueryExecutionConfiguration;
 public class TransactionManagerImpl implements TransactionManager {
     private final BoltGraphDatabaseManagementServiceSPI graphDatabaseManagementService;
     private final Clock clock;
+    private final int resultPrefetchSize;
     private final AtomicLong nextTransactionId = new AtomicLong(1);
 
     private final Map<String, Transaction> transactionMap = new ConcurrentHashMap<>();
     private final CleanupListener cleanupListener = new CleanupListener();
 
     public TransactionManagerImpl(BoltGraphDatabaseManagementServiceSPI graphDatabaseManagementService, Clock clock) {
+        this(graphDatabaseManagementService, clock, 0);
+    }
+
+    /**
+     * @param resultPrefetchSize maximum number of records to produce ahead of time per statement or zero to disable
+     *                           prefetching.
+     */
+    public TransactionManagerImpl(
+            BoltGraphDatabaseManagementServiceSPI graphDatabaseManagementService, Clock clock, int resultPrefetchSize) {
         this.graphDatabaseManagementService = graphDatabaseManagementService;
         this.clock = clock;
+        this.resultPrefetchSize = resultPrefetchSize;
     }
 
     @Override
@@ -86,9 +97,11 @@ public class TransactionManagerImpl implements TransactionManager {
                     case IMPLICIT -> Type.IMPLICIT;
                 };
 
+        var memoryTracker = owner.memoryTracker();
+
         BoltGraphDatabaseServiceSPI databaseService;
         try {
-            databaseService = this.graphDatabaseManagementService.database(db, owner.memoryTracker());
+            databaseService = this.graphDatabaseManagementService.database(db, memoryTracker);
         } catch (DatabaseNotFoundException ex) {
             throw new NoSuchDatabaseTransactionCreationException(db, ex);
         } catch (UnavailableException ex) {
@@ -107,7 +120,14 @@ public class TransactionManagerImpl implements TransactionManager {
                 owner.routingContext(),
                 QueryExecutionConfiguration.DEFAULT_CONFIG); // todo This is where notification impl goes.
 
-        var handle = new TransactionImpl(id, type, databaseService.getDatabaseReference(), this.clock, tx);
+        var handle = new TransactionImpl(
+                id,
+                type,
+                databaseService.getDatabaseReference(),
+                this.clock,
+                tx,
+                this.resultPrefetchSize,
+                memoryTracker);
         handle.registerListener(this.cleanupListener);
 
         this.transactionMap.put(id, handle);
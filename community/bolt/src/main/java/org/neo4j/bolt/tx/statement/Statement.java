@@ -81,6 +81,17 @@ public interface Statement {
      */
     void discard(ResponseHandler responseHandler, long n) throws StatementException;
 
+    /**
+     * Produces a batch of results ahead of time in order to overlap their execution with the transmission of
+     * previously consumed results.
+     * <p />
+     * Prefetched results are passed on by subsequent calls to {@link #consume(ResponseHandler, long)} and
+     * {@link #discard(ResponseHandler, long)}.
+     *
+     * @return true if further results may be prefetched, false otherwise.
+     */
+    boolean prefetch();
+
     /**
      * Terminates this statement.
      */
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.tx.statement;
 
 import java.time.Clock;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -43,6 +44,9 @@ import org.neo4j.graphdb.QueryExecutionType;
 import org.neo4j.graphdb.QueryExecutionType.QueryType;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.kernel.database.DatabaseReference;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.HeapEstimator;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.AnyValue;
 
 public class StatementImpl implements Statement {
@@ -55,6 +59,8 @@ public class StatementImpl implements Statement {
     private final StatementQuerySubscriber subscriber;
     private final BoltQueryExecution execution;
     private final EventPublisher<Statement.Listener> eventPublisher = new CopyOnWriteEventPublisher<>();
+    private final int prefetchSize;
+    private final MemoryTracker memoryTracker;
 
     /**
      * Provides a lock which safeguards consumption of results on this statement.
@@ -77,17 +83,45 @@ public class StatementImpl implements Statement {
     private final List<String> fieldNames;
     private QueryStatistics statistics;
 
+    /**
+     * Stores records which have been produced ahead of time along with the heap they occupy.
+     * <p />
+     * Guarded by the execution lock.
+     */
+    private final ArrayDeque<PrefetchedRecord> prefetchedRecords = new ArrayDeque<>();
+
+    private long prefetchedHeap;
+    private boolean prefetchExhausted;
+    private Exception prefetchFailure;
+
     public StatementImpl(
             long id,
             DatabaseReference database,
             Clock clock,
             BoltQueryExecution execution,
             StatementQuerySubscriber subscriber) {
+        this(id, database, clock, execution, subscriber, 0, EmptyMemoryTracker.INSTANCE);
+    }
+
+    /**
+     * @param prefetchSize maximum number of records to produce ahead of time or zero to disable prefetching.
+     * @param memoryTracker a memory tracker which accounts for prefetched records.
+     */
+    public StatementImpl(
+            long id,
+            DatabaseReference database,
+            Clock clock,
+            BoltQueryExecution execution,
+            StatementQuerySubscriber subscriber,
+            int prefetchSize,
+            MemoryTracker memoryTracker) {
         this.id = id;
         this.database = database;
         this.clock = clock;
         this.execution = execution;
         this.subscriber = subscriber;
+        this.prefetchSize = prefetchSize;
+        this.memoryTracker = memoryTracker;
 
         this.fieldNames = Arrays.asList(execution.getQueryExecution().fieldNames());
     }
@@ -131,23 +165,29 @@ public class StatementImpl implements Statement {
         this.executionLock.lock();
         try {
             var recordHandler = responseHandler.onBeginStreaming(this.fieldNames);
-            this.subscriber.setHandler(recordHandler);
 
             long start = this.clock.millis();
             var query = this.execution.getQueryExecution();
 
+            // records which have been produced ahead of time are passed on first, leaving only the remainder to be
+            // requested from the query
+            var outstanding = this.replayPrefetched(recordHandler, n == -1 ? Long.MAX_VALUE : n);
+            this.subscriber.setHandler(recordHandler);
+
             // if the caller requested for all possible results to be streamed within a single operation,
             // we'll just loop until the query indicates that no more data is available
             // TODO: Is this also -1 in protocol? Why?!?
             if (n == -1) {
                 try {
-                    boolean remaining;
-                    do {
+                    this.assertPrefetchSuccess();
+
+                    boolean remaining = !this.prefetchExhausted;
+                    while (remaining) {
                         query.request(DEFAULT_BATCH_SIZE);
                         remaining = query.await();
 
                         this.subscriber.assertSuccess();
-                    } while (remaining);
+                    }
                 } catch (Exception ex) {
                     throw new StatementStreamingException("Failed to consume all statement results", ex);
                 }
@@ -162,10 +202,24 @@ public class StatementImpl implements Statement {
                 // otherwise we'll request the specific amount of results requested
                 boolean remaining;
                 try {
-                    query.request(n);
-                    remaining = query.await();
-
-                    this.subscriber.assertSuccess();
+                    if (outstanding == 0 && !this.prefetchedRecords.isEmpty()) {
+                        // failures encountered while prefetching are only surfaced once all records produced prior
+                        // to them have been consumed
+                        remaining = true;
+                    } else {
+                        this.assertPrefetchSuccess();
+
+                        if (this.prefetchExhausted) {
+                            remaining = false;
+                        } else if (outstanding == 0) {
+                            remaining = true;
+                        } else {
+                            query.request(outstanding);
+                            remaining = query.await();
+
+                            this.subscriber.assertSuccess();
+                        }
+                    }
                 } catch (Exception ex) {
                     throw new StatementStreamingException("Failed to consume statement results", ex);
                 }
@@ -209,6 +263,7 @@ public class StatementImpl implements Statement {
             // simply terminate it
             if (n == -1 && query.executionType().queryType() == QueryType.READ_ONLY) {
                 responseHandler.onBeginStreaming(this.fieldNames);
+                this.releasePrefetched();
 
                 try {
                     query.cancel();
@@ -232,6 +287,94 @@ public class StatementImpl implements Statement {
         }
     }
 
+    @Override
+    public boolean prefetch() {
+        if (this.prefetchSize == 0 || this.state.get() != State.RUNNING) {
+            return false;
+        }
+
+        // never wait for an ongoing consumption as there will be no need to prefetch results once it completes
+        if (!this.executionLock.tryLock()) {
+            return false;
+        }
+
+        try {
+            var outstanding = this.prefetchSize - this.prefetchedRecords.size();
+            if (outstanding <= 0
+                    || this.prefetchExhausted
+                    || this.prefetchFailure != null
+                    || this.subscriber.getPendingException() != null) {
+                return false;
+            }
+
+            // queries with side effects are only ever executed on request of the client
+            var query = this.execution.getQueryExecution();
+            if (query.executionType().queryType() != QueryType.READ_ONLY) {
+                return false;
+            }
+
+            long start = this.clock.millis();
+            this.subscriber.setHandler(new PrefetchingRecordHandler());
+            try {
+                query.request(outstanding);
+                this.prefetchExhausted = !query.await();
+            } catch (Exception ex) {
+                // failures are surfaced once the client requests the records which were supposed to be prefetched
+                this.prefetchFailure = ex;
+                return false;
+            } finally {
+                this.subscriber.setHandler(null);
+                this.timeSpentStreaming += this.clock.millis() - start;
+            }
+
+            return !this.prefetchExhausted
+                    && this.subscriber.getPendingException() == null
+                    && this.prefetchedRecords.size() < this.prefetchSize;
+        } finally {
+            this.executionLock.unlock();
+        }
+    }
+
+    /**
+     * Passes up to {@code n} prefetched records to a given record handler.
+     *
+     * @param handler a record handler.
+     * @param n a maximum number of records to pass.
+     * @return the number of records which remain to be requested from the query.
+     */
+    private long replayPrefetched(RecordHandler handler, long n) {
+        var remaining = n;
+        while (remaining != 0 && !this.prefetchedRecords.isEmpty()) {
+            var record = this.prefetchedRecords.pollFirst();
+
+            handler.onBegin();
+            for (var value : record.fields()) {
+                handler.onField(value);
+            }
+            handler.onCompleted();
+
+            this.prefetchedHeap -= record.estimatedHeapUsage();
+            this.memoryTracker.releaseHeap(record.estimatedHeapUsage());
+            --remaining;
+        }
+
+        return remaining;
+    }
+
+    private void assertPrefetchSuccess() throws Exception {
+        if (this.prefetchFailure != null) {
+            throw this.prefetchFailure;
+        }
+
+        this.subscriber.assertSuccess();
+    }
+
+    private void releasePrefetched() {
+        this.prefetchedRecords.clear();
+        this.memoryTracker.releaseHeap(this.prefetchedHeap);
+        this.prefetchedHeap = 0;
+    }
+
     private void complete(ResponseHandler handler, QueryStatistics statistics) {
         this.statistics = statistics;
 
@@ -320,6 +463,7 @@ public class StatementImpl implements Statement {
         // is still consuming results
         this.executionLock.lock();
         try {
+            this.releasePrefetched();
             this.execution.close();
         } finally {
             this.executionLock.unlock();
@@ -341,6 +485,47 @@ public class StatementImpl implements Statement {
         this.eventPublisher.removeListener(listener);
     }
 
+    private record PrefetchedRecord(AnyValue[] fields, long estimatedHeapUsage) {}
+
+    /**
+     * Buffers records produced ahead of time until they are requested by the client.
+     */
+    private final class PrefetchingRecordHandler implements RecordHandler {
+        private AnyValue[] fields;
+        private int offset;
+
+        @Override
+        public void onBegin() {
+            this.fields = new AnyValue[fieldNames.size()];
+            this.offset = 0;
+        }
+
+        @Override
+        public void onField(AnyValue value) {
+            this.fields[this.offset++] = value;
+        }
+
+        @Override
+        public void onCompleted() {
+            var heapUsage = HeapEstimator.shallowSizeOfObjectArray(this.fields.length);
+            for (var value : this.fields) {
+                heapUsage += value.estimatedHeapUsage();
+            }
+
+            memoryTracker.allocateHeap(heapUsage);
+            prefetchedHeap += heapUsage;
+            prefetchedRecords.addLast(new PrefetchedRecord(this.fields, heapUsage));
+
+            this.fields = null;
+        }
+
+        @Override
+        public void onFailure() {
+            // discard the partial record as the failure will be surfaced once all prior records have been consumed
+            this.fields = null;
+        }
+    }
+
     static final class DiscardingRecordConsumer implements ResponseHandler {
         private final ResponseHandler delegate;
 
@@ -36,7 +36,7 @@ public class ChunkFrameEncoder extends MessageToByteEncoder<ByteBuf> {
      * <p>
      * When a message surpasses this length limitation, it will be separated into multiple chunks.
      */
-    private static final int MAX_CHUNK_LENGTH = (1 << 16) - 1;
+    public static final int MAX_CHUNK_LENGTH = (1 << 16) - 1;
 
     private final int limit;
 
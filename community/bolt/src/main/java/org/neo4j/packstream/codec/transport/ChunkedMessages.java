@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.packstream.codec.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * Encapsulates a buffer of one or more complete messages which have already been split into chunks and terminated
+ * with their respective end of message markers.
+ * <p>
+ * Chunked messages are passed through {@link ChunkFrameEncoder} as-is and are unwrapped by
+ * {@link FrameSignalEncoder} thus permitting producers to write large numbers of messages with a single write.
+ */
+public class ChunkedMessages extends DefaultByteBufHolder {
+
+    public ChunkedMessages(ByteBuf data) {
+        super(data);
+    }
+
+    @Override
+    public ChunkedMessages replace(ByteBuf content) {
+        return new ChunkedMessages(content);
+    }
+}
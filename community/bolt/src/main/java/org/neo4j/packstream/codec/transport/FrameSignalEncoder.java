@@ -62,6 +62,14 @@ public class FrameSignalEncoder extends MessageToByteEncoder<FrameSignal> {
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        // pre-chunked messages are always terminated and thus leave the connection in a clean state
+        if (msg instanceof ChunkedMessages messages) {
+            this.dirty = false;
+
+            ctx.write(messages.content(), promise);
+            return;
+        }
+
         // connection is assumed dirty when one of the prior handlers writes any sort of data to the wire as this
         // handler is typically followed directly by a
         // chunk encoder
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.DecompressionException;
+import java.nio.charset.StandardCharsets;
+import net.jpountz.lz4.LZ4Factory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.bolt.testing.mock.ConnectionMockFactory;
+
+class CompressionDecoderTest {
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void prepare() {
+        this.channel = new EmbeddedChannel(
+                new CompressionDecoder(ConnectionMockFactory.newFactory().build()));
+    }
+
+    @Test
+    void shouldDecodeRawBlocks() {
+        this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[] {0x00, 0x02, 0x00, 0x42, 0x43}));
+
+        ByteBuf block = this.channel.readInbound();
+
+        assertThat(ByteBufUtil.getBytes(block)).containsExactly(0x42, 0x43);
+        block.release();
+    }
+
+    @Test
+    void shouldSkipEmptyBlocks() {
+        this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[] {0x00, 0x00, 0x00, 0x01, 0x00, 0x42}));
+
+        ByteBuf block = this.channel.readInbound();
+
+        assertThat(ByteBufUtil.getBytes(block)).containsExactly(0x42);
+        assertThat(this.channel.<Object>readInbound()).isNull();
+        block.release();
+    }
+
+    @Test
+    void shouldDecodeCompressedBlocks() {
+        var payload = "Neo4j".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+        var compressed = LZ4Factory.fastestInstance().fastCompressor().compress(payload);
+
+        var buf = Unpooled.buffer()
+                .writeShort(compressed.length)
+                .writeByte(CompressionDecoder.COMPRESSED_FLAG)
+                .writeShort(payload.length)
+                .writeBytes(compressed);
+
+        // deliver the block in two parts in order to ensure that partial blocks are awaited
+        this.channel.writeInbound(buf.readRetainedSlice(10));
+        assertThat(this.channel.<Object>readInbound()).isNull();
+        this.channel.writeInbound(buf);
+
+        ByteBuf block = this.channel.readInbound();
+
+        assertThat(ByteBufUtil.getBytes(block)).isEqualTo(payload);
+        block.release();
+    }
+
+    @Test
+    void shouldRejectIllegalFlags() {
+        assertThatThrownBy(() -> this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[] {0x00, 0x01, 0x7F, 0x42})))
+                .isInstanceOf(DecompressionException.class);
+    }
+
+    @Test
+    void shouldRejectMalformedBlocks() {
+        var buf = Unpooled.buffer()
+                .writeShort(4)
+                .writeByte(CompressionDecoder.COMPRESSED_FLAG)
+                .writeShort(1_000)
+                .writeInt(0xFFFFFFFF);
+
+        assertThatThrownBy(() -> this.channel.writeInbound(buf)).isInstanceOf(DecompressionException.class);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.neo4j.bolt.protocol.common.connector.connection.Connection;
+import org.neo4j.bolt.protocol.common.signal.StateSignal;
+import org.neo4j.bolt.testing.mock.ConnectionMockFactory;
+
+class CompressionEncoderTest {
+
+    private Connection connection;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void prepare() {
+        this.connection = ConnectionMockFactory.newFactory().build();
+        this.channel = new EmbeddedChannel(new CompressionEncoder(this.connection, 64));
+    }
+
+    @Test
+    void shouldPassDataUntilHandshakeCompletes() {
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(new byte[] {0x00, 0x02, 0x42, 0x43, 0x00, 0x00}));
+
+        ByteBuf buf = this.channel.readOutbound();
+
+        assertThat(buf.readUnsignedShort()).isEqualTo(2);
+        assertThat(buf.readByte()).isEqualTo((byte) 0x42);
+        assertThat(buf.readByte()).isEqualTo((byte) 0x43);
+        assertThat(buf.readUnsignedShort()).isZero();
+        assertThat(buf.isReadable()).isFalse();
+
+        buf.release();
+    }
+
+    @Test
+    void shouldWriteSmallBlocksRaw() {
+        this.completeHandshake();
+
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(new byte[] {0x42, 0x43}));
+
+        var buf = this.readAllOutbound();
+
+        assertThat(buf.readUnsignedShort()).isEqualTo(2);
+        assertThat(buf.readUnsignedByte()).isEqualTo((short) CompressionDecoder.RAW_FLAG);
+        assertThat(buf.readByte()).isEqualTo((byte) 0x42);
+        assertThat(buf.readByte()).isEqualTo((byte) 0x43);
+        assertThat(buf.isReadable()).isFalse();
+
+        buf.release();
+    }
+
+    @Test
+    void shouldCompressLargeBlocks() {
+        this.completeHandshake();
+
+        var payload = "Neo4j".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(payload));
+
+        var buf = this.readAllOutbound();
+
+        var length = buf.readUnsignedShort();
+        assertThat(length).isLessThan(payload.length);
+        assertThat(buf.readUnsignedByte()).isEqualTo((short) CompressionDecoder.COMPRESSED_FLAG);
+        assertThat(buf.readUnsignedShort()).isEqualTo(payload.length);
+        assertThat(buf.readableBytes()).isEqualTo(length);
+
+        buf.release();
+
+        Mockito.verify(this.connection).notifyListeners(Mockito.any());
+    }
+
+    @Test
+    void shouldRoundTripThroughDecoder() {
+        this.completeHandshake();
+
+        var payload = new byte[200_000];
+        for (var i = 0; i < payload.length; ++i) {
+            payload[i] = (byte) (i % 7 == 0 ? i : i % 13);
+        }
+
+        // split the payload into multiple writes which cross block boundaries
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(payload, 0, 100_000));
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(payload, 100_000, 99_999));
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(payload, 199_999, 1));
+
+        var decoder = new EmbeddedChannel(new CompressionDecoder(this.connection));
+        decoder.writeInbound(this.readAllOutbound());
+
+        var decoded = Unpooled.buffer();
+        ByteBuf block;
+        while ((block = decoder.readInbound()) != null) {
+            decoded.writeBytes(block);
+            block.release();
+        }
+
+        assertThat(ByteBufUtil.getBytes(decoded)).isEqualTo(payload);
+    }
+
+    private void completeHandshake() {
+        this.channel.writeOutbound(StateSignal.END_JOB_PROCESSING);
+
+        assertThat(this.channel.<Object>readOutbound()).isSameAs(StateSignal.END_JOB_PROCESSING);
+    }
+
+    private ByteBuf readAllOutbound() {
+        var buf = Unpooled.buffer();
+
+        ByteBuf msg;
+        while ((msg = this.channel.readOutbound()) != null) {
+            buf.writeBytes(msg);
+            msg.release();
+        }
+
+        return buf;
+    }
+}
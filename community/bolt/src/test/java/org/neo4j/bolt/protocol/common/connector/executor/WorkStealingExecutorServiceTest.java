@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WorkStealingExecutorServiceTest {
+
+    private WorkStealingExecutorService executor;
+
+    @AfterEach
+    void cleanup() throws InterruptedException {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            assertThat(this.executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldExecuteTasksSubmittedByMultipleThreads() throws InterruptedException {
+        this.executor = createExecutor(4, 8, ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE);
+
+        var executed = new AtomicInteger();
+        var completed = new CountDownLatch(4_000);
+        var submitters = Executors.newFixedThreadPool(4);
+        try {
+            for (var i = 0; i < 4; ++i) {
+                submitters.execute(() -> {
+                    for (var j = 0; j < 1_000; ++j) {
+                        this.executor.execute(() -> {
+                            executed.incrementAndGet();
+                            completed.countDown();
+                        });
+                    }
+                });
+            }
+
+            assertThat(completed.await(1, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            submitters.shutdown();
+        }
+
+        assertThat(executed.get()).isEqualTo(4_000);
+    }
+
+    @Test
+    void shouldPreferWorkerAssociatedWithSubmittingThread() throws Exception {
+        this.executor = createExecutor(4, 4, ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE);
+
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        for (var i = 0; i < 20; ++i) {
+            // permit the workers to reach their idle state as busy workers will have their tasks stolen
+            Thread.sleep(i == 0 ? 100 : 10);
+
+            this.executor.submit(() -> threads.add(Thread.currentThread())).get();
+        }
+
+        assertThat(threads).hasSize(1);
+    }
+
+    @Test
+    void shouldStealTasksFromBusyWorkers() throws Exception {
+        this.executor = createExecutor(2, 2, ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE);
+
+        var blocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingThread = new Thread[1];
+
+        this.executor.execute(() -> {
+            blockingThread[0] = Thread.currentThread();
+            blocked.countDown();
+            awaitUninterruptibly(release);
+        });
+        assertThat(blocked.await(1, TimeUnit.MINUTES)).isTrue();
+
+        try {
+            // tasks from the same submitter are queued with the blocked worker and will thus need to be stolen
+            var thread = this.executor.submit(Thread::currentThread).get(1, TimeUnit.MINUTES);
+            assertThat(thread).isNotSameAs(blockingThread[0]);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldStartAdditionalWorkersUntilMaxPoolSizeIsReached() throws InterruptedException {
+        this.executor = createExecutor(1, 2, ThreadPoolExecutorServiceFactory.SYNCHRONOUS_QUEUE);
+
+        var running = new CountDownLatch(2);
+        var release = new CountDownLatch(1);
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+
+        try {
+            for (var i = 0; i < 2; ++i) {
+                this.executor.execute(() -> {
+                    threads.add(Thread.currentThread());
+                    running.countDown();
+                    awaitUninterruptibly(release);
+                });
+            }
+
+            assertThat(running.await(1, TimeUnit.MINUTES)).isTrue();
+            assertThat(threads).hasSize(2);
+
+            assertThatThrownBy(() -> this.executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldCompletePendingTasksOnShutdown() throws InterruptedException {
+        this.executor = createExecutor(1, 1, ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE);
+
+        var release = new CountDownLatch(1);
+        var executed = new AtomicInteger();
+
+        this.executor.execute(() -> awaitUninterruptibly(release));
+        for (var i = 0; i < 10; ++i) {
+            this.executor.execute(executed::incrementAndGet);
+        }
+
+        this.executor.shutdown();
+        assertThatThrownBy(() -> this.executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+
+        assertThat(this.executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(this.executor.isTerminated()).isTrue();
+        assertThat(executed.get()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldReturnPendingTasksOnShutdownNow() throws InterruptedException {
+        this.executor = createExecutor(1, 1, ThreadPoolExecutorServiceFactory.UNBOUNDED_QUEUE);
+
+        var running = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        this.executor.execute(() -> {
+            running.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ignore) {
+                interrupted.countDown();
+            }
+        });
+        assertThat(running.await(1, TimeUnit.MINUTES)).isTrue();
+
+        for (var i = 0; i < 10; ++i) {
+            this.executor.execute(() -> {});
+        }
+
+        var remaining = this.executor.shutdownNow();
+
+        assertThat(remaining).hasSize(10);
+        assertThat(interrupted.await(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(this.executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private static WorkStealingExecutorService createExecutor(int corePoolSize, int maxPoolSize, int queueSize) {
+        return new WorkStealingExecutorService(
+                corePoolSize, maxPoolSize, TimeUnit.SECONDS.toNanos(60), queueSize, Executors.defaultThreadFactory());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignore) {
+            }
+        }
+    }
+}
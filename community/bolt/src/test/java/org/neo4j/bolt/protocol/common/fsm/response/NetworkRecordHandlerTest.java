@@ -29,9 +29,15 @@ import org.mockito.Mockito;
 import org.neo4j.bolt.protocol.common.connector.connection.Connection;
 import org.neo4j.bolt.protocol.io.pipeline.WriterContext;
 import org.neo4j.bolt.testing.mock.ConnectionMockFactory;
+import org.neo4j.packstream.codec.transport.ChunkFrameEncoder;
+import org.neo4j.packstream.codec.transport.FrameSignalEncoder;
+import org.neo4j.packstream.error.reader.PackstreamReaderException;
+import org.neo4j.packstream.io.PackstreamBuf;
+import org.neo4j.packstream.io.Type;
 import org.neo4j.packstream.signal.FrameSignal;
 import org.neo4j.packstream.testing.PackstreamBufAssertions;
 import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.Values;
 
 class NetworkRecordHandlerTest {
 
@@ -56,7 +62,7 @@ class NetworkRecordHandlerTest {
         Assertions.assertThat(this.channel.<Object>readOutbound()).isNull();
 
         Mockito.verify(this.connection).channel();
-        Mockito.verify(this.connection).writerContext(Mockito.notNull());
+        Mockito.verify(this.connection).writerContext(Mockito.notNull(), Mockito.notNull());
         Mockito.verifyNoMoreInteractions(this.connection);
 
         // abnormal completion - handlers do not validate call order thus permitting partial
@@ -78,7 +84,7 @@ class NetworkRecordHandlerTest {
     void shouldWriteFields() {
         var writer = Mockito.mock(WriterContext.class);
 
-        Mockito.doReturn(writer).when(this.connection).writerContext(Mockito.any());
+        Mockito.doReturn(writer).when(this.connection).writerContext(Mockito.any(), Mockito.any());
 
         var handler = new NetworkRecordHandler(this.connection, 2, 512, 0);
 
@@ -88,7 +94,7 @@ class NetworkRecordHandlerTest {
         Assertions.assertThat(this.channel.<Object>readOutbound()).isNull();
 
         Mockito.verify(this.connection).channel();
-        Mockito.verify(this.connection).writerContext(Mockito.notNull());
+        Mockito.verify(this.connection).writerContext(Mockito.notNull(), Mockito.notNull());
         Mockito.verifyNoMoreInteractions(this.connection);
 
         handler.onField(BooleanValue.TRUE);
@@ -146,4 +152,91 @@ class NetworkRecordHandlerTest {
     void shouldFlushPendingRecordsOnFailure() {
         this.verifyFlushesPendingMessages(handler -> handler.onFailure());
     }
+
+    @Test
+    void shouldFrameRecordsWithinSingleBuffer() {
+        this.channel = new EmbeddedChannel(new FrameSignalEncoder(), new ChunkFrameEncoder());
+        this.connection =
+                ConnectionMockFactory.newFactory().withChannel(this.channel).build();
+
+        var handler = new NetworkRecordHandler(this.connection, 4, 512, 8192);
+
+        for (var i = 0; i < 3; ++i) {
+            handler.onBegin();
+            handler.onCompleted();
+        }
+
+        // dangling record - should not end up in result
+        handler.onBegin();
+
+        handler.close();
+        this.channel.flush();
+
+        var buffer = this.channel.<ByteBuf>readOutbound();
+        Assertions.assertThat(buffer).isNotNull();
+
+        for (var i = 0; i < 3; ++i) {
+            Assertions.assertThat(buffer.readUnsignedShort()).isEqualTo(3);
+
+            var message = buffer.readSlice(3);
+            Assertions.assertThat(message)
+                    .asInstanceOf(PackstreamBufAssertions.wrap())
+                    .containsStruct(0x71, 1)
+                    .containsListHeader(4)
+                    .asBuffer()
+                    .hasNoRemainingReadableBytes();
+
+            Assertions.assertThat(buffer.readUnsignedShort()).isEqualTo(FrameSignal.MESSAGE_END.getTag());
+        }
+
+        Assertions.assertThat(buffer.isReadable()).isFalse();
+        Assertions.assertThat(this.channel.<Object>readOutbound()).isNull();
+
+        buffer.release();
+    }
+
+    @Test
+    void shouldSplitFramedRecordsExceedingChunkLength() throws PackstreamReaderException {
+        this.channel = new EmbeddedChannel(new FrameSignalEncoder(), new ChunkFrameEncoder());
+        this.connection =
+                ConnectionMockFactory.newFactory().withChannel(this.channel).build();
+
+        var value = Values.stringValue("a".repeat(ChunkFrameEncoder.MAX_CHUNK_LENGTH * 2));
+        Mockito.doAnswer(invocation -> {
+                    var target = invocation.<PackstreamBuf>getArgument(0);
+                    var writer = Mockito.mock(WriterContext.class);
+                    Mockito.doAnswer(writeInvocation -> target.writeString(value.stringValue()))
+                            .when(writer)
+                            .writeValue(value);
+                    return writer;
+                })
+                .when(this.connection)
+                .writerContext(Mockito.any(), Mockito.any());
+
+        var handler = new NetworkRecordHandler(this.connection, 1, 512, 0);
+
+        handler.onBegin();
+        handler.onField(value);
+        handler.onCompleted();
+
+        var buffer = this.channel.<ByteBuf>readOutbound();
+        Assertions.assertThat(buffer).isNotNull();
+
+        var message = this.channel.alloc().buffer();
+        int chunkLength;
+        while ((chunkLength = buffer.readUnsignedShort()) != FrameSignal.MESSAGE_END.getTag()) {
+            Assertions.assertThat(chunkLength).isLessThanOrEqualTo(ChunkFrameEncoder.MAX_CHUNK_LENGTH);
+            message.writeBytes(buffer, chunkLength);
+        }
+
+        Assertions.assertThat(buffer.isReadable()).isFalse();
+
+        var packstream = PackstreamBuf.wrap(message);
+        Assertions.assertThat(packstream.readStructHeader().tag()).isEqualTo((short) 0x71);
+        Assertions.assertThat(packstream.readLengthPrefixMarker(Type.LIST)).isEqualTo(1L);
+        Assertions.assertThat(packstream.readString()).isEqualTo(value.stringValue());
+
+        buffer.release();
+        message.release();
+    }
 }
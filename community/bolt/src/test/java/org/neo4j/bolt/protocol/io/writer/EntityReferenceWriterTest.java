@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.io.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.neo4j.bolt.protocol.io.StructType;
+import org.neo4j.bolt.protocol.io.pipeline.WriterContext;
+import org.neo4j.bolt.testing.mock.ConnectionMockFactory;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.packstream.error.reader.PackstreamReaderException;
+import org.neo4j.packstream.io.PackstreamBuf;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+class EntityReferenceWriterTest {
+
+    private LocalMemoryTracker memoryTracker;
+    private EntityReferenceTable references;
+    private PackstreamBuf buf;
+    private WriterContext ctx;
+
+    @BeforeEach
+    void prepare() {
+        this.memoryTracker = new LocalMemoryTracker();
+        this.references = new EntityReferenceTable(
+                ConnectionMockFactory.newFactory()
+                        .withMemoryTracker(this.memoryTracker)
+                        .build(),
+                2);
+
+        this.buf = PackstreamBuf.allocUnpooled();
+        this.ctx = Mockito.mock(WriterContext.class);
+
+        Mockito.doReturn(this.buf).when(this.ctx).buffer();
+        Mockito.doReturn(this.references).when(this.ctx).entityReferences();
+    }
+
+    @Test
+    void shouldFireEntitiesWhenReferencesAreUnavailable() {
+        Mockito.doReturn(null).when(this.ctx).entityReferences();
+
+        var properties = properties(42);
+
+        writeNode(1, properties);
+        writeNode(1, properties);
+
+        Mockito.verify(this.ctx, Mockito.times(2)).fireNode("1", 1, stringArray("Person"), properties, false);
+        assertThat(this.buf.getTarget().isReadable()).isFalse();
+    }
+
+    @Test
+    void shouldReferencePreviouslyTransmittedNodes() throws PackstreamReaderException {
+        var properties = properties(42);
+
+        writeNode(1, properties);
+        writeNode(2, properties);
+        writeNode(1, properties(42));
+
+        Mockito.verify(this.ctx).fireNode("1", 1, stringArray("Person"), properties, false);
+        Mockito.verify(this.ctx).fireNode("2", 2, stringArray("Person"), properties, false);
+
+        assertReference(0);
+        assertThat(this.buf.getTarget().isReadable()).isFalse();
+    }
+
+    @Test
+    void shouldReferencePreviouslyTransmittedRelationships() throws PackstreamReaderException {
+        var properties = properties(42);
+
+        writeNode(1, properties);
+        writeRelationship(1, properties);
+        writeRelationship(1, properties);
+        writeNode(1, properties);
+
+        Mockito.verify(this.ctx).fireNode("1", 1, stringArray("Person"), properties, false);
+        Mockito.verify(this.ctx).fireRelationship("1", 1, "1", 1, "2", 2, stringValue("KNOWS"), properties, false);
+
+        // nodes and relationships share a common index space
+        assertReference(1);
+        assertReference(0);
+        assertThat(this.buf.getTarget().isReadable()).isFalse();
+    }
+
+    @Test
+    void shouldRetransmitModifiedEntities() throws PackstreamReaderException {
+        writeNode(1, properties(42));
+        writeNode(1, properties(84));
+        writeNode(1, properties(84));
+
+        Mockito.verify(this.ctx).fireNode("1", 1, stringArray("Person"), properties(42), false);
+        Mockito.verify(this.ctx).fireNode("1", 1, stringArray("Person"), properties(84), false);
+
+        assertReference(1);
+        assertThat(this.buf.getTarget().isReadable()).isFalse();
+    }
+
+    @Test
+    void shouldRetransmitEntitiesExceedingCapacity() throws PackstreamReaderException {
+        var properties = properties(42);
+
+        writeNode(1, properties);
+        writeNode(2, properties);
+        writeNode(3, properties);
+        writeNode(3, properties);
+        writeNode(2, properties);
+
+        Mockito.verify(this.ctx).fireNode("1", 1, stringArray("Person"), properties, false);
+        Mockito.verify(this.ctx).fireNode("2", 2, stringArray("Person"), properties, false);
+        Mockito.verify(this.ctx, Mockito.times(2)).fireNode("3", 3, stringArray("Person"), properties, false);
+
+        assertReference(1);
+        assertThat(this.buf.getTarget().isReadable()).isFalse();
+    }
+
+    @Test
+    void shouldReleaseMemoryOnClose() {
+        writeNode(1, properties(42));
+        writeRelationship(1, properties(42));
+
+        assertThat(this.memoryTracker.estimatedHeapMemory()).isPositive();
+
+        this.references.close();
+
+        assertThat(this.memoryTracker.estimatedHeapMemory()).isZero();
+        assertThat(this.references.findNode(1, stringArray("Person"), properties(42), false))
+                .isEqualTo(EntityReferenceTable.NO_REFERENCE);
+    }
+
+    private void writeNode(long id, MapValue properties) {
+        EntityReferenceWriter.getInstance()
+                .writeNode(this.ctx, Long.toString(id), id, stringArray("Person"), properties, false);
+    }
+
+    private void writeRelationship(long id, MapValue properties) {
+        EntityReferenceWriter.getInstance()
+                .writeRelationship(
+                        this.ctx, Long.toString(id), id, "1", 1, "2", 2, stringValue("KNOWS"), properties, false);
+    }
+
+    private void assertReference(int index) throws PackstreamReaderException {
+        var header = this.buf.readStructHeader();
+
+        assertThat(header.tag()).isEqualTo(StructType.ENTITY_REFERENCE.getTag());
+        assertThat(header.length()).isEqualTo(1);
+        assertThat(this.buf.readInt()).isEqualTo(index);
+    }
+
+    private static MapValue properties(int answer) {
+        var builder = new MapValueBuilder();
+        builder.add("the_answer", Values.intValue(answer));
+        return builder.build();
+    }
+}
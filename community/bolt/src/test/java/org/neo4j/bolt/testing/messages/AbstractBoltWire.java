@@ -71,6 +71,9 @@ public abstract class AbstractBoltWire implements BoltWire {
         Mockito.doAnswer(invocation -> this.pipeline.forBuffer(invocation.getArgument(0)))
                 .when(connection)
                 .writerContext(Mockito.any());
+        Mockito.doAnswer(invocation -> this.pipeline.forBuffer(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(connection)
+                .writerContext(Mockito.any(), Mockito.any());
 
         this.initializePipeline();
     }
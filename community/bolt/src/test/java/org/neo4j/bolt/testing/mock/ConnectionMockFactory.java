@@ -202,7 +202,8 @@ public class ConnectionMockFactory extends AbstractMockFactory<Connection, Conne
     }
 
     public ConnectionMockFactory withWriterContext(PipelineContext ctx) {
-        return this.withStaticValue(mock -> mock.writerContext(ArgumentMatchers.any()), ctx);
+        return this.withStaticValue(mock -> mock.writerContext(ArgumentMatchers.any()), ctx)
+                .withStaticValue(mock -> mock.writerContext(ArgumentMatchers.any(), ArgumentMatchers.any()), ctx);
     }
 
     public ConnectionMockFactory withFSM(StateMachine fsm) {
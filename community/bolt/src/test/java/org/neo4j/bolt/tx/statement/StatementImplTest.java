@@ -27,10 +27,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.neo4j.bolt.dbapi.BoltQueryExecution;
+import org.neo4j.bolt.protocol.common.fsm.response.RecordHandler;
+import org.neo4j.bolt.protocol.common.fsm.response.ResponseHandler;
 import org.neo4j.graphdb.QueryExecutionType;
+import org.neo4j.graphdb.QueryExecutionType.QueryType;
 import org.neo4j.kernel.database.DatabaseReference;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.time.FakeClock;
+import org.neo4j.values.storable.Values;
 
 class StatementImplTest {
 
@@ -115,4 +120,105 @@ class StatementImplTest {
 
         Assertions.assertThat(statement.hasRemaining()).isFalse();
     }
+
+    @Test
+    void shouldPassPrefetchedRecordsOnConsume() throws Exception {
+        var subscriber = this.produceRecords(QueryType.READ_ONLY, 5);
+        var memoryTracker = new LocalMemoryTracker();
+        var statement =
+                new StatementImpl(42, this.databaseReference, this.clock, this.execution, subscriber, 3, memoryTracker);
+
+        var responseHandler = Mockito.mock(ResponseHandler.class);
+        var recordHandler = Mockito.mock(RecordHandler.class);
+        Mockito.doReturn(recordHandler).when(responseHandler).onBeginStreaming(Mockito.any());
+
+        statement.consume(responseHandler, 2);
+
+        // remaining records are produced ahead of time until the query has been exhausted
+        Assertions.assertThat(statement.prefetch()).isFalse();
+        Assertions.assertThat(memoryTracker.estimatedHeapMemory()).isPositive();
+
+        statement.consume(responseHandler, 3);
+
+        Assertions.assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+        Assertions.assertThat(statement.hasRemaining()).isFalse();
+
+        var inOrder = Mockito.inOrder(this.queryExecution, recordHandler, responseHandler);
+        inOrder.verify(this.queryExecution).request(2);
+        inOrder.verify(recordHandler).onField(Values.longValue(0));
+        inOrder.verify(recordHandler).onField(Values.longValue(1));
+        inOrder.verify(responseHandler).onCompleteStreaming(true);
+        inOrder.verify(this.queryExecution).request(3);
+        for (var i = 2; i < 5; ++i) {
+            inOrder.verify(recordHandler).onBegin();
+            inOrder.verify(recordHandler).onField(Values.longValue(i));
+            inOrder.verify(recordHandler).onCompleted();
+        }
+        inOrder.verify(responseHandler).onCompleteStreaming(false);
+
+        Mockito.verify(this.queryExecution, Mockito.times(2)).request(Mockito.anyLong());
+    }
+
+    @Test
+    void shouldRequestRemainderOfPartiallyPrefetchedRecords() throws Exception {
+        var subscriber = this.produceRecords(QueryType.READ_ONLY, 10);
+        var statement = new StatementImpl(
+                42, this.databaseReference, this.clock, this.execution, subscriber, 2, new LocalMemoryTracker());
+
+        var responseHandler = Mockito.mock(ResponseHandler.class);
+        var recordHandler = Mockito.mock(RecordHandler.class);
+        Mockito.doReturn(recordHandler).when(responseHandler).onBeginStreaming(Mockito.any());
+
+        // prefetching stops once the configured number of records has been buffered
+        Assertions.assertThat(statement.prefetch()).isFalse();
+
+        statement.consume(responseHandler, 5);
+
+        var inOrder = Mockito.inOrder(this.queryExecution, recordHandler, responseHandler);
+        inOrder.verify(this.queryExecution).request(2);
+        inOrder.verify(recordHandler).onField(Values.longValue(0));
+        inOrder.verify(recordHandler).onField(Values.longValue(1));
+        inOrder.verify(this.queryExecution).request(3);
+        for (var i = 2; i < 5; ++i) {
+            inOrder.verify(recordHandler).onField(Values.longValue(i));
+        }
+        inOrder.verify(responseHandler).onCompleteStreaming(true);
+    }
+
+    @Test
+    void shouldNotPrefetchStatementsWithSideEffects() throws Exception {
+        var subscriber = this.produceRecords(QueryType.READ_WRITE, 5);
+        var statement = new StatementImpl(
+                42, this.databaseReference, this.clock, this.execution, subscriber, 3, new LocalMemoryTracker());
+
+        Assertions.assertThat(statement.prefetch()).isFalse();
+
+        Mockito.verify(this.queryExecution, Mockito.never()).request(Mockito.anyLong());
+    }
+
+    private StatementQuerySubscriber produceRecords(QueryType queryType, int count) throws Exception {
+        var subscriber = new StatementQuerySubscriber();
+        var produced = new int[1];
+
+        Mockito.doReturn(QueryExecutionType.query(queryType))
+                .when(this.queryExecution)
+                .executionType();
+        Mockito.doAnswer(invocation -> {
+                    long n = invocation.getArgument(0);
+                    for (var i = 0; i < n && produced[0] < count; ++i) {
+                        subscriber.onRecord();
+                        subscriber.onField(0, Values.longValue(produced[0]++));
+                        subscriber.onField(1, Values.NO_VALUE);
+                        subscriber.onRecordCompleted();
+                    }
+                    return null;
+                })
+                .when(this.queryExecution)
+                .request(Mockito.anyLong());
+        Mockito.doAnswer(invocation -> produced[0] < count)
+                .when(this.queryExecution)
+                .await();
+
+        return subscriber;
+    }
 }
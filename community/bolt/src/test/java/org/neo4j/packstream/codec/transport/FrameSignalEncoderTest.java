@@ -90,6 +90,32 @@ class FrameSignalEncoderTest {
         assertFalse(signal.isReadable());
     }
 
+    @Test
+    void shouldPassChunkedMessagesAndRestoreCleanState() {
+        var channel = new EmbeddedChannel(new FrameSignalEncoder());
+
+        channel.writeOutbound(Unpooled.buffer(1).writeByte(0x42));
+        ByteBuf payload = channel.readOutbound();
+        payload.release();
+
+        channel.writeOutbound(new ChunkedMessages(
+                Unpooled.buffer(5).writeShort(1).writeByte(0x42).writeShort(0)));
+
+        ByteBuf messages = channel.readOutbound();
+
+        assertEquals(0x01, messages.readShort());
+        assertEquals(0x42, messages.readByte());
+        assertEquals(0x00, messages.readShort());
+        assertFalse(messages.isReadable());
+
+        channel.writeOutbound(FrameSignal.NOOP);
+
+        ByteBuf signal = channel.readOutbound();
+
+        assertEquals(0x00, signal.readShort());
+        assertFalse(signal.isReadable());
+    }
+
     @Test
     void shouldFilterSignals() {
         @SuppressWarnings("unchecked")
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.locks.StampedLock;
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+/**
+ * A concurrent map from primitive longs to objects, that neither boxes its keys nor allocates when entries are added
+ * or removed, other than when it grows.
+ * <p>
+ * The map is split into a fixed number of stripes, picked by the hash of the key. Each stripe is an open addressing
+ * hash table with linear probing, kept in a pair of parallel key and value arrays that are guarded by a
+ * {@link StampedLock}. Lookups first try an optimistic read, and only take the read lock when a writer got in the way.
+ * Additions and removals take the write lock of their stripe. Removals shift the later entries of a probe sequence back
+ * instead of leaving tombstones, so a stripe only reallocates its arrays when it grows beyond half full.
+ * <p>
+ * Values can not be {@code null}. {@link #forEach(LongObjectProcedure)} visits a copy of one stripe at a time, and is
+ * weakly consistent, like the iterators of {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * @param <V> the value type.
+ */
+@SuppressWarnings("unchecked")
+public class StripedLongObjectHashMap<V> {
+    private static final int DEFAULT_STRIPES = 128;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public StripedLongObjectHashMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLongObjectHashMap(int stripes) {
+        if (stripes <= 0 || (stripes & (stripes - 1)) != 0) {
+            throw new IllegalArgumentException("Number of stripes should be power of 2. Requested stripes: " + stripes);
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * @return the value of the given key, or {@code null} if there is none.
+     */
+    public V get(long key) {
+        long hash = hash(key);
+        return (V) stripe(hash).get(key, (int) hash);
+    }
+
+    /**
+     * Associate the given value with the given key.
+     *
+     * @return the value that the key had before, or {@code null} if there was none.
+     */
+    public V put(long key, V value) {
+        requireNonNull(value);
+        long hash = hash(key);
+        return (V) stripe(hash).put(key, (int) hash, value, false);
+    }
+
+    /**
+     * Associate the given value with the given key, unless the key already has a value.
+     *
+     * @return the value that the key already had, or {@code null} if the given value was added.
+     */
+    public V putIfAbsent(long key, V value) {
+        requireNonNull(value);
+        long hash = hash(key);
+        return (V) stripe(hash).put(key, (int) hash, value, true);
+    }
+
+    /**
+     * Remove the given key.
+     *
+     * @return the value that the key had, or {@code null} if there was none.
+     */
+    public V remove(long key) {
+        long hash = hash(key);
+        return (V) stripe(hash).remove(key, (int) hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Visit the entries of the map. Entries that are added or removed while visiting may or may not be visited.
+     */
+    public void forEach(LongObjectProcedure<? super V> action) {
+        for (Stripe stripe : stripes) {
+            Table copy = stripe.copy();
+            for (int i = 0; i < copy.values.length; i++) {
+                Object value = copy.values[i];
+                if (value != null) {
+                    action.value(copy.keys[i], (V) value);
+                }
+            }
+        }
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[(int) (hash >>> 32) & stripeMask];
+    }
+
+    /**
+     * The high half of the hash picks the stripe, and the low half the slot within the stripe.
+     */
+    private static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        // Guarded by the write lock of the stripe, and read optimistically
+        private Table table = new Table(INITIAL_STRIPE_CAPACITY);
+        private int size;
+
+        Object get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Object value = table.find(key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table.find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Object put(long key, int hash, Object value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                long[] keys = table.keys;
+                Object[] values = table.values;
+                int mask = keys.length - 1;
+                int slot = hash & mask;
+                Object existing;
+                while ((existing = values[slot]) != null) {
+                    if (keys[slot] == key) {
+                        if (!onlyIfAbsent) {
+                            values[slot] = value;
+                        }
+                        return existing;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                if (size > keys.length >>> 1) {
+                    table = table.grow();
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Object remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                long[] keys = table.keys;
+                Object[] values = table.values;
+                int mask = keys.length - 1;
+                int gap = hash & mask;
+                Object removed;
+                while ((removed = values[gap]) != null && keys[gap] != key) {
+                    gap = (gap + 1) & mask;
+                }
+                if (removed == null) {
+                    return null;
+                }
+                // Shift back every later entry of the probe sequence whose home slot is not between the gap and the
+                // entry, so that lookups never have to look past an empty slot.
+                for (int slot = (gap + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                    int home = (int) hash(keys[slot]) & mask;
+                    if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                        keys[gap] = keys[slot];
+                        values[gap] = values[slot];
+                        gap = slot;
+                    }
+                }
+                values[gap] = null;
+                size--;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Table copy() {
+            long stamp = lock.readLock();
+            try {
+                return new Table(table.keys.clone(), table.values.clone());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * The arrays of a stripe. They are final so that optimistic readers always see arrays of the same length.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+
+        Table(long[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        Object find(long key, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            // Bounded, since an optimistic reader may see the table in the middle of a change
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        Table grow() {
+            Table grown = new Table(keys.length << 1);
+            int mask = grown.keys.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    int slot = (int) hash(keys[i]) & mask;
+                    while (grown.values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.keys[slot] = keys[i];
+                    grown.values[slot] = values[i];
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+
+class StripedLongObjectHashMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        var map = new StripedLongObjectHashMap<String>();
+
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(-1, "b"));
+        assertNull(map.put(0, "c"));
+        assertEquals("a", map.put(1, "d"));
+        assertEquals("d", map.putIfAbsent(1, "e"));
+
+        assertEquals("d", map.get(1));
+        assertEquals("b", map.get(-1));
+        assertEquals("c", map.get(0));
+        assertNull(map.get(2));
+        assertEquals(3, map.size());
+
+        assertEquals("d", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void rejectNullValues() {
+        var map = new StripedLongObjectHashMap<String>();
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertThrows(NullPointerException.class, () -> map.putIfAbsent(1, null));
+    }
+
+    @Test
+    void rejectNumberOfStripesThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLongObjectHashMap<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedLongObjectHashMap<>(6));
+    }
+
+    @Test
+    void behaveLikeHashMapThroughGrowthAndRemovals() {
+        // A single stripe makes every key collide into the same table
+        var map = new StripedLongObjectHashMap<Long>(1);
+        Map<Long, Long> expected = new HashMap<>();
+        var random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                case 1 -> assertEquals(expected.putIfAbsent(key, (long) i), map.putIfAbsent(key, (long) i));
+                default -> assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value)));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void putIfAbsentGivesKeysToOneThreadAtATime() throws Exception {
+        int threads = 8;
+        int keys = 64;
+        var map = new StripedLongObjectHashMap<Integer>(4);
+        var holders = new AtomicIntegerArray(keys);
+        var violations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    var random = new Random(thread);
+                    for (int i = 0; i < 50_000; i++) {
+                        int key = random.nextInt(keys);
+                        if (map.putIfAbsent(key, thread) == null) {
+                            if (holders.incrementAndGet(key) != 1) {
+                                violations.incrementAndGet();
+                            }
+                            if (map.get(key) != thread) {
+                                violations.incrementAndGet();
+                            }
+                            holders.decrementAndGet(key);
+                            map.remove(key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, violations.get());
+        assertTrue(map.isEmpty());
+    }
+}
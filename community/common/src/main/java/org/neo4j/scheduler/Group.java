@@ -34,6 +34,10 @@ public enum Group {
     PAGE_CACHE_EVICTION("PageCacheEviction"),
     /* Page cache background eviction. */
     PAGE_CACHE_PRE_FETCHER("PageCachePreFetcher", ExecutorServiceFactory.cachedWithDiscard(), 4),
+    /** Page cache background writeback of pages that have been dirty for a while. */
+    PAGE_CACHE_WRITEBACK("PageCacheWriteback"),
+    /** Page cache profiling, and warmup of the page cache from those profiles when a database starts. */
+    PAGE_CACHE_WARMER("PageCacheWarmer", ExecutorServiceFactory.cached(), 4),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER("FileWatcher", ExecutorServiceFactory.unschedulable()),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
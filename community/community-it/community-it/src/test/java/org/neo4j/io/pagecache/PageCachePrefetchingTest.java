@@ -21,15 +21,20 @@ package org.neo4j.io.pagecache;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+import static org.neo4j.test.conditions.Conditions.equalityCondition;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,13 +62,14 @@ class PageCachePrefetchingTest {
     PageCache pageCache;
 
     private Path file;
+    private DefaultPageCacheTracer pageCacheTracer;
     private CursorContext cursorContext;
     private Consumer<PageCursor> scanner;
 
     @BeforeEach
     void setUp() {
         file = dir.createFile("file");
-        var pageCacheTracer = new DefaultPageCacheTracer();
+        pageCacheTracer = new DefaultPageCacheTracer();
         var cursorContextFactory = new CursorContextFactory(pageCacheTracer, EmptyVersionContextSupplier.EMPTY);
         cursorContext = cursorContextFactory.create("test");
     }
@@ -117,6 +123,59 @@ class PageCachePrefetchingTest {
         assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
     }
 
+    @Test
+    void stridedScanWithPreFetcherMustPinPreFetchedPages() throws Exception {
+        long hits = stridedScanOfColdFile(0);
+
+        assertThat(hits).as("pre-fetch hits").isGreaterThan(0);
+    }
+
+    @Test
+    void stridedScanWithPreFetcherMustReportPreFetchedPagesThatWereNotPinnedAsWaste() throws Exception {
+        stridedScanOfColdFile(3_000);
+    }
+
+    /**
+     * Scans every third page of a file that has no pages in the page cache, from the end of the file and down to the
+     * given page, and checks that the pre-fetch hits and waste account for exactly the pages that the pre-fetcher
+     * loaded.
+     */
+    private long stridedScanOfColdFile(long lastPageId) throws IOException {
+        scanner = cursor -> cursor.putLong(cursor.getCurrentPageId());
+        writeToFile(file, cursorContext, 0);
+        var cursorTracer = cursorContext.getCursorTracer();
+        cursorTracer.reportEvents();
+        long preFetchedPages = pageCacheTracer.noPinFaults();
+
+        long pins = 0;
+        try (PagedFile pagedFile = pageCache.map(
+                file,
+                PageCache.PAGE_SIZE,
+                DEFAULT_DATABASE_NAME,
+                immutable.of(StandardOpenOption.READ, StandardOpenOption.WRITE))) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, cursorContext)) {
+                for (long pageId = 5_999; pageId >= lastPageId; pageId -= 3) {
+                    assertTrue(cursor.next(pageId));
+                    assertThat(cursor.getLong()).isEqualTo(pageId);
+                    pins++;
+                }
+            }
+
+            // Every page that the cursor pinned was either faulted in by the cursor or by the pre-fetcher.
+            long hits = cursorTracer.preFetchHits();
+            assertThat(hits).as("pre-fetch hits").isEqualTo(pins - cursorTracer.faults());
+
+            // Once the pre-fetcher is done, every page that it loaded is either a hit or waste.
+            cursorTracer.reportEvents();
+            assertEventually(
+                    () -> pageCacheTracer.noPinFaults() - preFetchedPages - pageCacheTracer.preFetchWaste(),
+                    equalityCondition(hits),
+                    1,
+                    TimeUnit.MINUTES);
+            return hits;
+        }
+    }
+
     private long runScan(Path file, CursorContext cursorContext, String threadName, int additionalPfFlags)
             throws InterruptedException {
         long faultsWith;
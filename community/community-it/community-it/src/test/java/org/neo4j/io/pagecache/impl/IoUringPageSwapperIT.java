@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+@EnabledIf("ioUringAvailable")
+public class IoUringPageSwapperIT extends SingleFilePageSwapperWithRealFileSystemIT {
+    @Override
+    protected PageSwapperFactory swapperFactory(FileSystemAbstraction fileSystem) {
+        return new IoUringPageSwapperFactory(fileSystem, new DefaultPageCacheTracer(), EmptyMemoryTracker.INSTANCE, 8);
+    }
+
+    static boolean ioUringAvailable() {
+        return IoUringPageSwapperFactory.isAvailable();
+    }
+}
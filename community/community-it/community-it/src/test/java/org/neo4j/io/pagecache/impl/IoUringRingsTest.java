@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.UNREGISTERED_BUFFER;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+
+class IoUringRingsTest {
+    private static final int FD = 42;
+    private static final long ADDRESS = 4096;
+    private static final int LENGTH = 8192;
+
+    @Test
+    void shouldCloseRingInsteadOfReusingItWhenSubmitFails() throws IOException {
+        LinuxIoUring failingRing = mockRing();
+        when(failingRing.submitAndWait(anyInt())).thenThrow(new IOException("io_uring_submit_and_wait failed"));
+        LinuxIoUring workingRing = mockRing();
+        when(workingRing.submitAndWait(anyInt())).thenReturn(1);
+        when(workingRing.reapCompletions(any(), any(), anyInt())).thenAnswer(invocation -> {
+            long[] userData = invocation.getArgument(0);
+            int[] results = invocation.getArgument(1);
+            userData[0] = 0;
+            results[0] = LENGTH;
+            return 1;
+        });
+        Queue<LinuxIoUring> rings = new ArrayDeque<>(List.of(failingRing, workingRing));
+        IoUringRings pool = new IoUringRings(4, queueDepth -> rings.remove());
+        int[] transferred = new int[1];
+
+        assertThrows(IOException.class, () -> read(pool, transferred));
+        verify(failingRing).close();
+
+        read(pool, transferred);
+        assertThat(transferred[0]).isEqualTo(LENGTH);
+        assertThat(rings).isEmpty();
+        verify(failingRing, never()).reapCompletions(any(), any(), anyInt());
+        verify(workingRing).prepareRead(FD, ADDRESS, LENGTH, 0, UNREGISTERED_BUFFER, 0);
+        verify(workingRing, never()).close();
+    }
+
+    @Test
+    void shouldReuseRingWhenOperationsFailAfterCompleting() throws IOException {
+        LinuxIoUring ring = mockRing();
+        when(ring.submitAndWait(anyInt())).thenReturn(1);
+        when(ring.reapCompletions(any(), any(), anyInt())).thenAnswer(invocation -> {
+            long[] userData = invocation.getArgument(0);
+            int[] results = invocation.getArgument(1);
+            userData[0] = 0;
+            results[0] = -5; // EIO
+            return 1;
+        });
+        Queue<LinuxIoUring> rings = new ArrayDeque<>(List.of(ring));
+        IoUringRings pool = new IoUringRings(4, queueDepth -> rings.remove());
+        int[] transferred = new int[1];
+
+        assertThrows(IOException.class, () -> read(pool, transferred));
+        assertThrows(IOException.class, () -> read(pool, transferred));
+        verify(ring, never()).close();
+    }
+
+    private static void read(IoUringRings pool, int[] transferred) throws IOException {
+        pool.transfer(false, FD, 0, new long[] {ADDRESS}, new int[] {LENGTH}, 1, transferred);
+    }
+
+    private static LinuxIoUring mockRing() {
+        LinuxIoUring ring = mock(LinuxIoUring.class);
+        when(ring.entries()).thenReturn(4);
+        when(ring.prepareRead(anyInt(), anyLong(), anyInt(), anyLong(), anyInt(), anyLong()))
+                .thenReturn(true);
+        return ring;
+    }
+}
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 import java.util.concurrent.CountDownLatch;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageCacheTestSupport;
 import org.neo4j.io.pagecache.PageSwapperFactory;
@@ -33,6 +34,30 @@ import org.neo4j.scheduler.JobScheduler;
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache> {
     CountDownLatch backgroundFlushLatch;
     private MemoryAllocator allocator;
+    private int evictionPartitions = 1;
+    private PageReplacementPolicy replacementPolicy = PageReplacementPolicy.CLOCK;
+    private int flushParallelism = 1;
+    private long maxFlushSize = ByteUnit.mebiBytes(32);
+
+    public MuninnPageCacheFixture withEvictionPartitions(int evictionPartitions) {
+        this.evictionPartitions = evictionPartitions;
+        return this;
+    }
+
+    public MuninnPageCacheFixture withReplacementPolicy(PageReplacementPolicy replacementPolicy) {
+        this.replacementPolicy = replacementPolicy;
+        return this;
+    }
+
+    public MuninnPageCacheFixture withFlushParallelism(int flushParallelism) {
+        this.flushParallelism = flushParallelism;
+        return this;
+    }
+
+    public MuninnPageCacheFixture withMaxFlushSize(long maxFlushSize) {
+        this.maxFlushSize = maxFlushSize;
+        return this;
+    }
 
     @Override
     public MuninnPageCache createPageCache(
@@ -57,7 +82,11 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(allocator)
                 .pageCacheTracer(tracer)
                 .bufferFactory(selectBufferFactory(bufferFactory, memoryTracker))
-                .reservedPageBytes(reservedBytes);
+                .reservedPageBytes(reservedBytes)
+                .evictionPartitions(evictionPartitions)
+                .replacementPolicy(replacementPolicy)
+                .flushParallelism(flushParallelism)
+                .maxFlushSize(maxFlushSize);
         return new MuninnPageCache(swapperFactory, jobScheduler, configuration);
     }
 
@@ -25,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
@@ -37,6 +38,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buff
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
@@ -62,6 +64,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntSupplier;
 import org.apache.commons.lang3.mutable.MutableBoolean;
@@ -388,6 +391,195 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void splitPageListIntoEvictionPartitions() {
+        try (var pageCache = createPartitionedPageCache(4096, 4)) {
+            assertEquals(4, pageCache.getEvictionPartitionCount());
+        }
+        try (var pageCache = createPartitionedPageCache(4096, 64)) {
+            assertEquals(4, pageCache.getEvictionPartitionCount());
+        }
+        try (var pageCache = createPartitionedPageCache(100, 4)) {
+            assertEquals(1, pageCache.getEvictionPartitionCount());
+        }
+    }
+
+    @Test
+    void grabAllPagesAcrossEvictionPartitions() throws IOException {
+        int maxPages = 4096 + 7;
+        try (var pageCache = createPartitionedPageCache(maxPages, 4)) {
+            var pages = LongLists.mutable.withInitialCapacity(maxPages);
+            for (int i = 0; i < maxPages; i++) {
+                pages.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+            }
+            assertEquals(maxPages, pages.toSet().size());
+            assertThrows(
+                    CacheLiveLockException.class,
+                    () -> pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+
+            pages.forEach(page -> pageCache.addFreePageToFreelist(page, EvictionRunEvent.NULL));
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(12));
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(maxPages));
+        }
+    }
+
+    @Test
+    void stealFreePagesFromOtherEvictionPartitions() throws IOException {
+        int maxPages = 4096;
+        try (var pageCache = createPartitionedPageCache(maxPages, 4)) {
+            var pages = LongLists.mutable.withInitialCapacity(maxPages);
+            for (int i = 0; i < maxPages; i++) {
+                pages.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+            }
+            // Only release a single page, which will land in whatever partition it belongs to.
+            long releasedPage = pages.get(maxPages - 1);
+            pageCache.addFreePageToFreelist(releasedPage, EvictionRunEvent.NULL);
+            assertEquals(releasedPage, pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+        }
+    }
+
+    @Test
+    void evictAndReadBackPagesWithEvictionPartitions() throws IOException {
+        int maxPages = 2048;
+        int filePages = maxPages * 3;
+        try (var pageCache = createPartitionedPageCache(maxPages, 2);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            for (int i = 0; i < filePages; i++) {
+                try (var cursor = pagedFile.io(i, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            for (int i = 0; i < filePages; i++) {
+                try (var cursor = pagedFile.io(i, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    long value;
+                    do {
+                        value = cursor.getLong();
+                    } while (cursor.shouldRetry());
+                    assertEquals(i, value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void scanCursorsKeepPagesOnProbation() throws IOException {
+        try (var pageCache = createPageCacheWithPolicy(PageReplacementPolicy.PROBATIONARY);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putLong(1);
+            }
+            try (var cursor = pagedFile.io(1, PF_SHARED_WRITE_LOCK | PF_SCAN, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putLong(2);
+            }
+            for (int i = 0; i < 10; i++) {
+                try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                }
+                try (var cursor = pagedFile.io(1, PF_SHARED_READ_LOCK | PF_SCAN, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                }
+            }
+            assertEquals(PageList.MAX_USAGE_COUNT, PageList.getUsage(pinnedPageRef(pagedFile, 0)));
+            assertEquals(PageList.PROBATION_USAGE_COUNT, PageList.getUsage(pinnedPageRef(pagedFile, 1)));
+        }
+    }
+
+    @Test
+    void scanCursorsAreRegularCursorsWithClockPolicy() throws IOException {
+        try (var pageCache = createPageCacheWithPolicy(PageReplacementPolicy.CLOCK);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            for (int i = 0; i < 10; i++) {
+                try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK | PF_SCAN, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                }
+            }
+            assertEquals(PageList.MAX_USAGE_COUNT, PageList.getUsage(pinnedPageRef(pagedFile, 0)));
+        }
+    }
+
+    @Test
+    void evictProbationaryPagesBeforeProtectedPages() throws IOException {
+        int maxPages = 40;
+        try (var pageCache = createPageCacheWithPolicy(PageReplacementPolicy.PROBATIONARY, maxPages);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            int protectedPages = 10;
+            for (int i = 0; i < protectedPages; i++) {
+                for (int j = 0; j < 3; j++) {
+                    try (var cursor = pagedFile.io(i, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                        assertTrue(cursor.next());
+                        cursor.putLong(i);
+                    }
+                }
+            }
+            // Stream a lot more pages than what fits in the cache through a scan cursor.
+            try (var cursor = pagedFile.io(protectedPages, PF_SHARED_WRITE_LOCK | PF_SCAN, NULL_CONTEXT)) {
+                for (int i = 0; i < maxPages * 10; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            for (int i = 0; i < protectedPages; i++) {
+                try (var cursor = pagedFile.io(i, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    assertNotEquals(0, ((MuninnPageCursor) cursor).pinnedPageRef, "page " + i + " was evicted");
+                }
+            }
+        }
+    }
+
+    private static long pinnedPageRef(PagedFile pagedFile, long pageId) throws IOException {
+        // Transient cursors do not touch the usage counters of the pages they pin.
+        try (var cursor = pagedFile.io(pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, NULL_CONTEXT)) {
+            assertTrue(cursor.next());
+            return ((MuninnPageCursor) cursor).pinnedPageRef;
+        }
+    }
+
+    private MuninnPageCache createPageCacheWithPolicy(PageReplacementPolicy replacementPolicy) {
+        return createPageCacheWithPolicy(replacementPolicy, 20);
+    }
+
+    private MuninnPageCache createPageCacheWithPolicy(PageReplacementPolicy replacementPolicy, int maxPages) {
+        var cacheTracer = PageCacheTracer.NULL;
+        return new MuninnPageCacheFixture()
+                .withReplacementPolicy(replacementPolicy)
+                .createPageCache(
+                        new SingleFilePageSwapperFactory(fs, cacheTracer, EmptyMemoryTracker.INSTANCE),
+                        maxPages,
+                        cacheTracer,
+                        jobScheduler,
+                        DISABLED_BUFFER_FACTORY);
+    }
+
+    private MuninnPageCache createPartitionedPageCache(int maxPages, int evictionPartitions) {
+        var cacheTracer = PageCacheTracer.NULL;
+        return new MuninnPageCacheFixture()
+                .withEvictionPartitions(evictionPartitions)
+                .createPageCache(
+                        new SingleFilePageSwapperFactory(fs, cacheTracer, EmptyMemoryTracker.INSTANCE),
+                        maxPages,
+                        cacheTracer,
+                        jobScheduler,
+                        DISABLED_BUFFER_FACTORY);
+    }
+
+    private MuninnPageCache createFlushConfiguredPageCache(
+            PageCacheTracer cacheTracer, int flushParallelism, long maxFlushSize) {
+        return new MuninnPageCacheFixture()
+                .withFlushParallelism(flushParallelism)
+                .withMaxFlushSize(maxFlushSize)
+                .createPageCache(
+                        new SingleFilePageSwapperFactory(fs, cacheTracer, EmptyMemoryTracker.INSTANCE),
+                        40,
+                        cacheTracer,
+                        jobScheduler,
+                        DISABLED_BUFFER_FACTORY);
+    }
+
     @Test
     void reuseSwapperIdOnFileClose() throws IOException {
         try (MuninnPageCache pageCache = createPageCache(fs, 50, new DefaultPageCacheTracer())) {
@@ -900,6 +1092,149 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void flushRangesOfLargeFileInParallel() throws IOException {
+        var cacheTracer = new DefaultPageCacheTracer();
+        var flushedRanges = new AtomicInteger();
+        long[] dirtyPageIds = {0, 1, 4096, 4097, 8197};
+        Path file = file("a");
+        try (MuninnPageCache pageCache = createFlushConfiguredPageCache(cacheTracer, 3, ByteUnit.mebiBytes(32));
+                PagedFile pagedFile = map(pageCache, file, (int) ByteUnit.kibiBytes(8))) {
+            for (long pageId : dirtyPageIds) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(pageId + 1);
+                }
+            }
+            try (var flushEvent = cacheTracer.new DefaultPageCacheFileFlushEvent() {
+                @Override
+                public synchronized void rangeFlushed(
+                        long fromFilePageId, long toFilePageId, FileFlushEvent rangeEvent, long elapsedNanos) {
+                    super.rangeFlushed(fromFilePageId, toFilePageId, rangeEvent, elapsedNanos);
+                    flushedRanges.incrementAndGet();
+                }
+            }) {
+                pagedFile.flushAndForce(flushEvent);
+                assertThat(flushEvent.pagesFlushed()).isEqualTo(dirtyPageIds.length);
+            }
+            assertThat(flushedRanges.get()).isEqualTo(3);
+            assertThat(cacheTracer.flushes()).isEqualTo(dirtyPageIds.length);
+        }
+
+        try (MuninnPageCache pageCache = createPageCache(fs, 40, PageCacheTracer.NULL);
+                PagedFile pagedFile = map(pageCache, file, (int) ByteUnit.kibiBytes(8))) {
+            for (long pageId : dirtyPageIds) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    assertEquals(pageId + 1, cursor.getLong());
+                }
+            }
+        }
+    }
+
+    @Test
+    void flushCombinesAdjacentDirtyPagesAcrossChunksUpToMaxFlushSize() throws IOException {
+        var cacheTracer = new InfoTracer();
+        int filePageSize = (int) ByteUnit.kibiBytes(8);
+        try (MuninnPageCache pageCache = createFlushConfiguredPageCache(cacheTracer, 1, 8L * filePageSize);
+                PagedFile pagedFile = map(pageCache, file("a"), filePageSize)) {
+            // Twelve adjacent dirty pages, where the first four are at the end of the first chunk.
+            for (int pageId = 4092; pageId < 4104; pageId++) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(1);
+                }
+            }
+            try (var flushEvent = cacheTracer.beginFileFlush()) {
+                pagedFile.flushAndForce(flushEvent);
+            }
+
+            // The first write runs into the second chunk, and stops at the max flush size of eight pages.
+            var observedChunks = cacheTracer.getObservedChunks();
+            assertThat(observedChunks).hasSize(2);
+            assertThat(observedChunks.get(0).getFlushPerChunk()).isEqualTo(0);
+            assertThat(observedChunks.get(1).getFlushPerChunk()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void writeBackOnlyPagesThatStayedDirtySinceThePreviousWriteback() throws IOException {
+        var cacheTracer = new DefaultPageCacheTracer();
+        try (MuninnPageCache pageCache = createFlushConfiguredPageCache(cacheTracer, 1, ByteUnit.mebiBytes(32));
+                MuninnPagedFile pagedFile = (MuninnPagedFile) map(pageCache, file("a"), (int) ByteUnit.kibiBytes(8))) {
+            writeLongs(pagedFile, 0, 4);
+
+            // The pages just became dirty, so they are only remembered.
+            writeBack(pagedFile, cacheTracer);
+            assertThat(cacheTracer.flushes()).isZero();
+
+            // Page 4 was dirtied since the last writeback, so it is still too young to be written back.
+            writeLongs(pagedFile, 4, 5);
+            writeBack(pagedFile, cacheTracer);
+            assertThat(cacheTracer.flushes()).isEqualTo(4);
+
+            // Only page 4 is left for the flush.
+            try (var flushEvent = cacheTracer.beginFileFlush()) {
+                pagedFile.flushAndForce(flushEvent);
+            }
+            assertThat(cacheTracer.flushes()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void traceFailuresOfBackgroundWriteback() throws IOException {
+        MutableBoolean throwException = new MutableBoolean(true);
+        FileSystemAbstraction fs = new DelegatingFileSystemAbstraction(this.fs) {
+            @Override
+            public StoreChannel open(Path fileName, Set<OpenOption> options) throws IOException {
+                return new DelegatingStoreChannel(super.open(fileName, options)) {
+                    @Override
+                    public void writeAll(ByteBuffer src, long position) throws IOException {
+                        if (throwException.booleanValue()) {
+                            throw new IOException("uh-oh...");
+                        }
+                        super.writeAll(src, position);
+                    }
+
+                    @Override
+                    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+                        if (throwException.booleanValue()) {
+                            throw new IOException("uh-oh...");
+                        }
+                        return super.write(srcs, offset, length);
+                    }
+                };
+            }
+        };
+        var cacheTracer = new DefaultPageCacheTracer();
+        try (MuninnPageCache pageCache = createPageCache(fs, 40, cacheTracer);
+                PagedFile pagedFile = map(pageCache, file("a"), (int) ByteUnit.kibiBytes(8))) {
+            writeLongs(pagedFile, 0, 4);
+
+            pageCache.writeBackAgedPages();
+            assertThat(cacheTracer.writebackExceptions()).isZero();
+            pageCache.writeBackAgedPages();
+            assertThat(cacheTracer.writebackExceptions()).isOne();
+
+            throwException.setFalse();
+        }
+    }
+
+    private static void writeLongs(PagedFile pagedFile, int fromPageId, int toPageId) throws IOException {
+        for (int pageId = fromPageId; pageId < toPageId; pageId++) {
+            try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putLong(pageId);
+            }
+        }
+    }
+
+    private static void writeBack(MuninnPagedFile pagedFile, PageCacheTracer cacheTracer) throws IOException {
+        try (var flushEvent = cacheTracer.beginFileFlush(pagedFile.swapper)) {
+            pagedFile.writeBackAgedPages(flushEvent);
+        }
+    }
+
     @Test
     void countNotModifiedPagesPerChunkWithBuffers() throws IOException {
         assumeFalse(DISABLED_BUFFER_FACTORY.equals(fixture.getBufferFactory()));
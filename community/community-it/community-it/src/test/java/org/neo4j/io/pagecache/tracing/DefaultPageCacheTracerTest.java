@@ -105,6 +105,23 @@ class DefaultPageCacheTracerTest {
         assertCounts(0, 0, 0, 0, 4, 2, 13, 0, 0, 36, 0, 0, 0d, 0);
     }
 
+    @Test
+    void mustCountEvictionsPerPartition() {
+        var partitionTracer = new DefaultPageCacheTracer();
+        try (EvictionRunEvent evictionRunEvent = partitionTracer.beginPageEvictions(1, 2)) {
+            evictionRunEvent.beginEviction(0).close();
+            evictionRunEvent.beginEviction(1).close();
+        }
+        try (EvictionRunEvent evictionRunEvent = partitionTracer.beginPageEvictions(3, 1)) {
+            evictionRunEvent.beginEviction(2).close();
+        }
+
+        assertEquals(3, partitionTracer.evictions());
+        assertEquals(0, partitionTracer.evictions(0));
+        assertEquals(2, partitionTracer.evictions(1));
+        assertEquals(1, partitionTracer.evictions(3));
+    }
+
     @Test
     void mustDistinguishCooperativeEvictions() {
         try (EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions(2)) {
@@ -64,6 +64,11 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.beginPageEvictions(pageCountToEvict);
     }
 
+    @Override
+    public EvictionRunEvent beginPageEvictions(int partition, int pageCountToEvict) {
+        return delegate.beginPageEvictions(partition, pageCountToEvict);
+    }
+
     @Override
     public EvictionRunEvent beginEviction() {
         return delegate.beginEviction();
@@ -73,6 +73,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
         return tracer.add(new EvictionRunHEvent(tracer, pageCountToEvict));
     }
 
+    @Override
+    public EvictionRunEvent beginPageEvictions(int partition, int pageCountToEvict) {
+        return tracer.add(new EvictionRunHEvent(tracer, partition, pageCountToEvict));
+    }
+
     @Override
     public EvictionRunEvent beginEviction() {
         return tracer.add(new EvictionRunHEvent(tracer, 0));
@@ -26,11 +26,13 @@ import org.mockito.Mockito.verifyNoMoreInteractions
 import org.mockito.Mockito.when
 import org.neo4j.common.EntityType
 import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
 import org.neo4j.configuration.GraphDatabaseSettings
 import org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.javacompat
 import org.neo4j.cypher.internal.javacompat.GraphDatabaseCypherService
+import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
 import org.neo4j.cypher.internal.runtime.DummyResource
 import org.neo4j.cypher.internal.runtime.DummyResource.verifyClose
@@ -46,6 +48,8 @@ import org.neo4j.graphdb.RelationshipType
 import org.neo4j.graphdb.config.Setting
 import org.neo4j.internal.kernel.api.NodeCursor
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PropertyIndexQuery
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
 import org.neo4j.internal.kernel.api.TokenReadSession
@@ -78,8 +82,11 @@ import org.neo4j.values.virtual.VirtualValues.EMPTY_MAP
 
 import java.lang.Boolean.FALSE
 import java.net.URL
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicReference
 
+import scala.collection.mutable
 import scala.jdk.CollectionConverters.MapHasAsJava
 
 class TransactionBoundQueryContextTest extends CypherFunSuite {
@@ -464,8 +471,107 @@ class TransactionBoundQueryContextTest extends CypherFunSuite {
     tx.close()
   }
 
-  private def startGraph(config: (Setting[_], Object)) = {
-    val configs = Map[Setting[_], Object](config)
+  test("should read large range seeks in partitions on worker threads") {
+    // GIVEN
+    managementService.shutdown()
+    startGraph(
+      GraphDatabaseInternalSettings.cypher_parallel_index_seek_max_partitions -> Integer.valueOf(4),
+      GraphDatabaseInternalSettings.cypher_parallel_index_seek_min_partition_size -> Integer.valueOf(100)
+    )
+    createIndexedNodes(10_000)
+
+    val tx = graph.beginTransaction(Type.EXPLICIT, AnonymousContext.read())
+    val transactionalContext = TransactionalContextWrapper(createTransactionContext(graph, tx))
+    val context = new TransactionBoundQueryContext(transactionalContext, new ResourceManager)(indexSearchMonitor)
+    val ktx = tx.kernelTransaction()
+    val index = ktx.dataRead().indexReadSession(ktx.schemaRead().indexGetForName("prop_index"))
+    val query = PropertyIndexQuery.range(ktx.tokenRead().propertyKey("prop"), 100, true, 9_000, false)
+
+    // WHEN
+    val ordered = context.nodeIndexSeek(index, needsValues = true, IndexOrderAscending, Seq(query))
+    val unordered = context.nodeIndexSeek(index, needsValues = false, IndexOrderNone, Seq(query))
+
+    // THEN
+    ordered shouldBe a[PartitionedNodeValueIndexCursor]
+    val orderedValues = mutable.ArrayBuffer.empty[Int]
+    while (ordered.next()) {
+      orderedValues += ordered.propertyValue(0).asObject().asInstanceOf[Int]
+    }
+    orderedValues should equal(100 until 9_000)
+
+    unordered shouldBe a[PartitionedNodeValueIndexCursor]
+    val nodeCursor = context.transactionalContext.cursors.allocateNodeCursor(CursorContext.NULL_CONTEXT)
+    val unorderedValues = mutable.ArrayBuffer.empty[Int]
+    while (unordered.next()) {
+      unordered.node(nodeCursor)
+      nodeCursor.next() shouldBe true
+      unorderedValues += tx.getNodeById(unordered.nodeReference()).getProperty("prop").asInstanceOf[Int]
+    }
+    unorderedValues.sorted should equal(100 until 9_000)
+
+    nodeCursor.close()
+    context.resources.close()
+    transactionalContext.close()
+    tx.close()
+  }
+
+  test("should read nested partitioned seeks with fewer worker threads than partitions") {
+    // GIVEN
+    createIndexedNodes(10_000)
+    val tx = graph.beginTransaction(Type.EXPLICIT, AnonymousContext.read())
+    val ktx = tx.kernelTransaction()
+    val index = ktx.dataRead().indexReadSession(ktx.schemaRead().indexGetForName("prop_index"))
+    val query = PropertyIndexQuery.range(ktx.tokenRead().propertyKey("prop"), 0, true, 10_000, false)
+    // Busy with the workers of the outer seek for as long as it is not done, so the inner seeks get no workers
+    val executor = Executors.newSingleThreadExecutor()
+
+    def partitionedSeek(ordered: Boolean): NodeValueIndexCursor = {
+      val scan = ktx.dataRead().nodeIndexSeek(index, 4, ktx.queryContext(), query)
+      scan.getNumberOfPartitions should be > 1
+      new PartitionedNodeValueIndexCursor(
+        scan,
+        ktx.cursors().allocateNodeValueIndexCursor(ktx.cursorContext(), ktx.memoryTracker()),
+        ktx.cursorContext(),
+        ktx.securityContext().mode(),
+        Array.fill(scan.getNumberOfPartitions - 1)(ktx.createExecutionContext()),
+        executor,
+        ktx.dataRead(),
+        ordered,
+        needsValues = true
+      )
+    }
+
+    def readAll(cursor: NodeValueIndexCursor): Seq[Int] = {
+      val values = mutable.ArrayBuffer.empty[Int]
+      while (cursor.next()) {
+        values += cursor.propertyValue(0).asObject().asInstanceOf[Int]
+      }
+      cursor.close()
+      values.toSeq
+    }
+
+    try {
+      // WHEN
+      val outer = partitionedSeek(ordered = true)
+      val outerValues = mutable.ArrayBuffer.empty[Int]
+      while (outer.next()) {
+        outerValues += outer.propertyValue(0).asObject().asInstanceOf[Int]
+        if (outerValues.size % 2_500 == 1) {
+          // THEN
+          readAll(partitionedSeek(ordered = true)) should equal(0 until 10_000)
+          readAll(partitionedSeek(ordered = false)).sorted should equal(0 until 10_000)
+        }
+      }
+      outer.close()
+      outerValues should equal(0 until 10_000)
+    } finally {
+      executor.shutdown()
+      tx.close()
+    }
+  }
+
+  private def startGraph(config: (Setting[_], Object)*) = {
+    val configs = Map[Setting[_], Object](config: _*)
     managementService = new TestDatabaseManagementServiceBuilder().impermanent().setConfig(configs.asJava).build()
     graphOps = managementService.database(DEFAULT_DATABASE_NAME)
     graph = new GraphDatabaseCypherService(graphOps)
@@ -503,6 +609,30 @@ class TransactionBoundQueryContextTest extends CypherFunSuite {
     tx.kernelTransaction().dataRead().tokenReadSession(index)
   }
 
+  private def createIndexedNodes(count: Int): Unit = {
+    val label = Label.label("Foo")
+    val tx = graph.beginTransaction(Type.EXPLICIT, AnonymousContext.writeToken())
+    try {
+      (0 until count).foreach(i => tx.createNode(label).setProperty("prop", i))
+      tx.commit()
+    } finally {
+      tx.close()
+    }
+    val schemaTx = graph.beginTransaction(Type.EXPLICIT, LoginContext.AUTH_DISABLED)
+    try {
+      schemaTx.schema().indexFor(label).on("prop").withName("prop_index").create()
+      schemaTx.commit()
+    } finally {
+      schemaTx.close()
+    }
+    val awaitTx = graph.beginTransaction(Type.EXPLICIT, LoginContext.AUTH_DISABLED)
+    try {
+      awaitTx.schema().awaitIndexesOnline(1, TimeUnit.MINUTES)
+    } finally {
+      awaitTx.close()
+    }
+  }
+
   private def createLabeledNodesAndRels(): Unit = {
     val label = Label.label("Foo")
     val relType = RelationshipType.withName("Foo")
@@ -162,6 +162,22 @@ public interface ProcedureITBase {
                         "Clears all query caches.",
                         stringArray("admin"),
                         "DBMS"),
+                proc(
+                        "db.checkpoint.ioLimit",
+                        "() :: (iopsLimit :: INTEGER?, adaptive :: BOOLEAN?, currentIopsLimit :: INTEGER?, "
+                                + "limitedTimes :: INTEGER?, limitedMillis :: INTEGER?)",
+                        "Report the IO limit of checkpoints of the database, and how much they have been throttled by it.",
+                        stringArray("admin"),
+                        "DBMS"),
+                proc(
+                        "db.checkpoint.setIOLimit",
+                        "(iopsLimit :: INTEGER?, adaptive :: BOOLEAN?) :: (iopsLimit :: INTEGER?, adaptive :: BOOLEAN?, "
+                                + "currentIopsLimit :: INTEGER?, limitedTimes :: INTEGER?, limitedMillis :: INTEGER?)",
+                        "Change the IO limit of checkpoints of the database, until the next change of the "
+                                + "`db.checkpoint.iops.limit` setting. A negative limit removes the limit. In adaptive "
+                                + "mode, the limit is lowered while page faults are markedly slower than usual.",
+                        stringArray("admin"),
+                        "DBMS"),
                 proc(
                         "db.index.fulltext.awaitEventuallyConsistentIndexRefresh",
                         "() :: VOID",
@@ -19,10 +19,14 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unordered;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.schema.IndexType;
@@ -39,6 +43,43 @@ import org.neo4j.values.storable.Values;
 public class NodeIndexTransactionStateTest extends IndexTransactionStateTestBase {
     private static final String DEFAULT_LABEL = "Node";
 
+    @Test
+    void shouldOnlyServeBatchedSeekWithoutTransactionStateChanges() throws Exception {
+        // given
+        Set<Pair<Long, Value>> expected = new HashSet<>();
+        try (KernelTransaction tx = beginTransaction()) {
+            expected.add(entityWithProp(tx, "apple"));
+            expected.add(entityWithProp(tx, "banana"));
+            entityWithProp(tx, "cherry");
+            tx.commit();
+        }
+
+        createIndex(IndexType.RANGE);
+
+        // when
+        try (KernelTransaction tx = beginTransaction()) {
+            int prop = tx.tokenRead().propertyKey(DEFAULT_PROPERTY_NAME);
+            IndexDescriptor index = tx.schemaRead().indexGetForName(INDEX_NAME);
+            List<PropertyIndexQuery[]> queries = List.of(
+                    new PropertyIndexQuery[] {PropertyIndexQuery.exact(prop, "banana")},
+                    new PropertyIndexQuery[] {PropertyIndexQuery.exact(prop, "apple")});
+            IndexReadSession indexSession = tx.dataRead().indexReadSession(index);
+            try (NodeValueIndexCursor nodes =
+                    tx.cursors().allocateNodeValueIndexCursor(tx.cursorContext(), tx.memoryTracker())) {
+                // then
+                assertThat(tx.dataRead()
+                                .nodeIndexBatchedSeek(tx.queryContext(), indexSession, nodes, unordered(true), queries))
+                        .isTrue();
+                assertEntityAndValue(expected, tx, true, "banana", new NodeCursorAdapter(nodes));
+
+                entityWithProp(tx, "apple");
+                assertThat(tx.dataRead()
+                                .nodeIndexBatchedSeek(tx.queryContext(), indexSession, nodes, unordered(true), queries))
+                        .isFalse();
+            }
+        }
+    }
+
     @Override
     Pair<Long, Value> entityWithProp(KernelTransaction tx, Object value) throws Exception {
         Write write = tx.dataWrite();
@@ -31,6 +31,7 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogSegments.UNKNOWN_LO
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Clock;
@@ -205,6 +206,122 @@ class TransactionLogChannelAllocatorIT {
         }
     }
 
+    @Test
+    void reusePrunedLogFileAsNewLogFile() throws IOException {
+        var logFileContext = createLogFileContext();
+        var reusableLogFiles = new ReusableLogFiles(
+                fileSystem,
+                testDirectory.homePath(),
+                TransactionLogFilesHelper.DEFAULT_NAME,
+                1,
+                new AtomicLong(1024),
+                INSTANCE);
+        var allocator = new TransactionLogChannelAllocator(
+                logFileContext,
+                fileHelper,
+                new LogHeaderCache(10),
+                new LogFileChannelNativeAccessor(fileSystem, logFileContext),
+                reusableLogFiles);
+        try (PhysicalLogVersionedStoreChannel channel = allocator.createLogChannel(1, () -> 1L)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}));
+        }
+        Path prunedFile = fileHelper.getLogFileForVersion(1);
+        long prunedFileSize = fileSystem.getFileSize(prunedFile);
+
+        assertThat(reusableLogFiles.recycle(prunedFile, () -> false)).isTrue();
+        assertThat(fileSystem.fileExists(prunedFile)).isFalse();
+        assertThat(fileHelper.getMatchedFiles()).isEmpty();
+
+        try (PhysicalLogVersionedStoreChannel channel = allocator.createLogChannel(2, () -> 1L)) {
+            assertEquals(prunedFileSize, channel.size());
+            assertEquals(CURRENT_FORMAT_LOG_HEADER_SIZE, channel.position());
+            ByteBuffer content = ByteBuffer.allocate(4);
+            channel.read(content);
+            assertThat(content.array()).containsOnly(0);
+        }
+        assertThat(reusableLogFiles.reuse(fileHelper.getLogFileForVersion(3))).isFalse();
+    }
+
+    @Test
+    void doNotOverwritePrunedLogFileThatIsStillRead() throws IOException {
+        var logFileContext = createLogFileContext();
+        var reusableLogFiles = new ReusableLogFiles(
+                fileSystem,
+                testDirectory.homePath(),
+                TransactionLogFilesHelper.DEFAULT_NAME,
+                1,
+                new AtomicLong(1024),
+                INSTANCE);
+        var allocator = new TransactionLogChannelAllocator(
+                logFileContext,
+                fileHelper,
+                new LogHeaderCache(10),
+                new LogFileChannelNativeAccessor(fileSystem, logFileContext),
+                reusableLogFiles);
+        try (PhysicalLogVersionedStoreChannel channel = allocator.createLogChannel(1, () -> 1L)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}));
+        }
+        Path prunedFile = fileHelper.getLogFileForVersion(1);
+
+        try (PhysicalLogVersionedStoreChannel reader = allocator.openLogChannel(1)) {
+            assertThat(allocator.hasOpenReaders(1)).isTrue();
+            assertThat(reusableLogFiles.recycle(prunedFile, () -> allocator.hasOpenReaders(1)))
+                    .isFalse();
+            assertThat(fileSystem.fileExists(prunedFile)).isTrue();
+            ByteBuffer content = ByteBuffer.allocate(4);
+            reader.read(content);
+            assertThat(content.array()).containsExactly(1, 2, 3, 4);
+        }
+        assertThat(allocator.hasOpenReaders(1)).isFalse();
+        assertThat(reusableLogFiles.recycle(prunedFile, () -> allocator.hasOpenReaders(1)))
+                .isTrue();
+    }
+
+    @Test
+    void deletePrunedLogFilesBeyondReusableFileLimit() throws IOException {
+        var reusableLogFiles = new ReusableLogFiles(
+                fileSystem,
+                testDirectory.homePath(),
+                TransactionLogFilesHelper.DEFAULT_NAME,
+                1,
+                new AtomicLong(1024),
+                INSTANCE);
+        Path first = fileHelper.getLogFileForVersion(1);
+        Path second = fileHelper.getLogFileForVersion(2);
+        fileSystem.write(first).close();
+        fileSystem.write(second).close();
+
+        assertThat(reusableLogFiles.recycle(first, () -> false)).isTrue();
+        assertThat(reusableLogFiles.recycle(second, () -> false)).isFalse();
+        assertThat(fileSystem.fileExists(second)).isTrue();
+    }
+
+    @Test
+    void replaceLeftoverOfInterruptedRecycling() throws IOException {
+        var reusableLogFiles = new ReusableLogFiles(
+                fileSystem,
+                testDirectory.homePath(),
+                TransactionLogFilesHelper.DEFAULT_NAME,
+                1,
+                new AtomicLong(1024),
+                INSTANCE);
+        Path leftover = testDirectory
+                .homePath()
+                .resolve(ReusableLogFiles.REUSABLE_FILE_PREFIX + TransactionLogFilesHelper.DEFAULT_NAME + "."
+                        + ReusableLogFiles.RECYCLING_FILE_SUFFIX);
+        try (StoreChannel channel = fileSystem.write(leftover)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}));
+        }
+        Path pruned = fileHelper.getLogFileForVersion(1);
+        fileSystem.write(pruned).close();
+
+        assertThat(reusableLogFiles.recycle(pruned, () -> false)).isTrue();
+        assertThat(fileSystem.fileExists(pruned)).isFalse();
+        assertThat(fileSystem.fileExists(leftover)).isFalse();
+        assertThat(reusableLogFiles.reuse(fileHelper.getLogFileForVersion(2))).isTrue();
+        assertEquals(1024, fileSystem.getFileSize(fileHelper.getLogFileForVersion(2)));
+    }
+
     private long getUnavailableBytes() throws IOException {
         return Files.getFileStore(testDirectory.homePath()).getUsableSpace() + ByteUnit.gibiBytes(10);
     }
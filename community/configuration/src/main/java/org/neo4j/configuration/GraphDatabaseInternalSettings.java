@@ -303,6 +303,24 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.cypher.max_number_of_cached_worker_resources", INT, 0)
             .build();
 
+    @Internal
+    @Description(
+            "Maximum number of partitions that an index range seek in the interpreted and slotted runtimes is split into, each read by a Cypher"
+                    + " worker thread. Only applies to transactions without changes. If set to 0 or 1, index seeks are always read by the query thread.")
+    public static final Setting<Integer> cypher_parallel_index_seek_max_partitions = newBuilder(
+                    "internal.cypher.parallel_index_seek_max_partitions", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description(
+            "Minimum number of index entries per partition when an index range seek in the interpreted and slotted runtimes is split into"
+                    + " partitions. Seeks in indexes with fewer entries than twice this number are never split.")
+    public static final Setting<Integer> cypher_parallel_index_seek_min_partition_size = newBuilder(
+                    "internal.cypher.parallel_index_seek_min_partition_size", INT, 50_000)
+            .addConstraint(min(1))
+            .build();
+
     public enum CypherWorkerManagement {
         DEFAULT,
         THREAD_POOL
@@ -691,6 +709,13 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Boolean> archive_failed_index =
             newBuilder("internal.dbms.index.archive_failed", BOOL, false).build();
 
+    @Internal
+    @Description("Create new range indexes with keys stored prefix compressed against their neighbours in the tree. "
+            + "Existing range indexes keep the format they were created with.")
+    public static final Setting<Boolean> range_index_compress_key_prefixes = newBuilder(
+                    "internal.dbms.index.range.compress_key_prefixes", BOOL, false)
+            .build();
+
     @Internal
     @Description("Forces smaller ID cache, in order to preserve memory.")
     public static final Setting<Boolean> force_small_id_cache = newBuilder(
@@ -753,6 +778,15 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(range(2, 100))
             .build();
 
+    @Internal
+    @Description("Let the checkpoint IO limit adapt to the latency of page faults. When page faults of queries become "
+            + "markedly slower than usual while a checkpoint is flushing, the limit is lowered, and it is raised "
+            + "again, up to 'db.checkpoint.iops.limit', when the latency recovers. Only applies to Community Edition.")
+    public static final Setting<Boolean> checkpoint_iops_adaptive = newBuilder(
+                    "internal.db.checkpoint.iops.adaptive", BOOL, false)
+            .dynamic()
+            .build();
+
     @Internal
     @Description(
             "Whether or not to dump system and database diagnostics. This takes a non-negligible amount of time to do and therefore "
@@ -833,6 +867,29 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.strictly_prioritize_id_freelist", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Whether or not to cache reusable ids by region so that an id close to a given id can be allocated. "
+            + "This lets the record storage engine place new relationship and property records close to the records "
+            + "of the entity they belong to, at the cost of slightly more expensive id allocation.")
+    public static final Setting<Boolean> locality_aware_id_allocation = newBuilder(
+                    "internal.dbms.locality_aware_id_allocation", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Whether or not to compress the commands of large transactions with zstd when writing them to the "
+            + "transaction log. Only takes effect for kernel versions that support compressed commands.")
+    public static final Setting<Boolean> compress_transaction_log_commands =
+            newBuilder("internal.dbms.tx_log.compress_commands", BOOL, false).build();
+
+    @Internal
+    @Description("Number of pruned transaction log files to keep, zero-filled, for reuse as new log files. Forcing "
+            + "a reused log file only has to flush its data since all of its blocks have already been written, "
+            + "unlike a newly allocated file. 0 means that pruned log files are deleted.")
+    public static final Setting<Integer> reusable_transaction_log_files = newBuilder(
+                    "internal.dbms.tx_log.reusable_files", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
     @Internal
     @Description("Block/buffer size for index population")
     public static final Setting<Long> index_populator_block_size = newBuilder(
@@ -967,6 +1024,14 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.tx.logs.dedicated.appender", BOOL, Boolean.FALSE)
             .build();
 
+    @Description("Target latency for forcing a batch of transactions when using the dedicated transaction appender. "
+            + "Within this latency the appender may delay forcing the transaction log, based on recent force durations "
+            + "and transaction arrival rate, to let more transactions share the same force. 0 disables such delays.")
+    @Internal
+    public static final Setting<Duration> group_commit_target_latency = newBuilder(
+                    "internal.dbms.tx.logs.group_commit_target_latency", DURATION, Duration.ZERO)
+            .build();
+
     @Internal
     @Description("Enable per page file metrics collection in a default page cache and cursor tracer.")
     public static final Setting<Boolean> per_file_metrics_counters =
@@ -1068,6 +1133,89 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.db.memory.pagecache.warmup.blocking_enabled", BOOL, false)
             .build();
 
+    @Internal
+    @Description("Periodically write a profile of the pages that are in the page cache next to every store file of "
+            + "the database, and use those profiles to warm up the page cache when the database starts. "
+            + "Only in effect when 'db.memory.pagecache.warmup.enable' is set to true.")
+    public static final Setting<Boolean> pagecache_warmup_profile_files = newBuilder(
+                    "internal.db.memory.pagecache.warmup.profile_files.enabled", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("The maximum number of bytes per second that the page cache warmup of a database is allowed to read. "
+            + "Zero means that the warmup is not throttled.")
+    public static final Setting<Long> pagecache_warmup_io_budget = newBuilder(
+                    "internal.db.memory.pagecache.warmup.io_budget", BYTES, mebiBytes(256))
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description(
+            "Number of partitions the page cache pages are split into for eviction. Every partition has its own "
+                    + "free list, clock arm and eviction thread, and page faulting threads steal free pages from other "
+                    + "partitions when their own is empty. The value is capped so that every partition has at least 1024 pages.")
+    public static final Setting<Integer> pagecache_eviction_partitions = newBuilder(
+                    "internal.server.memory.pagecache.eviction.partitions", INT, 1)
+            .addConstraint(min(1))
+            .build();
+
+    public enum PageReplacementPolicy {
+        CLOCK,
+        PROBATIONARY
+    }
+
+    @Internal
+    @Description("The page replacement policy of the page cache. 'CLOCK' treats all page accesses the same, while "
+            + "'PROBATIONARY' keeps pages that are only touched by large scans on probation, and evicts them before "
+            + "the pages used by other queries.")
+    public static final Setting<PageReplacementPolicy> pagecache_replacement_policy = newBuilder(
+                    "internal.server.memory.pagecache.replacement_policy",
+                    ofEnum(PageReplacementPolicy.class),
+                    PageReplacementPolicy.CLOCK)
+            .build();
+
+    @Internal
+    @Description("Use io_uring for the vectored reads and writes of the page cache, which are used by flushing, "
+            + "pre-fetching and warmup, instead of synchronous system calls. Only available on Linux, when liburing "
+            + "is installed and the kernel allows io_uring. The page cache falls back to synchronous IO otherwise.")
+    public static final Setting<Boolean> pagecache_io_uring = newBuilder(
+                    "internal.server.memory.pagecache.io_uring.enabled", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("The number of reads or writes the page cache keeps in flight per io_uring, when "
+            + "'internal.server.memory.pagecache.io_uring.enabled' is set to true.")
+    public static final Setting<Integer> pagecache_io_uring_queue_depth = newBuilder(
+                    "internal.server.memory.pagecache.io_uring.queue_depth", INT, 128)
+            .addConstraint(range(1, 4096))
+            .build();
+
+    @Internal
+    @Description("The maximum number of threads that flush a single store file in parallel, for example during "
+            + "checkpoints. Large files are split into ranges that are flushed independently, which lets fast "
+            + "storage serve several writes at a time. Works well together with io_uring, where every thread "
+            + "keeps its own queue of writes in flight.")
+    public static final Setting<Integer> pagecache_flush_parallelism = newBuilder(
+                    "internal.server.memory.pagecache.flush.parallelism", INT, 1)
+            .addConstraint(range(1, 64))
+            .build();
+
+    @Internal
+    @Description("The maximum size of a single write when the page cache flushes adjacent dirty pages of a file.")
+    public static final Setting<Long> pagecache_flush_max_write_size = newBuilder(
+                    "internal.server.memory.pagecache.flush.max_write_size", BYTES, mebiBytes(32))
+            .addConstraint(range(kibiBytes(8), mebiBytes(256)))
+            .build();
+
+    @Internal
+    @Description("Write pages that have been dirty for longer than this back to their store files in the background, "
+            + "within the limits of the IO controller, so that checkpoints only have to flush the pages that were "
+            + "modified recently. Zero disables the background writeback.")
+    public static final Setting<Duration> pagecache_writeback_age = newBuilder(
+                    "internal.server.memory.pagecache.writeback.age", DURATION, Duration.ZERO)
+            .addConstraint(min(Duration.ZERO))
+            .build();
+
     @Internal
     @Description("A feature toggle behind which change data capture feature is developed")
     public static final Setting<Boolean> change_data_capture =
@@ -466,8 +466,7 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             .build();
 
     @Description("Limit the number of IOs the background checkpoint process will consume per second. "
-            + "This setting is advisory, is ignored in Neo4j Community Edition, and is followed to "
-            + "best effort in Enterprise Edition. "
+            + "This setting is advisory, and is followed to best effort. "
             + "An IO is in this case a 8 KiB (mostly sequential) write. Limiting the write IO in "
             + "this way will leave more bandwidth in the IO subsystem to service random-read IOs, "
             + "which is important for the response time of queries when the database cannot fit "
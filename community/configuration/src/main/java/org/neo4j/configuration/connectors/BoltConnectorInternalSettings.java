@@ -89,6 +89,13 @@ public final class BoltConnectorInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> unsupported_thread_pool_queue_size =
             newBuilder("internal.server.bolt.thread_pool_queue_size", INT, 0).build();
 
+    @Internal
+    @Description("Enable/disable the use of a work stealing thread pool which retains the affinity of connections to "
+            + "the worker associated with their network thread instead of a thread pool with a single shared queue")
+    public static final Setting<Boolean> thread_pool_work_stealing = newBuilder(
+                    "internal.server.bolt.thread_pool_work_stealing", BOOL, false)
+            .build();
+
     @Internal
     @Description("Enable TCP keep alive probes on this connector")
     public static final Setting<Boolean> tcp_keep_alive =
@@ -213,6 +220,14 @@ public final class BoltConnectorInternalSettings implements SettingsDeclaration
             .addConstraint(any(is(0), min(128)))
             .build();
 
+    @Internal
+    @Description("Specifies the maximum number of records which are produced ahead of time while a connection awaits "
+            + "the next request for more results of a read-only statement. Setting this to 0 disables prefetching.")
+    public static final Setting<Integer> result_prefetch_size = newBuilder(
+                    "internal.dbms.bolt.result_prefetch_size", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
     public enum ProtocolLoggingMode {
         DECODED(false, true),
         RAW(true, false),
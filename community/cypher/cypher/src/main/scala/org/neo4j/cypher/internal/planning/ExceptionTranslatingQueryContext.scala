@@ -155,6 +155,14 @@ class ExceptionTranslatingReadQueryContext(val inner: ReadQueryContext) extends
   ): NodeValueIndexCursor =
     translateException(tokenNameLookup, inner.nodeIndexSeek(index, needsValues, indexOrder, values))
 
+  override def nodeIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[NodeValueIndexCursor] =
+    translateException(tokenNameLookup, inner.nodeIndexSeekMany(index, needsValues, indexOrder, queries))
+
   override def relationshipIndexSeek(
     index: IndexReadSession,
     needsValues: Boolean,
@@ -163,6 +171,14 @@ class ExceptionTranslatingReadQueryContext(val inner: ReadQueryContext) extends
   ): RelationshipValueIndexCursor =
     translateException(tokenNameLookup, inner.relationshipIndexSeek(index, needsValues, indexOrder, values))
 
+  override def relationshipIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[RelationshipValueIndexCursor] =
+    translateException(tokenNameLookup, inner.relationshipIndexSeekMany(index, needsValues, indexOrder, queries))
+
   override def relationshipLockingUniqueIndexSeek(
     index: IndexDescriptor,
     queries: Seq[PropertyIndexQuery.ExactPredicate]
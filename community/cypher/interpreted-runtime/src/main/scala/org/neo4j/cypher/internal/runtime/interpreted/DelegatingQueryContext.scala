@@ -295,6 +295,14 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
   ): NodeValueIndexCursor =
     manyDbHits(inner.nodeIndexSeek(index, needsValues, indexOrder, queries))
 
+  override def nodeIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[NodeValueIndexCursor] =
+    inner.nodeIndexSeekMany(index, needsValues, indexOrder, queries).map(cursor => manyDbHits(cursor))
+
   override def nodeIndexScan(
     index: IndexReadSession,
     needsValues: Boolean,
@@ -326,6 +334,14 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
   ): RelationshipValueIndexCursor =
     manyDbHits(inner.relationshipIndexSeek(index, needsValues, indexOrder, queries))
 
+  override def relationshipIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[RelationshipValueIndexCursor] =
+    inner.relationshipIndexSeekMany(index, needsValues, indexOrder, queries).map(cursor => manyDbHits(cursor))
+
   override def relationshipLockingUniqueIndexSeek(
     index: IndexDescriptor,
     queries: Seq[PropertyIndexQuery.ExactPredicate]
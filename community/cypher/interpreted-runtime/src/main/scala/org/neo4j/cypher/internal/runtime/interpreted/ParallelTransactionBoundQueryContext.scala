@@ -55,6 +55,9 @@ sealed class ParallelTransactionBoundQueryContext(
     extends TransactionBoundReadQueryContext(transactionalContext, resources, closeable) with QueryContext
     with UnsupportedWriteQueryContext {
 
+  // Workers of the parallel runtime cannot hand out execution contexts of their own
+  override protected lazy val maxIndexSeekPartitions: Int = 0
+
   override def close(): Unit = {
     if (DebugSupport.DEBUG_TRANSACTIONAL_CONTEXT) {
       DebugSupport.TRANSACTIONAL_CONTEXT.log(
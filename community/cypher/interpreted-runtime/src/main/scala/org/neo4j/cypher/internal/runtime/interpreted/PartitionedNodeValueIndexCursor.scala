@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.runtime.interpreted.PartitionedNodeValueIndexCursor.BATCH_SIZE
+import org.neo4j.cypher.internal.runtime.interpreted.PartitionedNodeValueIndexCursor.Batch
+import org.neo4j.cypher.internal.runtime.interpreted.PartitionedNodeValueIndexCursor.END_OF_PARTITION
+import org.neo4j.cypher.internal.runtime.interpreted.PartitionedNodeValueIndexCursor.POLL_MILLIS
+import org.neo4j.cypher.internal.runtime.interpreted.PartitionedNodeValueIndexCursor.QUEUE_CAPACITY
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.internal.kernel.api.KernelReadTracer
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.io.pagecache.context.CursorContext
+import org.neo4j.kernel.api.ExecutionContext
+import org.neo4j.values.storable.Value
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Cursor that reads the partitions of a partitioned index seek on worker threads, and on the query thread.
+ *
+ * Every worker reads with its own [[ExecutionContext]], created on the transaction thread, and hands the entries
+ * over in batches. Partitions are reserved in key order, so an ordered cursor can return all batches of one
+ * partition before moving on to the next and still produce the order of a single seek. An unordered cursor returns
+ * batches in whatever order the workers produce them.
+ *
+ * The workers share their pool with everything else, so they may start late or not at all, e.g. when the pool is
+ * busy with the workers of an enclosing seek. The query thread therefore never waits for a partition that no worker
+ * has reserved yet, it reserves and reads that partition itself, with the query cursor. A worker blocked on a full
+ * queue has a partition that the query thread gets to eventually, and closing only waits for the workers that have
+ * started, which stop at their next batch.
+ */
+class PartitionedNodeValueIndexCursor(
+  scan: PartitionedScan[NodeValueIndexCursor],
+  queryCursor: NodeValueIndexCursor,
+  cursorContext: CursorContext,
+  accessMode: AccessMode,
+  executionContexts: Array[ExecutionContext],
+  executor: Executor,
+  read: Read,
+  ordered: Boolean,
+  needsValues: Boolean
+) extends DefaultCloseListenable with NodeValueIndexCursor {
+
+  private[this] val numberOfPartitions = scan.getNumberOfPartitions
+
+  private[this] val queues: Array[BlockingQueue[Batch]] =
+    if (ordered) Array.fill(numberOfPartitions)(new ArrayBlockingQueue[Batch](QUEUE_CAPACITY))
+    else Array(new ArrayBlockingQueue[Batch](QUEUE_CAPACITY * math.max(1, executionContexts.length)))
+
+  private[this] val failure = new AtomicReference[Throwable]()
+  @volatile private[this] var closed = false
+
+  // Guarded by this, pairs every reserved partition with its position in key order
+  private[this] var nextPartition = 0
+  // Guarded by this, whether the worker of each execution context has started, and how many have finished
+  private[this] val started = new Array[Boolean](executionContexts.length)
+  private[this] var finishedWorkers = 0
+
+  private[this] var currentQueue = 0
+  private[this] var finishedPartitions = 0
+  private[this] var readingPartition = false
+  private[this] var batch: Batch = _
+  private[this] var offset = 0
+  private[this] var tracer: KernelReadTracer = _
+
+  executionContexts.indices.foreach(worker => executor.execute(() => work(worker)))
+
+  override def next(): Boolean = {
+    offset += 1
+    while (true) {
+      if (readingPartition) {
+        if (queryCursor.next()) {
+          return traced(queryCursor.nodeReference())
+        }
+        readingPartition = false
+        finishPartition()
+      } else if (batch != null && offset < batch.size) {
+        return traced(batch.nodes(offset))
+      } else if (finishedPartitions == numberOfPartitions) {
+        return false
+      } else {
+        batch = null
+        val next = take()
+        if (next == null) {
+          readingPartition = true
+        } else if (next eq END_OF_PARTITION) {
+          finishPartition()
+        } else {
+          batch = next
+          offset = 0
+        }
+      }
+    }
+    false
+  }
+
+  private def traced(node: Long): Boolean = {
+    if (tracer != null) {
+      tracer.onNode(node)
+    }
+    true
+  }
+
+  private def finishPartition(): Unit = {
+    finishedPartitions += 1
+    if (ordered) {
+      currentQueue += 1
+    }
+  }
+
+  override def nodeReference(): Long = if (readingPartition) queryCursor.nodeReference() else batch.nodes(offset)
+
+  override def node(cursor: NodeCursor): Unit = read.singleNode(nodeReference(), cursor)
+
+  override def numberOfProperties(): Int =
+    if (readingPartition) queryCursor.numberOfProperties()
+    else if (batch.values == null) 0
+    else batch.values(offset).length
+
+  override def hasValue: Boolean = if (readingPartition) queryCursor.hasValue else batch.values != null
+
+  override def propertyValue(offset: Int): Value =
+    if (readingPartition) queryCursor.propertyValue(offset) else batch.values(this.offset)(offset)
+
+  override def score(): Float = Float.NaN
+
+  override def setTracer(tracer: KernelReadTracer): Unit = {
+    this.tracer = tracer
+    tracer.onIndexSeek()
+  }
+
+  override def removeTracer(): Unit = tracer = null
+
+  override def isClosed: Boolean = closed
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      synchronized {
+        closed = true
+        // Execution contexts must be closed by the transaction thread, after the workers have completed them
+        while (finishedWorkers < started.count(identity)) {
+          wait()
+        }
+      }
+      executionContexts.indices.foreach { worker =>
+        if (!started(worker)) {
+          executionContexts(worker).complete()
+        }
+        executionContexts(worker).close()
+      }
+      queryCursor.close()
+      batch = null
+      readingPartition = false
+    }
+  }
+
+  /**
+   * @return the next batch to return, or `null` if the query thread has reserved the next partition to read itself.
+   */
+  private def take(): Batch = {
+    val queue = queues(currentQueue)
+    var next = queue.poll()
+    while (next == null) {
+      rethrowFailure()
+      if (reserveForQueryThread()) {
+        return null
+      }
+      next = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)
+    }
+    next
+  }
+
+  /**
+   * An ordered cursor can only read the partition it is at, and only if no worker has it. An unordered cursor can
+   * read any partition that no worker has.
+   */
+  private def reserveForQueryThread(): Boolean = synchronized {
+    (!ordered || nextPartition == currentQueue) && reserve(queryCursor, cursorContext, accessMode) >= 0
+  }
+
+  private def rethrowFailure(): Unit = {
+    val t = failure.get()
+    if (t != null) {
+      throw t
+    }
+  }
+
+  private def work(worker: Int): Unit = {
+    if (!start(worker)) {
+      return
+    }
+    val context = executionContexts(worker)
+    try {
+      val cursor = context.cursors().allocateNodeValueIndexCursor(context.cursorContext(), context.memoryTracker())
+      try {
+        var partition = reserve(cursor, context.cursorContext(), context.securityContext().mode())
+        while (partition >= 0 && !closed) {
+          readPartition(cursor, context, queues(if (ordered) partition else 0))
+          partition = reserve(cursor, context.cursorContext(), context.securityContext().mode())
+        }
+      } finally {
+        cursor.close()
+      }
+    } catch {
+      case t: Throwable => failure.compareAndSet(null, t)
+    } finally {
+      try {
+        context.complete()
+      } finally {
+        synchronized {
+          finishedWorkers += 1
+          notifyAll()
+        }
+      }
+    }
+  }
+
+  /**
+   * Workers that get to run after the cursor is closed leave their execution context to the query thread.
+   */
+  private def start(worker: Int): Boolean = synchronized {
+    if (closed) {
+      false
+    } else {
+      started(worker) = true
+      true
+    }
+  }
+
+  private def reserve(cursor: NodeValueIndexCursor, cursorContext: CursorContext, accessMode: AccessMode): Int =
+    synchronized {
+      if (!closed && scan.reservePartition(cursor, cursorContext, accessMode)) {
+        val partition = nextPartition
+        nextPartition += 1
+        partition
+      } else {
+        -1
+      }
+    }
+
+  private def readPartition(
+    cursor: NodeValueIndexCursor,
+    context: ExecutionContext,
+    queue: BlockingQueue[Batch]
+  ): Unit = {
+    var batch = new Batch(needsValues)
+    while (cursor.next()) {
+      batch.add(cursor)
+      if (batch.size == BATCH_SIZE) {
+        context.performCheckBeforeOperation()
+        if (!put(queue, batch)) {
+          return
+        }
+        batch = new Batch(needsValues)
+      }
+    }
+    if (batch.size > 0 && !put(queue, batch)) {
+      return
+    }
+    put(queue, END_OF_PARTITION)
+  }
+
+  private def put(queue: BlockingQueue[Batch], batch: Batch): Boolean = {
+    while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+      if (closed) {
+        return false
+      }
+    }
+    true
+  }
+}
+
+object PartitionedNodeValueIndexCursor {
+  private val BATCH_SIZE = 256
+  private val QUEUE_CAPACITY = 4
+  private val POLL_MILLIS = 10L
+  private val END_OF_PARTITION = new Batch(false)
+
+  private class Batch(needsValues: Boolean) {
+    val nodes = new Array[Long](BATCH_SIZE)
+    val values: Array[Array[Value]] = if (needsValues) new Array[Array[Value]](BATCH_SIZE) else null
+    var size = 0
+
+    def add(cursor: NodeValueIndexCursor): Unit = {
+      nodes(size) = cursor.nodeReference()
+      if (values != null) {
+        val properties = new Array[Value](cursor.numberOfProperties())
+        var i = 0
+        while (i < properties.length) {
+          properties(i) = cursor.propertyValue(i)
+          i += 1
+        }
+        values(size) = properties
+      }
+      size += 1
+    }
+  }
+}
@@ -24,12 +24,15 @@ import org.eclipse.collections.api.set.primitive.IntSet
 import org.eclipse.collections.impl.factory.primitive.IntSets
 import org.neo4j.common.EntityType
 import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
 import org.neo4j.configuration.GraphDatabaseSettings.SYSTEM_DATABASE_NAME
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.expressions.SemanticDirection.BOTH
 import org.neo4j.cypher.internal.expressions.SemanticDirection.INCOMING
 import org.neo4j.cypher.internal.expressions.SemanticDirection.OUTGOING
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
+import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
+import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
 import org.neo4j.cypher.internal.macros.AssertMacros
 import org.neo4j.cypher.internal.runtime
 import org.neo4j.cypher.internal.runtime.ClosingIterator
@@ -89,6 +92,7 @@ import org.neo4j.internal.kernel.api.NodeValueIndexCursor
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.PropertyIndexQuery
 import org.neo4j.internal.kernel.api.PropertyIndexQuery.ExactPredicate
+import org.neo4j.internal.kernel.api.PropertyIndexQuery.RangePredicate
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
@@ -129,6 +133,8 @@ import org.neo4j.kernel.impl.util.ValueUtils
 import org.neo4j.logging.InternalLogProvider
 import org.neo4j.logging.internal.LogService
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.storageengine.api.RelationshipVisitor
 import org.neo4j.values.AnyValue
 import org.neo4j.values.ValueMapper
@@ -150,6 +156,7 @@ import scala.collection.mutable.ArrayBuffer
 import scala.jdk.CollectionConverters.IterableHasAsScala
 import scala.jdk.CollectionConverters.IteratorHasAsScala
 import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.jdk.CollectionConverters.SeqHasAsJava
 import scala.util.control.NonFatal
 
 sealed class TransactionBoundQueryContext(
@@ -555,6 +562,14 @@ private[internal] class TransactionBoundReadQueryContext(
   // We cannot assign to value because of periodic commit
   protected def reads(): Read = transactionalContext.dataRead
 
+  protected lazy val maxIndexSeekPartitions: Int =
+    transactionalContext.config.get(GraphDatabaseInternalSettings.cypher_parallel_index_seek_max_partitions)
+
+  private lazy val cypherWorkers =
+    transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[JobScheduler]).executor(
+      Group.CYPHER_WORKER
+    )
+
   private def allocateNodeCursor() = transactionalContext.cursors.allocateNodeCursor(transactionalContext.cursorContext)
 
   protected def tokenRead: TokenRead = transactionalContext.tokenRead
@@ -704,11 +719,40 @@ private[internal] class TransactionBoundReadQueryContext(
   ): NodeValueIndexCursor = {
     if (predicates.exists(isImpossibleIndexQuery)) {
       NodeValueIndexCursor.EMPTY
+    } else if (canPartitionNodeIndexSeek(index, indexOrder, predicates)) {
+      partitionedNodeIndexSeek(index, needsValues, indexOrder, predicates.head)
     } else {
       innerNodeIndexSeek(index, needsValues, indexOrder, predicates: _*)
     }
   }
 
+  override def nodeIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[NodeValueIndexCursor] = {
+    val possibleQueries = queries.filterNot(_.exists(isImpossibleIndexQuery))
+    if (indexOrder == IndexOrderDescending || possibleQueries.size < 2) {
+      None
+    } else {
+      val nodeCursor = allocateAndTraceNodeValueIndexCursor()
+      val sought = reads().nodeIndexBatchedSeek(
+        transactionalContext.kernelQueryContext,
+        index,
+        nodeCursor,
+        IndexQueryConstraints.constrained(asKernelIndexOrder(indexOrder), needsValues),
+        possibleQueries.map(_.toArray).asJava
+      )
+      if (sought) {
+        Some(nodeCursor)
+      } else {
+        nodeCursor.close()
+        None
+      }
+    }
+  }
+
   override def relationshipIndexSeek(
     index: IndexReadSession,
     needsValues: Boolean,
@@ -722,6 +766,33 @@ private[internal] class TransactionBoundReadQueryContext(
     }
   }
 
+  override def relationshipIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[RelationshipValueIndexCursor] = {
+    val possibleQueries = queries.filterNot(_.exists(isImpossibleIndexQuery))
+    if (indexOrder == IndexOrderDescending || possibleQueries.size < 2) {
+      None
+    } else {
+      val relCursor = allocateAndTraceRelationshipValueIndexCursor()
+      val sought = reads().relationshipIndexBatchedSeek(
+        transactionalContext.kernelQueryContext,
+        index,
+        relCursor,
+        IndexQueryConstraints.constrained(asKernelIndexOrder(indexOrder), needsValues),
+        possibleQueries.map(_.toArray).asJava
+      )
+      if (sought) {
+        Some(relCursor)
+      } else {
+        relCursor.close()
+        None
+      }
+    }
+  }
+
   override def relationshipLockingUniqueIndexSeek(
     index: IndexDescriptor,
     queries: Seq[PropertyIndexQuery.ExactPredicate]
@@ -856,6 +927,62 @@ private[internal] class TransactionBoundReadQueryContext(
     }
   }
 
+  private def canPartitionNodeIndexSeek(
+    index: IndexReadSession,
+    indexOrder: IndexOrder,
+    predicates: Seq[PropertyIndexQuery]
+  ): Boolean =
+    maxIndexSeekPartitions > 1 &&
+      indexOrder != IndexOrderDescending &&
+      predicates.size == 1 &&
+      predicates.head.isInstanceOf[RangePredicate[_]] &&
+      index.reference().getIndexType == IndexType.RANGE &&
+      !reads().transactionStateHasChanges
+
+  /**
+   * Splits a range seek into partitions that are read by Cypher workers, see [[PartitionedNodeValueIndexCursor]].
+   * The size of the index bounds the size of the range, so it decides how many partitions to ask for. The tree then
+   * only splits the range at keys within it, so narrow ranges end up with fewer partitions, or just one, in which
+   * case the seek is read by the query thread as usual.
+   */
+  private def partitionedNodeIndexSeek(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    query: PropertyIndexQuery
+  ): NodeValueIndexCursor = {
+    val indexSize = transactionalContext.schemaRead.indexSize(index.reference())
+    val minPartitionSize =
+      transactionalContext.config.get(GraphDatabaseInternalSettings.cypher_parallel_index_seek_min_partition_size)
+    val desiredPartitions = math.min(maxIndexSeekPartitions.toLong, indexSize / minPartitionSize.toLong).toInt
+    if (desiredPartitions < 2) {
+      return innerNodeIndexSeek(index, needsValues, indexOrder, query)
+    }
+    val scan = reads().nodeIndexSeek(index, desiredPartitions, transactionalContext.kernelQueryContext, query)
+    if (scan.getNumberOfPartitions < 2) {
+      return innerNodeIndexSeek(index, needsValues, indexOrder, query)
+    }
+    val ktx = transactionalContext.kernelTransaction
+    // The query thread reads partitions too, so one worker less than there are partitions is enough
+    val executionContexts = Array.fill(scan.getNumberOfPartitions - 1)(ktx.createExecutionContext())
+    val cursor = new PartitionedNodeValueIndexCursor(
+      scan,
+      transactionalContext.cursors.allocateNodeValueIndexCursor(
+        transactionalContext.cursorContext,
+        transactionalContext.memoryTracker
+      ),
+      transactionalContext.cursorContext,
+      transactionalContext.accessMode,
+      executionContexts,
+      cypherWorkers,
+      reads(),
+      ordered = indexOrder == IndexOrderAscending,
+      needsValues
+    )
+    resources.trace(cursor)
+    cursor
+  }
+
   private def innerRelationshipIndexSeek(
     index: IndexReadSession,
     needsValues: Boolean,
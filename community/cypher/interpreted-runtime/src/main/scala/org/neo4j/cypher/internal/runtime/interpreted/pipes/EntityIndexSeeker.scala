@@ -88,16 +88,19 @@ trait EntityIndexSeeker {
         if (indexQueries.size == 1) {
           state.query.nodeIndexSeek(index, needsValues, indexOrder, indexQueries.head)
         } else {
-          orderedCursor(
-            indexOrder,
-            indexQueries.map(query =>
-              state.query.nodeIndexSeek(
-                index,
-                needsValues = needsValues || indexOrder != IndexOrderNone,
-                indexOrder,
-                query
-              )
-            ).toArray
+          // Seek all queries in one pass over the index if possible, otherwise one by one
+          state.query.nodeIndexSeekMany(index, needsValues, indexOrder, indexQueries).getOrElse(
+            orderedCursor(
+              indexOrder,
+              indexQueries.map(query =>
+                state.query.nodeIndexSeek(
+                  index,
+                  needsValues = needsValues || indexOrder != IndexOrderNone,
+                  indexOrder,
+                  query
+                )
+              ).toArray
+            )
           )
         }
 
@@ -125,16 +128,18 @@ trait EntityIndexSeeker {
       if (indexQueries.size == 1) {
         state.query.relationshipIndexSeek(index, needsValues, indexOrder, indexQueries.head)
       } else {
-        orderedCursor(
-          indexOrder,
-          indexQueries.map(query =>
-            state.query.relationshipIndexSeek(
-              index,
-              needsValues = needsValues || indexOrder != IndexOrderNone,
-              indexOrder,
-              query
-            )
-          ).toArray
+        state.query.relationshipIndexSeekMany(index, needsValues, indexOrder, indexQueries).getOrElse(
+          orderedCursor(
+            indexOrder,
+            indexQueries.map(query =>
+              state.query.relationshipIndexSeek(
+                index,
+                needsValues = needsValues || indexOrder != IndexOrderNone,
+                indexOrder,
+                query
+              )
+            ).toArray
+          )
         )
       }
     case LockingUniqueIndexSeek =>
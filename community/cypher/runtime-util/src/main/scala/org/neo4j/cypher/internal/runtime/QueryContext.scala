@@ -157,6 +157,18 @@ trait ReadQueryContext extends ReadTokenContext with DbAccess with AutoCloseable
     queries: Seq[PropertyIndexQuery]
   ): NodeValueIndexCursor
 
+  /**
+   * Seeks the nodes matching any of the given queries in a single pass over the index, returning each node once and
+   * in ascending index order. Returns `None` if the queries can't be sought together, in which case they have to be
+   * sought one by one with [[nodeIndexSeek]].
+   */
+  def nodeIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[NodeValueIndexCursor] = None
+
   def nodeIndexSeekByContains(
     index: IndexReadSession,
     needsValues: Boolean,
@@ -185,6 +197,16 @@ trait ReadQueryContext extends ReadTokenContext with DbAccess with AutoCloseable
     queries: Seq[PropertyIndexQuery]
   ): RelationshipValueIndexCursor
 
+  /**
+   * Seeks the relationships matching any of the given queries in a single pass over the index, see [[nodeIndexSeekMany]].
+   */
+  def relationshipIndexSeekMany(
+    index: IndexReadSession,
+    needsValues: Boolean,
+    indexOrder: IndexOrder,
+    queries: collection.Seq[Seq[PropertyIndexQuery]]
+  ): Option[RelationshipValueIndexCursor] = None
+
   def relationshipLockingUniqueIndexSeek(
     index: IndexDescriptor,
     queries: Seq[PropertyIndexQuery.ExactPredicate]
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.DefaultFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectorySupportExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+@ExtendWith({RandomExtension.class, DefaultFileSystemExtension.class, TestDirectorySupportExtension.class})
+class GBPTreeBatchedSeekTest {
+    private static final int PAGE_SIZE = 512;
+    private static final int KEY_COUNT = 10_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheSupportExtension =
+            new PageCacheSupportExtension(PageCacheConfig.config().withPageSize(PAGE_SIZE));
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private RandomSupport random;
+
+    @Inject
+    private PageCache pageCache;
+
+    private SimpleLongLayout layout;
+    private Path treeFile;
+
+    @BeforeEach
+    void setup() {
+        layout = SimpleLongLayout.longLayout().build();
+        treeFile = testDirectory.file("tree");
+    }
+
+    @Test
+    void shouldFindExactKeysInBatch() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given even keys in the tree
+            insertEvenKeys(tree);
+
+            // when looking up sorted keys of which some are missing, some are close together and some far apart
+            List<Seeker.Range<MutableLong>> ranges = new ArrayList<>();
+            MutableLongList expected = LongLists.mutable.empty();
+            long key = random.nextLong(10);
+            while (key < KEY_COUNT * 2 + 10) {
+                ranges.add(Seeker.Range.exact(layout.key(key)));
+                if (key % 2 == 0 && key < KEY_COUNT * 2) {
+                    expected.add(key);
+                }
+                key += 1 + (random.nextBoolean() ? random.nextLong(5) : random.nextLong(2_000));
+            }
+
+            // then
+            try (Seeker<MutableLong, MutableLong> seeker = tree.seek(ranges, NULL_CONTEXT)) {
+                assertThat(collect(seeker)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void shouldFindRangesInBatch() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            insertEvenKeys(tree);
+
+            // when
+            List<Seeker.Range<MutableLong>> ranges = new ArrayList<>();
+            MutableLongList expected = LongLists.mutable.empty();
+            long from = random.nextLong(10);
+            while (from < KEY_COUNT * 2) {
+                long to = from + random.nextLong(100);
+                ranges.add(new Seeker.Range<>(layout.key(from), layout.key(to)));
+                for (long key = from; key < to && key < KEY_COUNT * 2; key++) {
+                    if (key % 2 == 0) {
+                        expected.add(key);
+                    }
+                }
+                from = to + (random.nextBoolean() ? random.nextLong(5) : random.nextLong(2_000));
+            }
+
+            // then
+            try (Seeker<MutableLong, MutableLong> seeker = tree.seek(ranges, NULL_CONTEXT)) {
+                assertThat(collect(seeker)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void shouldReuseSeekerForBatchAndSingleSeeks() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                Seeker<MutableLong, MutableLong> seeker = tree.allocateSeeker(NULL_CONTEXT)) {
+            // given
+            insertEvenKeys(tree);
+
+            // when/then
+            tree.seek(seeker, List.of(Seeker.Range.exact(layout.key(10)), Seeker.Range.exact(layout.key(20))));
+            assertThat(collect(seeker)).isEqualTo(LongLists.mutable.of(10, 20));
+            tree.seek(seeker, layout.key(100), layout.key(106));
+            assertThat(collect(seeker)).isEqualTo(LongLists.mutable.of(100, 102, 104));
+            tree.seek(seeker, List.of(Seeker.Range.exact(layout.key(2))));
+            assertThat(collect(seeker)).isEqualTo(LongLists.mutable.of(2));
+        }
+    }
+
+    @Test
+    void shouldFindAllKeysInBatchWhileKeysAreInserted() throws Throwable {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            insertEvenKeys(tree);
+            List<Seeker.Range<MutableLong>> ranges = new ArrayList<>();
+            MutableLongList expected = LongLists.mutable.empty();
+            for (long key = 0; key < KEY_COUNT * 2; key += 2 * (1 + random.nextInt(20))) {
+                ranges.add(Seeker.Range.exact(layout.key(key)));
+                expected.add(key);
+            }
+
+            // when odd keys are inserted concurrently, causing splits under the batched seeks
+            AtomicBoolean done = new AtomicBoolean();
+            Race race = new Race();
+            race.addContestant(Race.throwing(() -> {
+                try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                    for (long key = 1; key < KEY_COUNT * 2; key += 2) {
+                        writer.put(layout.key(key), layout.value(key));
+                    }
+                } finally {
+                    done.set(true);
+                }
+            }));
+            race.addContestant(Race.throwing(() -> {
+                do {
+                    try (Seeker<MutableLong, MutableLong> seeker = tree.seek(ranges, NULL_CONTEXT)) {
+                        assertThat(collect(seeker)).isEqualTo(expected);
+                    }
+                } while (!done.get());
+            }));
+
+            // then
+            race.go();
+        }
+    }
+
+    @Test
+    void shouldFailOnUnsortedOrOverlappingRanges() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            assertThatThrownBy(() -> tree.seek(
+                            List.of(Seeker.Range.exact(layout.key(10)), Seeker.Range.exact(layout.key(5))),
+                            NULL_CONTEXT))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> tree.seek(
+                            List.of(Seeker.Range.exact(layout.key(10)), Seeker.Range.exact(layout.key(10))),
+                            NULL_CONTEXT))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> tree.seek(
+                            List.of(
+                                    new Seeker.Range<>(layout.key(0), layout.key(10)),
+                                    new Seeker.Range<>(layout.key(5), layout.key(15))),
+                            NULL_CONTEXT))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(
+                            () -> tree.seek(List.of(new Seeker.Range<>(layout.key(10), layout.key(0))), NULL_CONTEXT))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void insertEvenKeys(GBPTree<MutableLong, MutableLong> tree) throws IOException {
+        try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+            for (long key = 0; key < KEY_COUNT * 2; key += 2) {
+                writer.put(layout.key(key), layout.value(key));
+            }
+        }
+    }
+
+    private static MutableLongList collect(Seeker<MutableLong, MutableLong> seeker) throws IOException {
+        MutableLongList keys = LongLists.mutable.empty();
+        while (seeker.next()) {
+            assertThat(seeker.value().longValue()).isEqualTo(seeker.key().longValue());
+            keys.add(seeker.key().longValue());
+        }
+        return keys;
+    }
+
+    private GBPTree<MutableLong, MutableLong> instantiateTree() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, treeFile, layout).build();
+    }
+}
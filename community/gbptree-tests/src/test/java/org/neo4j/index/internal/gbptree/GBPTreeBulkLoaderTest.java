@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.neo4j.index.internal.gbptree.SimpleLongLayout.longLayout;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+import static org.neo4j.test.Race.throwing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.DefaultFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectorySupportExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+@ExtendWith({RandomExtension.class, DefaultFileSystemExtension.class, TestDirectorySupportExtension.class})
+class GBPTreeBulkLoaderTest {
+    private static final int PAGE_SIZE = 512;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheSupportExtension =
+            new PageCacheSupportExtension(PageCacheConfig.config().withPageSize(PAGE_SIZE));
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private RandomSupport random;
+
+    @Inject
+    private PageCache pageCache;
+
+    private SimpleLongLayout layout;
+    private Path treeFile;
+
+    @BeforeEach
+    void setup() {
+        layout = TestLayouts.FIXED_SIZE.layout;
+        treeFile = testDirectory.file("tree");
+    }
+
+    private static Stream<Arguments> layoutsAndCounts() {
+        return Stream.of(TestLayouts.values())
+                .flatMap(layout -> Stream.of(1, 2, 30, 1_000, 100_000).map(count -> arguments(layout, count)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("layoutsAndCounts")
+    void shouldLoadSortedEntries(TestLayouts testLayout, int count) throws IOException {
+        layout = testLayout.layout;
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            MutableLongList keys = randomKeys(count);
+
+            // when
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(randomFillFactor(), NULL_CONTEXT);
+                    BulkLoader.Appender<MutableLong, MutableLong> appender = bulkLoader.appender(NULL_CONTEXT)) {
+                keys.forEach(key -> appender.add(layout.key(key), layout.value(key)));
+            }
+
+            // then
+            assertEntries(tree, keys);
+            tree.consistencyCheck(NULL_CONTEXT_FACTORY, 1);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TestLayouts.class)
+    void shouldLoadKeyRangesInParallel(TestLayouts testLayout) throws Throwable {
+        layout = testLayout.layout;
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given key ranges of very different sizes, some of which are tiny or empty
+            MutableLongList keys = randomKeys(50_000);
+            long[] allKeys = keys.toArray();
+            List<long[]> ranges = new ArrayList<>();
+            int from = 0;
+            while (from < allKeys.length) {
+                int size = random.nextBoolean() ? random.nextInt(3) : random.nextInt(10_000);
+                int to = Math.min(allKeys.length, from + size);
+                ranges.add(Arrays.copyOfRange(allKeys, from, to));
+                from = to;
+            }
+
+            // when
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(randomFillFactor(), NULL_CONTEXT)) {
+                Race race = new Race();
+                for (long[] range : ranges) {
+                    BulkLoader.Appender<MutableLong, MutableLong> appender = bulkLoader.appender(NULL_CONTEXT);
+                    race.addContestant(throwing(() -> {
+                        try (appender) {
+                            for (long key : range) {
+                                appender.add(layout.key(key), layout.value(key));
+                            }
+                        }
+                    }));
+                }
+                race.go();
+            }
+
+            // then
+            assertEntries(tree, keys);
+            tree.consistencyCheck(NULL_CONTEXT_FACTORY, 1);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TestLayouts.class)
+    void shouldAcceptWritesAfterLoading(TestLayouts testLayout) throws IOException {
+        layout = testLayout.layout;
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            MutableLongList keys = LongLists.mutable.empty();
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1, NULL_CONTEXT);
+                    BulkLoader.Appender<MutableLong, MutableLong> appender = bulkLoader.appender(NULL_CONTEXT)) {
+                for (long key = 0; key < 10_000; key += 2) {
+                    appender.add(layout.key(key), layout.value(key));
+                    keys.add(key);
+                }
+            }
+
+            // when
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                for (long key = 1; key < 10_000; key += 2) {
+                    writer.put(layout.key(key), layout.value(key));
+                    keys.add(key);
+                }
+            }
+
+            // then
+            assertEntries(tree, keys.sortThis());
+            tree.consistencyCheck(NULL_CONTEXT_FACTORY, 1);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1, 0.75, 0.5})
+    void shouldFillInternalNodesUpToFillFactor(double fillFactor) throws IOException {
+        int maxKeyCount = new TreeNodeFixedSize<>(PAGE_SIZE, layout).internalMaxKeyCount();
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            MutableLongList keys = randomKeys(100_000);
+
+            // when
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(fillFactor, NULL_CONTEXT);
+                    BulkLoader.Appender<MutableLong, MutableLong> appender = bulkLoader.appender(NULL_CONTEXT)) {
+                keys.forEach(key -> appender.add(layout.key(key), layout.value(key)));
+            }
+
+            // then all internal nodes, but the last two of each level which may have given children to each other,
+            // have the share of the max key count that the fill factor asks for
+            List<MutableLongList> levels = internalKeyCountsPerLevel(tree);
+            assertThat(levels).hasSizeGreaterThan(1);
+            for (MutableLongList keyCounts : levels) {
+                for (int i = 0; i < keyCounts.size() - 2; i++) {
+                    assertThat(keyCounts.get(i)).isBetween((long) Math.floor(fillFactor * maxKeyCount) - 1, (long)
+                            Math.ceil(fillFactor * maxKeyCount));
+                }
+            }
+            assertEntries(tree, keys);
+            tree.consistencyCheck(NULL_CONTEXT_FACTORY, 1);
+        }
+    }
+
+    @Test
+    void shouldLeaveTreeEmptyWhenNothingIsLoaded() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // when
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1, NULL_CONTEXT)) {
+                bulkLoader.appender(NULL_CONTEXT).close();
+            }
+
+            // then
+            assertEntries(tree, LongLists.mutable.empty());
+            tree.consistencyCheck(NULL_CONTEXT_FACTORY, 1);
+        }
+    }
+
+    @Test
+    void shouldFailOnKeysThatAreNotAscending() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1, NULL_CONTEXT);
+                BulkLoader.Appender<MutableLong, MutableLong> appender = bulkLoader.appender(NULL_CONTEXT)) {
+            appender.add(layout.key(10), layout.value(10));
+
+            assertThatThrownBy(() -> appender.add(layout.key(10), layout.value(10)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> appender.add(layout.key(5), layout.value(5)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void shouldFailOnOverlappingKeyRanges() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1, NULL_CONTEXT);
+            try (BulkLoader.Appender<MutableLong, MutableLong> first = bulkLoader.appender(NULL_CONTEXT);
+                    BulkLoader.Appender<MutableLong, MutableLong> second = bulkLoader.appender(NULL_CONTEXT)) {
+                first.add(layout.key(0), layout.value(0));
+                first.add(layout.key(10), layout.value(10));
+                second.add(layout.key(5), layout.value(5));
+            }
+
+            assertThatThrownBy(bulkLoader::close).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void shouldOnlyLoadIntoEmptyTree() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                writer.put(layout.key(0), layout.value(0));
+            }
+
+            assertThatThrownBy(() -> tree.bulkLoader(1, NULL_CONTEXT)).isInstanceOf(IllegalStateException.class);
+
+            // and the tree should still be writable afterwards
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                writer.put(layout.key(1), layout.value(1));
+            }
+        }
+    }
+
+    @Test
+    void shouldNotAllowWritersWhileLoading() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                BulkLoader<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1, NULL_CONTEXT)) {
+            CompletableFuture<Void> writerFromOtherThread = CompletableFuture.runAsync(() -> {
+                try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                    writer.put(layout.key(0), layout.value(0));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            assertThatThrownBy(writerFromOtherThread::join).hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static List<MutableLongList> internalKeyCountsPerLevel(GBPTree<MutableLong, MutableLong> tree)
+            throws IOException {
+        List<MutableLongList> levels = new ArrayList<>();
+        tree.visit(
+                new GBPTreeVisitor.Adaptor<>() {
+                    @Override
+                    public void beginLevel(int level) {
+                        levels.add(LongLists.mutable.empty());
+                    }
+
+                    @Override
+                    public void beginNode(long pageId, boolean isLeaf, long generation, int keyCount) {
+                        if (!isLeaf) {
+                            levels.get(levels.size() - 1).add(keyCount);
+                        }
+                    }
+                },
+                NULL_CONTEXT);
+        levels.removeIf(MutableLongList::isEmpty);
+        return levels;
+    }
+
+    private MutableLongList randomKeys(int count) {
+        MutableLongList keys = LongLists.mutable.withInitialCapacity(count);
+        long key = random.nextLong(100);
+        for (int i = 0; i < count; i++) {
+            keys.add(key);
+            key += 1 + random.nextLong(10);
+        }
+        return keys;
+    }
+
+    private double randomFillFactor() {
+        return random.nextBoolean() ? 1 : 0.5 + random.nextDouble() / 2;
+    }
+
+    private void assertEntries(GBPTree<MutableLong, MutableLong> tree, MutableLongList expectedKeys)
+            throws IOException {
+        MutableLongList keys = LongLists.mutable.empty();
+        try (Seeker<MutableLong, MutableLong> seek =
+                tree.seek(layout.key(Long.MIN_VALUE), layout.key(Long.MAX_VALUE), NULL_CONTEXT)) {
+            while (seek.next()) {
+                assertThat(seek.value().longValue()).isEqualTo(seek.key().longValue());
+                keys.add(seek.key().longValue());
+            }
+        }
+        assertThat(keys).isEqualTo(expectedKeys);
+    }
+
+    private GBPTree<MutableLong, MutableLong> instantiateTree() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, treeFile, layout).build();
+    }
+
+    /**
+     * The large keys only fit a handful of times in an internal node, which makes the loader start new internal
+     * nodes, and move children between the last ones of a level, all the time.
+     */
+    private enum TestLayouts {
+        FIXED_SIZE(longLayout().build()),
+        FIXED_SIZE_LARGE_KEYS(longLayout().withKeyPadding(100).build()),
+        DYNAMIC_SIZE(longLayout().withFixedSize(false).build()),
+        DYNAMIC_SIZE_LARGE_KEYS(
+                longLayout().withFixedSize(false).withKeyPadding(100).build());
+
+        private final SimpleLongLayout layout;
+
+        TestLayouts(SimpleLongLayout layout) {
+            this.layout = layout;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.TreeNode.DATA_LAYER_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.PageCursor;
+
+public class TreeNodeDynamicSizeCompressedTest
+        extends TreeNodeTestBase<RawBytes, RawBytes, TreeNodeDynamicSizeCompressed<RawBytes, RawBytes>> {
+    private static final int PREFIX_LENGTH_SIZE = Short.BYTES;
+
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes, RawBytes> getLayout() {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSizeCompressed<RawBytes, RawBytes> getNode(
+            int pageSize, Layout<RawBytes, RawBytes> layout, OffloadStore<RawBytes, RawBytes> offloadStore) {
+        return new TreeNodeDynamicSizeCompressed<>(pageSize, layout, offloadStore);
+    }
+
+    @Override
+    void assertAdditionalHeader(PageCursor cursor, TreeNode<RawBytes, RawBytes> node, int pageSize) {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize<RawBytes, RawBytes>) node).getAllocOffset(cursor);
+
+        // Then
+        int expected = TreeNode.isLeaf(cursor) ? pageSize - PREFIX_LENGTH_SIZE : pageSize;
+        assertEquals(expected, currentAllocSpace, "allocSpace point to end of key value area");
+    }
+
+    @Override
+    protected void defragmentLeaf(
+            TreeNodeDynamicSizeCompressed<RawBytes, RawBytes> treeNode, PageAwareByteArrayCursor cursor) {
+        var allocOffsetBefore = treeNode.getAllocOffset(cursor);
+        treeNode.defragmentLeaf(cursor);
+        var allocOffsetAfter = treeNode.getAllocOffset(cursor);
+        assertThat(allocOffsetAfter).isGreaterThan(allocOffsetBefore);
+        var deadSpaceAfter = treeNode.getDeadSpace(cursor);
+        assertThat(deadSpaceAfter).isEqualTo(0);
+    }
+
+    @Test
+    void shouldStoreCommonPrefixOnlyOnce() throws IOException {
+        // given
+        node.initializeLeaf(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        List<RawBytes> keys = urlKeys(5);
+
+        // when
+        insertAll(keys);
+
+        // then each key only takes up the space of its suffix and the common prefix is stored once
+        int prefixLength = "https://neo4j.com/docs/".length();
+        int expectedAllocOffset = PAGE_SIZE - PREFIX_LENGTH_SIZE - prefixLength;
+        for (RawBytes key : keys) {
+            int suffixSize = key.bytes.length - prefixLength;
+            expectedAllocOffset -= DynamicSizeUtil.getOverhead(suffixSize, 1, false) + suffixSize + 1;
+        }
+        assertEquals(expectedAllocOffset, node.getAllocOffset(cursor));
+        assertKeys(keys);
+    }
+
+    @Test
+    void shouldShortenPrefixWhenInsertingKeyThatDoesNotShareIt() throws IOException {
+        // given
+        node.initializeLeaf(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        List<RawBytes> keys = urlKeys(5);
+        insertAll(keys);
+
+        // when
+        RawBytes key = bytes("https://neo4j.org");
+        RawBytes value = bytes("v");
+        assertEquals(TreeNode.Overflow.NO, node.leafOverflow(cursor, keys.size(), key, value));
+        node.insertKeyValueAt(
+                cursor, key, value, keys.size(), keys.size(), STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+        TreeNode.setKeyCount(cursor, keys.size() + 1);
+        keys.add(key);
+
+        // then
+        assertKeys(keys);
+        assertThat(node.checkMetaConsistency(cursor, keys.size(), LEAF, null)).isEmpty();
+    }
+
+    @Test
+    void shouldFitMoreKeysWithCommonPrefixThanDynamicSize() throws IOException {
+        // given
+        TreeNodeDynamicSize<RawBytes, RawBytes> uncompressed =
+                new TreeNodeDynamicSize<>(PAGE_SIZE, layout, createOffloadStore());
+        PageAwareByteArrayCursor uncompressedCursor = new PageAwareByteArrayCursor(PAGE_SIZE);
+        uncompressedCursor.next();
+        uncompressed.initializeLeaf(uncompressedCursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        node.initializeLeaf(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+
+        // when
+        int compressedKeyCount = fill(node, cursor);
+        int uncompressedKeyCount = fill(uncompressed, uncompressedCursor);
+
+        // then
+        assertThat(compressedKeyCount).isGreaterThan(uncompressedKeyCount * 2);
+    }
+
+    private int fill(TreeNodeDynamicSize<RawBytes, RawBytes> treeNode, PageCursor cursor) throws IOException {
+        int keyCount = 0;
+        RawBytes value = bytes("v");
+        while (true) {
+            RawBytes key = bytes("https://neo4j.com/docs/operations-manual/current/" + (1000 + keyCount));
+            if (treeNode.leafOverflow(cursor, keyCount, key, value) != TreeNode.Overflow.NO) {
+                return keyCount;
+            }
+            treeNode.insertKeyValueAt(
+                    cursor, key, value, keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+            TreeNode.setKeyCount(cursor, ++keyCount);
+        }
+    }
+
+    private void insertAll(List<RawBytes> keys) throws IOException {
+        for (int i = 0; i < keys.size(); i++) {
+            node.insertKeyValueAt(
+                    cursor, keys.get(i), bytes("v"), i, i, STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+            TreeNode.setKeyCount(cursor, i + 1);
+        }
+    }
+
+    private void assertKeys(List<RawBytes> expectedKeys) {
+        assertEquals(expectedKeys.size(), TreeNode.keyCount(cursor));
+        for (int i = 0; i < expectedKeys.size(); i++) {
+            RawBytes key = node.keyAt(cursor, layout.newKey(), i, LEAF, NULL_CONTEXT);
+            assertThat(key.bytes).isEqualTo(expectedKeys.get(i).bytes);
+        }
+    }
+
+    private static List<RawBytes> urlKeys(int count) {
+        List<RawBytes> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(bytes("https://neo4j.com/docs/" + (char) ('a' + i) + "/page"));
+        }
+        return keys;
+    }
+
+    private static RawBytes bytes(String string) {
+        RawBytes rawBytes = new RawBytes();
+        rawBytes.bytes = string.getBytes(StandardCharsets.UTF_8);
+        return rawBytes;
+    }
+}
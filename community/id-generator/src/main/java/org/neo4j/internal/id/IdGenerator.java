@@ -44,6 +44,19 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
     @Override
     long nextId(CursorContext cursorContext);
 
+    /**
+     * Allocates an ID like {@link #nextId(CursorContext)}, but if there are reused IDs available then favors one
+     * close to {@code nearId}, so that related records can end up on the same or nearby pages.
+     * Generators that don't keep track of where their reusable IDs are will simply return {@link #nextId(CursorContext)}.
+     *
+     * @param nearId the ID to allocate an ID close to, or a negative value if there's no preference.
+     * @param cursorContext for tracking cursor interaction.
+     * @return an ID available to use, guaranteed not used anywhere else.
+     */
+    default long nextIdNear(long nearId, CursorContext cursorContext) {
+        return nextId(cursorContext);
+    }
+
     /**
      * Allocates a range of IDs that are guaranteed to be consecutive where the returned id represents the first i.e. lowest of them.
      *
@@ -237,6 +250,11 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
             return delegate.nextId(cursorContext);
         }
 
+        @Override
+        public long nextIdNear(long nearId, CursorContext cursorContext) {
+            return delegate.nextIdNear(nearId, cursorContext);
+        }
+
         @Override
         public long nextConsecutiveIdRange(int numberOfIds, boolean favorSamePage, CursorContext cursorContext) {
             return delegate.nextConsecutiveIdRange(numberOfIds, favorSamePage, cursorContext);
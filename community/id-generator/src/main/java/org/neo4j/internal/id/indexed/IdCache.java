@@ -42,6 +42,15 @@ class IdCache {
     private final int singleIdSlotIndex;
 
     IdCache(IdSlotDistribution.Slot... slots) {
+        this(0, slots);
+    }
+
+    /**
+     * @param singleIdsPerRegion if larger than zero then single IDs are cached indexed by region of this size,
+     * which allows {@link #takeNearOrDefault(long, long)} to hand out IDs close to a given ID.
+     * @param slots the slots to cache IDs in.
+     */
+    IdCache(int singleIdsPerRegion, IdSlotDistribution.Slot... slots) {
         this.queues = new ConcurrentLongQueue[slots.length];
         this.slotSizes = new int[slots.length];
         for (int slotIndex = 0; slotIndex < slots.length; slotIndex++) {
@@ -54,9 +63,14 @@ class IdCache {
 
             // If the max capacity is larger than the chunk size then use the dynamic cache which
             // grows and shrinks in increments of chunk size to avoid permanently occupying a large amount of memory.
-            var queue = capacity > DYNAMIC_CHUNK_SIZE
-                    ? new DynamicConcurrentLongQueue(DYNAMIC_CHUNK_SIZE, capacity / DYNAMIC_CHUNK_SIZE)
-                    : new SpmcLongQueue(capacity);
+            ConcurrentLongQueue queue;
+            if (slotSize == 1 && singleIdsPerRegion > 0) {
+                queue = new RegionLongQueue(capacity, singleIdsPerRegion);
+            } else {
+                queue = capacity > DYNAMIC_CHUNK_SIZE
+                        ? new DynamicConcurrentLongQueue(DYNAMIC_CHUNK_SIZE, capacity / DYNAMIC_CHUNK_SIZE)
+                        : new SpmcLongQueue(capacity);
+            }
             queues[slotIndex] = queue;
         }
         singleIdSlotIndex = findSingleSlotIndex(slotSizes);
@@ -96,6 +110,21 @@ class IdCache {
         return id;
     }
 
+    /**
+     * Like {@link #takeOrDefault(long)}, but if single IDs are cached by region then takes one from the region
+     * closest to {@code nearId}.
+     */
+    long takeNearOrDefault(long nearId, long defaultValue) {
+        ConcurrentLongQueue queue = queues[singleIdSlotIndex];
+        long id = queue instanceof RegionLongQueue regionQueue
+                ? regionQueue.takeNearOrDefault(nearId, defaultValue)
+                : queue.takeOrDefault(defaultValue);
+        if (id != defaultValue) {
+            size.decrementAndGet();
+        }
+        return id;
+    }
+
     long takeOrDefault(long defaultValue, int numberOfIds, IdRangeConsumer wasteNotifier) {
         long id = defaultValue;
         for (int slotIndex = lowestSlotIndexCapableOf(numberOfIds);
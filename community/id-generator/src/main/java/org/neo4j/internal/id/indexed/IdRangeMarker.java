@@ -51,10 +51,17 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
     private final Writer<IdRangeKey, IdRange> writer;
 
     /**
-     * Lock for making this marker have exclusive access to updates. Unlocked on {@link #close()}.
+     * Lock held while this marker is open, either exclusive or shared with other markers using parallel writers.
+     * Unlocked on {@link #close()}.
      */
     private final Lock lock;
 
+    /**
+     * Lock for bridging gaps between previously highest written id and the id being written. Held while bridging and
+     * writing that id, so that a concurrent marker cannot bridge over the same id after it has been written.
+     */
+    private final Lock bridgeIdGapsLock;
+
     /**
      * Which {@link GBPTree} {@link ValueMerger} to use, may be different depending on whether or not the id generator has been fully started,
      * i.e. different whether it's recovery mode or normal operations mode.
@@ -109,6 +116,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
             Layout<IdRangeKey, IdRange> layout,
             Writer<IdRangeKey, IdRange> writer,
             Lock lock,
+            Lock bridgeIdGapsLock,
             ValueMerger<IdRangeKey, IdRange> merger,
             boolean started,
             AtomicBoolean freeIdsNotifier,
@@ -121,6 +129,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
         this.key = layout.newKey();
         this.value = layout.newValue();
         this.lock = lock;
+        this.bridgeIdGapsLock = bridgeIdGapsLock;
         this.merger = merger;
         this.started = started;
         this.freeIdsNotifier = freeIdsNotifier;
@@ -144,7 +153,20 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
 
     @Override
     public void markUsed(long id, int numberOfIds) {
-        bridgeGapBetweenHighestWrittenIdAndThisId(id, numberOfIds, false);
+        if (!needsBridging(id, numberOfIds, false)) {
+            doMarkUsed(id, numberOfIds);
+            return;
+        }
+        bridgeIdGapsLock.lock();
+        try {
+            bridgeGapBetweenHighestWrittenIdAndThisId(id, numberOfIds, false);
+            doMarkUsed(id, numberOfIds);
+        } finally {
+            bridgeIdGapsLock.unlock();
+        }
+    }
+
+    private void doMarkUsed(long id, int numberOfIds) {
         if (!hasReservedIdInRange(id, id + numberOfIds)) {
             prepareRange(id, false);
             value.setBitsForAllTypes(idOffset(id), numberOfIds);
@@ -213,7 +235,20 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
     public void markUnallocated(long id, int numberOfIds) {
         // To bridge this gap here is going to be very rare, basically if there are allocations that
         // are not committed but instead freed (tx rollback after writes).
-        bridgeGapBetweenHighestWrittenIdAndThisId(id, numberOfIds, true);
+        if (!needsBridging(id, numberOfIds, true)) {
+            doMarkUnallocated(id, numberOfIds);
+            return;
+        }
+        bridgeIdGapsLock.lock();
+        try {
+            bridgeGapBetweenHighestWrittenIdAndThisId(id, numberOfIds, true);
+            doMarkUnallocated(id, numberOfIds);
+        } finally {
+            bridgeIdGapsLock.unlock();
+        }
+    }
+
+    private void doMarkUnallocated(long id, int numberOfIds) {
         if (!hasReservedIdInRange(id, id + numberOfIds)) {
             key.setIdRangeIdx(idRangeIndex(id));
             value.clear(generation, true, true, false);
@@ -227,6 +262,10 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
         freeIdsNotifier.set(true);
     }
 
+    private boolean needsBridging(long id, int numberOfIds, boolean includeThis) {
+        return bridgeIdGaps && highestWrittenId.get() < (includeThis ? id + numberOfIds : id);
+    }
+
     private void prepareRange(long id, boolean addition) {
         key.setIdRangeIdx(idRangeIndex(id));
         value.clear(generation, addition);
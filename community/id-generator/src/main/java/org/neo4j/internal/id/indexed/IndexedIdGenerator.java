@@ -36,7 +36,9 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.LongSupplier;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.eclipse.collections.api.set.ImmutableSet;
@@ -228,8 +230,16 @@ public class IndexedIdGenerator implements IdGenerator {
     /**
      * Note about contention: Calls to commitMarker() should be worksync'ed externally and will therefore not contend.
      * This lock is about guarding for calls to reuseMarker(), which comes in at arbitrary times outside transactions.
+     * After {@link #start(FreeIds, CursorContext)} markers take the read lock and write using parallel tree writers,
+     * which only lock the tree nodes holding the id ranges they update. Before that, i.e. during recovery and rebuild,
+     * markers take the write lock and use the faster batched single-threaded writer.
      */
-    private final Lock commitAndReuseLock = new ReentrantLock();
+    private final ReadWriteLock commitAndReuseLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes markers bridging the gap from {@link #highestWrittenId} to the ids they write, see {@link IdRangeMarker}.
+     */
+    private final Lock bridgeIdGapsLock = new ReentrantLock();
 
     /**
      * {@link GBPTree} {@link Layout} for this id generator.
@@ -323,7 +333,11 @@ public class IndexedIdGenerator implements IdGenerator {
         int cacheCapacity = idType.highActivity() && allowLargeIdCaches ? LARGE_CACHE_CAPACITY : SMALL_CACHE_CAPACITY;
         this.idType = idType;
         IdSlotDistribution.Slot[] slots = slotDistribution.slots(cacheCapacity);
-        this.cache = new IdCache(slots);
+        this.cache = new IdCache(
+                config.get(GraphDatabaseInternalSettings.locality_aware_id_allocation)
+                        ? slotDistribution.idsPerEntry()
+                        : 0,
+                slots);
         this.biggestSlotSize = Arrays.stream(slots)
                 .map(IdSlotDistribution.Slot::slotSize)
                 .max(naturalOrder())
@@ -423,11 +437,16 @@ public class IndexedIdGenerator implements IdGenerator {
 
     @Override
     public long nextId(CursorContext cursorContext) {
+        return nextIdNear(NO_ID, cursorContext);
+    }
+
+    @Override
+    public long nextIdNear(long nearId, CursorContext cursorContext) {
         do {
             // If strictly prioritizing the freelist then the method below will block on the current scan,
             // if there's any ongoing, otherwise it will not block.
             checkRefillCache(cursorContext);
-            long id = cache.takeOrDefault(NO_ID);
+            long id = nearId < 0 ? cache.takeOrDefault(NO_ID) : cache.takeNearOrDefault(nearId, NO_ID);
             if (id != NO_ID) {
                 monitor.allocatedFromReused(id, 1);
                 return id;
@@ -518,13 +537,16 @@ public class IndexedIdGenerator implements IdGenerator {
     }
 
     IdRangeMarker lockAndInstantiateMarker(boolean bridgeIdGaps, CursorContext cursorContext) {
-        commitAndReuseLock.lock();
+        boolean started = this.started;
+        Lock lock = started ? commitAndReuseLock.readLock() : commitAndReuseLock.writeLock();
+        lock.lock();
         try {
             return new IdRangeMarker(
                     idsPerEntry,
                     layout,
-                    tree.writer(W_BATCHED_SINGLE_THREADED, cursorContext),
-                    commitAndReuseLock,
+                    started ? tree.writer(cursorContext) : tree.writer(W_BATCHED_SINGLE_THREADED, cursorContext),
+                    lock,
+                    bridgeIdGapsLock,
                     started ? defaultMerger : recoveryMerger,
                     started,
                     atLeastOneIdOnFreelist,
@@ -533,7 +555,7 @@ public class IndexedIdGenerator implements IdGenerator {
                     bridgeIdGaps,
                     monitor);
         } catch (Exception e) {
-            commitAndReuseLock.unlock();
+            lock.unlock();
             throw new RuntimeException(e);
         }
     }
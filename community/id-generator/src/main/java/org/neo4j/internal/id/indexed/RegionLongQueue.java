@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id.indexed;
+
+import static org.neo4j.util.Preconditions.requirePositive;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+/**
+ * {@link ConcurrentLongQueue} which keeps its values indexed by region, where a region is a fixed-size aligned
+ * range of values. Besides taking values in region order it can take a value from the region closest to a given
+ * value, see {@link #takeNearOrDefault(long, long)}, which lets callers keep related records close together.
+ * <p>
+ * All operations synchronize on this queue, which is fine given that it's only used for the single-ID slot and
+ * only when locality-aware allocation has been enabled.
+ */
+class RegionLongQueue implements ConcurrentLongQueue {
+    private final int capacity;
+    private final int idsPerRegion;
+    private final TreeMap<Long, MutableLongList> regions = new TreeMap<>();
+    private int size;
+
+    RegionLongQueue(int capacity, int idsPerRegion) {
+        requirePositive(idsPerRegion);
+        this.capacity = capacity;
+        this.idsPerRegion = idsPerRegion;
+    }
+
+    @Override
+    public synchronized boolean offer(long v) {
+        if (size == capacity) {
+            return false;
+        }
+        regions.computeIfAbsent(v / idsPerRegion, region -> new LongArrayList()).add(v);
+        size++;
+        return true;
+    }
+
+    @Override
+    public synchronized long takeOrDefault(long defaultValue) {
+        Map.Entry<Long, MutableLongList> entry = regions.firstEntry();
+        return entry != null ? take(entry) : defaultValue;
+    }
+
+    /**
+     * Takes a value from the region that {@code nearValue} belongs to, or if that region is empty then from
+     * the closest non-empty region, preferring the higher one on a tie.
+     *
+     * @param nearValue value to take a value close to.
+     * @param defaultValue value to return if this queue is empty.
+     * @return a value close to {@code nearValue}, or {@code defaultValue} if this queue is empty.
+     */
+    synchronized long takeNearOrDefault(long nearValue, long defaultValue) {
+        long region = nearValue / idsPerRegion;
+        Map.Entry<Long, MutableLongList> lower = regions.floorEntry(region);
+        Map.Entry<Long, MutableLongList> higher = regions.ceilingEntry(region);
+        if (lower == null && higher == null) {
+            return defaultValue;
+        }
+        if (lower == null) {
+            return take(higher);
+        }
+        if (higher == null) {
+            return take(lower);
+        }
+        return region - lower.getKey() < higher.getKey() - region ? take(lower) : take(higher);
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized int availableSpace() {
+        return capacity - size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        regions.clear();
+        size = 0;
+    }
+
+    private long take(Map.Entry<Long, MutableLongList> entry) {
+        MutableLongList ids = entry.getValue();
+        long id = ids.removeAtIndex(ids.size() - 1);
+        if (ids.isEmpty()) {
+            regions.remove(entry.getKey());
+        }
+        size--;
+        return id;
+    }
+}
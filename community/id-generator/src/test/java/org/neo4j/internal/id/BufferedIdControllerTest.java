@@ -128,9 +128,9 @@ class BufferedIdControllerTest {
 
             controller.maintenance();
 
-            assertThat(pageCacheTracer.pins() - initialPins).isEqualTo(3);
-            assertThat(pageCacheTracer.unpins() - initialUnpins).isEqualTo(3);
-            assertThat(pageCacheTracer.hits() - initialHits).isEqualTo(3);
+            assertThat(pageCacheTracer.pins() - initialPins).isEqualTo(5);
+            assertThat(pageCacheTracer.unpins() - initialUnpins).isEqualTo(5);
+            assertThat(pageCacheTracer.hits() - initialHits).isEqualTo(5);
         }
     }
 
@@ -760,6 +760,7 @@ class FreeIdScannerTest {
                 layout,
                 tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT),
                 mock(Lock.class),
+                new ReentrantLock(),
                 IdRangeMerger.DEFAULT,
                 true,
                 atLeastOneFreeId,
@@ -850,6 +851,7 @@ class FreeIdScannerTest {
                         layout,
                         tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT),
                         lock,
+                        new ReentrantLock(),
                         new IdRangeMerger(false, NO_MONITOR),
                         true,
                         atLeastOneFreeId,
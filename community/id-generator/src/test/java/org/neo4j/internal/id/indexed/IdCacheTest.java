@@ -20,6 +20,7 @@
 package org.neo4j.internal.id.indexed;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.id.indexed.IndexedIdGenerator.NO_ID;
 import static org.neo4j.internal.id.indexed.IndexedIdGenerator.NO_MONITOR;
 
 import org.junit.jupiter.api.Test;
@@ -64,4 +65,38 @@ class IdCacheTest {
             new IdSlotDistribution.Slot(8, 1), new IdSlotDistribution.Slot(7, 2), new IdSlotDistribution.Slot(2, 4)
         });
     }
+
+    @Test
+    void shouldTakeSingleIdsFromClosestRegion() {
+        // given ids in regions 0, 2 and 5 of 10 ids each
+        IdCache cache = new IdCache(10, new IdSlotDistribution.Slot(8, 1), new IdSlotDistribution.Slot(8, 4));
+        PendingIdQueue toOffer = new PendingIdQueue(cache.slotsByAvailableSpace());
+        toOffer.offer(3, 1);
+        toOffer.offer(25, 1);
+        toOffer.offer(57, 1);
+        toOffer.offer(100, 4);
+        cache.offer(toOffer, NO_MONITOR);
+
+        // when/then
+        assertThat(cache.takeNearOrDefault(21, NO_ID)).isEqualTo(25);
+        assertThat(cache.takeNearOrDefault(41, NO_ID)).isEqualTo(57);
+        assertThat(cache.takeNearOrDefault(1_000, NO_ID)).isEqualTo(3);
+        assertThat(cache.takeNearOrDefault(0, NO_ID)).isEqualTo(NO_ID);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.takeOrDefault(NO_ID, 4, (id, size) -> {})).isEqualTo(100);
+    }
+
+    @Test
+    void shouldTakeAnySingleIdWhenNotCachingByRegion() {
+        // given
+        IdCache cache = new IdCache(new IdSlotDistribution.Slot(8, 1));
+        PendingIdQueue toOffer = new PendingIdQueue(cache.slotsByAvailableSpace());
+        toOffer.offer(3, 1);
+        toOffer.offer(57, 1);
+        cache.offer(toOffer, NO_MONITOR);
+
+        // when/then
+        assertThat(cache.takeNearOrDefault(50, NO_ID)).isEqualTo(3);
+        assertThat(cache.takeNearOrDefault(50, NO_ID)).isEqualTo(57);
+    }
 }
@@ -39,6 +39,7 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
@@ -209,6 +210,7 @@ class IdRangeMarkerTest {
                 layout,
                 writer,
                 mock(Lock.class),
+                new ReentrantLock(),
                 mock(ValueMerger.class),
                 true,
                 new AtomicBoolean(),
@@ -235,6 +237,7 @@ class IdRangeMarkerTest {
                 layout,
                 tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT),
                 mock(Lock.class),
+                new ReentrantLock(),
                 IdRangeMerger.DEFAULT,
                 true,
                 new AtomicBoolean(),
@@ -263,6 +266,7 @@ class IdRangeMarkerTest {
                 layout,
                 writer,
                 mock(Lock.class),
+                new ReentrantLock(),
                 IdRangeMerger.DEFAULT,
                 true,
                 new AtomicBoolean(),
@@ -290,6 +294,7 @@ class IdRangeMarkerTest {
                 layout,
                 tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT),
                 mock(Lock.class),
+                new ReentrantLock(),
                 IdRangeMerger.DEFAULT,
                 true,
                 freeIdsNotifier,
@@ -323,6 +328,7 @@ class IdRangeMarkerTest {
                 layout,
                 tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT),
                 lock,
+                new ReentrantLock(),
                 merger,
                 true,
                 new AtomicBoolean(),
@@ -38,6 +38,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.locality_aware_id_allocation;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.strictly_prioritize_id_freelist;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
@@ -193,6 +194,29 @@ class IndexedIdGeneratorTest {
         assertEquals(id, nextTimeId);
     }
 
+    @Test
+    void shouldAllocateFreedIdNearGivenId() throws IOException {
+        // given free ids in the first and the fourth id range
+        open(Config.defaults(locality_aware_id_allocation, true), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long firstRangeId = 10;
+        long fourthRangeId = IDS_PER_ENTRY * 3 + 10;
+        for (long id = 0; id <= fourthRangeId; id++) {
+            assertEquals(id, idGenerator.nextId(NULL_CONTEXT));
+            markUsed(id);
+        }
+        markDeleted(firstRangeId);
+        markDeleted(fourthRangeId);
+        markFree(firstRangeId);
+        markFree(fourthRangeId);
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // when/then
+        assertEquals(fourthRangeId, idGenerator.nextIdNear(IDS_PER_ENTRY * 3 + 100, NULL_CONTEXT));
+        assertEquals(firstRangeId, idGenerator.nextIdNear(IDS_PER_ENTRY * 3 + 100, NULL_CONTEXT));
+        assertEquals(fourthRangeId + 1, idGenerator.nextIdNear(IDS_PER_ENTRY * 3 + 100, NULL_CONTEXT));
+    }
+
     @Test
     void shouldNotAllocateFreedIdUntilReused() throws IOException {
         // given
@@ -899,9 +923,11 @@ class IndexedIdGeneratorTest {
             assertThat(cursorTracer.hits()).isZero();
 
             try (var marker = idGenerator.marker(cursorContext)) {
-                assertThat(cursorTracer.pins()).isOne();
+                // markers of a started id generator use parallel writers, which pin pages as they write
+                assertThat(cursorTracer.pins()).isZero();
 
                 marker.markDeleted(1);
+                assertThat(cursorTracer.pins()).isGreaterThanOrEqualTo(1);
             }
             assertThat(cursorTracer.pins()).isGreaterThanOrEqualTo(1);
             assertThat(cursorTracer.unpins()).isGreaterThanOrEqualTo(1);
@@ -1139,6 +1165,33 @@ class IndexedIdGeneratorTest {
         }
     }
 
+    @Test
+    void shouldNotBlockMarkersOnOtherOpenMarkersAfterStart() throws Exception {
+        // given
+        open();
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long id = idGenerator.nextId(NULL_CONTEXT);
+        long otherId = idGenerator.nextId(NULL_CONTEXT);
+
+        // when
+        try (Marker marker = idGenerator.marker(NULL_CONTEXT);
+                OtherThreadExecutor t2 = new OtherThreadExecutor("T2")) {
+            marker.markUsed(id);
+            t2.execute(() -> {
+                try (Marker otherMarker = idGenerator.marker(NULL_CONTEXT)) {
+                    otherMarker.markUsed(otherId);
+                    otherMarker.markDeleted(otherId);
+                    otherMarker.markFree(otherId);
+                }
+                return null;
+            });
+        }
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // then
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(otherId);
+    }
+
     @Test
     void shouldPrioritizeFreelistOnConcurrentAllocation() throws Exception {
         // given
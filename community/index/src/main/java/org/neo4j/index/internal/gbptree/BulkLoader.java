@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Loads sorted entries into an empty tree bottom-up, i.e. writes the leaves one after the other and then builds the
+ * internal levels on top of them, instead of inserting the entries one by one.
+ * <p>
+ * Entries are added through {@link Appender appenders}, each of which takes the entries of one key range. The key
+ * ranges of different appenders must not overlap, but appenders can be used by different threads at the same time to
+ * load different parts of the tree in parallel. {@link #close() Closing} the bulk loader stitches the key ranges
+ * together and makes the loaded entries visible in the tree. All appenders must be closed before that.
+ * <p>
+ * No other writer can be used on the tree while a bulk loader is open, and the bulk loader must be closed by the
+ * thread that created it.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY, VALUE> extends Closeable {
+    /**
+     * Returns a new {@link Appender} for a key range that no other appender of this bulk loader covers.
+     * The returned appender must be {@link Appender#close() closed} before this bulk loader is closed.
+     *
+     * @param cursorContext underlying page cursor context, for the thread that will use the appender.
+     * @return a new {@link Appender}.
+     * @throws IOException on page cache error.
+     */
+    Appender<KEY, VALUE> appender(CursorContext cursorContext) throws IOException;
+
+    /**
+     * Adds the entries of one key range, in strictly ascending key order.
+     *
+     * @param <KEY> type of keys
+     * @param <VALUE> type of values
+     */
+    interface Appender<KEY, VALUE> extends Closeable {
+        /**
+         * Adds the given entry after the previously added one.
+         *
+         * @param key key of the entry, which must be greater than the key of the previously added entry.
+         * @param value value of the entry.
+         * @throws IllegalArgumentException if the key is not greater than the key of the previously added entry.
+         * @throws UncheckedIOException on index access error.
+         */
+        void add(KEY key, VALUE value);
+    }
+}
@@ -54,6 +54,24 @@ public interface DataTree<KEY, VALUE> extends Seeker.Factory<KEY, VALUE> {
      */
     Writer<KEY, VALUE> writer(int flags, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Returns a {@link BulkLoader} able to load sorted entries into this tree bottom-up, which is much faster than
+     * inserting them with a {@link Writer}. The tree must be empty. After usage the returned bulk loader must be
+     * closed, which is when the loaded entries become visible in the tree.
+     *
+     * @param fillFactor how full to make the nodes of the tree, as a share of their space, in the range (0, 1].
+     * Nodes that will receive inserts later on can be left with some room for those, to avoid splitting them.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link BulkLoader} for this tree. The returned bulk loader must be {@link BulkLoader#close() closed}
+     * after usage.
+     * @throws IllegalStateException if the tree is not empty, or if other writers are open.
+     * @throws UnsupportedOperationException if the tree does not support bulk loading.
+     */
+    default BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+        throw new UnsupportedOperationException(
+                "Bulk loading is not supported by " + getClass().getSimpleName());
+    }
+
     /**
      * Calculates an estimate of number of keys in this tree in O(log(n)) time. The number is only an estimate and may make its decision on a
      * concurrently changing tree, but should usually be correct within a couple of percents margin.
@@ -74,13 +74,43 @@ public class DefaultTreeNodeSelector {
         }
     };
 
+    /**
+     * Creates {@link TreeNodeDynamicSizeCompressed} instances.
+     */
+    private static final TreeNodeSelector.Factory DYNAMIC_COMPRESSED = new TreeNodeSelector.Factory() {
+        @Override
+        public <KEY, VALUE> TreeNode<KEY, VALUE> create(
+                int payloadSize,
+                Layout<KEY, VALUE> layout,
+                OffloadStore<KEY, VALUE> offloadStore,
+                DependencyResolver dependencyResolver) {
+            return new TreeNodeDynamicSizeCompressed<>(payloadSize, layout, offloadStore);
+        }
+
+        @Override
+        public byte formatIdentifier() {
+            return TreeNodeDynamicSizeCompressed.FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion() {
+            return TreeNodeDynamicSizeCompressed.FORMAT_VERSION;
+        }
+    };
+
     /**
      * Returns {@link TreeNodeSelector} that selects a format based on the given {@link Layout}.
      *
      * @return a {@link TreeNodeSelector} capable of instantiating the selected format.
      */
     public static TreeNodeSelector selector() {
-        // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
-        return (Layout<?, ?> layout) -> layout.fixedSize() ? FIXED : DYNAMIC;
+        // For now the selection is done in a simple fashion, by looking at layout.fixedSize() and
+        // layout.compressKeyPrefixes().
+        return (Layout<?, ?> layout) -> {
+            if (layout.fixedSize()) {
+                return FIXED;
+            }
+            return layout.compressKeyPrefixes() ? DYNAMIC_COMPRESSED : DYNAMIC;
+        };
     }
 }
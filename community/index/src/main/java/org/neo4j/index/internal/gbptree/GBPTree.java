@@ -157,6 +157,11 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.seek(seeker, fromInclusive, toExclusive);
     }
 
+    @Override
+    public Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, List<Seeker.Range<KEY>> ranges) throws IOException {
+        return access.seek(seeker, ranges);
+    }
+
     @Override
     public List<KEY> partitionedSeek(
             KEY fromInclusive, KEY toExclusive, int desiredNumberOfPartitions, CursorContext cursorContext)
@@ -169,6 +174,11 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.writer(flags, cursorContext);
     }
 
+    @Override
+    public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+        return access.bulkLoader(fillFactor, cursorContext);
+    }
+
     @Override
     public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
         return access.estimateNumberOfEntriesInTree(cursorContext);
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.CursorCreator.bind;
+import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
+import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
+import static org.neo4j.index.internal.gbptree.PointerChecking.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.util.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * {@link BulkLoader} of a tree that is empty, i.e. whose root is an empty leaf.
+ * <p>
+ * Each {@link Appender} fills leaves one after the other, linking each one to the previous one, and builds the level
+ * right above its leaves as it goes, from the first key of each leaf. Closing the bulk loader links the key ranges of
+ * the appenders to each other, builds the remaining levels in the same way from the first keys of the nodes of the
+ * level below, and makes the single node of the top level the new root.
+ * <p>
+ * Internal nodes are never left with a single child, since such a node is taken for an empty subtree. Whenever the
+ * last node of a level, or the only node of a small key range, gets a single child, children are moved over to it from
+ * a neighbour, or it is merged into the neighbour.
+ * <p>
+ * How full nodes are made is controlled by a fill factor, which is the share of the space of an empty node that is
+ * filled before moving on to a new node. Leaves get at least one entry, and internal nodes at least two keys,
+ * regardless of the fill factor.
+ */
+class GBPTreeBulkLoader<KEY, VALUE> implements BulkLoader<KEY, VALUE> {
+    private final Layout<KEY, VALUE> layout;
+    private final TreeNode<KEY, VALUE> treeNode;
+    private final TreeRootExchange rootExchange;
+    private final byte layerType;
+    private final PagedFile pagedFile;
+    private final IdProvider idProvider;
+    private final ReadWriteLock checkpointLock;
+    private final ReadWriteLock writerLock;
+    private final LongSupplier generationSupplier;
+    private final Consumer<Throwable> exceptionMessageAppender;
+    private final double fillFactor;
+    private final List<LoadedRange<KEY>> loadedRanges = new ArrayList<>();
+    private final AtomicInteger openAppenders = new AtomicInteger();
+
+    private long stableGeneration;
+    private long unstableGeneration;
+    private CursorContext cursorContext;
+    private boolean open;
+
+    GBPTreeBulkLoader(
+            Layout<KEY, VALUE> layout,
+            TreeNode<KEY, VALUE> treeNode,
+            TreeRootExchange rootExchange,
+            byte layerType,
+            PagedFile pagedFile,
+            IdProvider idProvider,
+            ReadWriteLock checkpointLock,
+            ReadWriteLock writerLock,
+            LongSupplier generationSupplier,
+            Consumer<Throwable> exceptionMessageAppender,
+            double fillFactor) {
+        checkArgument(fillFactor > 0 && fillFactor <= 1, "Fill factor must be in the range (0, 1], was %f", fillFactor);
+        this.layout = layout;
+        this.treeNode = treeNode;
+        this.rootExchange = rootExchange;
+        this.layerType = layerType;
+        this.pagedFile = pagedFile;
+        this.idProvider = idProvider;
+        this.checkpointLock = checkpointLock;
+        this.writerLock = writerLock;
+        this.generationSupplier = generationSupplier;
+        this.exceptionMessageAppender = exceptionMessageAppender;
+        this.fillFactor = fillFactor;
+    }
+
+    void initialize(CursorContext cursorContext) throws IOException {
+        checkpointLock.readLock().lock();
+        if (!writerLock.writeLock().tryLock()) {
+            checkpointLock.readLock().unlock();
+            throw appendTreeInformation(new IllegalStateException(
+                    "Bulk loader can not be opened while there are other writers or another bulk loader"));
+        }
+        open = true;
+        boolean success = false;
+        try {
+            this.cursorContext = cursorContext;
+            long generation = generationSupplier.getAsLong();
+            stableGeneration = stableGeneration(generation);
+            unstableGeneration = unstableGeneration(generation);
+            try (PageCursor cursor = openCursor(cursorContext)) {
+                rootExchange.getRoot().goTo(cursor);
+                if (!TreeNode.isLeaf(cursor) || TreeNode.keyCount(cursor) != 0) {
+                    throw appendTreeInformation(
+                            new IllegalStateException("Bulk loading is only supported into an empty tree"));
+                }
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                unlock();
+            }
+        }
+    }
+
+    @Override
+    public Appender<KEY, VALUE> appender(CursorContext cursorContext) throws IOException {
+        if (!open) {
+            throw new IllegalStateException("Bulk loader is closed");
+        }
+        openAppenders.incrementAndGet();
+        try {
+            return new BulkAppender(cursorContext);
+        } catch (Throwable t) {
+            openAppenders.decrementAndGet();
+            throw t;
+        }
+    }
+
+    /**
+     * Stitches the key ranges of the appenders together and builds the levels above them. Must be called by the
+     * thread that opened this bulk loader, after all appenders have been closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            throw appendTreeInformation(
+                    new IllegalStateException("Tried to close bulk loader, but it is already closed"));
+        }
+        try (PageCursor cursor = openCursor(cursorContext)) {
+            if (openAppenders.get() != 0) {
+                throw new IllegalStateException("All appenders must be closed before the bulk loader is closed");
+            }
+            List<LoadedRange<KEY>> ranges;
+            synchronized (loadedRanges) {
+                ranges = new ArrayList<>(loadedRanges);
+            }
+            if (!ranges.isEmpty()) {
+                buildTree(cursor, ranges);
+            }
+        } catch (Throwable t) {
+            exceptionMessageAppender.accept(t);
+            throw t;
+        } finally {
+            unlock();
+        }
+    }
+
+    private void buildTree(PageCursor cursor, List<LoadedRange<KEY>> ranges) throws IOException {
+        ranges.sort((left, right) -> layout.compare(left.firstKey(), right.firstKey()));
+        List<Node<KEY>> level = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            LoadedRange<KEY> range = ranges.get(i);
+            if (i > 0) {
+                LoadedRange<KEY> previous = ranges.get(i - 1);
+                if (layout.compare(previous.lastKey(), range.firstKey()) >= 0) {
+                    throw new IllegalArgumentException(format(
+                            "Key ranges of appenders overlap, [%s, %s] and [%s, %s]",
+                            previous.firstKey(), previous.lastKey(), range.firstKey(), range.lastKey()));
+                }
+                TreeNode.goTo(cursor, "last leaf of key range", previous.lastLeafId());
+                TreeNode.setRightSibling(cursor, range.firstLeafId(), stableGeneration, unstableGeneration);
+                TreeNode.goTo(cursor, "first leaf of key range", range.firstLeafId());
+                TreeNode.setLeftSibling(cursor, previous.lastLeafId(), stableGeneration, unstableGeneration);
+            }
+            level.addAll(range.parents());
+        }
+        level = mergeSingleChildNodes(cursor, level, cursorContext);
+        linkSiblings(cursor, level);
+
+        while (level.size() > 1) {
+            LevelBuilder levelBuilder = new LevelBuilder(cursor, cursorContext);
+            for (Node<KEY> node : level) {
+                levelBuilder.add(node.firstKey, node.id);
+            }
+            level = levelBuilder.finish();
+        }
+
+        Node<KEY> top = level.get(0);
+        long rootId = top.id;
+        if (top.keyCount == 0) {
+            // All entries fit in a single leaf, which becomes the root on its own
+            TreeNode.goTo(cursor, "top", top.id);
+            long onlyChild = treeNode.childAt(cursor, 0, stableGeneration, unstableGeneration);
+            rootId = GenerationSafePointerPair.pointer(onlyChild);
+            release(cursor, top);
+        }
+        long oldRootId = rootExchange.getRoot().id();
+        rootExchange.setRoot(new Root(rootId, unstableGeneration));
+        idProvider.releaseId(stableGeneration, unstableGeneration, oldRootId, bind(cursor));
+        checkOutOfBounds(cursor);
+    }
+
+    /**
+     * Makes sure no node in the given level, which are siblings in key order, has a single child, unless it is the
+     * only node in the level. Nodes can only have a single child if they are the last node built by a
+     * {@link LevelBuilder}, and then only if they are the only node it built.
+     *
+     * @return the nodes that are left of the level.
+     */
+    private List<Node<KEY>> mergeSingleChildNodes(PageCursor cursor, List<Node<KEY>> nodes, CursorContext cursorContext)
+            throws IOException {
+        List<Node<KEY>> result = new ArrayList<>(nodes.size());
+        for (Node<KEY> node : nodes) {
+            Node<KEY> previous = result.isEmpty() ? null : result.get(result.size() - 1);
+            if (previous != null && node.keyCount == 0) {
+                if (previous.keyCount >= 2) {
+                    moveLastChildRight(cursor, previous, node, cursorContext);
+                } else {
+                    moveFirstChildLeft(cursor, previous, node, cursorContext);
+                    release(cursor, node);
+                    continue;
+                }
+            } else if (previous != null && previous.keyCount == 0) {
+                if (node.keyCount >= 2) {
+                    moveFirstChildLeft(cursor, previous, node, cursorContext);
+                } else {
+                    moveLastChildRight(cursor, previous, node, cursorContext);
+                    release(cursor, previous);
+                    result.remove(result.size() - 1);
+                }
+            }
+            result.add(node);
+        }
+        return result;
+    }
+
+    /**
+     * Moves the last child of {@code left} over to become the first child of {@code right}.
+     */
+    private void moveLastChildRight(PageCursor cursor, Node<KEY> left, Node<KEY> right, CursorContext cursorContext)
+            throws IOException {
+        TreeNode.goTo(cursor, "left", left.id);
+        long child = treeNode.childAt(cursor, left.keyCount, stableGeneration, unstableGeneration);
+        KEY childFirstKey;
+        if (left.keyCount > 0) {
+            childFirstKey = treeNode.keyAt(cursor, layout.newKey(), left.keyCount - 1, INTERNAL, cursorContext);
+            treeNode.removeKeyAndRightChildAt(
+                    cursor, left.keyCount - 1, left.keyCount, stableGeneration, unstableGeneration, cursorContext);
+            left.keyCount--;
+            TreeNode.setKeyCount(cursor, left.keyCount);
+        } else {
+            childFirstKey = left.firstKey;
+        }
+
+        TreeNode.goTo(cursor, "right", right.id);
+        long firstChild = treeNode.childAt(cursor, 0, stableGeneration, unstableGeneration);
+        makeRoomForKey(cursor, right, right.firstKey);
+        treeNode.insertKeyAndRightChildAt(
+                cursor,
+                right.firstKey,
+                GenerationSafePointerPair.pointer(firstChild),
+                0,
+                right.keyCount,
+                stableGeneration,
+                unstableGeneration,
+                cursorContext);
+        treeNode.setChildAt(cursor, GenerationSafePointerPair.pointer(child), 0, stableGeneration, unstableGeneration);
+        right.keyCount++;
+        TreeNode.setKeyCount(cursor, right.keyCount);
+        right.firstKey = childFirstKey;
+    }
+
+    /**
+     * Moves the first child of {@code right} over to become the last child of {@code left}.
+     */
+    private void moveFirstChildLeft(PageCursor cursor, Node<KEY> left, Node<KEY> right, CursorContext cursorContext)
+            throws IOException {
+        TreeNode.goTo(cursor, "right", right.id);
+        long child = treeNode.childAt(cursor, 0, stableGeneration, unstableGeneration);
+        KEY childFirstKey = right.firstKey;
+        if (right.keyCount > 0) {
+            right.firstKey = treeNode.keyAt(cursor, layout.newKey(), 0, INTERNAL, cursorContext);
+            treeNode.removeKeyAndLeftChildAt(
+                    cursor, 0, right.keyCount, stableGeneration, unstableGeneration, cursorContext);
+            right.keyCount--;
+            TreeNode.setKeyCount(cursor, right.keyCount);
+        }
+
+        TreeNode.goTo(cursor, "left", left.id);
+        makeRoomForKey(cursor, left, childFirstKey);
+        treeNode.insertKeyAndRightChildAt(
+                cursor,
+                childFirstKey,
+                GenerationSafePointerPair.pointer(child),
+                left.keyCount,
+                left.keyCount,
+                stableGeneration,
+                unstableGeneration,
+                cursorContext);
+        left.keyCount++;
+        TreeNode.setKeyCount(cursor, left.keyCount);
+    }
+
+    private void makeRoomForKey(PageCursor cursor, Node<KEY> node, KEY key) {
+        TreeNode.Overflow overflow = treeNode.internalOverflow(cursor, node.keyCount, key);
+        if (overflow == TreeNode.Overflow.YES) {
+            throw new TreeInconsistencyException(
+                    "Unable to move key:%s into node:%d with key count:%d", key, node.id, node.keyCount);
+        }
+        if (overflow == TreeNode.Overflow.NO_NEED_DEFRAG) {
+            treeNode.defragmentInternal(cursor);
+        }
+    }
+
+    /**
+     * Points the siblings of the given nodes, which are all the nodes of one level in key order, to each other.
+     */
+    private void linkSiblings(PageCursor cursor, List<Node<KEY>> nodes) throws IOException {
+        for (int i = 0; i < nodes.size(); i++) {
+            Node<KEY> node = nodes.get(i);
+            long leftSibling = i == 0 ? NO_NODE_FLAG : nodes.get(i - 1).id;
+            long rightSibling = i == nodes.size() - 1 ? NO_NODE_FLAG : nodes.get(i + 1).id;
+            if (node.leftSibling != leftSibling || node.rightSibling != rightSibling) {
+                TreeNode.goTo(cursor, "sibling", node.id);
+                TreeNode.setLeftSibling(cursor, leftSibling, stableGeneration, unstableGeneration);
+                TreeNode.setRightSibling(cursor, rightSibling, stableGeneration, unstableGeneration);
+                node.leftSibling = leftSibling;
+                node.rightSibling = rightSibling;
+            }
+        }
+    }
+
+    private void release(PageCursor cursor, Node<KEY> node) throws IOException {
+        idProvider.releaseId(stableGeneration, unstableGeneration, node.id, bind(cursor));
+    }
+
+    private long newNode(PageCursor cursor) throws IOException {
+        return idProvider.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
+    }
+
+    private int reservedSpace(PageCursor cursor) {
+        return (int) ((1 - fillFactor) * treeNode.availableSpace(cursor, 0));
+    }
+
+    private PageCursor openCursor(CursorContext cursorContext) throws IOException {
+        return pagedFile.io(0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext);
+    }
+
+    private void unlock() {
+        open = false;
+        writerLock.writeLock().unlock();
+        checkpointLock.readLock().unlock();
+    }
+
+    private <T extends Exception> T appendTreeInformation(T exception) {
+        exceptionMessageAppender.accept(exception);
+        return exception;
+    }
+
+    /**
+     * Builds one internal level from the first keys and ids of the nodes of the level below, in key order.
+     * Sibling pointers are set when the level is {@link #finish() finished}.
+     */
+    private class LevelBuilder {
+        private final PageCursor cursor;
+        private final CursorContext cursorContext;
+        private final List<Node<KEY>> nodes = new ArrayList<>();
+        private Node<KEY> current;
+        private int reservedSpace;
+
+        LevelBuilder(PageCursor cursor, CursorContext cursorContext) {
+            this.cursor = cursor;
+            this.cursorContext = cursorContext;
+        }
+
+        void add(KEY firstKey, long child) throws IOException {
+            if (current == null || !fits(firstKey)) {
+                long id = newNode(cursor);
+                TreeNode.goTo(cursor, "new internal node", id);
+                treeNode.initializeInternal(cursor, layerType, stableGeneration, unstableGeneration);
+                treeNode.setChildAt(cursor, child, 0, stableGeneration, unstableGeneration);
+                if (current == null) {
+                    reservedSpace = reservedSpace(cursor);
+                }
+                current = new Node<>(id, layout.copyKey(firstKey, layout.newKey()));
+                nodes.add(current);
+                return;
+            }
+            treeNode.insertKeyAndRightChildAt(
+                    cursor,
+                    firstKey,
+                    child,
+                    current.keyCount,
+                    current.keyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            current.keyCount++;
+            TreeNode.setKeyCount(cursor, current.keyCount);
+        }
+
+        private boolean fits(KEY key) {
+            if (treeNode.internalOverflow(cursor, current.keyCount, key) != TreeNode.Overflow.NO) {
+                return false;
+            }
+            return current.keyCount < 2
+                    || treeNode.availableSpace(cursor, current.keyCount) - treeNode.totalSpaceOfKeyChild(key)
+                            >= reservedSpace;
+        }
+
+        List<Node<KEY>> finish() throws IOException {
+            checkOutOfBounds(cursor);
+            List<Node<KEY>> level = mergeSingleChildNodes(cursor, nodes, cursorContext);
+            linkSiblings(cursor, level);
+            return level;
+        }
+    }
+
+    private class BulkAppender implements Appender<KEY, VALUE> {
+        private final PageCursor cursor;
+        private final PageCursor parentCursor;
+        private final CursorContext cursorContext;
+        private final LevelBuilder parents;
+        private final KEY leafFirstKey = layout.newKey();
+        private final KEY lastKey = layout.newKey();
+        private KEY firstKey;
+        private long firstLeafId = NO_NODE_FLAG;
+        private long leafId = NO_NODE_FLAG;
+        private int keyCount;
+        private int reservedSpace;
+        private boolean closed;
+
+        BulkAppender(CursorContext cursorContext) throws IOException {
+            this.cursor = openCursor(cursorContext);
+            this.parentCursor = openCursor(cursorContext);
+            this.cursorContext = cursorContext;
+            this.parents = new LevelBuilder(parentCursor, cursorContext);
+        }
+
+        @Override
+        public void add(KEY key, VALUE value) {
+            if (leafId != NO_NODE_FLAG && layout.compare(key, lastKey) <= 0) {
+                throw new IllegalArgumentException(format(
+                        "Keys must be added in strictly ascending order, but got key:%s after key:%s", key, lastKey));
+            }
+            try {
+                treeNode.validateKeyValueSize(key, value);
+                if (leafId == NO_NODE_FLAG || !fits(key, value)) {
+                    newLeaf(key);
+                }
+                treeNode.insertKeyValueAt(
+                        cursor, key, value, keyCount, keyCount, stableGeneration, unstableGeneration, cursorContext);
+                keyCount++;
+                TreeNode.setKeyCount(cursor, keyCount);
+                layout.copyKey(key, lastKey);
+            } catch (IOException e) {
+                exceptionMessageAppender.accept(e);
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean fits(KEY key, VALUE value) {
+            if (treeNode.leafOverflow(cursor, keyCount, key, value) != TreeNode.Overflow.NO) {
+                return false;
+            }
+            return keyCount == 0
+                    || treeNode.availableSpace(cursor, keyCount) - treeNode.totalSpaceOfKeyValue(key, value)
+                            >= reservedSpace;
+        }
+
+        private void newLeaf(KEY key) throws IOException {
+            long previousLeafId = leafId;
+            long id = newNode(cursor);
+            if (previousLeafId != NO_NODE_FLAG) {
+                checkOutOfBounds(cursor);
+                TreeNode.setRightSibling(cursor, id, stableGeneration, unstableGeneration);
+                parents.add(leafFirstKey, previousLeafId);
+            }
+            TreeNode.goTo(cursor, "new leaf", id);
+            treeNode.initializeLeaf(cursor, layerType, stableGeneration, unstableGeneration);
+            if (previousLeafId == NO_NODE_FLAG) {
+                reservedSpace = reservedSpace(cursor);
+                firstLeafId = id;
+                firstKey = layout.copyKey(key, layout.newKey());
+            } else {
+                TreeNode.setLeftSibling(cursor, previousLeafId, stableGeneration, unstableGeneration);
+            }
+            layout.copyKey(key, leafFirstKey);
+            leafId = id;
+            keyCount = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (leafId != NO_NODE_FLAG) {
+                    checkOutOfBounds(cursor);
+                    parents.add(leafFirstKey, leafId);
+                    List<Node<KEY>> parentNodes = parents.finish();
+                    synchronized (loadedRanges) {
+                        loadedRanges.add(new LoadedRange<>(firstKey, lastKey, firstLeafId, leafId, parentNodes));
+                    }
+                }
+            } finally {
+                cursor.close();
+                parentCursor.close();
+                openAppenders.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A node of an internal level that is being built, with what is known of its contents.
+     */
+    private static final class Node<KEY> {
+        private final long id;
+        private KEY firstKey;
+        private int keyCount;
+        private long leftSibling = NO_NODE_FLAG;
+        private long rightSibling = NO_NODE_FLAG;
+
+        Node(long id, KEY firstKey) {
+            this.id = id;
+            this.firstKey = firstKey;
+        }
+    }
+
+    /**
+     * The leaves and the level above them that one appender built.
+     */
+    private record LoadedRange<KEY>(
+            KEY firstKey, KEY lastKey, long firstLeafId, long lastLeafId, List<Node<KEY>> parents) {}
+}
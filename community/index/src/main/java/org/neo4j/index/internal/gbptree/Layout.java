@@ -66,6 +66,21 @@ public interface Layout<KEY, VALUE> extends KeyLayout<KEY> {
         return false;
     }
 
+    /**
+     * Indicate if leaves should store the prefix that their keys have in common once per leaf, instead of once per
+     * key. Only applies to dynamic size layouts and pays off for keys that share long prefixes, e.g. strings.
+     * Keys are still written and read in full by {@link #writeKey(PageCursor, Object)} and
+     * {@link #readKey(PageCursor, Object, int)}, but possibly through a cursor that isn't positioned in a tree node.
+     * <p>
+     * This decides the format of the tree nodes, so it cannot be changed for an existing layout without also
+     * changing its {@link #identifier()} or version.
+     *
+     * @return {@code true} if leaves should compress the common prefix of their keys, otherwise {@code false}.
+     */
+    default boolean compressKeyPrefixes() {
+        return false;
+    }
+
     /**
      * Utility method for generating an {@link #identifier()}. Generates an 8-byte identifier from a short name
      * plus a 4-byte identifier.
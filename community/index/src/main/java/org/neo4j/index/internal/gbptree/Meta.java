@@ -313,15 +313,15 @@ public class Meta {
         return rootFormatVersion;
     }
 
-    long getDataLayoutIdentifier() {
+    public long getDataLayoutIdentifier() {
         return dataLayoutIdentifier;
     }
 
-    int getDataLayoutMajorVersion() {
+    public int getDataLayoutMajorVersion() {
         return dataLayoutMajorVersion;
     }
 
-    int getDataLayoutMinorVersion() {
+    public int getDataLayoutMinorVersion() {
         return dataLayoutMinorVersion;
     }
 
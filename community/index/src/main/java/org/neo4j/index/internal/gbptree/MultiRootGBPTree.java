@@ -911,6 +911,33 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
         }
     }
 
+    /**
+     * Use when you are only interested in reading the {@link Meta} of existing index file, e.g. to find out which
+     * layout version it was created with, without opening the index.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link Path} containing the actual index
+     * @param databaseName name of the database index file belongs to.
+     * @return the {@link Meta} the index was created with.
+     * @throws IOException On page cache error
+     * @throws MetadataMismatchException if some meta page is missing (tree not fully initialized)
+     */
+    public static Meta readMeta(
+            PageCache pageCache,
+            Path indexFile,
+            String databaseName,
+            CursorContext cursorContext,
+            ImmutableSet<OpenOption> openOptions)
+            throws IOException, MetadataMismatchException {
+        try (PagedFile pagedFile =
+                openExistingIndexFile(pageCache, indexFile, cursorContext, databaseName, openOptions)) {
+            return RootLayerSupport.readMeta(pagedFile, cursorContext);
+        } catch (Throwable t) {
+            t.addSuppressed(new Exception(format("GBPTree[file:%s]", indexFile)));
+            throw t;
+        }
+    }
+
     private static TreeState readHeaderFromPagedFiled(
             PagedFile pagedFile, Reader headerReader, CursorContext cursorContext, ImmutableSet<OpenOption> openOptions)
             throws IOException {
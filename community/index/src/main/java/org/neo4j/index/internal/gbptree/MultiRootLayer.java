@@ -486,6 +486,12 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     seeker, rootMappingInteraction, fromInclusive, toExclusive, DEFAULT_MAX_READ_AHEAD, LEAF_LEVEL);
         }
 
+        @Override
+        public Seeker<DATA_KEY, DATA_VALUE> seek(
+                Seeker<DATA_KEY, DATA_VALUE> seeker, List<Seeker.Range<DATA_KEY>> ranges) throws IOException {
+            return support.initializeSeeker(seeker, rootMappingInteraction, ranges, DEFAULT_MAX_READ_AHEAD);
+        }
+
         @Override
         public List<DATA_KEY> partitionedSeek(
                 DATA_KEY fromInclusive, DATA_KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -111,6 +111,17 @@ class RootLayerSupport {
                         searchLevel);
     }
 
+    <K, V> Seeker<K, V> initializeSeeker(
+            Seeker<K, V> seeker, RootSupplier rootSupplier, List<Seeker.Range<K>> ranges, int readAheadLength)
+            throws IOException {
+        return ((SeekCursor<K, V>) seeker)
+                .initialize(
+                        c -> rootSupplier.getRoot().goTo(c),
+                        new TripCountingRootCatchup(rootSupplier),
+                        ranges,
+                        readAheadLength);
+    }
+
     /**
      * We want to create a given number of partitions of the range given by <code>fromInclusive</code> and <code>toExclusive</code>.
      * We want the number of entries in each partition to be as equal as possible. We let the number of leaves in each partition
@@ -250,6 +261,35 @@ class RootLayerSupport {
         return writer;
     }
 
+    <K, V> BulkLoader<K, V> bulkLoader(
+            Layout<K, V> layout,
+            TreeNode<K, V> treeNode,
+            TreeRootExchange rootExchange,
+            byte layerType,
+            double fillFactor,
+            CursorContext cursorContext)
+            throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(String.format("'%s' is read-only", pagedFile.path()));
+        }
+        cleanCheck.apply();
+        GBPTreeBulkLoader<K, V> bulkLoader = new GBPTreeBulkLoader<>(
+                layout,
+                treeNode,
+                rootExchange,
+                layerType,
+                pagedFile,
+                freeList,
+                checkpointLock,
+                writerLock,
+                generationSupplier,
+                exceptionDecorator,
+                fillFactor);
+        bulkLoader.initialize(cursorContext);
+        changesSinceLastCheckpoint.set(true);
+        return bulkLoader;
+    }
+
     <K, V> OffloadStoreImpl<K, V> buildOffload(Layout<K, V> layout) {
         OffloadIdValidator idValidator = id -> id >= IdSpace.MIN_TREE_NODE_ID && id <= pagedFile.getLastPageId();
         return new OffloadStoreImpl<>(layout, freeList, pagedFile::io, idValidator, payloadSize);
@@ -388,6 +428,11 @@ class RootLayerSupport {
                     return initializeSeeker(seeker, rootSupplier, fromInclusive, toExclusive, 1, LEAF_LEVEL);
                 }
 
+                @Override
+                public Seeker<K, V> seek(Seeker<K, V> seeker, List<Seeker.Range<K>> ranges) throws IOException {
+                    return initializeSeeker(seeker, rootSupplier, ranges, 1);
+                }
+
                 @Override
                 public List<K> partitionedSeek(
                         K fromInclusive, K toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -25,6 +25,7 @@ import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
 import static org.neo4j.io.IOUtils.closeAllSilently;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import org.neo4j.io.pagecache.PageCursor;
@@ -139,6 +140,15 @@ import org.neo4j.util.Preconditions;
  * in this case. By using a linked cursor to 'scout' we create a consistent read over the node gap. If there is
  * suddenly another key when he goes there he knows that he could have missed some keys and he needs to go back until
  * he find the place where he left off, K4.
+ * <p>
+ * <strong>Batched seek</strong>
+ * <p>
+ * A seek can also be given a sorted batch of forward key ranges, see {@link Seeker.Factory#seek(Seeker, List)}.
+ * Only the first range is searched for from the root. Every following range starts at or after where the
+ * previous range ended, and since keys only move from left to right in the tree, the current leaf is the
+ * left-most place where the start of the next range can be. It is searched for there first, and then in the right
+ * siblings of that leaf. If it isn't found within {@link #BATCH_MAX_SIBLING_HOPS} siblings the seek goes back to
+ * the root and traverses down to the right leaf from there instead.
  */
 class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
     interface Monitor {
@@ -170,6 +180,12 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
     static final int DEFAULT_MAX_READ_AHEAD = 20;
     static final int LEAF_LEVEL = Integer.MAX_VALUE;
 
+    /**
+     * Number of right siblings to visit looking for the start of the next range in a batched seek, before
+     * giving up and searching for it from the root instead.
+     */
+    static final int BATCH_MAX_SIBLING_HOPS = 2;
+
     /**
      * Cursor for reading from tree nodes and also will be moved around when following pointers.
      */
@@ -436,6 +452,29 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
      */
     private boolean forceReadHeader;
 
+    /**
+     * Ranges of a batched seek, where the range at {@link #nextRange} is the next one to continue with
+     * when the current range has ended. Empty if this isn't a batched seek.
+     */
+    private List<Range<KEY>> ranges = List.of();
+
+    /**
+     * Index into {@link #ranges} of the next range to seek.
+     */
+    private int nextRange;
+
+    /**
+     * Number of right siblings that may still be visited looking for the first hit of the current range,
+     * before restarting the search for it from the root.
+     */
+    private int siblingHopsLeft;
+
+    /**
+     * Places the {@link PageCursor} at the root, used when a range in a batched seek is too far away from
+     * the current leaf to reach it by following right siblings.
+     */
+    private RootInitializer rootInitializer;
+
     /**
      * Place where read generations will be kept when reading child/sibling/successor pointers.
      */
@@ -461,7 +500,6 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.firstKeyInNode = layout.newKey();
     }
 
-    @SuppressWarnings("unchecked")
     SeekCursor<KEY, VALUE> initialize(
             RootInitializer rootInitializer,
             RootCatchup rootCatchup,
@@ -470,7 +508,61 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             int maxReadAhead,
             int searchLevel)
             throws IOException {
+        this.ranges = List.of();
+        this.nextRange = 0;
+        int batchSize = layout.compare(fromInclusive, toExclusive) == 0 ? 1 : maxReadAhead;
+        return initializeFirstRange(rootInitializer, rootCatchup, fromInclusive, toExclusive, batchSize, searchLevel);
+    }
+
+    /**
+     * Initializes a batched seek over the given ranges, see {@link Seeker.Factory#seek(Seeker, List)}.
+     *
+     * @param ranges forward ranges to seek, sorted and not overlapping.
+     */
+    SeekCursor<KEY, VALUE> initialize(
+            RootInitializer rootInitializer, RootCatchup rootCatchup, List<Range<KEY>> ranges, int maxReadAhead)
+            throws IOException {
+        Preconditions.checkArgument(!ranges.isEmpty(), "No ranges to seek");
+        boolean allExactMatches = true;
+        Range<KEY> prevRange = null;
+        for (Range<KEY> range : ranges) {
+            int direction = layout.compare(range.fromInclusive(), range.toExclusive());
+            Preconditions.checkArgument(direction <= 0, "Batched seek only supports forward ranges, got %s", range);
+            if (prevRange != null) {
+                int order = layout.compare(range.fromInclusive(), prevRange.toExclusive());
+                boolean prevExactMatch = layout.compare(prevRange.fromInclusive(), prevRange.toExclusive()) == 0;
+                Preconditions.checkArgument(
+                        order > 0 || (order == 0 && !prevExactMatch),
+                        "Ranges in a batched seek must be sorted and not overlap, but %s came after %s",
+                        range,
+                        prevRange);
+            }
+            allExactMatches &= direction == 0;
+            prevRange = range;
+        }
+        this.ranges = ranges;
+        this.nextRange = 1;
+        Range<KEY> firstRange = ranges.get(0);
+        return initializeFirstRange(
+                rootInitializer,
+                rootCatchup,
+                firstRange.fromInclusive(),
+                firstRange.toExclusive(),
+                allExactMatches ? 1 : maxReadAhead,
+                LEAF_LEVEL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SeekCursor<KEY, VALUE> initializeFirstRange(
+            RootInitializer rootInitializer,
+            RootCatchup rootCatchup,
+            KEY fromInclusive,
+            KEY toExclusive,
+            int batchSize,
+            int searchLevel)
+            throws IOException {
         Preconditions.checkState(!closed, "Seeker already closed");
+        this.rootInitializer = rootInitializer;
         this.rootCatchup = rootCatchup;
         this.lastFollowedPointerGeneration = rootInitializer.goToRoot(cursor);
         long generation = generationSupplier.getAsLong();
@@ -489,7 +581,7 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.seekForward = layout.compare(fromInclusive, toExclusive) <= 0;
         this.stride = seekForward ? 1 : -1;
         this.searchLevel = searchLevel;
-        int batchSize = exactMatch ? 1 : maxReadAhead;
+        this.siblingHopsLeft = Integer.MAX_VALUE;
         if (mutableKeys == null || batchSize > mutableKeys.length) {
             this.mutableKeys = (KEY[]) new Object[batchSize];
             this.mutableValues = new TreeNode.ValueHolder[batchSize];
@@ -625,70 +717,120 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
     @Override
     public boolean next() throws IOException {
         try {
-            while (!ended) {
-                pos += stride;
-
-                // There are two main tracks in this loop:
-                // - (SLOW) no keys/values have been read and will therefore need to be read from the cursor.
-                //   Reading from the cursor means there are a lot of things around the actual keys and values
-                //   that need to be check to validate the read. This is expensive to do since there's so much
-                //   to validate. This is why keys/values are read in batches of N entries. The validations
-                //   are made only once per batch instead of once per key/value.
-                // - (FAST) there are keys/values read and validated and ready to simply be returned to the user.
-
-                if (cachedIndex + 1 < cachedLength
-                        && !(concurrentWriteHappened = cursor.shouldRetry())) { // FAST, key/value is readily available
-                    cachedIndex++;
-                    if (resultOnTrack && isValueDefined()) {
-                        return true;
-                    }
-                    if (isResultKey()) {
-                        resultOnTrack = true;
-                        return true;
-                    }
+            while (!nextInRange()) {
+                if (closed || nextRange >= ranges.size()) {
+                    return false;
+                }
+                continueWithRange(ranges.get(nextRange++));
+            }
+            return true;
+        } catch (Throwable e) {
+            exceptionDecorator.accept(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves to the next result within the current range.
+     *
+     * @return {@code true} if there was a result, otherwise {@code false} meaning that the current range is exhausted.
+     */
+    private boolean nextInRange() throws IOException {
+        while (!ended) {
+            pos += stride;
+
+            // There are two main tracks in this loop:
+            // - (SLOW) no keys/values have been read and will therefore need to be read from the cursor.
+            //   Reading from the cursor means there are a lot of things around the actual keys and values
+            //   that need to be check to validate the read. This is expensive to do since there's so much
+            //   to validate. This is why keys/values are read in batches of N entries. The validations
+            //   are made only once per batch instead of once per key/value.
+            // - (FAST) there are keys/values read and validated and ready to simply be returned to the user.
+
+            if (cachedIndex + 1 < cachedLength
+                    && !(concurrentWriteHappened = cursor.shouldRetry())) { // FAST, key/value is readily available
+                cachedIndex++;
+                if (resultOnTrack && isValueDefined()) {
+                    return true;
+                }
+                if (isResultKey()) {
+                    resultOnTrack = true;
+                    return true;
+                }
+                continue;
+            } else { // SLOW, next batch of keys/values needs to be read
+                if (resultOnTrack) {
+                    layout.copyKey(mutableKeys[cachedIndex], prevKey);
+                }
+                if (!readAndValidateNextKeyValueBatch()) {
+                    // Concurrent changes
+                    cachedLength = 0;
                     continue;
-                } else { // SLOW, next batch of keys/values needs to be read
-                    if (resultOnTrack) {
-                        layout.copyKey(mutableKeys[cachedIndex], prevKey);
-                    }
-                    if (!readAndValidateNextKeyValueBatch()) {
-                        // Concurrent changes
-                        cachedLength = 0;
-                        continue;
-                    }
+                }
 
-                    // Below, the cached key/value at slot [0] will be used
-                    if (!seekForward && pos >= keyCount) {
-                        goTo(prevSiblingId, prevSiblingGeneration, GBPPointerType.RIGHT_SIBLING, true);
-                        // Continue in the read loop above so that we can continue reading from previous sibling
-                        // or on next position
-                        continue;
-                    }
+                // Below, the cached key/value at slot [0] will be used
+                if (!seekForward && pos >= keyCount) {
+                    goTo(prevSiblingId, prevSiblingGeneration, GBPPointerType.RIGHT_SIBLING, true);
+                    // Continue in the read loop above so that we can continue reading from previous sibling
+                    // or on next position
+                    continue;
+                }
 
-                    if ((seekForward && pos >= keyCount) || (!seekForward && pos <= 0 && !insidePrevKey(cachedIndex))) {
-                        if (goToNextSibling()) {
-                            continue; // in the read loop above so that we can continue reading from next sibling
-                        }
-                    } else if (0 <= pos && pos < keyCount && insideEndRange(exactMatch, 0)) {
-                        if (isResultKey()) {
-                            resultOnTrack = true;
-                            return true; // which marks this read a hit that user can see
-                        }
+                if ((seekForward && pos >= keyCount) || (!seekForward && pos <= 0 && !insidePrevKey(cachedIndex))) {
+                    if (first && siblingHopsLeft-- == 0) {
+                        seekRangeFromRoot();
                         continue;
                     }
+                    if (goToNextSibling()) {
+                        continue; // in the read loop above so that we can continue reading from next sibling
+                    }
+                } else if (0 <= pos && pos < keyCount && insideEndRange(exactMatch, 0)) {
+                    if (isResultKey()) {
+                        resultOnTrack = true;
+                        return true; // which marks this read a hit that user can see
+                    }
+                    continue;
                 }
-
-                // We've come too far and so this means the end of the result set
-                ended = true;
-                return false;
             }
-        } catch (Throwable e) {
-            exceptionDecorator.accept(e);
-            throw e;
+
+            // We've come too far and so this means the end of the result set
+            ended = true;
+            return false;
         }
         return false;
     }
 
+    /**
+     * Continues a batched seek with the next range, starting from the leaf where the previous range ended.
+     * The next range starts at or after the end of the previous one, so the start of it is either in this leaf
+     * or in one of its right siblings.
+     */
+    private void continueWithRange(Range<KEY> range) {
+        fromInclusive = range.fromInclusive();
+        toExclusive = range.toExclusive();
+        exactMatch = layout.compare(fromInclusive, toExclusive) == 0;
+        first = true;
+        ended = false;
+        resultOnTrack = false;
+        cachedIndex = 0;
+        cachedLength = 0;
+        siblingHopsLeft = BATCH_MAX_SIBLING_HOPS;
+        // Makes the next read search for the start of the range in the current leaf
+        concurrentWriteHappened = true;
+    }
+
+    /**
+     * Goes back to the root and traverses down to the leaf containing the start of the current range, for when
+     * it's too far away from the current leaf in a batched seek.
+     */
+    private void seekRangeFromRoot() throws IOException {
+        generationCatchup();
+        lastFollowedPointerGeneration = rootInitializer.goToRoot(cursor);
+        resetNodeState();
+        siblingHopsLeft = Integer.MAX_VALUE;
+        traverseDownToCorrectLevel();
+    }
+
     private boolean readAndValidateNextKeyValueBatch() throws IOException {
         //noinspection AssignmentUsedAsCondition
         do {
@@ -1135,8 +1277,10 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         if (!first) {
             layout.copyKey(prevKey, fromInclusive);
         }
+        resetNodeState();
+    }
 
-        // Reset mutable state
+    private void resetNodeState() {
         cachedIndex = 0;
         cachedLength = 0;
         resultOnTrack = false;
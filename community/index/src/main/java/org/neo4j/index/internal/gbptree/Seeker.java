@@ -54,6 +54,20 @@ public interface Seeker<KEY, VALUE> extends Closeable {
      */
     VALUE value();
 
+    /**
+     * A key range to seek as part of a batched seek, see {@link Factory#seek(Seeker, List)}.
+     * A range where {@code fromInclusive} and {@code toExclusive} are equal seeks that exact key.
+     *
+     * @param fromInclusive lower bound of the range to seek (inclusive).
+     * @param toExclusive higher bound of the range to seek (exclusive).
+     * @param <KEY> type of key in this tree.
+     */
+    record Range<KEY>(KEY fromInclusive, KEY toExclusive) {
+        public static <KEY> Range<KEY> exact(KEY key) {
+            return new Range<>(key, key);
+        }
+    }
+
     interface Factory<KEY, VALUE> {
         /**
          * Allocates a {@link Seeker} instance for seeking in the tree. Caller can reuse the returned instance for multiple calls to
@@ -104,6 +118,36 @@ public interface Seeker<KEY, VALUE> extends Closeable {
          */
         Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, KEY fromInclusive, KEY toExclusive) throws IOException;
 
+        /**
+         * Seeks hits in this tree for a batch of key ranges, e.g. one exact key per value of a list of values to look up.
+         * Hits are returned in ascending order, range by range, using the returned {@link Seeker}.
+         * <p>
+         * Compared to doing a separate seek for each range this walks the tree once for the whole batch.
+         * Each range continues from the leaf where the previous range ended, following right siblings
+         * if the next range starts close by and only going back to the root if it doesn't.
+         *
+         * @see #seek(Seeker, List)
+         * @param ranges forward key ranges to seek, sorted and not overlapping.
+         * @param cursorContext underlying page cursor context
+         * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+         * @throws IOException on error reading from index.
+         */
+        default Seeker<KEY, VALUE> seek(List<Range<KEY>> ranges, CursorContext cursorContext) throws IOException {
+            return seek(allocateSeeker(cursorContext), ranges);
+        }
+
+        /**
+         * Seeks a batch of key ranges with an existing {@link Seeker} instance, for reduced overhead.
+         *
+         * @see #seek(List, CursorContext)
+         * @param seeker {@link Seeker} instance to use to do this seek. This instance is also returned for convenience.
+         * @param ranges forward key ranges to seek, sorted and not overlapping. Must not be empty.
+         * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+         * @throws IOException on error reading from index.
+         * @throws IllegalArgumentException if {@code ranges} is empty, contains a backwards range or isn't sorted.
+         */
+        Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, List<Range<KEY>> ranges) throws IOException;
+
         /**
          * Partitions the provided key range into {@code numberOfPartitions} partitions and instantiates a {@link Seeker} for each.
          * Caller can seek through the partitions in parallel. Caller is responsible for closing the returned {@link Seeker seekers}.
@@ -197,6 +197,11 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
                     LEAF_LEVEL);
         }
 
+        @Override
+        public Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, List<Seeker.Range<KEY>> ranges) throws IOException {
+            return support.initializeSeeker(seeker, SingleRootLayer.this, ranges, SeekCursor.DEFAULT_MAX_READ_AHEAD);
+        }
+
         @Override
         public List<KEY> partitionedSeek(
                 KEY fromInclusive, KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -222,6 +227,12 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
             }
         }
 
+        @Override
+        public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+            return support.bulkLoader(
+                    layout, treeNode, SingleRootLayer.this, DATA_LAYER_FLAG, fillFactor, cursorContext);
+        }
+
         @Override
         public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
             return support.estimateNumberOfEntriesInTree(layout, treeNode, SingleRootLayer.this, cursorContext);
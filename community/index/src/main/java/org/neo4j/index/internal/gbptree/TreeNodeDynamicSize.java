@@ -110,8 +110,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
     private final int inlineKeyValueSizeCap;
     private final int keyValueSizeCap;
 
-    private final int totalSpace;
-    private final int halfSpace;
+    final int totalSpace;
+    final int halfSpace;
     private final OffloadStore<KEY, VALUE> offloadStore;
     private final int maxKeyCount;
 
@@ -1034,7 +1034,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         return newRightAllocSpace;
     }
 
-    private int getAllocSpace(PageCursor cursor, int keyCount, Type type) {
+    int getAllocSpace(PageCursor cursor, int keyCount, Type type) {
         int allocOffset = getAllocOffset(cursor);
         int endOfOffsetArray = type == LEAF ? keyPosOffsetLeaf(keyCount) : keyPosOffsetInternal(keyCount);
         return allocOffset - endOfOffsetArray;
@@ -1081,7 +1081,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         zeroPad(fromCursor, childFromOffset, lengthInBytes);
     }
 
-    private static void zeroPad(PageCursor fromCursor, int fromOffset, int lengthInBytes) {
+    static void zeroPad(PageCursor fromCursor, int fromOffset, int lengthInBytes) {
         fromCursor.setOffset(fromOffset);
         fromCursor.putBytes(lengthInBytes, (byte) 0);
     }
@@ -1284,6 +1284,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         return getUnsignedShort(cursor, BYTE_POS_ALLOC_OFFSET);
     }
 
+    /**
+     * Keys are allocated from the end of the node and backwards. Sub classes may keep data of their own after the
+     * keys, in which case this is where the keys end.
+     */
+    int keyValueAreaEnd(PageCursor cursor, Type type) {
+        return pageSize;
+    }
+
     @VisibleForTesting
     void setDeadSpace(PageCursor cursor, int deadSpace) {
         putUnsignedShort(cursor, BYTE_POS_DEAD_SPACE, deadSpace);
@@ -1294,7 +1302,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         return getUnsignedShort(cursor, BYTE_POS_DEAD_SPACE);
     }
 
-    private void placeCursorAtActualKey(PageCursor cursor, int pos, Type type) {
+    void placeCursorAtActualKey(PageCursor cursor, int pos, Type type) {
         // Set cursor to correct place in offset array
         int keyPosOffset = keyPosOffset(pos, type);
         cursor.setOffset(keyPosOffset);
@@ -1314,13 +1322,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         cursor.setOffset(keyOffset);
     }
 
-    private void readUnreliableKeyValueSize(PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos) {
+    void readUnreliableKeyValueSize(PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos) {
         cursor.setCursorException(format(
                 "Read unreliable key, id=%d, keySize=%d, valueSize=%d, keyValueSizeCap=%d, keyHasTombstone=%b, pos=%d",
                 cursor.getCurrentPageId(), keySize, valueSize, keyValueSizeCap(), extractTombstone(keyValueSize), pos));
     }
 
-    private boolean keyValueSizeTooLarge(int keySize, int valueSize) {
+    boolean keyValueSizeTooLarge(int keySize, int valueSize) {
         return keySize + valueSize > keyValueSizeCap();
     }
 
@@ -1332,7 +1340,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         }
     }
 
-    private int keyPosOffsetLeaf(int pos) {
+    int keyPosOffsetLeaf(int pos) {
         return HEADER_LENGTH_DYNAMIC + pos * bytesKeyOffsetSize();
     }
 
@@ -1349,7 +1357,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         return SIZE_PAGE_REFERENCE;
     }
 
-    private int bytesKeyOffsetSize() {
+    int bytesKeyOffsetSize() {
         return OFFSET_SIZE;
     }
 
@@ -1391,8 +1399,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         KEY readKey = layout.newKey();
         VALUE readValue = layout.newValue();
         StringJoiner keys = new StringJoiner(" ");
+        int keyValueAreaEnd = keyValueAreaEnd(cursor, type);
         cursor.setOffset(allocOffset);
-        while (cursor.getOffset() < cursor.getPagedFile().payloadSize()) {
+        while (cursor.getOffset() < keyValueAreaEnd) {
             StringJoiner singleKey = new StringJoiner("|");
             singleKey.add(Integer.toString(cursor.getOffset()));
             long keyValueSize = readKeyValueSize(cursor);
@@ -1496,7 +1505,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
             }
         }
 
-        if (allocOffset < pageSize && allocOffset >= 0) {
+        if (allocOffset < keyValueAreaEnd(cursor, type) && allocOffset >= 0) {
             // Verify allocOffset point at start of key
             cursor.setOffset(allocOffset);
             long keyValueAtAllocOffset = readKeyValueSize(cursor);
@@ -1539,7 +1548,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         // Alive keys
         int aliveKeySize = 0;
         int nextKeyOffset = getAllocOffset(cursor);
-        while (nextKeyOffset < pageSize) {
+        int keyValueAreaEnd = keyValueAreaEnd(cursor, type);
+        while (nextKeyOffset < keyValueAreaEnd) {
             cursor.setOffset(nextKeyOffset);
             long keyValueSize = readKeyValueSize(cursor);
             int keySize = extractKeySize(keyValueSize);
@@ -1551,7 +1561,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
             }
             nextKeyOffset = cursor.getOffset() + (offload ? DynamicSizeUtil.SIZE_OFFLOAD_ID : keySize + valueSize);
         }
-        return offsetArraySize + aliveKeySize;
+        return offsetArraySize + aliveKeySize + pageSize - keyValueAreaEnd;
     }
 
     private String readAllocSpace(PageCursor cursor, int allocOffset, Type type) {
@@ -1589,7 +1599,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
         return offsetArray.toString();
     }
 
-    private boolean canInline(int entrySize) {
+    boolean canInline(int entrySize) {
         return entrySize <= inlineKeyValueSizeCap;
     }
 
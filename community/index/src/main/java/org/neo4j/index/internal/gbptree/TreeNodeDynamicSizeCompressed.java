@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.MASK_ONE_BYTE_KEY_SIZE;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadId;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadMarker;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readOffloadId;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.PageCursorUtil.getUnsignedShort;
+import static org.neo4j.io.pagecache.PageCursorUtil.putUnsignedShort;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * # = empty space
+ * K* = offset to key or key and value
+ *
+ * LEAF
+ * [                                   HEADER   86B                                                   ]|[KEY_OFFSETS]##########[KEYS_VALUES][PREFIX][PREFIXLENGTH]
+ * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE]|[K0*,K1*,K2*]->      <-[KV0,KV2,KV1][      ][    2B    ]
+ *  0         1     2           6         10            34           58         82           84          86
+ *
+ * INTERNAL
+ * Same as {@link TreeNodeDynamicSize}.
+ *
+ * ---
+ *
+ * A {@link TreeNodeDynamicSize} where leaves store the bytes that the keys in them have in common only once, in the
+ * prefix at the end of the leaf, and only the rest of each key, its suffix, in the entries. Keys of string indexes
+ * often share long prefixes, e.g. URLs or ids with a common beginning, so this gives leaves room for many more keys.
+ * Internal nodes are not affected, their keys are already as short as {@link Layout#minimalSplitter} can make them.
+ *
+ * The key size of an entry is the size of its suffix. The prefix is never longer than the shortest key in the leaf
+ * minus one byte, so that every suffix has at least one byte. Offloaded entries don't have their keys in the leaf and
+ * thus have no part in the prefix.
+ *
+ * Splitting, merging, rebalancing and defragmenting leaves rewrites them with the longest prefix their keys have in
+ * common. In between, inserting a key that doesn't share the whole prefix rewrites the leaf with a shorter prefix,
+ * while removing keys keeps the prefix as it is.
+ */
+class TreeNodeDynamicSizeCompressed<KEY, VALUE> extends TreeNodeDynamicSize<KEY, VALUE> {
+    static final byte FORMAT_IDENTIFIER = 4;
+    static final byte FORMAT_VERSION = 0;
+
+    private static final int PREFIX_LENGTH_SIZE = Short.BYTES;
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * Keys are serialized and deserialized in full through these buffers, one per thread since tree nodes are shared.
+     */
+    private final ThreadLocal<KeyBuffer> keyBuffers;
+
+    TreeNodeDynamicSizeCompressed(int payloadSize, Layout<KEY, VALUE> layout, OffloadStore<KEY, VALUE> offloadStore) {
+        super(payloadSize, layout, offloadStore);
+        int keyBufferSize = inlineKeyValueSizeCap();
+        this.keyBuffers = ThreadLocal.withInitial(() -> new KeyBuffer(keyBufferSize));
+    }
+
+    @Override
+    void writeAdditionalHeader(PageCursor cursor) {
+        super.writeAdditionalHeader(cursor);
+        if (isLeaf(cursor)) {
+            putUnsignedShort(cursor, pageSize - PREFIX_LENGTH_SIZE, 0);
+            setAllocOffset(cursor, pageSize - PREFIX_LENGTH_SIZE);
+        }
+    }
+
+    @Override
+    int keyValueAreaEnd(PageCursor cursor, Type type) {
+        return type == LEAF ? prefixOffset(prefixLength(cursor)) : pageSize;
+    }
+
+    @Override
+    KEY keyAt(PageCursor cursor, KEY into, int pos, Type type, CursorContext cursorContext) {
+        if (type != LEAF) {
+            return super.keyAt(cursor, into, pos, type, cursorContext);
+        }
+        placeCursorAtActualKey(cursor, pos, LEAF);
+
+        long keyValueSize = readKeyValueSize(cursor);
+        if (extractOffload(keyValueSize)) {
+            return super.keyAt(cursor, into, pos, type, cursorContext);
+        }
+        readKey(cursor, into, pos, keyValueSize);
+        return into;
+    }
+
+    @Override
+    void keyValueAt(
+            PageCursor cursor, KEY intoKey, ValueHolder<VALUE> intoValue, int pos, CursorContext cursorContext) {
+        placeCursorAtActualKey(cursor, pos, LEAF);
+
+        long keyValueSize = readKeyValueSize(cursor);
+        if (extractOffload(keyValueSize)) {
+            super.keyValueAt(cursor, intoKey, intoValue, pos, cursorContext);
+            return;
+        }
+        intoValue.defined = true;
+        if (readKey(cursor, intoKey, pos, keyValueSize)) {
+            layout.readValue(cursor, intoValue.value, extractValueSize(keyValueSize));
+        }
+    }
+
+    @Override
+    void insertKeyValueAt(
+            PageCursor cursor,
+            KEY key,
+            VALUE value,
+            int pos,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        int keySize = layout.keySize(key);
+        int valueSize = layout.valueSize(value);
+        if (!canInline(keySize + valueSize)) {
+            super.insertKeyValueAt(
+                    cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext);
+            return;
+        }
+
+        // Make sure the key shares the prefix of the leaf
+        byte[] keyBytes = keyBytes(key, keySize);
+        if (keyCount == 0) {
+            writeEntries(cursor, NO_ENTRIES, 0, 0, keyBytes, maxPrefixLength(keySize));
+        } else {
+            int prefixLength = prefixLength(cursor);
+            int sharedPrefixLength = sharedPrefixLength(cursor, prefixLength, keyBytes);
+            if (sharedPrefixLength < prefixLength) {
+                writeEntries(cursor, readEntries(cursor, keyCount), 0, keyCount, keyBytes, sharedPrefixLength);
+            }
+        }
+
+        // Write suffix and value
+        int prefixLength = prefixLength(cursor);
+        int suffixSize = keySize - prefixLength;
+        int newKeyValueOffset =
+                getAllocOffset(cursor) - suffixSize - valueSize - getOverhead(suffixSize, valueSize, false);
+        cursor.setOffset(newKeyValueOffset);
+        putKeyValueSize(cursor, suffixSize, valueSize);
+        cursor.putBytes(keyBytes, prefixLength, suffixSize);
+        layout.writeValue(cursor, value);
+
+        // Update alloc space
+        setAllocOffset(cursor, newKeyValueOffset);
+
+        // Write to offset array
+        insertSlotsAt(cursor, pos, 1, keyCount, keyPosOffsetLeaf(0), bytesKeyOffsetSize());
+        cursor.setOffset(keyPosOffsetLeaf(pos));
+        putUnsignedShort(cursor, newKeyValueOffset);
+    }
+
+    @Override
+    Overflow leafOverflow(PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue) {
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        if (!canInline(keySize + valueSize)) {
+            return super.leafOverflow(cursor, currentKeyCount, newKey, newValue);
+        }
+        if (currentKeyCount == 0) {
+            return Overflow.NO;
+        }
+
+        int prefixLength = prefixLength(cursor);
+        int sharedPrefixLength = sharedPrefixLength(cursor, prefixLength, keyBytes(newKey, keySize));
+        int neededSpace = totalSpaceOfEntry(keySize - sharedPrefixLength, valueSize);
+        if (sharedPrefixLength == prefixLength) {
+            int deadSpace = getDeadSpace(cursor);
+            int allocSpace = getAllocSpace(cursor, currentKeyCount, LEAF);
+            return neededSpace <= allocSpace
+                    ? Overflow.NO
+                    : neededSpace <= allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
+        }
+
+        // The leaf will be rewritten with a shorter prefix, which leaves no dead space but makes all suffixes larger
+        int activeSpace = activeSpaceWithPrefix(cursor, currentKeyCount, sharedPrefixLength);
+        return activeSpace + neededSpace <= totalSpace ? Overflow.NO : Overflow.YES;
+    }
+
+    @Override
+    void defragmentLeaf(PageCursor cursor) {
+        int keyCount = keyCount(cursor);
+        writeEntries(cursor, readEntries(cursor, keyCount), 0, keyCount);
+    }
+
+    @Override
+    int canRebalanceLeaves(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        Entry[] entries = concat(readEntries(leftCursor, leftKeyCount), readEntries(rightCursor, rightKeyCount));
+        int count = entries.length;
+        int[] leftSpace = packedSpace(entries, true);
+        int[] rightSpace = packedSpace(entries, false);
+
+        if (leftSpace[count] <= totalSpace) {
+            // We can merge
+            return -1;
+        }
+        if (leftSpace[leftKeyCount] < rightSpace[rightKeyCount]) {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        // Move keys to the right for as long as it divides the space more equally
+        int splitPos = leftKeyCount;
+        int currentDelta = Math.abs(leftSpace[splitPos] - rightSpace[count - splitPos]);
+        while (splitPos > 1) {
+            int nextDelta = Math.abs(leftSpace[splitPos - 1] - rightSpace[count - splitPos + 1]);
+            if (nextDelta >= currentDelta) {
+                break;
+            }
+            currentDelta = nextDelta;
+            splitPos--;
+        }
+
+        int leftActiveSpace = leftSpace[splitPos];
+        int rightActiveSpace = rightSpace[count - splitPos];
+        boolean canRebalance = leftActiveSpace > halfSpace
+                && rightActiveSpace > halfSpace
+                && leftActiveSpace <= totalSpace
+                && rightActiveSpace <= totalSpace;
+        return canRebalance ? leftKeyCount - splitPos : 0;
+    }
+
+    @Override
+    boolean canMergeLeaves(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        Entry[] entries = concat(readEntries(leftCursor, leftKeyCount), readEntries(rightCursor, rightKeyCount));
+        return packedSpace(entries, true)[entries.length] <= totalSpace;
+    }
+
+    @Override
+    int findSplitter(
+            PageCursor cursor,
+            int keyCount,
+            KEY newKey,
+            VALUE newValue,
+            int insertPos,
+            KEY newSplitter,
+            double ratioToKeepInLeftOnSplit,
+            CursorContext cursorContext) {
+        Entry[] entries = entriesWithInsertion(cursor, keyCount, newKey, newValue, insertPos);
+        int splitPos = splitPosInLeaf(entries, ratioToKeepInLeftOnSplit);
+
+        KEY leftInSplit = splitPos - 1 == insertPos
+                ? newKey
+                : keyAt(cursor, layout.newKey(), posBeforeInsertion(splitPos - 1, insertPos), LEAF, cursorContext);
+        KEY rightInSplit = splitPos == insertPos
+                ? newKey
+                : keyAt(cursor, layout.newKey(), posBeforeInsertion(splitPos, insertPos), LEAF, cursorContext);
+        layout.minimalSplitter(leftInSplit, rightInSplit, newSplitter);
+        return splitPos;
+    }
+
+    @Override
+    void doSplitLeaf(
+            PageCursor leftCursor,
+            int leftKeyCount,
+            PageCursor rightCursor,
+            int insertPos,
+            KEY newKey,
+            VALUE newValue,
+            KEY newSplitter,
+            int splitPos,
+            double ratioToKeepInLeftOnSplit,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        // Each half gets the prefix of its keys, including the new key, which is then inserted into its half
+        Entry[] entries = entriesWithInsertion(leftCursor, leftKeyCount, newKey, newValue, insertPos);
+        int keyCountAfterInsert = entries.length;
+        writeEntries(leftCursor, entries, 0, splitPos);
+        writeEntries(rightCursor, entries, splitPos, keyCountAfterInsert);
+        if (insertPos < splitPos) {
+            insertKeyValueAt(
+                    leftCursor,
+                    newKey,
+                    newValue,
+                    insertPos,
+                    splitPos - 1,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+        } else {
+            insertKeyValueAt(
+                    rightCursor,
+                    newKey,
+                    newValue,
+                    insertPos - splitPos,
+                    keyCountAfterInsert - splitPos - 1,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+        }
+        TreeNode.setKeyCount(leftCursor, splitPos);
+        TreeNode.setKeyCount(rightCursor, keyCountAfterInsert - splitPos);
+    }
+
+    @Override
+    void moveKeyValuesFromLeftToRight(
+            PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount, int fromPosInLeftNode) {
+        Entry[] entries = concat(readEntries(leftCursor, leftKeyCount), readEntries(rightCursor, rightKeyCount));
+        writeEntries(leftCursor, entries, 0, fromPosInLeftNode);
+        writeEntries(rightCursor, entries, fromPosInLeftNode, entries.length);
+    }
+
+    @Override
+    void copyKeyValuesFromLeftToRight(
+            PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        Entry[] entries = concat(readEntries(leftCursor, leftKeyCount), readEntries(rightCursor, rightKeyCount));
+        writeEntries(rightCursor, entries, 0, entries.length);
+    }
+
+    /**
+     * Reads the key of the entry that the cursor is at, right after its key value size, by putting it together from
+     * the prefix and its suffix. Leaves the cursor right after the suffix.
+     *
+     * @return {@code true} if the key could be read, otherwise {@code false} and the cursor has a cursor exception.
+     */
+    private boolean readKey(PageCursor cursor, KEY into, int pos, long keyValueSize) {
+        int suffixOffset = cursor.getOffset();
+        int prefixLength = prefixLength(cursor);
+        int suffixSize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+        int keySize = prefixLength + suffixSize;
+        if (!canInline(keySize + valueSize) || suffixSize < 0 || valueSize < 0) {
+            readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos);
+            return false;
+        }
+
+        KeyBuffer buffer = keyBuffers.get();
+        cursor.setOffset(prefixOffset(prefixLength));
+        cursor.getBytes(buffer.bytes, 0, prefixLength);
+        cursor.setOffset(suffixOffset);
+        cursor.getBytes(buffer.bytes, prefixLength, suffixSize);
+        try {
+            buffer.cursor.setOffset(0);
+            layout.readKey(buffer.cursor, into, keySize);
+            buffer.cursor.checkAndClearCursorException();
+        } catch (CursorException e) {
+            cursor.setCursorException(e.getMessage());
+            return false;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            cursor.setCursorException(format(
+                    "Read unreliable key, id=%d, keySize=%d, pos=%d, cause: %s",
+                    cursor.getCurrentPageId(), keySize, pos, e));
+            return false;
+        }
+        return true;
+    }
+
+    private byte[] keyBytes(KEY key, int keySize) {
+        KeyBuffer buffer = keyBuffers.get();
+        buffer.cursor.setOffset(0);
+        layout.writeKey(buffer.cursor, key);
+        return Arrays.copyOf(buffer.bytes, keySize);
+    }
+
+    private int prefixLength(PageCursor cursor) {
+        return getUnsignedShort(cursor, pageSize - PREFIX_LENGTH_SIZE);
+    }
+
+    private int prefixOffset(int prefixLength) {
+        return pageSize - PREFIX_LENGTH_SIZE - prefixLength;
+    }
+
+    /**
+     * @return how much of the prefix of the leaf the given key shares.
+     */
+    private int sharedPrefixLength(PageCursor cursor, int prefixLength, byte[] keyBytes) {
+        int maxLength = Math.min(prefixLength, maxPrefixLength(keyBytes.length));
+        int prefixOffset = prefixOffset(prefixLength);
+        for (int i = 0; i < maxLength; i++) {
+            if (cursor.getByte(prefixOffset + i) != keyBytes[i]) {
+                return i;
+            }
+        }
+        return maxLength;
+    }
+
+    private static int maxPrefixLength(int keySize) {
+        return Math.max(0, keySize - 1);
+    }
+
+    private static int commonPrefixLength(byte[] first, byte[] second) {
+        int mismatch = Arrays.mismatch(first, second);
+        return mismatch == -1 ? first.length : mismatch;
+    }
+
+    private static int totalSpaceOfEntry(int suffixSize, int valueSize) {
+        return OFFSET_SIZE + getOverhead(suffixSize, valueSize, false) + suffixSize + valueSize;
+    }
+
+    /**
+     * @return the space that the entries in the leaf would take up, together with the prefix, if the leaf had the given
+     * prefix length instead of its current one.
+     */
+    private int activeSpaceWithPrefix(PageCursor cursor, int keyCount, int newPrefixLength) {
+        int suffixGrowth = prefixLength(cursor) - newPrefixLength;
+        int activeSpace = PREFIX_LENGTH_SIZE + newPrefixLength;
+        for (int pos = 0; pos < keyCount; pos++) {
+            placeCursorAtActualKey(cursor, pos, LEAF);
+            long keyValueSize = readKeyValueSize(cursor);
+            if (extractOffload(keyValueSize)) {
+                activeSpace += OFFSET_SIZE + getOverhead(0, 0, true);
+            } else {
+                activeSpace +=
+                        totalSpaceOfEntry(extractKeySize(keyValueSize) + suffixGrowth, extractValueSize(keyValueSize));
+            }
+        }
+        return activeSpace;
+    }
+
+    /**
+     * Picks the split position where the left leaf gets as close to its share of the space as possible, while both
+     * leaves fit all their entries. Since the prefix of a leaf depends on which keys it gets, the space of each
+     * possible left and right leaf is calculated exactly.
+     */
+    private int splitPosInLeaf(Entry[] entries, double ratioToKeepInLeftOnSplit) {
+        int count = entries.length;
+        int[] leftSpace = packedSpace(entries, true);
+        int[] rightSpace = packedSpace(entries, false);
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeftOnSplit);
+
+        int splitPos = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for (int pos = 1; pos < count; pos++) {
+            if (leftSpace[pos] <= totalSpace && rightSpace[count - pos] <= totalSpace) {
+                int delta = Math.abs(leftSpace[pos] - targetLeftSpace);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    splitPos = pos;
+                }
+            }
+        }
+        if (splitPos == -1) {
+            throw new IllegalStateException(format(
+                    "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, max space allowed:%d",
+                    leftSpace[count], totalSpace * 2));
+        }
+        return splitPos;
+    }
+
+    /**
+     * Calculates the space that the first, or the last, n entries would take up in a leaf of their own, with the
+     * prefix of their keys, for every n. The prefix only gets shorter as more entries are included, so this is done
+     * in a single pass, where a count of the key sizes keeps track of which suffixes need a second byte for their size.
+     *
+     * @param entries the entries.
+     * @param fromLeft whether to include entries from the left or from the right.
+     * @return space per number of included entries, from 0 to all of them.
+     */
+    private static int[] packedSpace(Entry[] entries, boolean fromLeft) {
+        int count = entries.length;
+        int maxKeySize = 0;
+        for (Entry entry : entries) {
+            if (!entry.offloaded()) {
+                maxKeySize = Math.max(maxKeySize, entry.key().length);
+            }
+        }
+        int[] keySizeCounts = new int[maxKeySize + 1];
+
+        int[] space = new int[count + 1];
+        space[0] = PREFIX_LENGTH_SIZE;
+        byte[] firstKey = null;
+        int prefixLength = 0;
+        int inlineCount = 0;
+        int twoByteSuffixSizeCount = 0;
+        int spaceWithoutPrefix = 0;
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries[fromLeft ? i : count - 1 - i];
+            if (entry.offloaded()) {
+                spaceWithoutPrefix += OFFSET_SIZE + getOverhead(0, 0, true);
+            } else {
+                byte[] key = entry.key();
+                if (firstKey == null) {
+                    firstKey = key;
+                    prefixLength = maxPrefixLength(key.length);
+                } else {
+                    int newPrefixLength = Math.min(
+                            prefixLength, Math.min(commonPrefixLength(firstKey, key), maxPrefixLength(key.length)));
+                    // Suffixes of keys with these sizes just became too large for a one byte key size
+                    int to = Math.min(MASK_ONE_BYTE_KEY_SIZE + prefixLength, maxKeySize);
+                    for (int keySize = MASK_ONE_BYTE_KEY_SIZE + newPrefixLength + 1; keySize <= to; keySize++) {
+                        twoByteSuffixSizeCount += keySizeCounts[keySize];
+                    }
+                    prefixLength = newPrefixLength;
+                }
+                keySizeCounts[key.length]++;
+                if (key.length - prefixLength > MASK_ONE_BYTE_KEY_SIZE) {
+                    twoByteSuffixSizeCount++;
+                }
+                inlineCount++;
+                spaceWithoutPrefix += totalSpaceOfEntry(0, entry.valueSize()) + key.length;
+            }
+            space[i + 1] = PREFIX_LENGTH_SIZE
+                    + prefixLength
+                    + spaceWithoutPrefix
+                    - inlineCount * prefixLength
+                    + twoByteSuffixSizeCount;
+        }
+        return space;
+    }
+
+    private static int posBeforeInsertion(int pos, int insertPos) {
+        return pos < insertPos ? pos : pos - 1;
+    }
+
+    private Entry[] entriesWithInsertion(PageCursor cursor, int keyCount, KEY newKey, VALUE newValue, int insertPos) {
+        Entry[] existing = readEntries(cursor, keyCount);
+        Entry[] entries = new Entry[keyCount + 1];
+        System.arraycopy(existing, 0, entries, 0, insertPos);
+        System.arraycopy(existing, insertPos, entries, insertPos + 1, keyCount - insertPos);
+
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        byte[] keyBytes = canInline(keySize + valueSize) ? keyBytes(newKey, keySize) : null;
+        entries[insertPos] = new Entry(keyBytes, null, valueSize, NO_OFFLOAD_ID, true);
+        return entries;
+    }
+
+    private static Entry[] concat(Entry[] left, Entry[] right) {
+        Entry[] entries = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, entries, left.length, right.length);
+        return entries;
+    }
+
+    private Entry[] readEntries(PageCursor cursor, int keyCount) {
+        int prefixLength = prefixLength(cursor);
+        if (!canInline(prefixLength)) {
+            throw new TreeInconsistencyException(
+                    "Read unreliable prefix, id=%d, prefixLength=%d", cursor.getCurrentPageId(), prefixLength);
+        }
+        byte[] prefix = new byte[prefixLength];
+        cursor.setOffset(prefixOffset(prefixLength));
+        cursor.getBytes(prefix);
+
+        Entry[] entries = new Entry[keyCount];
+        for (int pos = 0; pos < keyCount; pos++) {
+            placeCursorAtActualKey(cursor, pos, LEAF);
+            long keyValueSize = readKeyValueSize(cursor);
+            if (extractOffload(keyValueSize)) {
+                entries[pos] = new Entry(null, null, 0, readOffloadId(cursor), false);
+                continue;
+            }
+            int suffixSize = extractKeySize(keyValueSize);
+            int valueSize = extractValueSize(keyValueSize);
+            if (!canInline(prefixLength + suffixSize + valueSize) || suffixSize < 0 || valueSize < 0) {
+                throw new TreeInconsistencyException(
+                        "Read unreliable key, id=%d, prefixLength=%d, suffixSize=%d, valueSize=%d, pos=%d",
+                        cursor.getCurrentPageId(), prefixLength, suffixSize, valueSize, pos);
+            }
+            byte[] key = Arrays.copyOf(prefix, prefixLength + suffixSize);
+            cursor.getBytes(key, prefixLength, suffixSize);
+            byte[] value = new byte[valueSize];
+            cursor.getBytes(value);
+            entries[pos] = new Entry(key, value, valueSize, NO_OFFLOAD_ID, false);
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrites the leaf with the entries in the given range, with the longest prefix that their keys have in common.
+     * Does update keyCount.
+     */
+    private void writeEntries(PageCursor cursor, Entry[] entries, int from, int to) {
+        byte[] firstKey = null;
+        int prefixLength = 0;
+        for (int i = from; i < to; i++) {
+            byte[] key = entries[i].key();
+            if (key != null) {
+                if (firstKey == null) {
+                    firstKey = key;
+                    prefixLength = maxPrefixLength(key.length);
+                } else {
+                    prefixLength = Math.min(
+                            prefixLength, Math.min(commonPrefixLength(firstKey, key), maxPrefixLength(key.length)));
+                }
+            }
+        }
+        writeEntries(cursor, entries, from, to, firstKey, prefixLength);
+    }
+
+    /**
+     * Rewrites the leaf with the entries in the given range, except the one about to be inserted, with the given
+     * prefix, which all their keys must share. Does update keyCount.
+     */
+    private void writeEntries(
+            PageCursor cursor, Entry[] entries, int from, int to, byte[] prefixSource, int prefixLength) {
+        // Prefix
+        int keyValueAreaEnd = prefixOffset(prefixLength);
+        putUnsignedShort(cursor, pageSize - PREFIX_LENGTH_SIZE, prefixLength);
+        if (prefixLength > 0) {
+            cursor.setOffset(keyValueAreaEnd);
+            cursor.putBytes(prefixSource, 0, prefixLength);
+        }
+
+        // Entries and offset array
+        int allocOffset = keyValueAreaEnd;
+        int pos = 0;
+        for (int i = from; i < to; i++) {
+            Entry entry = entries[i];
+            if (entry.inserted()) {
+                continue;
+            }
+            if (entry.offloaded()) {
+                allocOffset -= getOverhead(0, 0, true);
+                cursor.setOffset(allocOffset);
+                putOffloadMarker(cursor);
+                putOffloadId(cursor, entry.offloadId());
+            } else {
+                int suffixSize = entry.key().length - prefixLength;
+                allocOffset -= suffixSize + entry.valueSize() + getOverhead(suffixSize, entry.valueSize(), false);
+                cursor.setOffset(allocOffset);
+                putKeyValueSize(cursor, suffixSize, entry.valueSize());
+                cursor.putBytes(entry.key(), prefixLength, suffixSize);
+                cursor.putBytes(entry.value());
+            }
+            putUnsignedShort(cursor, keyPosOffsetLeaf(pos), allocOffset);
+            pos++;
+        }
+        int offsetArrayEnd = keyPosOffsetLeaf(pos);
+        if (allocOffset < offsetArrayEnd) {
+            throw new IllegalStateException(format(
+                    "Entries didn't fit in leaf, id=%d, offsetArrayEnd=%d, allocOffset=%d",
+                    cursor.getCurrentPageId(), offsetArrayEnd, allocOffset));
+        }
+        setAllocOffset(cursor, allocOffset);
+        setDeadSpace(cursor, 0);
+        setKeyCount(cursor, pos);
+
+        // Zero pad empty area
+        zeroPad(cursor, offsetArrayEnd, allocOffset - offsetArrayEnd);
+    }
+
+    @Override
+    public String toString() {
+        return "TreeNodeDynamicSizeCompressed[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap()
+                + ", inlineKeyValueSizeCap:" + inlineKeyValueSizeCap() + "]";
+    }
+
+    /**
+     * An entry of a leaf with its full key, or only its offload id if offloaded. The entry about to be inserted has
+     * its key, if inlined, but not its value.
+     */
+    private record Entry(byte[] key, byte[] value, int valueSize, long offloadId, boolean inserted) {
+        boolean offloaded() {
+            return key == null;
+        }
+    }
+
+    private static class KeyBuffer {
+        private final byte[] bytes;
+        private final PageCursor cursor;
+
+        KeyBuffer(int size) {
+            this.bytes = new byte[size];
+            this.cursor = new ByteArrayPageCursor(ByteBuffer.wrap(bytes));
+        }
+    }
+}
@@ -365,7 +365,7 @@ class TreeNodeFixedSize<KEY, VALUE> extends TreeNode<KEY, VALUE> {
     int availableSpace(PageCursor cursor, int currentKeyCount) {
         boolean isInternal = isInternal(cursor);
         return isInternal
-                ? internalMaxKeyCount - currentKeyCount * (keySize + childSize())
+                ? (internalMaxKeyCount - currentKeyCount) * (keySize + childSize())
                 : leafAvailableSpace(currentKeyCount);
     }
 
@@ -43,9 +43,10 @@ public final class GrabAllocator implements MemoryAllocator {
      * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The
      * actual amount of memory used can end up greater than this value, if some of it gets wasted on alignment padding.
      * @param memoryTracker memory usage tracker
+     * @param regionListener told about every grab that is allocated or freed
      */
-    GrabAllocator(long expectedMaxMemory, MemoryTracker memoryTracker) {
-        this.grabs = new Grabs(expectedMaxMemory, memoryTracker);
+    GrabAllocator(long expectedMaxMemory, MemoryTracker memoryTracker, MemoryRegionListener regionListener) {
+        this.grabs = new Grabs(expectedMaxMemory, memoryTracker, regionListener);
         this.cleanable = globalCleaner.register(this, new GrabsDeallocator(grabs));
     }
 
@@ -137,12 +138,14 @@ public final class GrabAllocator implements MemoryAllocator {
         private static final long GRAB_SIZE = getInteger(GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes(512));
 
         private final MemoryTracker memoryTracker;
+        private final MemoryRegionListener regionListener;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs(long expectedMaxMemory, MemoryTracker memoryTracker) {
+        Grabs(long expectedMaxMemory, MemoryTracker memoryTracker, MemoryRegionListener regionListener) {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.regionListener = regionListener;
         }
 
         long usedMemory() {
@@ -168,6 +171,7 @@ public final class GrabAllocator implements MemoryAllocator {
             Grab current = head;
 
             while (current != null) {
+                regionListener.regionFreed(current.address, current.limit - current.address);
                 current.free();
                 current = current.next;
             }
@@ -191,6 +195,7 @@ public final class GrabAllocator implements MemoryAllocator {
                     allocationGrab = new Grab(nextGrab, grabSize, memoryTracker);
                 }
                 long allocation = allocationGrab.allocate(bytes, alignment);
+                regionAllocated(allocationGrab);
                 head = head == null ? allocationGrab : head.setNext(allocationGrab);
                 expectedMaxMemory -= bytes;
                 return allocation;
@@ -202,6 +207,7 @@ public final class GrabAllocator implements MemoryAllocator {
                     Grab grab = new Grab(head, grabSize, memoryTracker);
                     if (grab.canAllocate(bytes, alignment)) {
                         expectedMaxMemory -= grabSize;
+                        regionAllocated(grab);
                         head = grab;
                         return head.allocate(bytes, alignment);
                     }
@@ -209,10 +215,15 @@ public final class GrabAllocator implements MemoryAllocator {
                     grabSize = maxAllocationSize;
                 }
                 head = new Grab(head, grabSize, memoryTracker);
+                regionAllocated(head);
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate(bytes, alignment);
         }
+
+        private void regionAllocated(Grab grab) {
+            regionListener.regionAllocated(grab.address, grab.limit - grab.address);
+        }
     }
 
     private static Cleaner globalCleaner() {
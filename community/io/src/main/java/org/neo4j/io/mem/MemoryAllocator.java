@@ -26,7 +26,12 @@ import org.neo4j.memory.MemoryTracker;
  */
 public interface MemoryAllocator {
     static MemoryAllocator createAllocator(long expectedMemory, MemoryTracker memoryTracker) {
-        return new GrabAllocator(expectedMemory, memoryTracker);
+        return createAllocator(expectedMemory, memoryTracker, MemoryRegionListener.NONE);
+    }
+
+    static MemoryAllocator createAllocator(
+            long expectedMemory, MemoryTracker memoryTracker, MemoryRegionListener regionListener) {
+        return new GrabAllocator(expectedMemory, memoryTracker, regionListener);
     }
 
     /**
@@ -55,4 +60,22 @@ public interface MemoryAllocator {
      * As soon as allocated resources will be cleaned any code that will try to access previously available memory will not gonna be able to do so.
      */
     void close();
+
+    /**
+     * Gets told about the regions of native memory that an allocator reserves from, and gives back to, the operating
+     * system. All the memory returned by {@link #allocateAligned(long, long)} lies within these regions.
+     */
+    interface MemoryRegionListener {
+        MemoryRegionListener NONE = new MemoryRegionListener() {
+            @Override
+            public void regionAllocated(long address, long size) {}
+
+            @Override
+            public void regionFreed(long address, long size) {}
+        };
+
+        void regionAllocated(long address, long size);
+
+        void regionFreed(long address, long size);
+    }
 }
@@ -73,4 +73,15 @@ public interface IOController {
     default boolean isEnabled() {
         return false;
     }
+
+    /**
+     * Temporarily stop limiting IO, for flushes that someone is waiting for, like forced checkpoints. Every call must
+     * be followed by a call to {@link #enable()}, and the limit is back in effect once all of them are.
+     */
+    default void disable() {}
+
+    /**
+     * Limit IO again, after a call to {@link #disable()}.
+     */
+    default void enable() {}
 }
@@ -83,6 +83,12 @@ public interface PagedFile extends AutoCloseable {
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
     int PF_EAGER_FLUSH = 1 << 6;
+    /**
+     * Hint that the cursor is part of a large scan, that is not expected to touch the same pages again any time soon.
+     * Depending on the page replacement policy of the page cache, pages that are only ever accessed by such cursors
+     * are kept on probation, and are evicted before the pages accessed by other cursors.
+     */
+    int PF_SCAN = 1 << 7;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
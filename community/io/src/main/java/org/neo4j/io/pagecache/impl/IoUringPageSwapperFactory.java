@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.MemoryAllocator.MemoryRegionListener;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A factory for {@link SingleFilePageSwapper} instances that do their vectored reads and writes through io_uring.
+ * <p>
+ * Vectored reads and writes are what the page cache uses when it flushes files, pre-fetches pages, and warms up. With
+ * io_uring, every page of such a read or write is submitted to the kernel as a separate operation, and they are all
+ * kept in flight at the same time, which gives fast storage the deep queues it needs. Reads of single pages are not
+ * affected, since the faulting thread has to wait for them either way.
+ * <p>
+ * Swappers of files that do not have a file descriptor, like those of an in-memory file system, use the file channel
+ * as usual. Only use this factory when {@link #isAvailable()} returns {@code true}.
+ * <p>
+ * This factory should also be given as the {@link MemoryRegionListener} of the page cache
+ * {@link MemoryAllocator}, which lets it register the page cache memory with its rings.
+ */
+public class IoUringPageSwapperFactory extends SingleFilePageSwapperFactory implements MemoryRegionListener {
+    private final IoUringRings ioUringRings;
+
+    public IoUringPageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, int queueDepth) {
+        super(fs, pageCacheTracer, memoryTracker);
+        this.ioUringRings = new IoUringRings(queueDepth);
+    }
+
+    /**
+     * @return {@code true} if io_uring can be used on this system.
+     */
+    public static boolean isAvailable() {
+        return LinuxIoUring.isAvailable();
+    }
+
+    /**
+     * @return a description of why io_uring is, or is not, available.
+     */
+    public static String describeAvailability() {
+        return LinuxIoUring.describe();
+    }
+
+    @Override
+    IoUringRings ioUringRings() {
+        return ioUringRings;
+    }
+
+    @Override
+    public void regionAllocated(long address, long size) {
+        ioUringRings.regionAllocated(address, size);
+    }
+
+    @Override
+    public void regionFreed(long address, long size) {
+        ioUringRings.regionFreed(address, size);
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.MAX_REGISTERED_BUFFERS;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.UNREGISTERED_BUFFER;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+import org.neo4j.io.mem.MemoryAllocator.MemoryRegionListener;
+
+/**
+ * A pool of io_uring instances, shared by all the swappers of a {@link IoUringPageSwapperFactory}.
+ * <p>
+ * A ring can only be used by one thread at a time, so every vectored read or write borrows a ring for its duration,
+ * and gives it back when it is done. New rings are created when all rings are busy, so there ends up being about one
+ * ring per thread that concurrently does vectored IO.
+ * <p>
+ * The memory regions of the page cache memory allocator are registered with the rings, so that the kernel does not
+ * have to map the page cache memory on every read and write. Regions are registered in batches, whenever the number of
+ * allocated regions has doubled since the last registration, because registration is costly and replaces all the
+ * previously registered regions. Buffers outside the registered regions are still read and written, just without
+ * the benefit of registration.
+ * <p>
+ * A ring that fails to submit or reap is closed rather than given back, since we can not tell what it still has in
+ * flight. Otherwise the kernel could keep using the buffers of the failed transfer, and the next borrower of the ring
+ * would reap completions that are not its own.
+ */
+final class IoUringRings implements MemoryRegionListener {
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final int queueDepth;
+    private final RingFactory ringFactory;
+    private final ConcurrentLinkedQueue<Ring> idleRings;
+
+    // Guarded by synchronized(this).
+    private long[] regionAddresses = new long[16];
+    private long[] regionLengths = new long[16];
+    private int regionCount;
+    private int registeredRegionCount;
+
+    private volatile Registration registration = Registration.NONE;
+    private volatile boolean registrationFailed;
+
+    IoUringRings(int queueDepth) {
+        this(queueDepth, LinuxIoUring::new);
+    }
+
+    IoUringRings(int queueDepth, RingFactory ringFactory) {
+        this.queueDepth = queueDepth;
+        this.ringFactory = ringFactory;
+        this.idleRings = new ConcurrentLinkedQueue<>();
+        cleaner.register(this, new RingsCloser(idleRings));
+    }
+
+    /**
+     * Read into, or write from, the given buffers, which map to consecutive ranges of the file starting at
+     * {@code fileOffset}. All the reads or writes are kept in flight at the same time, up to the queue depth.
+     * @param transferred receives the number of bytes that were read or written for every buffer.
+     */
+    void transfer(
+            boolean write,
+            int fd,
+            long fileOffset,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int length,
+            int[] transferred)
+            throws IOException {
+        Ring ring = acquire();
+        try {
+            ring.transfer(write, fd, fileOffset, bufferAddresses, bufferLengths, length, transferred);
+        } finally {
+            if (ring.broken) {
+                ring.uring.close();
+            } else {
+                idleRings.offer(ring);
+            }
+        }
+    }
+
+    private Ring acquire() throws IOException {
+        Ring ring = idleRings.poll();
+        if (ring == null) {
+            ring = new Ring(ringFactory.open(queueDepth));
+        }
+        Registration wanted = registrationFailed ? Registration.NONE : registration;
+        if (ring.registration != wanted) {
+            try {
+                ring.uring.registerBuffers(wanted.addresses, wanted.lengths, wanted.addresses.length);
+                ring.registration = wanted;
+            } catch (IOException e) {
+                // Most likely the memlock limit. Registration is only an optimisation, so we do without, on all rings.
+                registrationFailed = true;
+                ring.registration = Registration.NONE;
+            }
+        }
+        return ring;
+    }
+
+    @Override
+    public synchronized void regionAllocated(long address, long size) {
+        if (regionCount == regionAddresses.length) {
+            regionAddresses = Arrays.copyOf(regionAddresses, regionCount * 2);
+            regionLengths = Arrays.copyOf(regionLengths, regionCount * 2);
+        }
+        regionAddresses[regionCount] = address;
+        regionLengths[regionCount] = size;
+        regionCount++;
+        if (regionCount >= registeredRegionCount * 2 && registeredRegionCount < MAX_REGISTERED_BUFFERS) {
+            publishRegistration();
+        }
+    }
+
+    @Override
+    public synchronized void regionFreed(long address, long size) {
+        for (int i = 0; i < regionCount; i++) {
+            if (regionAddresses[i] == address) {
+                regionCount--;
+                regionAddresses[i] = regionAddresses[regionCount];
+                regionLengths[i] = regionLengths[regionCount];
+                // The freed region must not be used as a registered buffer anymore, since its addresses can be handed
+                // out again for other memory.
+                publishRegistration();
+                return;
+            }
+        }
+    }
+
+    private void publishRegistration() {
+        int count = Math.min(regionCount, MAX_REGISTERED_BUFFERS);
+        registeredRegionCount = count;
+        registration = Registration.of(regionAddresses, regionLengths, count);
+    }
+
+    /**
+     * An immutable set of memory regions, sorted by address, that is registered with rings as their buffers.
+     */
+    private static final class Registration {
+        static final Registration NONE = new Registration(new long[0], new long[0]);
+
+        final long[] addresses;
+        final long[] lengths;
+
+        private Registration(long[] addresses, long[] lengths) {
+            this.addresses = addresses;
+            this.lengths = lengths;
+        }
+
+        static Registration of(long[] regionAddresses, long[] regionLengths, int count) {
+            Integer[] order = new Integer[count];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> Long.compareUnsigned(regionAddresses[a], regionAddresses[b]));
+            long[] addresses = new long[count];
+            long[] lengths = new long[count];
+            for (int i = 0; i < count; i++) {
+                addresses[i] = regionAddresses[order[i]];
+                lengths[i] = regionLengths[order[i]];
+            }
+            return new Registration(addresses, lengths);
+        }
+
+        /**
+         * @return the index of the registered region that fully contains the given buffer, or
+         * {@link LinuxIoUring#UNREGISTERED_BUFFER}.
+         */
+        int bufferIndex(long address, int length) {
+            int low = 0;
+            int high = addresses.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (Long.compareUnsigned(addresses[mid], address) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            // high is now the last region that starts at or before the address.
+            if (high >= 0 && address + length <= addresses[high] + lengths[high]) {
+                return high;
+            }
+            return UNREGISTERED_BUFFER;
+        }
+    }
+
+    @FunctionalInterface
+    interface RingFactory {
+        LinuxIoUring open(int queueDepth) throws IOException;
+    }
+
+    private static final class Ring {
+        final LinuxIoUring uring;
+        final long[] completedUserData;
+        final int[] completedResults;
+        Registration registration = Registration.NONE;
+        // Whether the last transfer ended without knowing that everything it submitted has completed.
+        boolean broken;
+
+        Ring(LinuxIoUring uring) {
+            this.uring = uring;
+            this.completedUserData = new long[uring.entries()];
+            this.completedResults = new int[uring.entries()];
+        }
+
+        void transfer(
+                boolean write,
+                int fd,
+                long fileOffset,
+                long[] bufferAddresses,
+                int[] bufferLengths,
+                int length,
+                int[] transferred)
+                throws IOException {
+            int next = 0;
+            int inFlight = 0;
+            long offset = fileOffset;
+            IOException failure = null;
+            broken = true;
+            while (next < length || inFlight > 0) {
+                while (next < length && inFlight < uring.entries() && failure == null) {
+                    long address = bufferAddresses[next];
+                    int bufferLength = bufferLengths[next];
+                    int bufferIndex = registration.bufferIndex(address, bufferLength);
+                    boolean prepared = write
+                            ? uring.prepareWrite(fd, address, bufferLength, offset, bufferIndex, next)
+                            : uring.prepareRead(fd, address, bufferLength, offset, bufferIndex, next);
+                    if (!prepared) {
+                        break;
+                    }
+                    offset += bufferLength;
+                    next++;
+                    inFlight++;
+                }
+                if (inFlight == 0) {
+                    // We stopped preparing because of a failure, and everything in flight has completed.
+                    break;
+                }
+                uring.submitAndWait(1);
+                int reaped = uring.reapCompletions(completedUserData, completedResults, 1);
+                inFlight -= reaped;
+                for (int i = 0; i < reaped; i++) {
+                    int result = completedResults[i];
+                    int index = (int) completedUserData[i];
+                    if (result < 0) {
+                        // Keep reaping what is in flight before we fail, since the kernel may still be using the
+                        // buffers.
+                        IOException exception =
+                                LinuxIoUring.failure(write ? "io_uring write" : "io_uring read", result);
+                        if (failure == null) {
+                            failure = exception;
+                        } else {
+                            failure.addSuppressed(exception);
+                        }
+                        transferred[index] = 0;
+                    } else {
+                        transferred[index] = result;
+                    }
+                }
+            }
+            broken = false;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final class RingsCloser implements Runnable {
+        private final ConcurrentLinkedQueue<Ring> rings;
+
+        RingsCloser(ConcurrentLinkedQueue<Ring> rings) {
+            this.rings = rings;
+        }
+
+        @Override
+        public void run() {
+            Ring ring;
+            while ((ring = rings.poll()) != null) {
+                ring.uring.close();
+            }
+        }
+    }
+}
@@ -80,6 +80,8 @@ public class SingleFilePageSwapper implements PageSwapper {
     private final PageFileSwapperTracer fileSwapperTracer;
     private final BlockSwapper blockSwapper;
     private final NativeAccess nativeAccess;
+    // Used for vectored reads and writes when not null, see IoUringPageSwapperFactory.
+    private final IoUringRings ioUringRings;
     private final XXHash64 xxHash64 = XXHashFactory.fastestInstance().hash64();
 
     // Guarded by synchronized(this). See tryReopen() and close().
@@ -111,7 +113,8 @@ public class SingleFilePageSwapper implements PageSwapper {
             SwapperSet swapperSet,
             PageFileSwapperTracer fileSwapperTracer,
             BlockSwapper blockSwapper,
-            NativeAccessFactory nativeAccessFactory)
+            NativeAccessFactory nativeAccessFactory,
+            IoUringRings ioUringRings)
             throws IOException {
         this.fs = fs;
         this.path = path;
@@ -146,6 +149,7 @@ public class SingleFilePageSwapper implements PageSwapper {
         this.swapperId = swapperSet.allocate(this);
         this.blockSwapper = blockSwapper;
         this.nativeAccess = nativeAccessFactory.create(path);
+        this.ioUringRings = ioUringRings;
     }
 
     private StoreChannel createStoreChannel() throws IOException {
@@ -257,6 +261,10 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (canDoIoUring()) {
+                        return readPositionedVectoredWithIoUring(
+                                startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return readPositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -304,6 +312,57 @@ public class SingleFilePageSwapper implements PageSwapper {
         return bytesRead;
     }
 
+    private boolean canDoIoUring() {
+        return ioUringRings != null && channel.getFileDescriptor() != INVALID_FILE_DESCRIPTOR;
+    }
+
+    private long readPositionedVectoredWithIoUring(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long fileOffset = pageIdToPosition(startFilePageId);
+        int[] bytesRead = new int[length];
+        transferWithIoUring(false, fileOffset, bufferAddresses, bufferLengths, length, bytesRead);
+        ioController.reportIO(1);
+        long readTotal = 0;
+        for (int i = 0; i < length; i++) {
+            long address = bufferAddresses[i];
+            int bufferLength = bufferLengths[i];
+            int read = bytesRead[i];
+            if (read < bufferLength) {
+                // Either the end of the file, or a short read that we complete synchronously. Zero-fills the rest.
+                read = blockSwapper.swapIn(channel, address + read, fileOffset + read, bufferLength - read) + read;
+            }
+            if (checksumPages) {
+                verifyChecksum(address, bufferLength);
+            }
+            readTotal += read;
+            fileOffset += bufferLength;
+        }
+        return readTotal;
+    }
+
+    private void transferWithIoUring(
+            boolean write, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length, int[] transferred)
+            throws IOException {
+        try {
+            ioUringRings.transfer(
+                    write,
+                    channel.getFileDescriptor(),
+                    fileOffset,
+                    bufferAddresses,
+                    bufferLengths,
+                    length,
+                    transferred);
+        } catch (IOException e) {
+            if (!channel.isOpen()) {
+                // The channel was closed under our feet, most likely by an interrupt. Let the caller reopen and retry.
+                var closedException = new ClosedChannelException();
+                closedException.addSuppressed(e);
+                throw closedException;
+            }
+            throw e;
+        }
+    }
+
     private static long countBuffersLengths(int[] bufferLengths, int length) {
         long bytesToRead = 0;
         for (int i = 0; i < length; i++) {
@@ -375,6 +434,10 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (canDoIoUring()) {
+                        return writePositionedVectoredWithIoUring(
+                                startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return writePositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -402,6 +465,29 @@ public class SingleFilePageSwapper implements PageSwapper {
         return lockPositionWriteVector(fileOffset, srcs, bytesToWrite);
     }
 
+    private long writePositionedVectoredWithIoUring(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long fileOffset = pageIdToPosition(startFilePageId);
+        long bytesToWrite = countBuffersLengths(bufferLengths, length);
+        increaseFileSizeTo(fileOffset + bytesToWrite);
+        if (checksumPages) {
+            for (int i = 0; i < length; i++) {
+                writeChecksum(bufferAddresses[i], bufferLengths[i]);
+            }
+        }
+        int[] bytesWritten = new int[length];
+        transferWithIoUring(true, fileOffset, bufferAddresses, bufferLengths, length, bytesWritten);
+        for (int i = 0; i < length; i++) {
+            int written = bytesWritten[i];
+            if (written < bufferLengths[i]) {
+                blockSwapper.swapOut(
+                        channel, bufferAddresses[i] + written, fileOffset + written, bufferLengths[i] - written);
+            }
+            fileOffset += bufferLengths[i];
+        }
+        return bytesToWrite;
+    }
+
     private static ByteBuffer[] convertToByteBuffers(long[] bufferAddresses, int[] bufferLengths, int length) {
         ByteBuffer[] buffers = new ByteBuffer[length];
         for (int i = 0; i < length; i++) {
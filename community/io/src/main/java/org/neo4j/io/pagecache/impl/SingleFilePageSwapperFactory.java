@@ -79,7 +79,16 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
                 swappers,
                 pageCacheTracer.createFileSwapperTracer(),
                 blockSwapper,
-                nativeAccessFactory());
+                nativeAccessFactory(),
+                ioUringRings());
+    }
+
+    /**
+     * @return the io_uring instances that the swappers should use for vectored IO, or {@code null} to use the file
+     * channel.
+     */
+    IoUringRings ioUringRings() {
+        return null;
     }
 
     private static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A contiguous range of pages in the {@link PageList}, with its own free list, its own clock arm and its own
+ * eviction thread.
+ * <p>
+ * The free list of a partition follows the exact same protocol as the one described on
+ * {@link MuninnPageCache}: it starts out as an {@link AtomicInteger} that counts from zero to the number of pages in
+ * the partition, and then turns into a concurrent stack of {@link FreePage} objects.
+ */
+final class EvictionPartition {
+    private static final VarHandle FREE_LIST;
+
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            FREE_LIST = l.findVarHandle(EvictionPartition.class, "freelist", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final int index;
+    // The first page id in this partition, inclusive.
+    final int firstPageId;
+    // The last page id in this partition, exclusive.
+    final int endPageId;
+    final int keepFree;
+
+    @SuppressWarnings("unused") // accessed via VarHandle.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition. We unpark this when we've run out of
+    // free pages to grab.
+    private volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    private volatile boolean evictorParked;
+
+    EvictionPartition(int index, int firstPageId, int endPageId, int keepFree) {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.endPageId = endPageId;
+        this.keepFree = keepFree;
+        setFreelistHead(new AtomicInteger());
+    }
+
+    int pageCount() {
+        return endPageId - firstPageId;
+    }
+
+    boolean contains(int pageId) {
+        return firstPageId <= pageId && pageId < endPageId;
+    }
+
+    Object getFreelistHead() {
+        return FREE_LIST.getVolatile(this);
+    }
+
+    boolean compareAndSetFreelistHead(Object expected, Object update) {
+        return FREE_LIST.compareAndSet(this, expected, update);
+    }
+
+    void setFreelistHead(Object newFreelistHead) {
+        FREE_LIST.setVolatile(this, newFreelistHead);
+    }
+
+    void setEvictionThread(Thread thread) {
+        evictionThread = thread;
+    }
+
+    Thread getEvictionThread() {
+        return evictionThread;
+    }
+
+    void unparkEvictor() {
+        if (evictorParked) {
+            evictorParked = false;
+            LockSupport.unpark(evictionThread);
+        }
+    }
+
+    void parkEvictor(long parkNanos) {
+        // Only called from the eviction thread of this partition!
+        evictorParked = true;
+        LockSupport.parkNanos(this, parkNanos);
+        evictorParked = false;
+    }
+
+    @Override
+    public String toString() {
+        return "EvictionPartition[" + index + ", pages:" + firstPageId + "-" + endPageId + "]";
+    }
+}
@@ -20,19 +20,28 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm for one {@link EvictionPartition}. One is expected for each partition of
+ * each page cache.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(EvictionPartition)
  */
 final class EvictionTask extends BackgroundTask {
-    EvictionTask(MuninnPageCache pageCache) {
+    private final EvictionPartition partition;
+
+    EvictionTask(MuninnPageCache pageCache, EvictionPartition partition) {
         super(pageCache);
+        this.partition = partition;
+    }
+
+    @Override
+    protected String taskName() {
+        return super.taskName() + "-" + partition.index;
     }
 
     @Override
     protected void run(MuninnPageCache pageCache) {
-        pageCache.continuouslySweepPages();
+        pageCache.continuouslySweepPages(partition);
     }
 }
@@ -28,14 +28,14 @@ import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.util.FeatureToggles.flag;
 import static org.neo4j.util.FeatureToggles.getInteger;
 import static org.neo4j.util.Preconditions.requireNonNegative;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.VarHandle;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -133,6 +133,21 @@ public class MuninnPageCache implements PageCache {
     private static final int cooperativeEvictionLiveLockThreshold =
             getInteger(MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100);
 
+    // The number of eviction partitions to use, unless configured otherwise. Each partition has its own clock arm,
+    // free list and eviction thread.
+    private static final int defaultEvictionPartitions = getInteger(MuninnPageCache.class, "evictionPartitions", 1);
+
+    // The number of threads that flush a single file in parallel, unless configured otherwise.
+    private static final int defaultFlushParallelism = getInteger(MuninnPageCache.class, "flushParallelism", 1);
+
+    // The maximum size of a single vectored write when flushing, unless configured otherwise.
+    private static final long defaultMaxFlushSize =
+            getInteger(MuninnPageCache.class, "maxFlushSizeKiB", 32 * 1024) * 1024L;
+
+    // We never create partitions smaller than this, since tiny partitions would mostly live-lock in cooperative
+    // eviction, and would not give eviction threads enough work to be worth their while.
+    private static final int MIN_PAGES_PER_EVICTION_PARTITION = 1024;
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings("ThrowableInstanceNeverThrown")
     private static final IOException oomException =
@@ -148,7 +163,7 @@ public class MuninnPageCache implements PageCache {
     private static final AtomicInteger pageCacheIdCounter = new AtomicInteger();
 
     // Scheduler that runs all the background jobs for page cache.
-    private final JobScheduler scheduler;
+    final JobScheduler scheduler;
     private final SystemNanoClock clock;
 
     private static final List<OpenOption> ignoredOpenOptions = Arrays.asList(
@@ -168,37 +183,38 @@ public class MuninnPageCache implements PageCache {
     private final int faultLockStriping;
     private final boolean preallocateStoreFiles;
     private final boolean enableEvictionThread;
+    final PageReplacementPolicy replacementPolicy;
+    final int flushParallelism;
+    final long maxFlushSize;
+    private final Duration writebackAge;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings("unused") // accessed via VarHandle.
-    private volatile Object freelist;
-
-    private static final VarHandle FREE_LIST;
+    // The page list is split into one or more contiguous partitions, each of which has its own free list.
+    // A freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the field is an AtomicInteger that counts from zero to the partition page count, at which point all
+    // of the pages have been put in use. Once this happens, the field is set to null to allow the eviction thread of
+    // the partition to start its work. From that point on, the field will operate as a concurrent stack of FreePage
+    // objects. The eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops
+    // FreePage objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
+    // Page faulting threads prefer the partition picked by their thread id, and steal from the other partitions
+    // before they fall back to cooperative eviction.
+    private final EvictionPartition[] partitions;
+    // The number of pages in every partition but the last one, which also gets the remainder.
+    private final int partitionSize;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
+    // The last exception observed by any of the partition eviction threads.
     private volatile IOException evictorException;
 
+    // The thread that writes back dirty pages in the background, if writeback is enabled.
+    private volatile Thread writebackThread;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -208,15 +224,6 @@ public class MuninnPageCache implements PageCache {
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
-    static {
-        try {
-            MethodHandles.Lookup l = MethodHandles.lookup();
-            FREE_LIST = l.findVarHandle(MuninnPageCache.class, "freelist", Object.class);
-        } catch (ReflectiveOperationException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-    }
-
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -237,6 +244,11 @@ public class MuninnPageCache implements PageCache {
         private final boolean enableEvictionThread;
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
+        private final int evictionPartitions;
+        private final PageReplacementPolicy replacementPolicy;
+        private final int flushParallelism;
+        private final long maxFlushSize;
+        private final Duration writebackAge;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -248,7 +260,12 @@ public class MuninnPageCache implements PageCache {
                 int faultLockStriping,
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
-                int reservedPageSize) {
+                int reservedPageSize,
+                int evictionPartitions,
+                PageReplacementPolicy replacementPolicy,
+                int flushParallelism,
+                long maxFlushSize,
+                Duration writebackAge) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -259,6 +276,11 @@ public class MuninnPageCache implements PageCache {
             this.faultLockStriping = faultLockStriping;
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
+            this.evictionPartitions = evictionPartitions;
+            this.replacementPolicy = replacementPolicy;
+            this.flushParallelism = flushParallelism;
+            this.maxFlushSize = maxFlushSize;
+            this.writebackAge = writebackAge;
         }
 
         /**
@@ -275,7 +297,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -292,7 +319,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -309,7 +341,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -326,7 +363,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -343,7 +385,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -360,7 +407,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -377,7 +429,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageBytes);
+                    reservedPageBytes,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -394,7 +451,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -411,7 +473,12 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     false,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
 
         /**
@@ -428,7 +495,127 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
+        }
+
+        /**
+         * @param evictionPartitions number of partitions the page list is split into, each with its own free list,
+         * clock arm and eviction thread. The number is capped so that every partition gets a reasonable number of pages.
+         */
+        public Configuration evictionPartitions(int evictionPartitions) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
+        }
+
+        /**
+         * @param replacementPolicy the policy that decides which pages to evict.
+         */
+        public Configuration replacementPolicy(PageReplacementPolicy replacementPolicy) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
+        }
+
+        /**
+         * @param flushParallelism the maximum number of threads that flush a single large file in parallel, each of
+         * them flushing its own range of the file.
+         */
+        public Configuration flushParallelism(int flushParallelism) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
+        }
+
+        /**
+         * @param maxFlushSize the maximum number of bytes that adjacent dirty pages are combined into, when they are
+         * written to their file with a single vectored write.
+         */
+        public Configuration maxFlushSize(long maxFlushSize) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
+        }
+
+        /**
+         * @param writebackAge how long pages may stay dirty before they are written back to their files in the
+         * background, or {@link Duration#ZERO} to only write dirty pages when files are flushed, and when pages are
+         * evicted.
+         */
+        public Configuration writebackAge(Duration writebackAge) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPartitions,
+                    replacementPolicy,
+                    flushParallelism,
+                    maxFlushSize,
+                    writebackAge);
         }
     }
 
@@ -455,7 +642,12 @@ public class MuninnPageCache implements PageCache {
                 LatchMap.faultLockStriping,
                 true,
                 true,
-                RESERVED_BYTES);
+                RESERVED_BYTES,
+                defaultEvictionPartitions,
+                PageReplacementPolicy.CLOCK,
+                defaultFlushParallelism,
+                defaultMaxFlushSize,
+                Duration.ZERO);
     }
 
     /**
@@ -490,8 +682,14 @@ public class MuninnPageCache implements PageCache {
         this.clock = configuration.clock;
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
+        this.replacementPolicy = requireNonNull(configuration.replacementPolicy);
+        this.flushParallelism = requirePositive(configuration.flushParallelism);
+        this.maxFlushSize = requirePositive(configuration.maxFlushSize);
+        this.writebackAge = requireNonNull(configuration.writebackAge);
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
-        setFreelistHead(new AtomicInteger());
+        int partitionCount = calculateEvictionPartitions(maxPages, configuration.evictionPartitions);
+        this.partitionSize = maxPages / partitionCount;
+        this.partitions = createPartitions(maxPages, partitionCount, partitionSize, keepFree);
 
         // Expose the total number of pages
         pageCacheTracer.maxPages(maxPages, cachePageSize);
@@ -506,6 +704,31 @@ public class MuninnPageCache implements PageCache {
         return Math.max(lowerBound, Math.min(freePages, 100_000));
     }
 
+    private static int calculateEvictionPartitions(int maxPages, int requestedPartitions) {
+        int maxPartitions = Math.max(1, maxPages / MIN_PAGES_PER_EVICTION_PARTITION);
+        return Math.max(1, Math.min(requestedPartitions, maxPartitions));
+    }
+
+    private static EvictionPartition[] createPartitions(
+            int maxPages, int partitionCount, int partitionSize, int keepFree) {
+        var partitions = new EvictionPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int firstPageId = i * partitionSize;
+            int endPageId = i == partitionCount - 1 ? maxPages : firstPageId + partitionSize;
+            partitions[i] = new EvictionPartition(
+                    i, firstPageId, endPageId, keepFreeShare(keepFree, endPageId - firstPageId, maxPages));
+        }
+        return partitions;
+    }
+
+    /**
+     * The pages to keep free are spread over the partitions in proportion to their size, rounding up, since the last
+     * partition also holds the pages left over from the division.
+     */
+    private static int keepFreeShare(int keepFree, int partitionPageCount, long pageCount) {
+        return (int) Math.max(1, ((long) keepFree * partitionPageCount + pageCount - 1) / pageCount);
+    }
+
     private static void verifyHacks() {
         // Make sure that we have access to theUnsafe.
         UnsafeUtil.assertHasUnsafe();
@@ -698,8 +921,15 @@ public class MuninnPageCache implements PageCache {
 
         try {
             if (enableEvictionThread) {
-                var monitoringParams = systemJob("Eviction of pages from the page cache");
-                scheduler.schedule(Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this));
+                for (EvictionPartition partition : partitions) {
+                    var monitoringParams =
+                            systemJob("Eviction of pages from the page cache partition " + partition.index);
+                    scheduler.schedule(Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this, partition));
+                }
+            }
+            if (!writebackAge.isZero()) {
+                var monitoringParams = systemJob("Background writeback of dirty pages in the page cache");
+                scheduler.schedule(Group.PAGE_CACHE_WRITEBACK, monitoringParams, new WritebackTask(this));
             }
         } catch (Exception e) {
             IOException exception = new IOException(e);
@@ -830,8 +1060,12 @@ public class MuninnPageCache implements PageCache {
 
         closed = true;
 
-        interrupt(evictionThread);
-        evictionThread = null;
+        for (EvictionPartition partition : partitions) {
+            interrupt(partition.getEvictionThread());
+            partition.setEvictionThread(null);
+        }
+        interrupt(writebackThread);
+        writebackThread = null;
     }
 
     private static void interrupt(Thread thread) {
@@ -879,45 +1113,83 @@ public class MuninnPageCache implements PageCache {
     }
 
     long grabFreeAndExclusivelyLockedPage(PageFaultEvent faultEvent) throws IOException {
-        // Review the comment on the freelist field before making changes to
+        // Review the comment on the partitions field before making changes to
         // this part of the code.
+        // We first go to the free list of our local partition, then to the
+        // free lists of all the other partitions, and only if all of them are
+        // empty, do we do our own eviction in our local partition.
+        EvictionPartition local = localPartition();
+        for (; ; ) {
+            assertHealthy();
+            long pageRef = tryGrabFreePage(local, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+            pageRef = tryStealFreePage(local, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+            local.unparkEvictor();
+            pageRef = cooperativelyEvict(local, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+        }
+    }
+
+    private EvictionPartition localPartition() {
+        EvictionPartition[] partitions = this.partitions;
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        return partitions[(int) (Thread.currentThread().getId() % partitions.length)];
+    }
+
+    private long tryStealFreePage(EvictionPartition local, PageFaultEvent faultEvent) {
+        EvictionPartition[] partitions = this.partitions;
+        int partitionCount = partitions.length;
+        for (int i = 1; i < partitionCount; i++) {
+            EvictionPartition victim = partitions[(local.index + i) % partitionCount];
+            long pageRef = tryGrabFreePage(victim, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Try to grab a page from the free list of the given partition.
+     * @return the reference of an exclusively locked free page, or {@code 0} if the free list of the partition is empty.
+     */
+    private long tryGrabFreePage(EvictionPartition partition, PageFaultEvent faultEvent) {
         // Whatever the case, we're going to the head-pointer of the freelist,
         // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
+        // We can discover an AtomicInteger, in which case we can try to
+        // CAS it to claim the next never-used page in the partition.
         // We can discover a FreePage object, in which case we'll do a similar
         // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
+        // pointer, and if we succeed then we've grabbed the page
         // given by the FreePage object.
         // We can discover a null-pointer, in which case the freelist has just
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // going to wait around for that to happen.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
         Object current;
-        for (; ; ) {
-            assertHealthy();
-            current = getFreelistHead();
-            if (current == null) {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict(faultEvent);
-                if (pageRef != 0) {
-                    return pageRef;
-                }
-            } else if (current instanceof AtomicInteger counter) {
-                int pageCount = pages.getPageCount();
-                int pageId = counter.get();
-                if (pageId < pageCount && counter.compareAndSet(pageId, pageId + 1)) {
+        while ((current = partition.getFreelistHead()) != null) {
+            if (current instanceof AtomicInteger counter) {
+                int pageCount = partition.pageCount();
+                int index = counter.get();
+                if (index < pageCount && counter.compareAndSet(index, index + 1)) {
                     faultEvent.freeListSize(pageCount - counter.get());
-                    return pages.deref(pageId);
+                    return pages.deref(partition.firstPageId + index);
                 }
-                if (pageId >= pageCount) {
-                    compareAndSetFreelistHead(current, null);
+                if (index >= pageCount) {
+                    partition.compareAndSetFreelistHead(current, null);
                 }
             } else if (current instanceof FreePage freePage) {
                 if (freePage == shutdownSignal) {
@@ -925,46 +1197,49 @@ public class MuninnPageCache implements PageCache {
                 }
 
                 Object nextPage = freePage.next;
-                if (compareAndSetFreelistHead(freePage, nextPage)) {
-                    faultEvent.freeListSize(getFreeListSize(pages, nextPage));
+                if (partition.compareAndSetFreelistHead(freePage, nextPage)) {
+                    faultEvent.freeListSize(getFreeListSize(partition, nextPage));
                     return freePage.pageRef;
                 }
             }
         }
+        return 0;
     }
 
-    private static int getFreeListSize(PageList pageList, Object next) {
+    private static int getFreeListSize(EvictionPartition partition, Object next) {
         if (next instanceof FreePage) {
             return ((FreePage) next).count;
         } else if (next instanceof AtomicInteger) {
-            return pageList.getPageCount() - ((AtomicInteger) next).get();
+            return partition.pageCount() - ((AtomicInteger) next).get();
         } else {
             return 0;
         }
     }
 
-    private long cooperativelyEvict(PageFaultEvent faultEvent) throws IOException {
+    private long cooperativelyEvict(EvictionPartition partition, PageFaultEvent faultEvent) throws IOException {
         int iterations = 0;
-        int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt(pageCount);
+        int firstPageId = partition.firstPageId;
+        int endPageId = partition.endPageId;
+        int clockArm = firstPageId + ThreadLocalRandom.current().nextInt(partition.pageCount());
+        int pagesVisited = 0;
         boolean evicted = false;
         long pageRef;
         do {
             assertHealthy();
-            if (getFreelistHead() != null) {
+            if (partition.getFreelistHead() != null) {
                 return 0;
             }
 
-            if (clockArm == pageCount) {
+            if (clockArm == endPageId) {
                 if (iterations == cooperativeEvictionLiveLockThreshold) {
                     throw cooperativeEvictionLiveLock();
                 }
                 iterations++;
-                clockArm = 0;
+                clockArm = firstPageId;
             }
 
             pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
+            if (PageList.isLoaded(pageRef) && replacementPolicy.isEvictionCandidate(pageRef, pagesVisited++)) {
                 evicted = pages.tryEvict(pageRef, faultEvent);
             }
             clockArm++;
@@ -986,75 +1261,98 @@ public class MuninnPageCache implements PageCache {
                         + "your database.");
     }
 
-    private void unparkEvictor() {
-        if (evictorParked) {
-            evictorParked = false;
-            LockSupport.unpark(evictionThread);
-        }
-    }
-
-    private void parkEvictor(long parkNanos) {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos(this, parkNanos);
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead() {
-        return FREE_LIST.getVolatile(this);
-    }
-
-    private boolean compareAndSetFreelistHead(Object expected, Object update) {
-        return FREE_LIST.compareAndSet(this, expected, update);
-    }
-
-    private void setFreelistHead(Object newFreelistHead) {
-        FREE_LIST.setVolatile(this, newFreelistHead);
-    }
-
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages of the given partition, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages() {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+    void continuouslySweepPages(EvictionPartition partition) {
+        partition.setEvictionThread(Thread.currentThread());
+        int clockArm = partition.firstPageId;
 
         while (!closed) {
-            int pageCountToEvict = parkUntilEvictionRequired(keepFree);
-            try (EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions(pageCountToEvict)) {
-                clockArm = evictPages(pageCountToEvict, clockArm, evictionRunEvent);
+            int pageCountToEvict = parkUntilEvictionRequired(partition);
+            try (EvictionRunEvent evictionRunEvent =
+                    pageCacheTracer.beginPageEvictions(partition.index, pageCountToEvict)) {
+                clockArm = evictPages(partition, pageCountToEvict, clockArm, evictionRunEvent);
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead(shutdownSignal);
+        partition.setFreelistHead(shutdownSignal);
+    }
+
+    void continuouslyWriteBackDirtyPages() {
+        writebackThread = Thread.currentThread();
+        long parkNanos = writebackAge.toNanos();
+        while (!closed) {
+            LockSupport.parkNanos(this, parkNanos);
+            if (Thread.interrupted() || closed) {
+                return;
+            }
+            writeBackAgedPages();
+        }
+    }
+
+    @VisibleForTesting
+    void writeBackAgedPages() {
+        // We walk the mapped files without the monitor lock, so mapping and unmapping of files is not held up by our
+        // writes. Files that are unmapped while we write them back are skipped, since unmapping flushes them anyway.
+        for (FileMapping mapping = mappedFiles; mapping != null && !closed; mapping = mapping.next) {
+            MuninnPagedFile pagedFile = mapping.pagedFile;
+            try (FileFlushEvent flushEvent = pageCacheTracer.beginFileFlush(pagedFile.swapper)) {
+                pagedFile.writeBackAgedPages(flushEvent);
+            } catch (IOException e) {
+                // The pages that could not be written back stay dirty, and are written by the next flush of the file,
+                // which reports the failure if it persists. The failed write is traced by the flush event.
+                pageCacheTracer.writebackExceptions(1);
+            }
+        }
     }
 
-    private int parkUntilEvictionRequired(int keepFree) {
+    private int parkUntilEvictionRequired(EvictionPartition partition) {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos(10);
         for (; ; ) {
-            parkEvictor(parkNanos);
+            partition.parkEvictor(parkNanos);
             if (Thread.interrupted() || closed) {
                 return 0;
             }
 
-            int numberOfPagesToEvict = tryGetNumberOfPagesToEvict(keepFree);
+            int numberOfPagesToEvict = tryGetNumberOfPagesToEvict(partition, partition.keepFree);
             if (numberOfPagesToEvict != UNKNOWN_PAGES_TO_EVICT) {
                 return numberOfPagesToEvict;
             }
         }
     }
 
+    /**
+     * @return the number of pages that needs to be evicted across all partitions, for {@code keepFree} pages to be
+     * free in the cache, or {@link #UNKNOWN_PAGES_TO_EVICT} if no partition needs any eviction.
+     */
     @VisibleForTesting
     int tryGetNumberOfPagesToEvict(int keepFree) {
-        Object freelistHead = getFreelistHead();
+        if (partitions.length == 1) {
+            return tryGetNumberOfPagesToEvict(partitions[0], keepFree);
+        }
+        long pageCount = pages.getPageCount();
+        int pagesToEvict = UNKNOWN_PAGES_TO_EVICT;
+        for (EvictionPartition partition : partitions) {
+            int partitionKeepFree = keepFreeShare(keepFree, partition.pageCount(), pageCount);
+            int partitionPagesToEvict = tryGetNumberOfPagesToEvict(partition, partitionKeepFree);
+            if (partitionPagesToEvict != UNKNOWN_PAGES_TO_EVICT) {
+                pagesToEvict = Math.max(pagesToEvict, 0) + partitionPagesToEvict;
+            }
+        }
+        return pagesToEvict;
+    }
+
+    private int tryGetNumberOfPagesToEvict(EvictionPartition partition, int keepFree) {
+        Object freelistHead = partition.getFreelistHead();
 
         if (freelistHead == null) {
             return keepFree;
@@ -1065,7 +1363,7 @@ public class MuninnPageCache implements PageCache {
             }
         } else if (freelistHead.getClass() == AtomicInteger.class) {
             AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
+            long count = partition.pageCount() - counter.get();
             if (count < keepFree) {
                 return count < 0 ? keepFree : (int) (keepFree - count);
             }
@@ -1073,10 +1371,17 @@ public class MuninnPageCache implements PageCache {
         return UNKNOWN_PAGES_TO_EVICT;
     }
 
+    @VisibleForTesting
     int evictPages(int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent) {
+        EvictionPartition partition = partitionOf(Math.min(clockArm, pages.getPageCount() - 1));
+        return evictPages(partition, pageCountToEvict, clockArm, evictionRunEvent);
+    }
+
+    int evictPages(EvictionPartition partition, int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent) {
+        int pagesVisited = 0;
         while (pageCountToEvict > 0 && !closed) {
-            if (clockArm == pages.getPageCount()) {
-                clockArm = 0;
+            if (clockArm == partition.endPageId) {
+                clockArm = partition.firstPageId;
             }
 
             if (closed) {
@@ -1085,12 +1390,13 @@ public class MuninnPageCache implements PageCache {
             }
 
             long pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
+            if (PageList.isLoaded(pageRef) && replacementPolicy.isEvictionCandidate(pageRef, pagesVisited++)) {
+                pagesVisited = 0;
                 try {
                     pageCountToEvict--;
                     if (pages.tryEvict(pageRef, evictionRunEvent)) {
                         clearEvictorException();
-                        addFreePageToFreelist(pageRef, evictionRunEvent);
+                        addFreePageToFreelist(partition, pageRef, evictionRunEvent);
                     }
                 } catch (IOException e) {
                     evictorException = e;
@@ -1107,6 +1413,15 @@ public class MuninnPageCache implements PageCache {
         return clockArm;
     }
 
+    private EvictionPartition partitionOf(int pageId) {
+        EvictionPartition[] partitions = this.partitions;
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        // The last partition also holds the pages that are left over when dividing the page list into partitions.
+        return partitions[Math.min(pageId / partitionSize, partitions.length - 1)];
+    }
+
     @VisibleForTesting
     String describePages() {
         var result = new StringBuilder();
@@ -1132,16 +1447,20 @@ public class MuninnPageCache implements PageCache {
     }
 
     void addFreePageToFreelist(long pageRef, EvictionRunEvent evictions) {
+        addFreePageToFreelist(partitionOf(pages.toId(pageRef)), pageRef, evictions);
+    }
+
+    private static void addFreePageToFreelist(EvictionPartition partition, long pageRef, EvictionRunEvent evictions) {
         Object current;
         FreePage freePage = new FreePage(pageRef);
-        int pageCount = pages.getPageCount();
+        int pageCount = partition.pageCount();
         do {
-            current = getFreelistHead();
+            current = partition.getFreelistHead();
             if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > pageCount) {
                 current = null;
             }
             freePage.setNext(pageCount, current);
-        } while (!compareAndSetFreelistHead(current, freePage));
+        } while (!partition.compareAndSetFreelistHead(current, freePage));
         evictions.freeListSize(freePage.count);
     }
 
@@ -1155,11 +1474,12 @@ public class MuninnPageCache implements PageCache {
     public String toString() {
         int pagesToEvict = tryGetNumberOfPagesToEvict(keepFree);
         return format(
-                "%s[pageCacheId:%d, pageSize:%d, pages:%d, pagesToEvict:%s]",
+                "%s[pageCacheId:%d, pageSize:%d, pages:%d, evictionPartitions:%d, pagesToEvict:%s]",
                 getClass().getSimpleName(),
                 pageCacheId,
                 cachePageSize,
                 pages.getPageCount(),
+                partitions.length,
                 pagesToEvict != UNKNOWN_PAGES_TO_EVICT ? String.valueOf(pagesToEvict) : "N/A");
     }
 
@@ -1182,16 +1502,17 @@ public class MuninnPageCache implements PageCache {
         });
     }
 
-    void startPreFetching(MuninnPageCursor cursor, CursorFactory cursorFactory) {
-        PreFetcher preFetcher = new PreFetcher(cursor, cursorFactory, clock);
-        var pagedFile = cursor.pagedFile;
-        var fileName = pagedFile.swapper.path().getFileName();
-        var monitoringParams = systemJob(pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'");
-        cursor.preFetcher = scheduler.schedule(Group.PAGE_CACHE_PRE_FETCHER, monitoringParams, preFetcher);
+    void startPreFetching(MuninnPageCursor cursor) {
+        cursor.preFetcher = new PreFetcher(cursor, scheduler, maxCachedPages());
     }
 
     @VisibleForTesting
     int getKeepFree() {
         return keepFree;
     }
+
+    @VisibleForTesting
+    int getEvictionPartitionCount() {
+        return partitions.length;
+    }
 }
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
@@ -46,7 +47,6 @@ import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.PinPageFaultEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
-import org.neo4j.scheduler.JobHandle;
 import org.neo4j.util.Preconditions;
 import org.neo4j.util.VisibleForTesting;
 
@@ -83,6 +83,8 @@ public abstract class MuninnPageCursor extends PageCursor {
     private final boolean noFault;
     protected final boolean noGrow;
     private final boolean updateUsage;
+    private final boolean scan;
+    private final PageReplacementPolicy replacementPolicy;
     protected final boolean multiVersioned;
     protected final boolean littleEndian;
 
@@ -103,7 +105,7 @@ public abstract class MuninnPageCursor extends PageCursor {
 
     protected MuninnPageCursor linkedCursor;
     protected MuninnPageCursor backLinkedCursor;
-    protected JobHandle<?> preFetcher;
+    protected PreFetcher preFetcher;
 
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
@@ -135,6 +137,8 @@ public abstract class MuninnPageCursor extends PageCursor {
         this.pf_flags = pf_flags;
         this.eagerFlush = isFlagRaised(pf_flags, PF_EAGER_FLUSH);
         this.updateUsage = !isFlagRaised(pf_flags, PF_TRANSIENT);
+        this.scan = isFlagRaised(pf_flags, PF_SCAN);
+        this.replacementPolicy = pagedFile.pageCache.replacementPolicy;
         this.noFault = isFlagRaised(pf_flags, PF_NO_FAULT);
         this.noGrow = noFault || isFlagRaised(pf_flags, PagedFile.PF_NO_GROW);
         this.victimPage = victimPage;
@@ -162,10 +166,6 @@ public abstract class MuninnPageCursor extends PageCursor {
         return currentPageId;
     }
 
-    long loadVolatileCurrentPageId() {
-        return (long) CURRENT_PAGE_ID.getVolatile(this);
-    }
-
     protected void storeCurrentPageId(long pageId) {
         CURRENT_PAGE_ID.setRelease(this, pageId);
     }
@@ -178,7 +178,7 @@ public abstract class MuninnPageCursor extends PageCursor {
         this.pointer = PageList.getAddress(pageRef);
         pinEvent.setCachePageId(pagedFile.toId(pageRef));
         if (updateUsage) {
-            PageList.incrementUsage(pageRef);
+            replacementPolicy.pinned(pageRef, scan);
         }
     }
 
@@ -236,10 +236,10 @@ public abstract class MuninnPageCursor extends PageCursor {
         while (cursor != null && !cursor.closed) {
             cursor.unpin();
             cursor.closed = true;
-            // Signal to any pre-fetchers that the cursor is closed.
+            // The cursor is no longer bound to any page.
             cursor.storeCurrentPageId(UNBOUND_PAGE_ID);
             if (preFetcher != null) {
-                preFetcher.cancel();
+                preFetcher.close();
                 preFetcher = null;
             }
             tracer.closeCursor();
@@ -313,6 +313,9 @@ public abstract class MuninnPageCursor extends PageCursor {
      * @throws IOException if anything goes wrong with the pin, most likely during a page fault.
      */
     protected void pin(PinEvent pinEvent, long filePageId) throws IOException {
+        if (preFetcher != null) {
+            preFetcher.pinning(filePageId);
+        }
         int chunkId = MuninnPagedFile.computeChunkId(filePageId);
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -341,6 +344,9 @@ public abstract class MuninnPageCursor extends PageCursor {
                 if (locked && PageList.isBoundTo(pageRef, swapperId, filePageId)) {
                     pinCursorToPage(pinEvent, pageRef, filePageId, swapper);
                     pinEvent.hit();
+                    if (preFetcher != null) {
+                        preFetcher.pinned(filePageId, false);
+                    }
                     return;
                 }
                 if (locked) {
@@ -378,6 +384,9 @@ public abstract class MuninnPageCursor extends PageCursor {
                 // Sweet, we didn't race with any other fault on this translation table entry.
                 long pageRef = pageFault(pinEvent, filePageId, swapper, chunkIndex, chunk, latch);
                 pinCursorToPage(pinEvent, pageRef, filePageId, swapper);
+                if (preFetcher != null) {
+                    preFetcher.pinned(filePageId, true);
+                }
                 return true;
             }
             // Oops, looks like we raced with another page fault on this file page.
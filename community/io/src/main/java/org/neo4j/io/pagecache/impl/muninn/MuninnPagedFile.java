@@ -21,15 +21,23 @@ package org.neo4j.io.pagecache.impl.muninn;
 
 import static java.util.Arrays.fill;
 import static java.util.Objects.requireNonNull;
+import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.util.FeatureToggles.flag;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
@@ -47,7 +55,9 @@ import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.VectoredPageFaultEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
+import org.neo4j.scheduler.JobHandle;
 
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     static final int UNMAPPED_TTE = -1;
@@ -102,6 +112,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
 
     private static final VarHandle HIGHEST_EVICTED_TRANSACTION_ID;
 
+    // One bit for every page of every chunk of the translation table, that is set if the page was dirty at the last
+    // background writeback of this file. Only accessed by the writeback thread.
+    private long[][] writebackMarks = new long[0][];
+
     /**
      * The header state includes both the reference count of the PagedFile – 15 bits – and the ID of the last page in
      * the file – 48 bits, plus an empty file marker bit. Because our pages are usually 2^13 bytes, this means that we
@@ -245,7 +259,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
 
         if ((pf_flags & PF_READ_AHEAD) == PF_READ_AHEAD && (pf_flags & PF_NO_FAULT) != PF_NO_FAULT) {
-            pageCache.startPreFetching(cursor, cursorFactory);
+            pageCache.startPreFetching(cursor);
         }
         return cursor;
     }
@@ -375,9 +389,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             markAllDirtyPagesAsClean();
             return;
         }
+        // The file is being unmapped, which is as quick as it can be made, so the flush is not limited.
         try (FileFlushEvent flushEvent = pageCacheTracer.beginFileFlush(swapper);
                 var buffer = bufferFactory.createBuffer()) {
-            flushAndForceInternal(flushEvent, true, ioController, buffer);
+            flushAndForceInternal(flushEvent, true, IOController.DISABLED, buffer);
         }
         pageCache.clearEvictorException();
     }
@@ -491,39 +506,143 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             FileFlushEvent flushes, boolean forClosing, IOController limiter, NativeIOBuffer ioBuffer)
             throws IOException {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
-        long[] pages = new long[translationTableChunkSize];
-        long[] flushStamps = forClosing ? null : new long[translationTableChunkSize];
-        long[] bufferAddresses = new long[translationTableChunkSize];
-        int[] bufferLengths = new int[translationTableChunkSize];
-        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
         int[][] tt = this.translationTable;
+        flushes.startFlush(tt);
+
+        // Closing flushes are done with exclusive locks while the page cache is unmapping the file, and are never
+        // split up.
+        int ranges = forClosing ? 1 : Math.min(pageCache.flushParallelism, tt.length);
+        if (ranges > 1) {
+            flushRangesInParallel(tt, ranges, flushes, limiter, ioBuffer);
+        } else {
+            flushChunks(tt, 0, tt.length, flushes, forClosing, limiter, ioBuffer);
+        }
+
+        swapper.force();
+    }
+
+    /**
+     * Split the translation table into the given number of ranges of chunks, and flush every range from a thread of
+     * its own. The calling thread flushes the first range. Every range is traced by a file flush event of its own,
+     * which is reported to the given event once the range is flushed.
+     */
+    private void flushRangesInParallel(
+            int[][] tt, int ranges, FileFlushEvent flushes, IOController limiter, NativeIOBuffer ioBuffer)
+            throws IOException {
+        var monitoringParams = systemJob(
+                databaseName, "Flushing a range of file '" + swapper.path().getFileName() + "'");
+        List<JobHandle<?>> rangeFlushes = new ArrayList<>(ranges - 1);
+        for (int range = 1; range < ranges; range++) {
+            int fromChunk = rangeStartChunk(tt.length, ranges, range);
+            int toChunk = rangeStartChunk(tt.length, ranges, range + 1);
+            rangeFlushes.add(pageCache.scheduler.schedule(FILE_IO_HELPER, monitoringParams, () -> {
+                try (var buffer = bufferFactory.createBuffer()) {
+                    flushRange(tt, fromChunk, toChunk, flushes, limiter, buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+
+        IOException failure = null;
+        try {
+            flushRange(tt, 0, rangeStartChunk(tt.length, ranges, 1), flushes, limiter, ioBuffer);
+        } catch (IOException e) {
+            failure = e;
+        }
+        // Wait for all the ranges, even if some of them failed, so no flush is still going on when we return.
+        for (JobHandle<?> rangeFlush : rangeFlushes) {
+            try {
+                rangeFlush.waitTermination();
+            } catch (InterruptedException | ExecutionException e) {
+                Throwable cause = e.getCause();
+                IOException exception = cause instanceof UncheckedIOException uncheckedIO
+                        ? uncheckedIO.getCause()
+                        : new IOException(cause != null ? cause : e);
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static int rangeStartChunk(int chunks, int ranges, int range) {
+        return (int) ((long) chunks * range / ranges);
+    }
+
+    private void flushRange(
+            int[][] tt,
+            int fromChunk,
+            int toChunk,
+            FileFlushEvent flushes,
+            IOController limiter,
+            NativeIOBuffer ioBuffer)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        try (FileFlushEvent rangeFlushes = pageCacheTracer.beginFileFlush(swapper)) {
+            flushChunks(tt, fromChunk, toChunk, rangeFlushes, false, limiter, ioBuffer);
+            flushes.rangeFlushed(
+                    (long) fromChunk << translationTableChunkSizePower,
+                    (long) toChunk << translationTableChunkSizePower,
+                    rangeFlushes,
+                    System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Flush all the dirty pages in the given range of chunks of the translation table. Runs of adjacent dirty pages
+     * are written with a single vectored write, also across chunks, until they reach the maximum flush size of the
+     * page cache.
+     */
+    private void flushChunks(
+            int[][] tt,
+            int fromChunk,
+            int toChunk,
+            FileFlushEvent flushes,
+            boolean forClosing,
+            IOController limiter,
+            NativeIOBuffer ioBuffer)
+            throws IOException {
+        long pagesInRange = (long) (toChunk - fromChunk) * translationTableChunkSize;
+        int maxPagesPerFlush = (int) Math.min(Math.max(1, pageCache.maxFlushSize / filePageSize), pagesInRange);
+        long[] pages = new long[maxPagesPerFlush];
+        long[] flushStamps = forClosing ? null : new long[maxPagesPerFlush];
+        long[] bufferAddresses = new long[maxPagesPerFlush];
+        int[] bufferLengths = new int[maxPagesPerFlush];
+        // Start one page early because we increment at the *start* of the chunk-loop iteration.
+        long filePageId = ((long) fromChunk << translationTableChunkSizePower) - 1;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
 
-        flushes.startFlush(tt);
+        // The pages grabbed for the next vectored write. They carry over into the next chunk, if the run of dirty
+        // pages does.
+        // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
+        // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
+        // TODO garbage to the file.
+        int pagesGrabbed = 0;
+        long nextSequentialAddress = -1;
+        int numberOfBuffers = 0;
+        int lastBufferIndex = -1;
+        int mergedPages = 0;
+        boolean fillingDirtyBuffer = false;
+        if (useTemporaryBuffer) {
+            // in case when we use temp intermediate buffer we have only buffer and its address and length are
+            // always stored in arrays with index 0
+            bufferAddresses[0] = ioBuffer.getAddress();
+            bufferLengths[0] = 0;
+        }
 
-        for (int[] chunk : tt) {
+        for (int chunkId = fromChunk; chunkId < toChunk; chunkId++) {
+            int[] chunk = tt[chunkId];
             var chunkEvent = flushes.startChunk(chunk);
             long notModifiedPages = 0;
             long flushPerChunk = 0;
-            long buffersPerChunk = 0;
+            long buffersPerChunk = useTemporaryBuffer ? 1 : 0;
             long mergesPerChunk = 0;
-            // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
-            // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
-            // TODO garbage to the file.
-            int pagesGrabbed = 0;
-            long nextSequentialAddress = -1;
-            int numberOfBuffers = 0;
-            int lastBufferIndex = -1;
-            int mergedPages = 0;
-
-            boolean fillingDirtyBuffer = false;
-            if (useTemporaryBuffer) {
-                // in case when we use temp intermediate buffer we have only buffer and its address and length are
-                // always stored in arrays with index 0
-                bufferAddresses[0] = ioBuffer.getAddress();
-                bufferLengths[0] = 0;
-                buffersPerChunk = 1;
-            }
 
             chunkLoop:
             for (int i = 0; i < chunk.length; i++) {
@@ -568,7 +687,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                                 UnsafeUtil.copyMemory(address, bufferAddresses[0] + bufferLengths[0], filePageSize);
                                 bufferLengths[0] += filePageSize;
                                 numberOfBuffers = 1;
-                                if (!ioBuffer.hasMoreCapacity(bufferLengths[0], filePageSize)) {
+                                if (!ioBuffer.hasMoreCapacity(bufferLengths[0], filePageSize)
+                                        || pagesGrabbed == maxPagesPerFlush) {
                                     break; // continue to flush
                                 } else {
                                     continue chunkLoop; // go to next page
@@ -588,6 +708,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                                     buffersPerChunk++;
                                 }
                                 nextSequentialAddress = address + filePageSize;
+                                if (pagesGrabbed == maxPagesPerFlush) {
+                                    break; // continue to flush
+                                }
                                 continue chunkLoop; // go to next page
                             }
                         } else {
@@ -627,7 +750,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                     bufferLengths[0] = 0;
                 }
             }
-            if (pagesGrabbed > 0) {
+            if (pagesGrabbed > 0 && chunkId == toChunk - 1) {
+                // The last run of dirty pages in the range. Runs that reach the end of any other chunk carry on into
+                // the next one.
                 vectoredFlush(
                         pages,
                         bufferAddresses,
@@ -644,8 +769,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             }
             chunkEvent.chunkFlushed(notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk);
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -697,6 +820,115 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
     }
 
+    /**
+     * Write back the pages of this file that have stayed dirty since the previous call, and remember the pages that
+     * are dirty now for the next call. This is called periodically by the background writeback of the page cache, so
+     * the pages that get written have been dirty for at least the time between two calls, unless they were flushed
+     * and dirtied again in between. The writes are not forced, which is left to the next flush of the file.
+     * <p>
+     * Must only be called from one thread at a time.
+     */
+    void writeBackAgedPages(FileFlushEvent flushes) throws IOException {
+        int[][] tt = this.translationTable;
+        if (writebackMarks.length < tt.length) {
+            writebackMarks = Arrays.copyOf(writebackMarks, tt.length);
+        }
+        int maxPagesPerFlush =
+                (int) Math.min(Math.max(1, pageCache.maxFlushSize / filePageSize), translationTableChunkSize);
+        long[] pages = new long[maxPagesPerFlush];
+        long[] flushStamps = new long[maxPagesPerFlush];
+        long[] bufferAddresses = new long[maxPagesPerFlush];
+        int[] bufferLengths = new int[maxPagesPerFlush];
+        int pagesGrabbed = 0;
+        int numberOfBuffers = 0;
+        int mergedPages = 0;
+        long nextSequentialAddress = -1;
+        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
+
+        for (int chunkId = 0; chunkId < tt.length; chunkId++) {
+            if (getRefCount() == 0) {
+                return; // The file is being unmapped, which flushes all of it anyway.
+            }
+            int[] chunk = tt[chunkId];
+            long[] marks = writebackMarks[chunkId];
+            if (marks == null) {
+                marks = writebackMarks[chunkId] = new long[translationTableChunkSize / Long.SIZE];
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                filePageId++;
+                boolean wasDirty = (marks[i / Long.SIZE] & (1L << i)) != 0;
+                boolean dirty = false;
+                boolean grabbed = false;
+                int pageId = translationTableGetVolatile(chunk, computeChunkIndex(filePageId));
+                if (pageId != UNMAPPED_TTE) {
+                    long pageRef = deref(pageId);
+                    dirty = isModified(pageRef);
+                    if (dirty && wasDirty) {
+                        long flushStamp = tryFlushLock(pageRef);
+                        if (flushStamp != 0) {
+                            if (isBoundTo(pageRef, swapperId, filePageId) && isModified(pageRef)) {
+                                pages[pagesGrabbed] = pageRef;
+                                flushStamps[pagesGrabbed] = flushStamp;
+                                pagesGrabbed++;
+                                long address = getAddress(pageRef);
+                                if (mergePagesOnFlush && nextSequentialAddress == address) {
+                                    bufferLengths[numberOfBuffers - 1] += filePageSize;
+                                    mergedPages++;
+                                } else {
+                                    bufferAddresses[numberOfBuffers] = address;
+                                    bufferLengths[numberOfBuffers] = filePageSize;
+                                    numberOfBuffers++;
+                                }
+                                nextSequentialAddress = address + filePageSize;
+                                grabbed = true;
+                            } else {
+                                unlockFlush(pageRef, flushStamp, false);
+                            }
+                        }
+                        // Otherwise the page is being flushed by someone else already.
+                    }
+                }
+                if (dirty && !grabbed) {
+                    marks[i / Long.SIZE] |= 1L << i;
+                } else {
+                    marks[i / Long.SIZE] &= ~(1L << i);
+                }
+                if (pagesGrabbed > 0 && (!grabbed || pagesGrabbed == maxPagesPerFlush)) {
+                    vectoredFlush(
+                            pages,
+                            bufferAddresses,
+                            flushStamps,
+                            bufferLengths,
+                            numberOfBuffers,
+                            pagesGrabbed,
+                            mergedPages,
+                            flushes,
+                            false);
+                    flushes.reportIO(numberOfBuffers);
+                    ioController.maybeLimitIO(numberOfBuffers, flushes);
+                    pagesGrabbed = 0;
+                    numberOfBuffers = 0;
+                    mergedPages = 0;
+                    nextSequentialAddress = -1;
+                }
+            }
+        }
+        if (pagesGrabbed > 0) {
+            vectoredFlush(
+                    pages,
+                    bufferAddresses,
+                    flushStamps,
+                    bufferLengths,
+                    numberOfBuffers,
+                    pagesGrabbed,
+                    mergedPages,
+                    flushes,
+                    false);
+            flushes.reportIO(numberOfBuffers);
+            ioController.maybeLimitIO(numberOfBuffers, flushes);
+        }
+    }
+
     boolean flushLockedPage(long pageRef, long filePageId) {
         boolean success = false;
         try (var majorFlushEvent = pageCacheTracer.beginFileFlush(swapper);
@@ -1014,7 +1246,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         int touched = 0;
         if (USE_VECTORIZED_TOUCH) {
             try (var faultEvent = cursorContext.getCursorTracer().beginVectoredPageFault(swapper)) {
-                touched = vectoredPageFault(pageId, count, faultEvent);
+                touched = vectoredPageFault(pageId, count, faultEvent, null);
             }
         }
         if (touched < count) {
@@ -1028,6 +1260,31 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return touched;
     }
 
+    /**
+     * Load the given range of pages into the page cache, without pinning them, skipping pages that are already
+     * mapped. Used by the {@link PreFetcher}.
+     * @param loadedPages is given the id of every page that this call loads, before anyone can pin the page.
+     * @return the number of pages that were loaded by this call.
+     */
+    int preFetch(long pageId, int count, PageCursorTracer tracer, LongConsumer loadedPages) throws IOException {
+        var lastPageId = getLastPageId();
+        if (pageId < 0 || pageId > lastPageId) {
+            return 0;
+        }
+        long endPageId = Math.min(pageId + count, lastPageId + 1);
+        int loaded = 0;
+        while (pageId < endPageId) {
+            int faulted;
+            try (var faultEvent = tracer.beginVectoredPageFault(swapper)) {
+                faulted = vectoredPageFault(pageId, (int) (endPageId - pageId), faultEvent, loadedPages);
+            }
+            loaded += faulted;
+            // Step over the page that stopped the vectored read, since it is already mapped.
+            pageId += Math.max(faulted, 1);
+        }
+        return loaded;
+    }
+
     @Override
     public boolean preAllocateSupported() {
         return swapper.canAllocate();
@@ -1056,9 +1313,14 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         swapper.allocate(newFileSizeInPages * filePageSize);
     }
 
-    private int vectoredPageFault(long filePageId, int count, VectoredPageFaultEvent faultEvent) throws IOException {
+    private int vectoredPageFault(
+            long filePageId, int count, VectoredPageFaultEvent faultEvent, LongConsumer loadedPages)
+            throws IOException {
         var latches = new LatchMap.Latch[count];
         int numberOfPages = grabPageFaultLatches(filePageId, count, latches);
+        if (numberOfPages == 0) {
+            return 0;
+        }
         long[] pageRefs = new long[numberOfPages];
         try {
             // Note: It is important that we assign the filePageId after we grabbed it.
@@ -1089,6 +1351,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             long bytesRead = swapper.read(filePageId, bufferAddresses, bufferLengths, numberOfPages);
             faultEvent.addBytesRead(bytesRead);
             for (int i = 0; i < numberOfPages; i++) {
+                if (loadedPages != null) {
+                    // Before the page is bound and in the translation table, since optimistic readers may pin it
+                    // from then on, exclusive lock or not
+                    loadedPages.accept(filePageId + i);
+                }
                 setSwapperId(pageRefs[i], swapperId); // Page now considered isBoundTo( swapper, filePageId )
                 // Put the page in the translation table before we undo the exclusive lock, as we could otherwise race
                 // with
@@ -1097,6 +1364,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                 int chunkId = computeChunkId(filePageId + i);
                 int chunkIndex = computeChunkIndex(filePageId + i);
                 translationTableSetVolatile(translationTable[chunkId], chunkIndex, pageCachePageId);
+                // Nobody has pinned these pages yet. Give them the usage of a single pin, so they survive the first
+                // pass of the clock arm and are still there when the cursor that wants them gets to them.
+                PageList.incrementUsage(pageRefs[i], PageList.PROBATION_USAGE_COUNT);
             }
             faultEvent.addPagesFaulted(numberOfPages, pageRefs, this);
         } catch (Throwable throwable) {
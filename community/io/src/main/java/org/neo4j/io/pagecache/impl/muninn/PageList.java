@@ -55,7 +55,9 @@ class PageList implements PageReferenceTranslator {
     static final long MAX_PAGES = Integer.MAX_VALUE;
 
     private static final int UNBOUND_LAST_MODIFIED_TX_ID = -1;
-    private static final long MAX_USAGE_COUNT = 4;
+    static final long MAX_USAGE_COUNT = 4;
+    // Pages with a usage count at or below this are on probation, see PageReplacementPolicy.
+    static final long PROBATION_USAGE_COUNT = 1;
     private static final int SHIFT_FILE_PAGE_ID = 24;
     private static final int SHIFT_SWAPPER_ID = 3;
     private static final int SHIFT_PARTIAL_FILE_PAGE_ID = SHIFT_FILE_PAGE_ID - SHIFT_SWAPPER_ID;
@@ -283,11 +285,19 @@ class PageList implements PageReferenceTranslator {
      * Increment the usage stamp to at most 4.
      **/
     static void incrementUsage(long pageRef) {
+        incrementUsage(pageRef, MAX_USAGE_COUNT);
+    }
+
+    /**
+     * Increment the usage stamp to at most the given {@code maxUsage}, which cannot be greater than 4.
+     **/
+    static void incrementUsage(long pageRef, long maxUsage) {
+        assert maxUsage <= MAX_USAGE_COUNT : "Max usage " + maxUsage + " is above " + MAX_USAGE_COUNT;
         // This is intentionally left benignly racy for performance.
         long address = offPageBinding(pageRef);
         long value = UnsafeUtil.getLongVolatile(address);
         long usage = value & MASK_USAGE_COUNT;
-        if (usage < MAX_USAGE_COUNT) // avoid cache sloshing by not doing a write if counter is already maxed out
+        if (usage < maxUsage) // avoid cache sloshing by not doing a write if counter is already maxed out
         {
             long update = value + 1;
             // Use compareAndSwapLong to only actually store the updated count if nothing else changed
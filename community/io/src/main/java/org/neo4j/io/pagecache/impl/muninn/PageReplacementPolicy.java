@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import org.neo4j.io.pagecache.PagedFile;
+
+/**
+ * Decides how page accesses update the usage counters in the {@link PageList}, and which pages the clock arms of the
+ * {@link MuninnPageCache} consider for eviction.
+ */
+public enum PageReplacementPolicy {
+    /**
+     * The classic CLOCK algorithm. Every pin increments the usage counter of the page, up to its max, and every pass of
+     * the clock arm decrements it. Pages are evicted when their usage counter reaches zero.
+     * {@link PagedFile#PF_SCAN} cursors are treated like any other cursor.
+     */
+    CLOCK {
+        @Override
+        void pinned(long pageRef, boolean scan) {
+            PageList.incrementUsage(pageRef);
+        }
+
+        @Override
+        boolean isEvictionCandidate(long pageRef, int pagesVisitedSinceLastEviction) {
+            return PageList.decrementUsage(pageRef);
+        }
+    },
+    /**
+     * A CLOCK variant with a probationary and a protected segment. Pages that are only ever touched by
+     * {@link PagedFile#PF_SCAN} cursors stay on probation, with a usage counter of at most one, and pages that are
+     * pinned by other cursors are promoted to the protected segment as their usage counter grows. The clock arms pass
+     * over protected pages without aging them, as long as they find probationary pages to evict close by. This keeps
+     * the working set of point lookups in memory while large scans stream through the cache.
+     */
+    PROBATIONARY {
+        @Override
+        void pinned(long pageRef, boolean scan) {
+            if (scan) {
+                PageList.incrementUsage(pageRef, PageList.PROBATION_USAGE_COUNT);
+            } else {
+                PageList.incrementUsage(pageRef);
+            }
+        }
+
+        @Override
+        boolean isEvictionCandidate(long pageRef, int pagesVisitedSinceLastEviction) {
+            if (pagesVisitedSinceLastEviction < protectedPagesLookahead
+                    && PageList.getUsage(pageRef) > PageList.PROBATION_USAGE_COUNT) {
+                // A protected page. Look for probationary pages a bit further on, before we start aging it.
+                return false;
+            }
+            return PageList.decrementUsage(pageRef);
+        }
+    };
+
+    // The number of pages a clock arm may pass by without aging any protected pages, while looking for a page on
+    // probation to evict.
+    private static final int protectedPagesLookahead =
+            getInteger(PageReplacementPolicy.class, "protectedPagesLookahead", 64);
+
+    /**
+     * Update the usage information of the given page, as it gets pinned by a cursor.
+     * @param pageRef the page that got pinned.
+     * @param scan {@code true} if the page was pinned by a {@link PagedFile#PF_SCAN} cursor.
+     */
+    abstract void pinned(long pageRef, boolean scan);
+
+    /**
+     * Called by the clock arms for every loaded page they pass by.
+     * @param pageRef the page under the clock arm.
+     * @param pagesVisitedSinceLastEviction how many pages the clock arm has passed by since it last found a page to
+     * evict.
+     * @return {@code true} if the page should be evicted.
+     */
+    abstract boolean isEvictionCandidate(long pageRef, int pagesVisitedSinceLastEviction);
+}
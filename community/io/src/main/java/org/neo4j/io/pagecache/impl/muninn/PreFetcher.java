@@ -20,183 +20,225 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.LockSupport;
-import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
-import org.neo4j.scheduler.CancelListener;
-import org.neo4j.time.SystemNanoClock;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
 
 /**
- * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
- *
- * The given page cursor is being "weakly" observed from a background pre-fetcher thread, as it is progressing through its scan, and the pre-fetcher tries
- * to touch pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
- *
- * The pre-fetcher relies on {@code ordered stores} of the "current page id" from the scanner thread,
- * and on {@link UnsafeUtil#getLongVolatile(long) volatile loads} in the pre-fetcher thread, in order to observe the progress of the scanner without placing
- * too much synchronisation overhead on the scanner. Because this does not form a "synchronises-with" edge in Java Memory Model palace, we say that the
- * scanning cursor is being "weakly" observed. Ordered stores have compiler barriers, but no CPU or cache coherence barriers beyond plain stores.
- *
- * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
- * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
- * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ * An adaptive page pre-fetcher for cursors that access the pages of a file with a fixed stride. This covers forward
+ * scans (a stride of 1), backward scans (a stride of -1), and scans that skip over a fixed number of pages.
+ * <p>
+ * The pre-fetcher is driven by the page ids that its cursor pins, on the thread of the cursor. When the cursor has
+ * moved with the same stride a few times in a row, the pre-fetcher loads the next window of pages along that stride
+ * from a background thread, with vectored reads that put the pages into free pages of the page cache without pinning
+ * them. The window doubles, up to a limit, every time the cursor catches up with the pre-fetched pages, and shrinks
+ * back down when the cursor breaks the pattern. Cursors that never settle into a stride cost a few arithmetic
+ * operations per pin, and never schedule any background work.
+ * <p>
+ * The first pin of a page that the background jobs loaded is counted as a
+ * {@link PageCursorTracer#preFetchHit() pre-fetch hit}; pages that were already in the page cache don't count. The
+ * loaded pages that were never pinned, or that got evicted before they were pinned, are reported as
+ * {@link PageCursorTracer#preFetchWaste(long) pre-fetch waste} once the cursor is closed and the background jobs are
+ * done, by whichever of them finishes last.
  */
-class PreFetcher implements Runnable, CancelListener {
+final class PreFetcher {
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
-    private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
-    private final SystemNanoClock clock;
-    private volatile boolean cancelled;
-    private long startTime;
-    private long deadline;
-    private long tripCount;
-    private long pauseNanos = TimeUnit.MILLISECONDS.toNanos(10);
-
-    PreFetcher(MuninnPageCursor observedCursor, CursorFactory cursorFactory, SystemNanoClock clock) {
-        this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
-        this.clock = clock;
+    // The number of times the cursor must move with the same stride before we start pre-fetching.
+    private static final int STRIDE_CONFIRMATIONS = getInteger(PreFetcher.class, "strideConfirmations", 2);
+    // Strides longer than this are treated as random access.
+    private static final int MAX_STRIDE = getInteger(PreFetcher.class, "maxStride", 64);
+    private static final int MIN_WINDOW = getInteger(PreFetcher.class, "minWindow", 4);
+    private static final int MAX_WINDOW = getInteger(PreFetcher.class, "maxWindow", 256);
+    // A single cursor is not allowed to pre-fetch more than this fraction of the page cache at a time.
+    private static final int MAX_WINDOW_CACHE_FRACTION = 16;
+
+    private final MuninnPagedFile pagedFile;
+    private final MuninnPageCursor cursor;
+    private final JobScheduler scheduler;
+    private final JobMonitoringParams monitoringParams;
+    private final int maxWindow;
+    // The pages that the background jobs loaded, and that the cursor has not pinned yet. Guarded by this.
+    private final MutableLongSet preFetchedPages = LongSets.mutable.empty();
+    // The size of preFetchedPages, to not have to synchronize on pins while there are none.
+    private volatile int pendingPages;
+    // Pre-fetched pages that got evicted again before the cursor pinned them. Guarded by this.
+    private long evictedPages;
+    // Guarded by this.
+    private int runningJobs;
+    private volatile boolean closed;
+
+    // The rest of the state is only accessed from the thread of the cursor.
+    private long lastPageId = UNBOUND_PAGE_ID;
+    private long stride;
+    private int confirmations;
+    private int window;
+    // The last page id along the stride that has been requested, if anything has been requested for this stride.
+    private boolean requested;
+    private long requestedEnd;
+
+    PreFetcher(MuninnPageCursor cursor, JobScheduler scheduler, long maxCachedPages) {
+        this.pagedFile = cursor.pagedFile;
+        this.cursor = cursor;
+        this.scheduler = scheduler;
+        var fileName = pagedFile.swapper.path().getFileName();
+        this.monitoringParams = systemJob(pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'");
+        this.maxWindow = (int) Math.min(MAX_WINDOW, maxCachedPages / MAX_WINDOW_CACHE_FRACTION);
+        this.window = Math.min(MIN_WINDOW, maxWindow);
     }
 
-    @Override
-    public void run() {
-        // Phase 1: Wait for observed cursor to start moving.
-        setDeadline(150, TimeUnit.MILLISECONDS); // Give up if nothing happens for 150 milliseconds.
-        long initialPageId;
-        while ((initialPageId = getCurrentObservedPageId()) == UNBOUND_PAGE_ID) {
-            pause();
-            if (pastDeadline()) {
-                return; // Give up. Looks like this cursor is either already finished, or never started.
+    /**
+     * Called by the cursor before it pins the given page.
+     */
+    void pinning(long pageId) {
+        long previousPageId = lastPageId;
+        long delta = pageId - previousPageId;
+        lastPageId = pageId;
+        if (delta == stride && delta != 0) {
+            if (++confirmations >= STRIDE_CONFIRMATIONS) {
+                maybePreFetch(pageId);
             }
+        } else {
+            // The cursor broke the pattern. Start over with the new stride, if it is a plausible one.
+            stride = previousPageId != UNBOUND_PAGE_ID && Math.abs(delta) <= MAX_STRIDE ? delta : 0;
+            confirmations = 0;
+            requested = false;
+            window = Math.min(MIN_WINDOW, maxWindow);
         }
+    }
 
-        // Phase 2: Wait for the cursor to move either forwards or backwards, to determine the prefetching direction.
-        setDeadline(200, TimeUnit.MILLISECONDS); // We will wait up to 200 milliseconds for this phase to complete.
-        long secondPageId;
-        while ((secondPageId = getCurrentObservedPageId()) == initialPageId) {
-            pause();
-            if (pastDeadline()) {
-                return; // Okay, this is going too slow. Give up.
-            }
+    /**
+     * Called by the cursor when it has pinned the given page, and whether it had to fault the page in by itself.
+     */
+    void pinned(long pageId, boolean faulted) {
+        if (pendingPages > 0 && pinPreFetched(pageId, faulted)) {
+            cursor.tracer.preFetchHit();
         }
-        if (secondPageId == UNBOUND_PAGE_ID) {
-            return; // We're done. The observed cursor was closed.
-        }
-
-        // Phase 3: We now know what direction to prefetch in.
-        // Just keep loading pages on the right side of the cursor until its closed.
-        boolean forward = initialPageId < secondPageId;
-        long currentPageId;
-        long cp;
-        long nextPageId;
-        long fromPage;
-        long toPage;
-
-        // Offset is a fixed adjustment of the observed cursor position.
-        // This moves the start of the pre-fetch range forward for forward pre-fetching,
-        // or the end position backward for backward pre-fetching.
-        long offset = forward ? 1 : -1;
-
-        // Jump is the dynamically adjusted size of the prefetch range,
-        // with a sign component to indicate forwards or backwards pre-fetching.
-        // That is, jump is negative if we are pre-fetching backwards.
-        // This way, observed position + jump is the end or start of the pre-fetch range,
-        // for forwards or backwards pre-fetch respectively.
-        // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
-        long jump = offset;
-
-        try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG);
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor(0, PF_SHARED_READ_LOCK, context)) {
-            currentPageId = getCurrentObservedPageId();
-            while (currentPageId != UNBOUND_PAGE_ID) {
-                cp = currentPageId + offset;
-                if (forward) {
-                    fromPage = cp;
-                    toPage = cp + jump;
-                } else {
-                    fromPage = Math.max(0, cp + jump);
-                    toPage = cp;
-                }
-                while (fromPage < toPage) {
-                    if (!prefetchCursor.next(fromPage) || cancelled) {
-                        return; // Reached the end of the file. Or got cancelled.
-                    }
-                    fromPage++;
-                }
+    }
 
-                // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
-                // If it just stops somewhere for more than a second, then we quit.
-                nextPageId = getCurrentObservedPageId();
-                if (nextPageId == currentPageId) {
-                    setDeadline(10, TimeUnit.SECONDS);
-                    while (nextPageId == currentPageId) {
-                        pause();
-                        if (pastDeadline()) {
-                            return; // The cursor hasn't made any progress for a whole second. Leave it alone.
-                        }
-                        nextPageId = getCurrentObservedPageId();
-                    }
-                    madeProgress();
-                }
-                if (nextPageId != UNBOUND_PAGE_ID) {
-                    jump = (nextPageId - currentPageId) * 2;
-                }
-                currentPageId = nextPageId;
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    private synchronized boolean pinPreFetched(long pageId, boolean faulted) {
+        if (!preFetchedPages.remove(pageId)) {
+            return false;
+        }
+        pendingPages = preFetchedPages.size();
+        if (faulted) {
+            evictedPages++;
+            return false;
         }
+        return true;
     }
 
-    private void setDeadline(long timeout, TimeUnit unit) {
-        startTime = clock.nanos();
-        deadline = unit.toNanos(timeout) + startTime;
-        if (tripCount != 0) {
-            tripCount = 0;
+    private synchronized void preFetched(long pageId) {
+        preFetchedPages.add(pageId);
+        pendingPages = preFetchedPages.size();
+    }
+
+    private boolean isRequested(long pageId) {
+        if (!requested) {
+            return false;
         }
+        return stride > 0 ? pageId <= requestedEnd : pageId >= requestedEnd;
     }
 
-    private void pause() {
-        if (tripCount < 10) {
-            Thread.onSpinWait();
-        } else {
-            LockSupport.parkNanos(this, pauseNanos);
+    private void maybePreFetch(long pageId) {
+        if (window <= 0) {
+            return; // The page cache is too small for pre-fetching to be worth it.
+        }
+        long stepsAhead = isRequested(pageId) ? (requestedEnd - pageId) / stride : 0;
+        if (stepsAhead > window / 2) {
+            return; // Still far enough ahead of the cursor.
+        }
+        long from = (stepsAhead > 0 ? requestedEnd : pageId) + stride;
+        int count = window;
+        requested = true;
+        requestedEnd = from + stride * (count - 1);
+        window = Math.min(window * 2, maxWindow);
+        long jobStride = stride;
+        synchronized (this) {
+            runningJobs++;
+        }
+        try {
+            scheduler.schedule(Group.PAGE_CACHE_PRE_FETCHER, monitoringParams, () -> preFetch(from, jobStride, count));
+        } catch (RuntimeException e) {
+            jobDone(cursor.tracer);
+            throw e;
         }
-        tripCount++;
     }
 
-    private boolean pastDeadline() {
-        boolean past = clock.nanos() > deadline;
-        if (past) {
-            if (tripCount != 0) {
-                tripCount = 0;
+    private void preFetch(long from, long stride, int count) {
+        try (var context = cursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG)) {
+            PageCursorTracer tracer = context.getCursorTracer();
+            try {
+                if (stride == 1 || stride == -1) {
+                    // A consecutive range of pages, that we can load with a single vectored read.
+                    long first = stride == 1 ? from : from - count + 1;
+                    long start = Math.max(first, 0);
+                    int pages = (int) (first + count - start);
+                    if (pages > 0 && !closed) {
+                        pagedFile.preFetch(start, pages, tracer, this::preFetched);
+                    }
+                } else {
+                    long pageId = from;
+                    for (int i = 0; i < count && pageId >= 0 && !closed; i++, pageId += stride) {
+                        pagedFile.preFetch(pageId, 1, tracer, this::preFetched);
+                    }
+                }
+            } catch (FileIsNotMappedException e) {
+                // The file got unmapped while we were pre-fetching. Nothing more to do.
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                jobDone(tracer);
             }
         }
-        return past || cancelled;
     }
 
-    private void madeProgress() {
-        // Let our best guess of how long is good to pause, asymptotically approach how long we actually paused (this
-        // time).
-        long timeToProgressNanos = clock.nanos() - startTime;
-        long pause = (pauseNanos * 3 + timeToProgressNanos * 5) / 8;
-        pauseNanos = Math.min(pause, TimeUnit.MILLISECONDS.toNanos(10));
+    /**
+     * The last background job to finish after the cursor closed reports the waste, on its own tracer, since the
+     * tracer of the cursor belongs to the thread of the cursor.
+     */
+    private void jobDone(PageCursorTracer tracer) {
+        boolean lastJob;
+        synchronized (this) {
+            lastJob = --runningJobs == 0 && closed;
+        }
+        if (lastJob) {
+            reportWaste(tracer);
+        }
     }
 
-    private long getCurrentObservedPageId() {
-        // Read as volatile even though the field isn't volatile.
-        // We rely on the ordered-store of all writes to the current page id field, in order to weakly observe this
-        // value.
-        return observedCursor.loadVolatileCurrentPageId();
+    private void reportWaste(PageCursorTracer tracer) {
+        long waste;
+        synchronized (this) {
+            waste = preFetchedPages.size() + evictedPages;
+            preFetchedPages.clear();
+            pendingPages = 0;
+            evictedPages = 0;
+        }
+        if (waste > 0) {
+            tracer.preFetchWaste(waste);
+        }
     }
 
-    @Override
-    public void cancelled() {
-        cancelled = true;
+    /**
+     * Called when the cursor closes. Any background jobs that are still running will stop as soon as possible.
+     */
+    void close() {
+        boolean jobsDone;
+        synchronized (this) {
+            closed = true;
+            jobsDone = runningJobs == 0;
+        }
+        if (jobsDone) {
+            reportWaste(cursor.tracer);
+        }
     }
 }
@@ -172,4 +172,32 @@ public interface PageCacheCounters {
     long chainsPatched();
 
     long snapshotsLoaded();
+
+    /**
+     * @return The number of pins of pages that a pre-fetcher had loaded ahead of the cursor, thus far.
+     */
+    default long preFetchHits() {
+        return 0;
+    }
+
+    /**
+     * @return The number of pages loaded by pre-fetchers that their cursors never pinned, thus far.
+     */
+    default long preFetchWaste() {
+        return 0;
+    }
+
+    /**
+     * @return The total time spent in page faults that were caused by pins, in nanoseconds, thus far.
+     */
+    default long faultNanos() {
+        return 0;
+    }
+
+    /**
+     * @return The number of times the background writeback failed to write back the aged pages of a file, thus far.
+     */
+    default long writebackExceptions() {
+        return 0;
+    }
 }
@@ -20,6 +20,8 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import org.neo4j.internal.helpers.MathUtil;
@@ -62,12 +64,19 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder copiedPages = new LongAdder();
     protected final LongAdder chainsPatched = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
+    protected final LongAdder preFetchHits = new LongAdder();
+    protected final LongAdder preFetchWaste = new LongAdder();
+    protected final LongAdder faultNanos = new LongAdder();
+    protected final LongAdder writebackExceptions = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final boolean tracePageFileIndividually;
 
     private final EvictionEvent evictionEvent = new PageCacheEvictionEvent();
     private final EvictionRunEvent evictionRunEvent = new DefaultEvictionRunEvent();
+    // Run events of the background eviction of each eviction partition, created as partitions start evicting
+    private final ConcurrentMap<Integer, PartitionEvictionRunEvent> partitionEvictionRunEvents =
+            new ConcurrentHashMap<>();
     private final DatabaseFlushEvent databaseFlushEvent = new DatabaseFlushEvent(new DefaultPageCacheFileFlushEvent());
 
     public DefaultPageCacheTracer() {
@@ -103,6 +112,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return evictionRunEvent;
     }
 
+    @Override
+    public EvictionRunEvent beginPageEvictions(int partition, int pageCountToEvict) {
+        return partitionEvictionRunEvents.computeIfAbsent(partition, p -> new PartitionEvictionRunEvent());
+    }
+
     @Override
     public EvictionRunEvent beginEviction() {
         return evictionRunEvent;
@@ -158,6 +172,15 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return evictions.sum();
     }
 
+    /**
+     * @param partition the eviction partition.
+     * @return the number of evictions started by the background eviction of the given partition.
+     */
+    public long evictions(int partition) {
+        PartitionEvictionRunEvent runEvent = partitionEvictionRunEvents.get(partition);
+        return runEvent != null ? runEvent.evictions.sum() : 0;
+    }
+
     @Override
     public long cooperativeEvictions() {
         return cooperativeEvictions.sum();
@@ -277,6 +300,26 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return chainsPatched.sum();
     }
 
+    @Override
+    public long preFetchHits() {
+        return preFetchHits.sum();
+    }
+
+    @Override
+    public long preFetchWaste() {
+        return preFetchWaste.sum();
+    }
+
+    @Override
+    public long faultNanos() {
+        return faultNanos.sum();
+    }
+
+    @Override
+    public long writebackExceptions() {
+        return writebackExceptions.sum();
+    }
+
     @Override
     public long snapshotsLoaded() {
         return snapshotsLoaded.sum();
@@ -313,6 +356,26 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.chainsPatched.add(chainsPatched);
     }
 
+    @Override
+    public void preFetchHits(long preFetchHits) {
+        this.preFetchHits.add(preFetchHits);
+    }
+
+    @Override
+    public void preFetchWaste(long preFetchWaste) {
+        this.preFetchWaste.add(preFetchWaste);
+    }
+
+    @Override
+    public void faultNanos(long faultNanos) {
+        this.faultNanos.add(faultNanos);
+    }
+
+    @Override
+    public void writebackExceptions(long writebackExceptions) {
+        this.writebackExceptions.add(writebackExceptions);
+    }
+
     @Override
     public void filesTruncated(long truncatedFiles) {
         this.fileTruncations.add(truncatedFiles);
@@ -465,18 +528,31 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         public void close() {}
     }
 
+    private class PartitionEvictionRunEvent extends DefaultEvictionRunEvent {
+        private final LongAdder evictions = new LongAdder();
+
+        @Override
+        public EvictionEvent beginEviction(long cachePageId) {
+            evictions.increment();
+            return super.beginEviction(cachePageId);
+        }
+    }
+
     public class DefaultPageCacheFileFlushEvent implements FileFlushEvent {
 
         private final PageCacheFlushEvent flushEvent = new PageCacheFlushEvent();
         private long ioPerformed;
         private long limitTimes;
         private long limitMillis;
+        // Pages flushed by ranges of files that were flushed in parallel, with events of their own.
+        private long rangePagesFlushed;
 
         @Override
         public void reset() {
             ioPerformed = 0;
             limitTimes = 0;
             limitMillis = 0;
+            rangePagesFlushed = 0;
             flushEvent.reset();
         }
 
@@ -520,6 +596,16 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
             iopqPerformed.add(completedIOs);
         }
 
+        @Override
+        public synchronized void rangeFlushed(
+                long fromFilePageId, long toFilePageId, FileFlushEvent rangeEvent, long elapsedNanos) {
+            // The range event has already counted its IO, throttling and flushes in the global counters.
+            ioPerformed += rangeEvent.ioPerformed();
+            limitTimes += rangeEvent.limitedNumberOfTimes();
+            limitMillis += rangeEvent.limitedMillis();
+            rangePagesFlushed += rangeEvent.pagesFlushed();
+        }
+
         @Override
         public long ioPerformed() {
             return ioPerformed;
@@ -537,7 +623,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
 
         @Override
         public long pagesFlushed() {
-            return flushEvent.getPagesFlushed();
+            return flushEvent.getPagesFlushed() + rangePagesFlushed;
         }
 
         @Override
@@ -151,6 +151,16 @@ public interface FileFlushEvent extends AutoCloseablePageCacheTracerEvent {
      */
     void reportIO(int completedIOs);
 
+    /**
+     * Report that a range of the file was flushed by a thread of its own, in parallel with the other ranges of the
+     * file. This is called from the thread that flushed the range, so implementations must be thread safe.
+     * @param fromFilePageId the first file page id of the range.
+     * @param toFilePageId the file page id after the last page of the range.
+     * @param rangeEvent the event that traced the flushing of the range, including its chunks, IO and throttling.
+     * @param elapsedNanos the time it took to flush the range.
+     */
+    default void rangeFlushed(long fromFilePageId, long toFilePageId, FileFlushEvent rangeEvent, long elapsedNanos) {}
+
     /**
      * Event generated during translation table chunk flushing from memory to backing file
      */
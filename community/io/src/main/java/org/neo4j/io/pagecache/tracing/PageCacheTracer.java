@@ -346,6 +346,16 @@ public interface PageCacheTracer extends PageCacheCounters {
      **/
     EvictionRunEvent beginPageEvictions(int pageCountToEvict);
 
+    /**
+     * A background eviction has begun in the given eviction partition. Called from the eviction thread of that
+     * partition. Page caches that are not partitioned only ever report partition {@code 0}.
+     *
+     * The method returns an EvictionRunEvent to represent the event of this eviction run.
+     **/
+    default EvictionRunEvent beginPageEvictions(int partition, int pageCountToEvict) {
+        return beginPageEvictions(pageCountToEvict);
+    }
+
     /**
      * Start of vacuum eviction event to cleanup unknown number of pages for obsolete swappers
      * @return an EvictionRunEvent to represent the event of this eviction run.
@@ -516,4 +526,24 @@ public interface PageCacheTracer extends PageCacheCounters {
      * report number of truncated bytes
      */
     void bytesTruncated(long bytesTruncated);
+
+    /**
+     * report number of pins of pages that were loaded by a pre-fetcher
+     */
+    default void preFetchHits(long preFetchHits) {}
+
+    /**
+     * report number of pages that were loaded by a pre-fetcher, but never pinned by its cursor
+     */
+    default void preFetchWaste(long preFetchWaste) {}
+
+    /**
+     * report time spent in page faults caused by pins, in nanoseconds
+     */
+    default void faultNanos(long faultNanos) {}
+
+    /**
+     * report number of times the background writeback failed to write back the aged pages of a file
+     */
+    default void writebackExceptions(long writebackExceptions) {}
 }
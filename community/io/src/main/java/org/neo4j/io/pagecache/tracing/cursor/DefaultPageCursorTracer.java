@@ -70,6 +70,9 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
     private long snapshotsLoaded;
     private long copiesCreated;
     private long chainsPatched;
+    private long preFetchHits;
+    private long preFetchWaste;
+    private long faultNanos;
 
     private final DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
     private final PageFaultEvictionEvent evictionEvent = new PageFaultEvictionEvent();
@@ -123,6 +126,16 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         this.chainsPatched += statisticSnapshot.chainsPatched();
     }
 
+    @Override
+    public void preFetchHit() {
+        preFetchHits++;
+    }
+
+    @Override
+    public void preFetchWaste(long pages) {
+        preFetchWaste += pages;
+    }
+
     @Override
     public void pageCopied(long pageRef, long version) {
         copiesCreated++;
@@ -195,6 +208,15 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         if (chainsPatched > 0) {
             pageCacheTracer.chainsPatched(chainsPatched);
         }
+        if (preFetchHits > 0) {
+            pageCacheTracer.preFetchHits(preFetchHits);
+        }
+        if (preFetchWaste > 0) {
+            pageCacheTracer.preFetchWaste(preFetchWaste);
+        }
+        if (faultNanos > 0) {
+            pageCacheTracer.faultNanos(faultNanos);
+        }
         reset();
     }
 
@@ -250,6 +272,9 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         snapshotsLoaded = 0;
         copiesCreated = 0;
         chainsPatched = 0;
+        preFetchHits = 0;
+        preFetchWaste = 0;
+        faultNanos = 0;
     }
 
     @Override
@@ -347,6 +372,16 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         return chainsPatched;
     }
 
+    @Override
+    public long preFetchHits() {
+        return preFetchHits;
+    }
+
+    @Override
+    public long preFetchWaste() {
+        return preFetchWaste;
+    }
+
     @Override
     public PinEvent beginPin(boolean writeLock, long filePageId, PageSwapper swapper) {
         if (DEBUG_PINS) {
@@ -384,6 +419,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         @Override
         public PinPageFaultEvent beginPageFault(long filePageId, PageSwapper pageSwapper) {
             pageFaultEvent.swapperTracer = pageSwapper.fileSwapperTracer();
+            pageFaultEvent.startNanos = System.nanoTime();
             return pageFaultEvent;
         }
 
@@ -413,6 +449,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
 
     private class DefaultPinPageFaultEvent implements PinPageFaultEvent {
         private PageFileSwapperTracer swapperTracer;
+        private long startNanos;
 
         @Override
         public void addBytesRead(long bytes) {
@@ -423,6 +460,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer {
         @Override
         public void close() {
             faults++;
+            faultNanos += System.nanoTime() - startNanos;
             swapperTracer.faults(1);
         }
 
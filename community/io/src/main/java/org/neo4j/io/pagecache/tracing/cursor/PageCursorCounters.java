@@ -116,4 +116,18 @@ public interface PageCursorCounters {
     long copiedPages();
 
     long chainsPatched();
+
+    /**
+     * @return The number of pins of pages that the pre-fetcher of the cursor had loaded ahead of it, thus far.
+     */
+    default long preFetchHits() {
+        return 0;
+    }
+
+    /**
+     * @return The number of pages that pre-fetchers loaded, but their cursors never pinned, thus far.
+     */
+    default long preFetchWaste() {
+        return 0;
+    }
 }
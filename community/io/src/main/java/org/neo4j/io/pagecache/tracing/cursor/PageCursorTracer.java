@@ -215,4 +215,14 @@ public interface PageCursorTracer extends PageCursorCounters, Closeable {
     void pageCopied(long pageRef, long version);
 
     void chainPatched(long pageId);
+
+    /**
+     * The cursor pinned a page that its pre-fetcher had requested ahead of it.
+     */
+    default void preFetchHit() {}
+
+    /**
+     * The cursor closed, and its pre-fetcher had loaded the given number of pages that it never pinned.
+     */
+    default void preFetchWaste(long pages) {}
 }
@@ -71,6 +71,26 @@ public interface Read {
             PropertyIndexQuery... query)
             throws KernelException;
 
+    /**
+     * Seek all nodes matching any of the provided index queries in an index, in a single pass over the index.
+     * Nodes are returned in ascending index order and nodes matching more than one of the queries are only returned once.
+     * @param index {@link IndexReadSession} referencing index to query. This must be an index of nodes.
+     * @param cursor the cursor to use for consuming the results.
+     * @param constraints The requested constraints on the query result. Descending {@link IndexOrder} is not supported.
+     * @param queries the {@link PropertyIndexQuery index queries} to run against referenced index, all on the same properties.
+     * @return {@code true} if the queries are served through the cursor, or {@code false} if they can't be served together,
+     * e.g. because the index doesn't support it or there are transaction state changes, in which case the cursor is not
+     * initialized and the queries have to be sought one by one with
+     * {@link #nodeIndexSeek(QueryContext, IndexReadSession, NodeValueIndexCursor, IndexQueryConstraints, PropertyIndexQuery...)}.
+     */
+    boolean nodeIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries)
+            throws KernelException;
+
     /**
      * Seek all nodes matching the provided index query in an index. NOTE! This is not thread-safe for transaction state.
      * @param index {@link IndexReadSession} referencing index to query. This must be an index of nodes.
@@ -101,6 +121,25 @@ public interface Read {
             PropertyIndexQuery... query)
             throws KernelException;
 
+    /**
+     * Seek all relationships matching any of the provided index queries in an index, in a single pass over the index.
+     * Relationships are returned in ascending index order and relationships matching more than one of the queries are only
+     * returned once.
+     * @param index {@link IndexReadSession} referencing index to query. This must be an index of relationships.
+     * @param cursor the cursor to use for consuming the results.
+     * @param constraints The requested constraints on the query result. Descending {@link IndexOrder} is not supported.
+     * @param queries the {@link PropertyIndexQuery index queries} to run against referenced index, all on the same properties.
+     * @return {@code true} if the queries are served through the cursor, or {@code false} if they can't be served together,
+     * in which case the cursor is not initialized and the queries have to be sought one by one.
+     */
+    boolean relationshipIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            RelationshipValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries)
+            throws KernelException;
+
     /**
      * Seek all relationships matching the provided index query in an index. NOTE! This is not thread-safe for transaction state.
      * @param index {@link IndexReadSession} referencing index to query. This must be an index of relationships.
@@ -66,6 +66,7 @@ public enum KernelVersion {
     public static final KernelVersion VERSION_IN_WHICH_TOKEN_INDEXES_ARE_INTRODUCED = V4_3_D4;
     public static final KernelVersion VERSION_LITTLE_ENDIAN_TX_LOG_INTRODUCED = V5_0;
     public static final KernelVersion VERSION_REL_UNIQUE_CONSTRAINTS_INTRODUCED = GLORIOUS_FUTURE;
+    public static final KernelVersion VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED = GLORIOUS_FUTURE;
     public static final List<KernelVersion> VERSIONS = List.of(values());
     private static final ImmutableByteObjectMap<KernelVersion> versionMap =
             ByteObjectMaps.immutable.from(VERSIONS, KernelVersion::version, v -> v);
@@ -20,6 +20,7 @@
 
 package org.neo4j.kernel.api.index;
 
+import java.util.List;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.kernel.api.QueryContext;
@@ -57,6 +58,26 @@ public interface ValueIndexReader extends IndexReader {
             PropertyIndexQuery... query)
             throws IndexNotApplicableKernelException;
 
+    /**
+     * Queries the index for several queries at once, e.g. one exact predicate per value in a list of values to look up,
+     * in a single pass over the index. Hits are returned in ascending index order, and hits matching more than one of
+     * the queries are only returned once.
+     * @param client the client which will control the progression though query results.
+     * @param accessMode security store access mode.
+     * @param constraints constraints upon the query result, like ordering and whether the index should fetch property values alongside the entity ids.
+     * @param queries the predicates of every query, where all queries are on the same properties.
+     * @return {@code true} if the queries are served through the client, or {@code false} if the index can't serve
+     * them together, in which case the client is not initialized and the queries have to be served one by one.
+     */
+    default boolean batchedQuery(
+            IndexProgressor.EntityValueClient client,
+            QueryContext context,
+            AccessMode accessMode,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        return false;
+    }
+
     /**
      * Create a partitioning over the result set for the given query. The partitions can be processed in parallel.
      * @param desiredNumberOfPartitions the number of desired partitions.
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.stresstest.workload;
 
 import static org.neo4j.kernel.impl.transaction.log.TransactionAppenderFactory.createTransactionAppender;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -102,7 +103,13 @@ public class Runner implements Callable<Long> {
         InternalLog log = NullLog.getInstance();
         DatabaseHealth databaseHealth = new DatabaseHealth(HealthEventGenerator.NO_OP, log);
         return createTransactionAppender(
-                logFiles, transactionIdStore, config, databaseHealth, jobScheduler, NullLogProvider.getInstance());
+                logFiles,
+                transactionIdStore,
+                config,
+                databaseHealth,
+                jobScheduler,
+                NullLogProvider.getInstance(),
+                INSTANCE);
     }
 
     private LogFiles createLogFiles(TransactionIdStore transactionIdStore, FileSystemAbstraction fileSystemAbstraction)
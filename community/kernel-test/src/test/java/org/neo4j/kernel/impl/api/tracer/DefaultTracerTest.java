@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.tracer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+class DefaultTracerTest {
+    private final DefaultTracer tracer = new DefaultTracer(PageCacheTracer.NULL);
+
+    @Test
+    void countDelayedLogForces() {
+        try (var appendEvent = tracer.logAppend()) {
+            appendEvent.setForceDelayed(MILLISECONDS.toNanos(2), 3);
+        }
+        try (var appendEvent = tracer.logAppend()) {
+            appendEvent.setForceDelayed(MILLISECONDS.toNanos(5), 0);
+        }
+
+        assertEquals(2, tracer.numberOfDelayedForces());
+        assertEquals(7, tracer.delayedForceAccumulatedTotalTimeMillis());
+        assertEquals(3, tracer.delayedForceJoinedItems());
+    }
+}
@@ -397,6 +397,14 @@ abstract class IndexProviderTests {
     }
 
     private IndexProvider newProvider(DatabaseReadOnlyChecker readOnlyChecker) {
+        return newProvider(factory, readOnlyChecker);
+    }
+
+    IndexProvider newProvider(ProviderFactory factory) {
+        return newProvider(factory, writable());
+    }
+
+    private IndexProvider newProvider(ProviderFactory factory, DatabaseReadOnlyChecker readOnlyChecker) {
         return factory.create(
                 pageCache,
                 fs,
@@ -19,10 +19,12 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.function.Predicates.in;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.constrained;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
 import static org.neo4j.internal.kernel.api.QueryContext.NULL_CONTEXT;
@@ -32,6 +34,7 @@ import static org.neo4j.kernel.impl.index.schema.ValueCreatorUtil.FRACTION_DUPLI
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import org.eclipse.collections.impl.factory.Sets;
 import org.junit.jupiter.api.Test;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
@@ -145,6 +148,53 @@ class RangeIndexAccessorTest extends GenericNativeIndexAccessorTests<RangeKey> {
         }
     }
 
+    @Test
+    void shouldReturnMatchingEntriesForMultipleExactPredicatesInOneQuery() throws Exception {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        processAll(updates);
+        Value[] values = Arrays.stream(updates)
+                .limit(updates.length / 2 + 1)
+                .map(update -> update.values()[0])
+                .toArray(Value[]::new);
+        List<PropertyIndexQuery[]> queries = Arrays.stream(values)
+                .map(value -> new PropertyIndexQuery[] {PropertyIndexQuery.exact(0, value)})
+                .toList();
+
+        // when
+        try (var reader = accessor.newValueReader();
+                NodeValueIterator result = new NodeValueIterator()) {
+            boolean served =
+                    reader.batchedQuery(result, NULL_CONTEXT, AccessMode.Static.READ, unorderedValues(), queries);
+
+            // then
+            assertThat(served).isTrue();
+            assertEntityIdHits(extractEntityIds(updates, in(values)), result);
+        }
+    }
+
+    @Test
+    void shouldNotServeMultipleQueriesInDescendingOrder() throws Exception {
+        // given
+        List<PropertyIndexQuery[]> queries = List.of(
+                new PropertyIndexQuery[] {PropertyIndexQuery.exact(0, Values.intValue(1))},
+                new PropertyIndexQuery[] {PropertyIndexQuery.exact(0, Values.intValue(2))});
+
+        // when
+        try (var reader = accessor.newValueReader()) {
+            // The client is never initialized, so there's nothing to close
+            boolean served = reader.batchedQuery(
+                    new NodeValueIterator(),
+                    NULL_CONTEXT,
+                    AccessMode.Static.READ,
+                    constrained(IndexOrder.DESCENDING, false),
+                    queries);
+
+            // then
+            assertThat(served).isFalse();
+        }
+    }
+
     @Test
     void shouldRespectIndexOrderForGeometryTypes() throws Exception {
         // given
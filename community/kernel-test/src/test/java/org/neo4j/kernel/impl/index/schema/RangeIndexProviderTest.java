@@ -19,7 +19,11 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.range_index_compress_key_prefixes;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.internal.kernel.api.PropertyIndexQuery.exact;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
 import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
@@ -33,41 +37,48 @@ import java.nio.file.Path;
 import java.util.List;
 import org.eclipse.collections.api.factory.Sets;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.schema.SimpleEntityValueClient;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 class RangeIndexProviderTest extends IndexProviderTests {
-    private static final ProviderFactory factory =
-            (pageCache,
-                    fs,
-                    dir,
-                    monitors,
-                    collector,
-                    readOnlyChecker,
-                    databaseLayout,
-                    contextFactory,
-                    pageCacheTracer) -> {
-                DatabaseIndexContext context = DatabaseIndexContext.builder(
-                                pageCache, fs, contextFactory, pageCacheTracer, DEFAULT_DATABASE_NAME)
-                        .withMonitors(monitors)
-                        .withReadOnlyChecker(readOnlyChecker)
-                        .build();
-                return new RangeIndexProvider(context, dir, collector, Config.defaults());
-            };
-
     RangeIndexProviderTest() {
-        super(factory);
+        super(factory(Config.defaults()));
+    }
+
+    private static ProviderFactory factory(Config config) {
+        return (pageCache,
+                fs,
+                dir,
+                monitors,
+                collector,
+                readOnlyChecker,
+                databaseLayout,
+                contextFactory,
+                pageCacheTracer) -> {
+            DatabaseIndexContext context = DatabaseIndexContext.builder(
+                            pageCache, fs, contextFactory, pageCacheTracer, DEFAULT_DATABASE_NAME)
+                    .withMonitors(monitors)
+                    .withReadOnlyChecker(readOnlyChecker)
+                    .build();
+            return new RangeIndexProvider(context, dir, collector, config);
+        };
     }
 
     @Test
@@ -89,6 +100,37 @@ class RangeIndexProviderTest extends IndexProviderTests {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldOpenIndexWithTheKeyFormatItWasCreatedWith(boolean compressKeyPrefixes) throws Exception {
+        // given
+        Value value = Values.stringValue("a rather long string value sharing its prefix with its neighbours");
+        provider = newProvider(factory(Config.defaults(range_index_compress_key_prefixes, compressKeyPrefixes)));
+        IndexDescriptor descriptor = descriptor();
+        try (IndexAccessor accessor =
+                provider.getOnlineAccessor(descriptor, samplingConfig(), tokenNameLookup, Sets.immutable.empty())) {
+            try (IndexUpdater indexUpdater = accessor.newUpdater(IndexUpdateMode.ONLINE, NULL_CONTEXT, false)) {
+                indexUpdater.process(IndexEntryUpdate.add(1, descriptor, value));
+            }
+            accessor.force(FileFlushEvent.NULL, NULL_CONTEXT);
+        }
+
+        // when
+        provider = newProvider(factory(Config.defaults(range_index_compress_key_prefixes, !compressKeyPrefixes)));
+        try (IndexAccessor accessor = provider.getOnlineAccessor(
+                        descriptor, samplingConfig(), tokenNameLookup, Sets.immutable.empty());
+                var reader = accessor.newValueReader()) {
+            SimpleEntityValueClient client = new SimpleEntityValueClient();
+            reader.query(
+                    client, QueryContext.NULL_CONTEXT, AccessMode.Static.READ, unorderedValues(), exact(propId, value));
+
+            // then
+            assertThat(client.next()).isTrue();
+            assertThat(client.reference).isEqualTo(1);
+            assertThat(client.next()).isFalse();
+        }
+    }
+
     private IndexDescriptor descriptorUnique() {
         return completeConfiguration(uniqueForSchema(forLabel(labelId, propId), PROVIDER_DESCRIPTOR)
                 .withIndexType(IndexType.RANGE)
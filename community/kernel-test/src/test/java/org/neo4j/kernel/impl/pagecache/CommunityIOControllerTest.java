@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_iops_adaptive;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+import static org.neo4j.kernel.impl.pagecache.CommunityIOController.MIN_ADAPTIVE_LIMIT;
+import static org.neo4j.kernel.impl.pagecache.CommunityIOController.NO_LIMIT;
+import static org.neo4j.kernel.impl.pagecache.CommunityIOController.QUANTUM_MILLIS;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.time.FakeClock;
+
+class CommunityIOControllerTest {
+    private final FakeClock clock = new FakeClock();
+    private final DefaultPageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+
+    @Test
+    void doNotLimitIOWithoutLimitOrAdaptiveMode() {
+        var config = Config.defaults(check_point_iops_limit, -1);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        ioController.maybeLimitIO(10_000, flushEvent);
+
+        assertFalse(ioController.isEnabled());
+        assertEquals(NO_LIMIT, ioController.configuredLimit());
+        assertEquals(0, ioController.limitedTimes());
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void pauseFlushingForEveryQuantumItUsedUp() {
+        // 100 IOPS gives a budget of 10 IOs per quantum
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        ioController.maybeLimitIO(5, flushEvent);
+        assertEquals(0, ioController.limitedTimes());
+
+        ioController.maybeLimitIO(25, flushEvent);
+        assertEquals(1, ioController.limitedTimes());
+        assertEquals(3 * QUANTUM_MILLIS, ioController.limitedMillis());
+        verify(flushEvent).throttle(25, 3 * QUANTUM_MILLIS);
+    }
+
+    @Test
+    void countReportedIOAgainstTheBudget() {
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        ioController.reportIO(19);
+        ioController.maybeLimitIO(1, flushEvent);
+
+        assertEquals(1, ioController.limitedTimes());
+        assertEquals(2 * QUANTUM_MILLIS, ioController.limitedMillis());
+    }
+
+    @Test
+    void doNotCountIOReportedBeforeFlushingStarted() {
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        for (int i = 0; i < 100; i++) {
+            ioController.reportIO(1_000);
+            clock.forward(QUANTUM_MILLIS, MILLISECONDS);
+        }
+        ioController.maybeLimitIO(1, flushEvent);
+
+        assertEquals(0, ioController.limitedTimes());
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void doNotLimitIOWhileDisabled() {
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        ioController.disable();
+        ioController.disable();
+        ioController.maybeLimitIO(10_000, flushEvent);
+        ioController.enable();
+        ioController.maybeLimitIO(10_000, flushEvent);
+
+        assertFalse(ioController.isEnabled());
+        assertEquals(0, ioController.limitedTimes());
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+
+        ioController.enable();
+        ioController.maybeLimitIO(10, flushEvent);
+
+        assertTrue(ioController.isEnabled());
+        assertEquals(1, ioController.limitedTimes());
+    }
+
+    @Test
+    void followChangesOfSettings() {
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+
+        config.setDynamic(check_point_iops_limit, 300, "test");
+        assertEquals(300, ioController.configuredLimit());
+        assertFalse(ioController.isAdaptive());
+
+        config.setDynamic(checkpoint_iops_adaptive, true, "test");
+        assertEquals(300, ioController.configuredLimit());
+        assertTrue(ioController.isAdaptive());
+
+        ioController.configure(-1, false);
+        assertEquals(NO_LIMIT, ioController.configuredLimit());
+        assertFalse(ioController.isEnabled());
+    }
+
+    @Test
+    void backOffWhilePageFaultsAreSlowAndRecoverAfterwards() {
+        var config = Config.newBuilder()
+                .set(check_point_iops_limit, 10_000)
+                .set(checkpoint_iops_adaptive, true)
+                .build();
+        var ioController = new CommunityIOController(config, pageCacheTracer, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        // Faults take 100us, which becomes the usual latency
+        faultAndFlush(ioController, flushEvent, MICROSECONDS.toNanos(100));
+        assertEquals(10_000, ioController.currentLimit());
+
+        // Faults take 1ms while flushing
+        faultAndFlush(ioController, flushEvent, MILLISECONDS.toNanos(1));
+        long backedOff = ioController.currentLimit();
+        assertThat(backedOff).isLessThan(10_000).isGreaterThanOrEqualTo(MIN_ADAPTIVE_LIMIT);
+
+        faultAndFlush(ioController, flushEvent, MILLISECONDS.toNanos(1));
+        assertThat(ioController.currentLimit()).isLessThanOrEqualTo(backedOff);
+
+        // Faults are fast again
+        long before = ioController.currentLimit();
+        faultAndFlush(ioController, flushEvent, MICROSECONDS.toNanos(100));
+        assertThat(ioController.currentLimit()).isGreaterThan(before);
+        assertEquals(10_000, ioController.configuredLimit());
+    }
+
+    private void faultAndFlush(CommunityIOController ioController, FileFlushEvent flushEvent, long faultNanos) {
+        int faults = 100;
+        pageCacheTracer.faults(faults);
+        pageCacheTracer.faultNanos(faults * faultNanos);
+        clock.forward(1, SECONDS);
+        ioController.maybeLimitIO(1, flushEvent);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_io_budget;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.EmptyVersionContextSupplier.EMPTY;
+import static org.neo4j.logging.AssertableLogProvider.Level.WARN;
+import static org.neo4j.logging.LogAssertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralPageCacheExtension
+class PageCacheWarmerTest {
+    private static final int FILE_PAGES = 100;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private PageCache pageCache;
+
+    private JobScheduler jobScheduler;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jobScheduler = new ThreadPoolJobScheduler();
+        file = testDirectory.createFile("store");
+        try (PagedFile pagedFile = map();
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < FILE_PAGES; i++) {
+                assertTrue(cursor.next());
+                cursor.putLong(i);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobScheduler.close();
+    }
+
+    @Test
+    void writeAndReadProfile() throws IOException {
+        Path profile = PageCacheWarmer.profilePath(file);
+        BitSet pages = new BitSet();
+        pages.set(3);
+        pages.set(10, 20);
+        pages.set(1000);
+
+        PageCacheWarmer.writeProfile(fs, profile, pageCache.pageSize(), pages);
+
+        assertEquals(pages, PageCacheWarmer.readProfile(fs, profile, pageCache.pageSize(), 1000));
+        assertTrue(fs.fileExists(file.resolveSibling("store.cacheprof")));
+        assertFalse(fs.fileExists(file.resolveSibling("store.cacheprof.tmp")));
+    }
+
+    @Test
+    void ignoreMissingProfileAndProfileWithOtherPageSize() throws IOException {
+        Path profile = PageCacheWarmer.profilePath(file);
+        assertNull(PageCacheWarmer.readProfile(fs, profile, pageCache.pageSize(), FILE_PAGES - 1));
+
+        BitSet pages = new BitSet();
+        pages.set(3);
+        PageCacheWarmer.writeProfile(fs, profile, pageCache.pageSize(), pages);
+        assertNull(PageCacheWarmer.readProfile(fs, profile, pageCache.pageSize() * 2, FILE_PAGES - 1));
+    }
+
+    @Test
+    void rejectProfileLargerThanTheFile() throws IOException {
+        Path profile = PageCacheWarmer.profilePath(file);
+        BitSet pages = new BitSet();
+        pages.set(FILE_PAGES * 10);
+        PageCacheWarmer.writeProfile(fs, profile, pageCache.pageSize(), pages);
+
+        assertThatThrownBy(() -> PageCacheWarmer.readProfile(fs, profile, pageCache.pageSize(), FILE_PAGES - 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid profile length");
+    }
+
+    @Test
+    void skipFilesWithBadProfiles() throws Exception {
+        try (OutputStream out = fs.openAsOutputStream(PageCacheWarmer.profilePath(file), false)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        var logProvider = new AssertableLogProvider();
+
+        try (PagedFile ignored = map()) {
+            assertEquals(
+                    0,
+                    createWarmer(Config.defaults(), PageCacheTracer.NULL, logProvider)
+                            .warmUp());
+        }
+        assertThat(logProvider).forLevel(WARN).containsMessages("Ignoring page cache profile");
+    }
+
+    @Test
+    void throttleWarmupByIoBudget() throws Exception {
+        profileAllPages();
+        // Loading all pages takes about 200 milliseconds at this budget
+        long ioBudget = (long) FILE_PAGES * pageCache.pageSize() * 5;
+
+        try (PagedFile ignored = map()) {
+            long start = System.nanoTime();
+            long pagesLoaded = createWarmer(Config.defaults(pagecache_warmup_io_budget, ioBudget))
+                    .warmUp();
+
+            assertEquals(FILE_PAGES, pagesLoaded);
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(150));
+        }
+    }
+
+    @Test
+    void cancelWarmupWhenThePageCacheServesOtherPageFaults() throws Exception {
+        profileAllPages();
+        // Every check for competing faults sees plenty of page faults that were not caused by the warmup
+        AtomicLong globalFaults = new AtomicLong();
+        PageCacheTracer busyTracer = new DefaultPageCacheTracer() {
+            @Override
+            public long faults() {
+                return globalFaults.addAndGet(100_000);
+            }
+        };
+        // Slow enough for the warmup to run into a check for competing faults, after 100 milliseconds
+        long ioBudget = (long) pageCache.pageSize() * 50;
+
+        try (PagedFile ignored = map()) {
+            long pagesLoaded = createWarmer(
+                            Config.defaults(pagecache_warmup_io_budget, ioBudget),
+                            busyTracer,
+                            NullLogProvider.getInstance())
+                    .warmUp();
+
+            assertThat(pagesLoaded).isLessThan(FILE_PAGES);
+        }
+    }
+
+    @Test
+    void warmUpProfiledPages() throws Exception {
+        BitSet touchedPages = new BitSet();
+        try (PagedFile pagedFile = map()) {
+            for (int pageId = 0; pageId < FILE_PAGES; pageId += 3) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                }
+                touchedPages.set(pageId);
+            }
+            createWarmer(Config.defaults()).profile();
+        }
+
+        // Unmapping the file removes all its pages from the page cache.
+        try (PagedFile pagedFile = map()) {
+            assertThat(residentPages(pagedFile).cardinality()).isZero();
+
+            long pagesLoaded = createWarmer(Config.defaults()).warmUp();
+
+            assertEquals(touchedPages.cardinality(), pagesLoaded);
+            assertEquals(touchedPages, residentPages(pagedFile));
+        }
+    }
+
+    @Test
+    void preloadWholeFilesInsteadOfProfiledPages() throws Exception {
+        try (PagedFile pagedFile = map()) {
+            long pagesLoaded = createWarmer(Config.defaults(pagecache_warmup_prefetch, true))
+                    .warmUp();
+
+            assertEquals(FILE_PAGES, pagesLoaded);
+            assertEquals(FILE_PAGES, residentPages(pagedFile).cardinality());
+        }
+    }
+
+    private void profileAllPages() throws IOException {
+        try (PagedFile pagedFile = map()) {
+            for (int pageId = 0; pageId < FILE_PAGES; pageId++) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                }
+            }
+            createWarmer(Config.defaults()).profile();
+        }
+    }
+
+    private PagedFile map() throws IOException {
+        return pageCache.map(file, pageCache.pageSize(), DEFAULT_DATABASE_NAME);
+    }
+
+    private PageCacheWarmer createWarmer(Config config) {
+        return createWarmer(config, PageCacheTracer.NULL, NullLogProvider.getInstance());
+    }
+
+    private PageCacheWarmer createWarmer(Config config, PageCacheTracer tracer, InternalLogProvider logProvider) {
+        return new PageCacheWarmer(
+                fs,
+                pageCache,
+                jobScheduler,
+                tracer,
+                new CursorContextFactory(tracer, EMPTY),
+                config,
+                logProvider,
+                DEFAULT_DATABASE_NAME);
+    }
+
+    private static BitSet residentPages(PagedFile pagedFile) throws IOException {
+        BitSet pages = new BitSet();
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, NULL_CONTEXT)) {
+            for (int pageId = 0; cursor.next(); pageId++) {
+                if (cursor.getCurrentPageId() != UNBOUND_PAGE_ID) {
+                    pages.set(pageId);
+                }
+            }
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.kernel.impl.transaction.log.AdaptiveGroupCommit.NO_DELAY;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveGroupCommitTest {
+    private static final int MAX_BATCH = 1024;
+
+    @Test
+    void shouldNotDelayWhenDisabled() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ZERO);
+        arrive(groupCommit, MICROSECONDS.toNanos(10));
+        groupCommit.forced(MILLISECONDS.toNanos(1));
+
+        assertThat(groupCommit.isEnabled()).isFalse();
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(NO_DELAY);
+    }
+
+    @Test
+    void shouldNotDelayWithoutSamples() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(ofMillis(5));
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(NO_DELAY);
+
+        groupCommit.forced(MILLISECONDS.toNanos(1));
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(NO_DELAY);
+    }
+
+    @Test
+    void shouldDelayAtMostOneForceWhenTransactionsArriveFasterThanForces() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(ofMillis(5));
+        arrive(groupCommit, MICROSECONDS.toNanos(100));
+        groupCommit.forced(MILLISECONDS.toNanos(1));
+
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(MILLISECONDS.toNanos(1));
+        // Only long enough for the expected arrivals that still fit in the batch
+        assertThat(groupCommit.delayNanos(MAX_BATCH - 3, MAX_BATCH)).isEqualTo(MICROSECONDS.toNanos(300));
+        assertThat(groupCommit.delayNanos(MAX_BATCH, MAX_BATCH)).isEqualTo(NO_DELAY);
+    }
+
+    @Test
+    void shouldStayWithinTargetLatency() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(ofMillis(3));
+        arrive(groupCommit, MICROSECONDS.toNanos(100));
+        groupCommit.forced(MILLISECONDS.toNanos(2));
+
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(MILLISECONDS.toNanos(1));
+
+        groupCommit.forced(MILLISECONDS.toNanos(10));
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(NO_DELAY);
+    }
+
+    @Test
+    void shouldNotDelayWhenTransactionsArriveSlowerThanTheBudget() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(ofMillis(2));
+        arrive(groupCommit, MILLISECONDS.toNanos(5));
+        groupCommit.forced(MILLISECONDS.toNanos(1));
+
+        assertThat(groupCommit.delayNanos(1, MAX_BATCH)).isEqualTo(NO_DELAY);
+    }
+
+    private static void arrive(AdaptiveGroupCommit groupCommit, long intervalNanos) {
+        long now = 1_000_000;
+        for (int i = 0; i < 10; i++) {
+            groupCommit.transactionsArrived(1, now);
+            now += intervalNanos;
+        }
+    }
+}
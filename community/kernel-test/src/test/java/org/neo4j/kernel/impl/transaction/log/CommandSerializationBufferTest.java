@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.common.Subject.ANONYMOUS;
+import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.storageengine.api.CommandBatch;
+import org.neo4j.test.LatestVersions;
+
+class CommandSerializationBufferTest {
+    @Test
+    void shouldLeaveBatchesExceedingMaxCapacityToTheLogWriter() throws IOException {
+        int maxCapacity = CommandSerializationBuffer.INITIAL_CAPACITY * 2;
+        try (var buffer = new CommandSerializationBuffer(false, EmptyMemoryTracker.INSTANCE, maxCapacity)) {
+            buffer.serialize(batch(new TestCommand(100)));
+            buffer.serialize(batch(new TestCommand(maxCapacity)));
+            buffer.serialize(batch(new TestCommand(100)));
+
+            assertThat(buffer.serializedBatch(0)).isNotNull();
+            assertThat(buffer.serializedBatch(1)).isNull();
+            assertThat(buffer.serializedBatch(2)).isNotNull().isEqualTo(buffer.serializedBatch(0));
+            assertThat(buffer.capacity()).isLessThanOrEqualTo(maxCapacity);
+        }
+    }
+
+    @Test
+    void shouldTrackAndShrinkCompressionScratchAfterBigBatches() throws IOException {
+        var memoryTracker = new LocalMemoryTracker();
+        var buffer = new CommandSerializationBuffer(true, memoryTracker);
+        long initialHeap = memoryTracker.estimatedHeapMemory();
+        assertThat(initialHeap).isPositive();
+
+        buffer.serialize(batch(new TestCommand(1024 * 1024)));
+
+        // The scratch buffer had to grow to fit the commands, but doesn't keep that memory around afterwards
+        assertThat(buffer.serializedBatch(0)).isNotNull();
+        assertThat(memoryTracker.estimatedHeapMemory()).isEqualTo(initialHeap);
+        assertThat(buffer.retainedCapacity()).isEqualTo(buffer.capacity() + initialHeap);
+
+        buffer.close();
+        assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+        assertThat(memoryTracker.usedNativeMemory()).isZero();
+    }
+
+    private static CommandBatch batch(TestCommand command) {
+        return new CompleteTransaction(
+                List.of(command), UNKNOWN_CONSENSUS_INDEX, 1, 2, 3, 4, LatestVersions.LATEST_KERNEL_VERSION, ANONYMOUS);
+    }
+}
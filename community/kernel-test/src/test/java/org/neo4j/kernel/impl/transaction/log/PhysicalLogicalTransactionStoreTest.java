@@ -387,7 +387,13 @@ class PhysicalLogicalTransactionStoreTest {
     private static TransactionAppender createTransactionAppender(
             TransactionIdStore transactionIdStore, LogFiles logFiles, Config config, JobScheduler jobScheduler) {
         return TransactionAppenderFactory.createTransactionAppender(
-                logFiles, transactionIdStore, config, DATABASE_PANIC, jobScheduler, NullLogProvider.getInstance());
+                logFiles,
+                transactionIdStore,
+                config,
+                DATABASE_PANIC,
+                jobScheduler,
+                NullLogProvider.getInstance(),
+                INSTANCE);
     }
 
     private static class FakeRecoveryVisitor implements RecoveryApplier {
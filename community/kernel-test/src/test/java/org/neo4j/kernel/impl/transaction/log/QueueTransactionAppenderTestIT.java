@@ -279,6 +279,7 @@ class QueueTransactionAppenderTestIT {
         CLOSE_APPEND,
         LOG_FORCE_WAIT,
         LOG_FORCE,
+        FORCE_DELAYED,
         CLOSE
     }
 
@@ -301,6 +302,11 @@ class QueueTransactionAppenderTestIT {
             events.add(event);
         }
 
+        @Override
+        public void setForceDelayed(long delayNanos, int joinedItems) {
+            events.add(EventType.FORCE_DELAYED);
+        }
+
         @Override
         public AppendTransactionEvent beginAppendTransaction(int appendItems) {
             events.add(EventType.BEGIN_APPEND);
@@ -247,7 +247,8 @@ public class TransactionAppenderConcurrencyTest {
                 Config.defaults(),
                 databaseHealth,
                 scheduler,
-                NullLogProvider.getInstance());
+                NullLogProvider.getInstance(),
+                INSTANCE);
     }
 
     private static class OutOfMemoryAwareFileSystem extends EphemeralFileSystemAbstraction {
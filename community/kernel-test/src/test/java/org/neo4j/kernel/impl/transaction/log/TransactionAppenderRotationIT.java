@@ -132,7 +132,8 @@ class TransactionAppenderRotationIT {
                 Config.defaults(),
                 databasePanic,
                 scheduler,
-                NullLogProvider.getInstance());
+                NullLogProvider.getInstance(),
+                INSTANCE);
     }
 
     private TransactionToApply prepareTransaction() {
@@ -190,6 +191,9 @@ class TransactionAppenderRotationIT {
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void setForceDelayed(long delayNanos, int joinedItems) {}
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return null;
@@ -32,6 +32,7 @@ import static org.neo4j.kernel.impl.api.txid.TransactionIdGenerator.EMPTY;
 import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
 import static org.neo4j.kernel.impl.transaction.log.TransactionAppenderFactory.createTransactionAppender;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.CURRENT_FORMAT_LOG_HEADER_SIZE;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
 
 import java.io.IOException;
@@ -167,7 +168,7 @@ class TransactionLogAppendAndRotateIT {
     private TransactionAppender createBatchAppender(
             LogFiles logFiles, TransactionIdStore txIdStore, Panic panic, JobScheduler jobScheduler, Config config) {
         return createTransactionAppender(
-                logFiles, txIdStore, config, panic, jobScheduler, NullLogProvider.getInstance());
+                logFiles, txIdStore, config, panic, jobScheduler, NullLogProvider.getInstance(), INSTANCE);
     }
 
     private static Runnable endAfterMax(
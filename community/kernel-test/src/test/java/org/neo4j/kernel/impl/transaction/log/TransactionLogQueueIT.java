@@ -19,15 +19,22 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.common.Subject.ANONYMOUS;
+import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
 import static org.neo4j.monitoring.HealthEventGenerator.NO_OP;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +49,7 @@ import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.txid.IdStoreTransactionIdGenerator;
+import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -49,10 +57,14 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.test.LatestVersions;
+import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
@@ -146,16 +158,120 @@ class TransactionLogQueueIT {
                 () -> logQueue.submit(createTransaction(), LogAppendEvent.NULL).getCommittedTxId());
     }
 
+    @Test
+    void writeSmallAndBigTransactionsSubmittedConcurrently() throws Throwable {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+
+        TransactionLogQueue logQueue = createLogQueue(logFiles);
+        life.add(logQueue);
+        LogPosition startPosition =
+                logFiles.getLogFile().getTransactionLogWriter().getCurrentPosition();
+
+        // when transactions of different sizes, some larger than any pooled serialization buffer, are committed
+        Map<Long, List<StorageCommand>> committed = new ConcurrentHashMap<>();
+        Race race = new Race();
+        race.addContestants(
+                4,
+                contestant -> Race.throwing(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        int numberOfCommands = i % 5 == 0 ? 3_000 : 1 + i;
+                        List<StorageCommand> commands = new ArrayList<>();
+                        for (int c = 0; c < numberOfCommands; c++) {
+                            byte[] bytes = new byte[50];
+                            bytes[0] = (byte) contestant;
+                            bytes[1] = (byte) i;
+                            bytes[2] = (byte) c;
+                            commands.add(new TestCommand(bytes));
+                        }
+                        long txId = logQueue.submit(createTransaction(commands), LogAppendEvent.NULL)
+                                .getCommittedTxId();
+                        committed.put(txId, commands);
+                    }
+                }));
+        race.go();
+
+        // then
+        try (CommittedCommandBatchCursor cursor =
+                new CommittedCommandBatchCursor(logFiles.getLogFile().getReader(startPosition), logEntryReader())) {
+            int count = 0;
+            while (cursor.next()) {
+                CommittedCommandBatch batch = cursor.get();
+                List<StorageCommand> commands = new ArrayList<>();
+                batch.commandBatch().forEach(commands::add);
+                assertThat(commands).isEqualTo(committed.get(batch.txId()));
+                count++;
+            }
+            assertEquals(committed.size(), count);
+        }
+    }
+
+    @Test
+    void trackMemoryOfSerializedCommands() throws IOException {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+        var memoryTracker = new LocalMemoryTracker();
+        TransactionLogQueue logQueue = new TransactionLogQueue(
+                logFiles, transactionIdStore, databaseHealth, jobScheduler, logProvider, Duration.ZERO, memoryTracker);
+        life.add(logQueue);
+
+        logQueue.submit(createTransaction(), LogAppendEvent.NULL).getCommittedTxId();
+        // The buffer that the commands were serialized into is kept for the next transaction
+        assertThat(memoryTracker.usedNativeMemory())
+                .isGreaterThanOrEqualTo(CommandSerializationBuffer.INITIAL_CAPACITY);
+
+        life.remove(logQueue);
+        assertThat(memoryTracker.usedNativeMemory()).isZero();
+    }
+
+    @Test
+    void commitConcurrentTransactionsWithDelayedForces() throws Throwable {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+
+        TransactionLogQueue logQueue = new TransactionLogQueue(
+                logFiles,
+                transactionIdStore,
+                databaseHealth,
+                jobScheduler,
+                logProvider,
+                Duration.ofMillis(5),
+                EmptyMemoryTracker.INSTANCE);
+        life.add(logQueue);
+        LogPosition startPosition =
+                logFiles.getLogFile().getTransactionLogWriter().getCurrentPosition();
+
+        // when
+        Set<Long> committed = ConcurrentHashMap.newKeySet();
+        Race race = new Race();
+        race.addContestants(4, Race.throwing(() -> {
+            for (int i = 0; i < 200; i++) {
+                committed.add(logQueue.submit(createTransaction(), LogAppendEvent.NULL)
+                        .getCommittedTxId());
+            }
+        }));
+        race.go();
+
+        // then every transaction got its own transaction id, and all of them are in the log
+        assertThat(committed).hasSize(800);
+        try (CommittedCommandBatchCursor cursor =
+                new CommittedCommandBatchCursor(logFiles.getLogFile().getReader(startPosition), logEntryReader())) {
+            int count = 0;
+            while (cursor.next()) {
+                assertThat(committed).contains(cursor.get().txId());
+                count++;
+            }
+            assertEquals(committed.size(), count);
+        }
+    }
+
     private TransactionToApply createTransaction() {
+        return createTransaction(List.of(new TestCommand()));
+    }
+
+    private TransactionToApply createTransaction(List<StorageCommand> commands) {
         CompleteTransaction tx = new CompleteTransaction(
-                List.of(new TestCommand()),
-                UNKNOWN_CONSENSUS_INDEX,
-                1,
-                2,
-                3,
-                4,
-                LatestVersions.LATEST_KERNEL_VERSION,
-                ANONYMOUS);
+                commands, UNKNOWN_CONSENSUS_INDEX, 1, 2, 3, 4, LatestVersions.LATEST_KERNEL_VERSION, ANONYMOUS);
         var transactionCommitment = new TransactionCommitment(metadataCache, transactionIdStore);
         return new TransactionToApply(
                 tx,
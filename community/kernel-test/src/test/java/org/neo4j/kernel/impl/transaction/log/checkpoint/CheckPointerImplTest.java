@@ -28,6 +28,7 @@ import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -50,6 +51,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.context.EmptyVersionContextSupplier;
@@ -176,6 +178,45 @@ class CheckPointerImplTest {
         verifyNoMoreInteractions(forceOperation, panic, appender, threshold);
     }
 
+    @Test
+    void shouldNotLimitIOOfForcedCheckPoints() throws Throwable {
+        // Given
+        IOController ioController = mock(IOController.class);
+        CheckPointerImpl checkPointing = checkPointer(new StoreCopyCheckPointMutex(), ioController);
+        mockTxIdStore();
+
+        checkPointing.start();
+
+        // When
+        checkPointing.forceCheckPoint(INFO);
+        checkPointing.forceCheckPoint(new TransactionId(transactionId, 1, 2, 3), logPosition, INFO);
+
+        // Then
+        InOrder inOrder = inOrder(ioController, forceOperation);
+        for (int i = 0; i < 2; i++) {
+            inOrder.verify(ioController).disable();
+            inOrder.verify(forceOperation).flushAndForce(any(), any());
+            inOrder.verify(ioController).enable();
+        }
+    }
+
+    @Test
+    void shouldLimitIOOfCheckPointsThatAreNotForced() throws Throwable {
+        // Given
+        IOController ioController = mock(IOController.class);
+        CheckPointerImpl checkPointing = checkPointer(new StoreCopyCheckPointMutex(), ioController);
+        mockTxIdStore();
+
+        checkPointing.start();
+
+        // When
+        checkPointing.tryCheckPoint(INFO);
+
+        // Then
+        verify(forceOperation).flushAndForce(any(), any());
+        verify(ioController, never()).disable();
+    }
+
     @Test
     void shouldCheckPointAlwaysWhenThereIsNoRunningCheckPoint() throws Throwable {
         // Given
@@ -391,6 +432,10 @@ class CheckPointerImplTest {
     }
 
     private CheckPointerImpl checkPointer(StoreCopyCheckPointMutex mutex) {
+        return checkPointer(mutex, IOController.DISABLED);
+    }
+
+    private CheckPointerImpl checkPointer(StoreCopyCheckPointMutex mutex, IOController ioController) {
         var databaseTracers = mock(DatabaseTracers.class);
         when(databaseTracers.getDatabaseTracer()).thenReturn(tracer);
         when(databaseTracers.getPageCacheTracer()).thenReturn(PageCacheTracer.NULL);
@@ -407,7 +452,7 @@ class CheckPointerImplTest {
                 mutex,
                 new CursorContextFactory(new DefaultPageCacheTracer(), EmptyVersionContextSupplier.EMPTY),
                 clock,
-                IOController.DISABLED,
+                ioController,
                 LatestVersions.LATEST_KERNEL_VERSION_PROVIDER);
     }
 
@@ -19,13 +19,18 @@
  */
 package org.neo4j.kernel.impl.transaction.log.entry;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.neo4j.kernel.KernelVersion;
@@ -34,6 +39,7 @@ import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.test.LatestVersions;
 
 class VersionAwareLogEntryReaderTest {
@@ -118,6 +124,117 @@ class VersionAwareLogEntryReaderTest {
         assertNull(logEntry);
     }
 
+    @Test
+    void shouldReadCompressedCommandsAsSeparateCommandEntries() throws IOException {
+        // given
+        KernelVersion version = KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
+        LogEntryReader reader = new VersionAwareLogEntryReader(new TestCommandReaderFactory(), version);
+        List<StorageCommand> commands = new ArrayList<>();
+        int uncompressedSize = 0;
+        for (int i = 0; i < 100; i++) {
+            byte[] data = new byte[50];
+            Arrays.fill(data, (byte) i);
+            commands.add(new TestCommand(data));
+            uncompressedSize += 2 + Integer.BYTES + data.length;
+        }
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(20_000, true);
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>(channel, true);
+
+        // when
+        writer.serialize(commands, version);
+        int compressedSize = channel.writerPosition();
+        writer.writeCommitEntry(version.version(), 42, 21);
+
+        // then
+        assertThat(compressedSize).isLessThan(uncompressedSize);
+        for (StorageCommand command : commands) {
+            assertEquals(new LogEntryCommand(command), reader.readLogEntry(channel));
+        }
+        LogEntry commit = reader.readLogEntry(channel);
+        assertThat(commit).isInstanceOf(LogEntryCommit.class);
+        assertEquals(42, ((LogEntryCommit) commit).getTxId());
+        assertNull(reader.readLogEntry(channel));
+    }
+
+    @Test
+    void shouldWriteSmallCommandBatchesUncompressed() throws IOException {
+        // given
+        KernelVersion version = KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
+        LogEntryReader reader = new VersionAwareLogEntryReader(new TestCommandReaderFactory(), version);
+        TestCommand command = new TestCommand(new byte[] {100, 101, 102});
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+
+        // when
+        new LogEntryWriter<>(channel, true).serialize(List.of(command), version);
+
+        // then
+        assertEquals(version.version(), channel.get());
+        assertEquals(LogEntryTypeCodes.COMMAND, channel.get());
+        channel.positionReader(0);
+        assertEquals(new LogEntryCommand(command), reader.readLogEntry(channel));
+        assertNull(reader.readLogEntry(channel));
+    }
+
+    @Test
+    void shouldWriteCommandBatchesTooBigToCompressUncompressed() throws IOException {
+        // given
+        KernelVersion version = KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
+        LogEntryReader reader = new VersionAwareLogEntryReader(new TestCommandReaderFactory(), version);
+        List<StorageCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            commands.add(new TestCommand(new byte[50]));
+        }
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(20_000, true);
+
+        // when
+        new LogEntryWriter<>(channel, true, 1024, INSTANCE).serialize(commands, version);
+
+        // then
+        assertEquals(version.version(), channel.get());
+        assertEquals(LogEntryTypeCodes.COMMAND, channel.get());
+        channel.positionReader(0);
+        for (StorageCommand command : commands) {
+            assertEquals(new LogEntryCommand(command), reader.readLogEntry(channel));
+        }
+        assertNull(reader.readLogEntry(channel));
+    }
+
+    @Test
+    void shouldFailOnCorruptCompressedCommandsLengths() throws IOException {
+        // given
+        KernelVersion version = KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
+        LogEntryReader reader = new VersionAwareLogEntryReader(new TestCommandReaderFactory(), version);
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+        channel.put(version.version()).put(LogEntryTypeCodes.COMPRESSED_COMMANDS);
+        channel.putInt(1024).putInt(Integer.MAX_VALUE);
+
+        // when
+        IOException e = assertThrows(IOException.class, () -> reader.readLogEntry(channel));
+
+        // then
+        assertThat(e).hasMessageContaining("Invalid compressed length " + Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldFailOnUncompressedLengthNotMatchingCompressedCommands() throws IOException {
+        // given
+        KernelVersion version = KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
+        LogEntryReader reader = new VersionAwareLogEntryReader(new TestCommandReaderFactory(), version);
+        byte[] serialized = new byte[4096];
+        byte[] compressed = CommandCompression.compress(serialized, serialized.length);
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+        channel.put(version.version()).put(LogEntryTypeCodes.COMPRESSED_COMMANDS);
+        channel.putInt(CommandCompression.MAX_UNCOMPRESSED_SIZE)
+                .putInt(compressed.length)
+                .put(compressed, compressed.length);
+
+        // when
+        IOException e = assertThrows(IOException.class, () -> reader.readLogEntry(channel));
+
+        // then
+        assertThat(e).hasMessageContaining("but the compressed data holds " + serialized.length);
+    }
+
     @Disabled // TODO it's not clear what the benefit verifying the chain will give us, so it's disable for now
     @Test
     void shouldValidateChecksumChain() throws IOException {
@@ -123,6 +123,7 @@ import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.pagecache.VersionStorageFactory;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -560,6 +561,18 @@ public class Database extends AbstractDatabase {
         life.add(databaseHealth);
         life.add(databaseAvailabilityGuard);
         life.add(databaseAvailability);
+        if (databaseConfig.get(GraphDatabaseSettings.pagecache_warmup_enabled)
+                && databaseConfig.get(GraphDatabaseInternalSettings.pagecache_warmup_profile_files)) {
+            life.add(new PageCacheWarmer(
+                    fs,
+                    databasePageCache,
+                    scheduler,
+                    tracers.getPageCacheTracer(),
+                    cursorContextFactory,
+                    databaseConfig,
+                    internalLogProvider,
+                    namedDatabaseId.name()));
+        }
         life.setLast(checkpointerLifecycle);
 
         databaseDependencies.resolveDependency(DbmsDiagnosticsManager.class).dumpDatabaseDiagnostics(this);
@@ -856,8 +869,14 @@ public class Database extends AbstractDatabase {
         final LogPruning logPruning =
                 new LogPruningImpl(fs, logFiles, logProvider, new LogPruneStrategyFactory(), clock, config, pruneLock);
 
-        var transactionAppender =
-                createTransactionAppender(logFiles, transactionIdStore, config, databaseHealth, scheduler, logProvider);
+        var transactionAppender = createTransactionAppender(
+                logFiles,
+                transactionIdStore,
+                config,
+                databaseHealth,
+                scheduler,
+                logProvider,
+                otherDatabaseMemoryTracker);
         life.add(transactionAppender);
 
         final LogicalTransactionStore logicalTransactionStore = new PhysicalLogicalTransactionStore(
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api.tracer;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.CURRENT_FORMAT_LOG_HEADER_SIZE;
 
 import java.nio.file.Path;
@@ -48,6 +49,9 @@ import org.neo4j.kernel.impl.transaction.tracing.TransactionWriteEvent;
 public class DefaultTracer implements DatabaseTracer {
     private final LongAdder appendedBytes = new LongAdder();
     private final LongAdder numberOfFlushes = new LongAdder();
+    private final LongAdder delayedForces = new LongAdder();
+    private final LongAdder delayedForceNanos = new LongAdder();
+    private final LongAdder delayedForceJoinedItems = new LongAdder();
     private final LongAdder batchesAppended = new LongAdder();
     private final LongAdder batchesRolledBack = new LongAdder();
     private final LongAdder batchTransactionsRolledBack = new LongAdder();
@@ -97,6 +101,21 @@ public class DefaultTracer implements DatabaseTracer {
         return numberOfFlushes.longValue();
     }
 
+    @Override
+    public long numberOfDelayedForces() {
+        return delayedForces.longValue();
+    }
+
+    @Override
+    public long delayedForceAccumulatedTotalTimeMillis() {
+        return NANOSECONDS.toMillis(delayedForceNanos.longValue());
+    }
+
+    @Override
+    public long delayedForceJoinedItems() {
+        return delayedForceJoinedItems.longValue();
+    }
+
     @Override
     public long lastTransactionLogAppendBatch() {
         return appliedBatchSize.longValue();
@@ -281,6 +300,13 @@ public class DefaultTracer implements DatabaseTracer {
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void setForceDelayed(long delayNanos, int joinedItems) {
+            delayedForces.increment();
+            delayedForceNanos.add(delayNanos);
+            delayedForceJoinedItems.add(joinedItems);
+        }
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return countingLogRotateEvent;
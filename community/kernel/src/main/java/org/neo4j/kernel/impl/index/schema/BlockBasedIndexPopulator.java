@@ -20,7 +20,6 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
-import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_KEEP_ALL_LEFT;
 import static org.neo4j.internal.helpers.collection.Iterables.first;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
@@ -44,6 +43,7 @@ import java.util.stream.Collectors;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.helpers.Exceptions;
@@ -97,6 +97,12 @@ import org.neo4j.values.storable.Value;
 public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>> extends NativeIndexPopulator<KEY> {
     public static final Monitor NO_MONITOR = new Monitor.Adapter();
 
+    /**
+     * Scan updates are bulk loaded into completely full tree nodes, since most indexes receive far fewer updates
+     * after population than the entries they were populated with.
+     */
+    private static final double BULK_LOAD_FILL_FACTOR = 1.0;
+
     private final boolean archiveFailedIndex;
     private final MemoryTracker memoryTracker;
     /**
@@ -399,7 +405,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         }
 
         // Merge the (sorted) scan updates from all the different threads in pairs until only one stream remain,
-        // and direct that stream towards the tree writer (which itself is only single threaded)
+        // and direct that stream towards the tree bulk loader, which builds the tree bottom-up from the sorted stream
         try (var readBuffers = new CompositeBuffer();
                 var singleBlockScopedBuffer = allocator.allocate((int) kibiBytes(8), memoryTracker)) {
             // Get the initial list of parts
@@ -426,9 +432,14 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                             cancellation,
                             PartMerger.DEFAULT_BATCH_SIZE);
                     var allEntries = merger.startMerge();
-                    var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
+                    var bulkLoader = tree.bulkLoader(BULK_LOAD_FILL_FACTOR, cursorContext);
+                    var appender = bulkLoader.appender(cursorContext)) {
+                KEY previousKey = null;
                 while (allEntries.next() && !cancellation.cancelled()) {
-                    writeToTree(writer, recordingConflictDetector, allEntries.key());
+                    KEY key = allEntries.key();
+                    if (appendToTree(appender, recordingConflictDetector, previousKey, key)) {
+                        previousKey = layout.copyKey(key, previousKey != null ? previousKey : layout.newKey());
+                    }
                     numberOfAppliedScanUpdates.incrementAndGet();
                 }
                 return descriptor.isUnique() ? null : allEntries.buildIndexSample();
@@ -598,6 +609,32 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         return builder.build();
     }
 
+    /**
+     * Append key to the bulk loaded tree, given the key that was appended before it, if any, and record duplicates if
+     * any. The keys come in sorted order, so a key with the same value as this one, which would conflict with it in a
+     * unique index, is right before it.
+     *
+     * @return {@code true} if the key was appended, or {@code false} if the exact same key was appended before it.
+     */
+    private boolean appendToTree(
+            BulkLoader.Appender<KEY, NullValue> appender,
+            RecordingConflictDetector<KEY> recordingConflictDetector,
+            KEY previousKey,
+            KEY key)
+            throws IndexEntryConflictException {
+        if (previousKey != null && layout.compareValue(previousKey, key) == 0) {
+            if (previousKey.getEntityId() == key.getEntityId()) {
+                return false;
+            }
+            if (descriptor.isUnique()) {
+                recordingConflictDetector.merge(previousKey, key, NullValue.INSTANCE, NullValue.INSTANCE);
+                recordingConflictDetector.checkConflict(layout.copyKey(key, layout.newKey()));
+            }
+        }
+        appender.add(key, NullValue.INSTANCE);
+        return true;
+    }
+
     /**
      * Write key and value to tree and record duplicates if any.
      */
@@ -19,21 +19,40 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.util.Collections;
+import java.util.List;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.values.storable.Value;
 
 class FilteringNativeHitIndexProgressor<KEY extends NativeIndexKey<KEY>> extends NativeHitIndexProgressor<KEY> {
-    private final PropertyIndexQuery[] filter;
+    private final List<PropertyIndexQuery[]> filters;
 
     FilteringNativeHitIndexProgressor(
             Seeker<KEY, NullValue> seeker, EntityValueClient client, PropertyIndexQuery[] filter) {
+        this(seeker, client, Collections.singletonList(filter));
+    }
+
+    /**
+     * @param filters values are accepted if they are accepted by all predicates of any of these filters.
+     */
+    FilteringNativeHitIndexProgressor(
+            Seeker<KEY, NullValue> seeker, EntityValueClient client, List<PropertyIndexQuery[]> filters) {
         super(seeker, client);
-        this.filter = filter;
+        this.filters = filters;
     }
 
     @Override
     protected boolean acceptValue(Value[] values) {
+        for (PropertyIndexQuery[] filter : filters) {
+            if (accepts(filter, values)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean accepts(PropertyIndexQuery[] filter, Value[] values) {
         for (int i = 0; i < values.length; i++) {
             if (!filter[i].acceptsValue(values[i])) {
                 return false;
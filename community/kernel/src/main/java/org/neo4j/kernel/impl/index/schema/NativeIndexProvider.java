@@ -83,6 +83,19 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>, LAYOUT exten
      */
     abstract LAYOUT layout(IndexDescriptor descriptor);
 
+    /**
+     * Instantiates the {@link Layout} to open an already existing index with, for providers where that depends on
+     * how the index was created. By default the same as {@link #layout(IndexDescriptor)}.
+     *
+     * @param descriptor the {@link IndexDescriptor} for this index.
+     * @param indexFiles the {@link IndexFiles} of this index.
+     * @param openOptions the options the index will be opened with.
+     * @return the correct {@link Layout} for the existing index.
+     */
+    LAYOUT existingLayout(IndexDescriptor descriptor, IndexFiles indexFiles, ImmutableSet<OpenOption> openOptions) {
+        return layout(descriptor);
+    }
+
     @Override
     public MinimalIndexAccessor getMinimalIndexAccessor(IndexDescriptor descriptor) {
         return new NativeMinimalIndexAccessor(descriptor, indexFiles(descriptor), databaseIndexContext.readOnlyChecker);
@@ -122,7 +135,13 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>, LAYOUT exten
             ImmutableSet<OpenOption> openOptions,
             boolean readOnly) {
         IndexFiles indexFiles = indexFiles(descriptor);
-        return newIndexAccessor(indexFiles, layout(descriptor), descriptor, tokenNameLookup, openOptions, readOnly);
+        return newIndexAccessor(
+                indexFiles,
+                existingLayout(descriptor, indexFiles, openOptions),
+                descriptor,
+                tokenNameLookup,
+                openOptions,
+                readOnly);
     }
 
     protected abstract IndexAccessor newIndexAccessor(
@@ -24,6 +24,7 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRA
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -135,6 +136,78 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
                 predicates);
     }
 
+    /**
+     * Serves all queries with a single {@link Seeker} that walks the tree once for all of them, instead of seeking
+     * each query from the root. Descending order isn't supported.
+     */
+    @Override
+    public boolean batchedQuery(
+            IndexProgressor.EntityValueClient client,
+            QueryContext context,
+            AccessMode accessMode,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        Preconditions.checkArgument(!queries.isEmpty(), "No queries");
+        if (constraints.order() == IndexOrder.DESCENDING) {
+            return false;
+        }
+        context.monitor().queried(descriptor);
+
+        List<Seeker.Range<KEY>> ranges = new ArrayList<>(queries.size());
+        boolean needFilter = false;
+        for (PropertyIndexQuery[] predicates : queries) {
+            validateQuery(constraints, predicates);
+            KEY treeKeyFrom = layout.newKey();
+            KEY treeKeyTo = layout.newKey();
+            initializeFromToKeys(treeKeyFrom, treeKeyTo);
+            needFilter |= initializeRangeForQuery(treeKeyFrom, treeKeyTo, predicates);
+            if (!isEmptyRange(treeKeyFrom, treeKeyTo) && !isEmptyResultQuery(predicates)) {
+                ranges.add(new Seeker.Range<>(treeKeyFrom, treeKeyTo));
+            }
+        }
+
+        PropertyIndexQuery[] query = queries.get(0);
+        if (ranges.isEmpty()) {
+            client.initialize(descriptor, IndexProgressor.EMPTY, accessMode, false, false, constraints, query);
+            return true;
+        }
+        try {
+            Seeker<KEY, NullValue> seeker = tree.seek(sortAndMerge(ranges), context.cursorContext());
+            IndexProgressor hitProgressor = needFilter
+                    ? new FilteringNativeHitIndexProgressor<>(seeker, client, queries)
+                    : new NativeHitIndexProgressor<>(seeker, client);
+            client.initialize(descriptor, hitProgressor, accessMode, false, false, constraints, query);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sorts the ranges and merges the ones that overlap, which is what a batched seek expects.
+     */
+    private List<Seeker.Range<KEY>> sortAndMerge(List<Seeker.Range<KEY>> ranges) {
+        ranges.sort((a, b) -> layout.compare(a.fromInclusive(), b.fromInclusive()));
+        List<Seeker.Range<KEY>> merged = new ArrayList<>(ranges.size());
+        Seeker.Range<KEY> current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            Seeker.Range<KEY> range = ranges.get(i);
+            int order = layout.compare(range.fromInclusive(), current.toExclusive());
+            boolean currentExactMatch = layout.compare(current.fromInclusive(), current.toExclusive()) == 0;
+            if (order < 0 || (order == 0 && currentExactMatch)) {
+                KEY toExclusive = layout.compare(range.toExclusive(), current.toExclusive()) > 0
+                        ? range.toExclusive()
+                        : current.toExclusive();
+                current = new Seeker.Range<>(current.fromInclusive(), toExclusive);
+            } else {
+                merged.add(current);
+                current = range;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
     void initializeFromToKeys(KEY treeKeyFrom, KEY treeKeyTo) {
         treeKeyFrom.initialize(Long.MIN_VALUE);
         treeKeyTo.initialize(Long.MAX_VALUE);
@@ -146,6 +146,22 @@ class PointIndexReader extends NativeIndexReader<PointKey> {
         }
     }
 
+    @Override
+    public boolean batchedQuery(
+            IndexProgressor.EntityValueClient client,
+            QueryContext context,
+            AccessMode accessMode,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        for (PropertyIndexQuery[] predicates : queries) {
+            if (predicates.length > 0 && predicates[0].type() == IndexQueryType.BOUNDING_BOX) {
+                // Bounding boxes are seeked as several sub-queries of their own
+                return false;
+            }
+        }
+        return super.batchedQuery(client, context, accessMode, constraints, queries);
+    }
+
     @Override
     boolean initializeRangeForQuery(PointKey treeKeyFrom, PointKey treeKeyTo, PropertyIndexQuery[] predicates) {
         // if we are here, we made it past the validation, and we know there is only one predicate, and it is either
@@ -21,12 +21,16 @@ package org.neo4j.kernel.impl.index.schema;
 
 import static org.neo4j.internal.schema.IndexCapability.NO_CAPABILITY;
 
+import java.io.IOException;
 import java.nio.file.OpenOption;
+import java.nio.file.Path;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Meta;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.schema.IndexCapability;
@@ -38,6 +42,7 @@ import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexPopulator;
@@ -107,8 +112,10 @@ import org.neo4j.values.storable.ValueCategory;
 public class RangeIndexProvider extends NativeIndexProvider<RangeKey, RangeLayout> {
     public static final IndexProviderDescriptor DESCRIPTOR = new IndexProviderDescriptor("range", "1.0");
     public static final RangeIndexCapability CAPABILITY = new RangeIndexCapability();
+    private static final String READ_LAYOUT_TAG = "readRangeIndexLayout";
 
     private final boolean archiveFailedIndex;
+    private final boolean compressKeyPrefixes;
     private final Config config;
 
     public RangeIndexProvider(
@@ -119,6 +126,7 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey, RangeLayou
         super(databaseIndexContext, DESCRIPTOR, directoryStructureFactory, recoveryCleanupWorkCollector);
 
         this.archiveFailedIndex = config.get(GraphDatabaseInternalSettings.archive_failed_index);
+        this.compressKeyPrefixes = config.get(GraphDatabaseInternalSettings.range_index_compress_key_prefixes);
         this.config = config;
     }
 
@@ -131,7 +139,30 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey, RangeLayou
     @Override
     RangeLayout layout(IndexDescriptor descriptor) {
         int numberOfSlots = descriptor.schema().getPropertyIds().length;
-        return new RangeLayout(numberOfSlots);
+        return new RangeLayout(numberOfSlots, compressKeyPrefixes);
+    }
+
+    @Override
+    RangeLayout existingLayout(
+            IndexDescriptor descriptor, IndexFiles indexFiles, ImmutableSet<OpenOption> openOptions) {
+        // Indexes keep the key format they were created with, regardless of what new indexes are created with
+        Path storeFile = indexFiles.getStoreFile();
+        if (!databaseIndexContext.fileSystem.fileExists(storeFile)) {
+            return layout(descriptor);
+        }
+        try (CursorContext cursorContext = databaseIndexContext.contextFactory.create(READ_LAYOUT_TAG)) {
+            Meta meta = GBPTree.readMeta(
+                    databaseIndexContext.pageCache,
+                    storeFile,
+                    databaseIndexContext.databaseName,
+                    cursorContext,
+                    openOptions);
+            int numberOfSlots = descriptor.schema().getPropertyIds().length;
+            return new RangeLayout(numberOfSlots, RangeLayout.compressKeyPrefixes(meta.getDataLayoutMinorVersion()));
+        } catch (IOException | MetadataMismatchException e) {
+            // Leave it to opening the index to report what is wrong with the file
+            return layout(descriptor);
+        }
     }
 
     @Override
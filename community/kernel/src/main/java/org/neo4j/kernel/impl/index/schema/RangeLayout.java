@@ -23,11 +23,29 @@ import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.pagecache.PageCursor;
 
 class RangeLayout extends IndexLayout<RangeKey> {
+    // Leaves of indexes created with prefix compressed keys have a different format, told apart by the minor version
+    private static final int MINOR_VERSION = 1;
+    private static final int MINOR_VERSION_COMPRESSED_KEY_PREFIXES = 2;
+
     private final int numberOfSlots;
+    private final boolean compressKeyPrefixes;
 
     RangeLayout(int numberOfSlots) {
-        super(false, Layout.namedIdentifier("RL", numberOfSlots), 0, 1);
+        this(numberOfSlots, false);
+    }
+
+    RangeLayout(int numberOfSlots, boolean compressKeyPrefixes) {
+        super(
+                false,
+                Layout.namedIdentifier("RL", numberOfSlots),
+                0,
+                compressKeyPrefixes ? MINOR_VERSION_COMPRESSED_KEY_PREFIXES : MINOR_VERSION);
         this.numberOfSlots = numberOfSlots;
+        this.compressKeyPrefixes = compressKeyPrefixes;
+    }
+
+    static boolean compressKeyPrefixes(int minorVersion) {
+        return minorVersion == MINOR_VERSION_COMPRESSED_KEY_PREFIXES;
     }
 
     @Override
@@ -65,6 +83,11 @@ class RangeLayout extends IndexLayout<RangeKey> {
         right.minimalSplitter(left, right, into);
     }
 
+    @Override
+    public boolean compressKeyPrefixes() {
+        return compressKeyPrefixes;
+    }
+
     @Override
     public void initializeAsLowest(RangeKey key) {
         key.initValuesAsLowest();
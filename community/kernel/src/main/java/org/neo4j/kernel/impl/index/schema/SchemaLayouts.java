@@ -79,8 +79,9 @@ public class SchemaLayouts implements LayoutBootstrapper {
     private static LayoutBootstrapper rangeLayout() {
         return meta -> {
             int maxNumberOfSlots = 10;
+            boolean compressKeyPrefixes = RangeLayout.compressKeyPrefixes(meta.getDataLayoutMinorVersion());
             for (int numberOfSlots = 1; numberOfSlots < maxNumberOfSlots; numberOfSlots++) {
-                var layouts = new Layouts(new RangeLayout(numberOfSlots), singleRoot());
+                var layouts = new Layouts(new RangeLayout(numberOfSlots, compressKeyPrefixes), singleRoot());
                 if (matchingLayout(meta, layouts)) {
                     return layouts;
                 }
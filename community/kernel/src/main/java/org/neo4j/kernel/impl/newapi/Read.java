@@ -127,6 +127,26 @@ abstract class Read
         indexSession.reader.query(client, queryContext, getAccessMode(), constraints, query);
     }
 
+    @Override
+    public final boolean nodeIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries)
+            throws IndexNotApplicableKernelException {
+        performCheckBeforeOperation();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+        validateConstraints(constraints, indexSession);
+
+        if (indexSession.reference.schema().entityType() != EntityType.NODE) {
+            throw new IndexNotApplicableKernelException("Node index seek can not be performed on index: "
+                    + index.reference().userDescription(tokenRead));
+        }
+
+        return batchedSeek(indexSession, (EntityIndexSeekClient) cursor, queryContext, constraints, queries);
+    }
+
     @Override
     public PartitionedScan<NodeValueIndexCursor> nodeIndexSeek(
             IndexReadSession index,
@@ -164,6 +184,39 @@ abstract class Read
         indexSession.reader.query(client, queryContext, getAccessMode(), constraints, query);
     }
 
+    @Override
+    public final boolean relationshipIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            RelationshipValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries)
+            throws IndexNotApplicableKernelException {
+        performCheckBeforeOperation();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+        validateConstraints(constraints, indexSession);
+        if (indexSession.reference.schema().entityType() != EntityType.RELATIONSHIP) {
+            throw new IndexNotApplicableKernelException("Relationship index seek can not be performed on index: "
+                    + index.reference().userDescription(tokenRead));
+        }
+
+        return batchedSeek(indexSession, (EntityIndexSeekClient) cursor, queryContext, constraints, queries);
+    }
+
+    private boolean batchedSeek(
+            DefaultIndexReadSession indexSession,
+            EntityIndexSeekClient client,
+            QueryContext queryContext,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        if (hasTxStateWithChanges()) {
+            // The cursor merges transaction state for a single query only
+            return false;
+        }
+        client.setRead(this);
+        return indexSession.reader.batchedQuery(client, queryContext, getAccessMode(), constraints, queries);
+    }
+
     @Override
     public PartitionedScan<RelationshipValueIndexCursor> relationshipIndexSeek(
             IndexReadSession index,
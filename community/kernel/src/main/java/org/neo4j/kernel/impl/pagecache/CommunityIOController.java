@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_iops_adaptive;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * An {@link IOController} that limits the IO of checkpoints to {@link
+ * org.neo4j.configuration.GraphDatabaseSettings#check_point_iops_limit}, where an IO is the write of a single page.
+ * <p>
+ * IOs are counted in quanta of {@value #QUANTUM_MILLIS} milliseconds. A flushing thread that uses up the budget of the
+ * current quantum is paused until the quanta it has used up have passed. IOs that other parts of the system report
+ * through {@link #reportIO(int)} are counted against the budget of the quantum they were reported in. Threads that
+ * flush ranges of a file in parallel share the budget. Flushes that someone is waiting for, like forced checkpoints,
+ * are not limited while the controller is {@link #disable() disabled}.
+ * <p>
+ * In adaptive mode, the controller also watches the latency of the page faults traced by the page cache. About once
+ * a second, the average latency of the recent faults is compared to their usual latency, which is the lowest seen,
+ * give or take changes while nothing was flushed. If faults have become more than {@value #LATENCY_TOLERANCE} times
+ * slower while flushing, the limit is halved. Otherwise, it is raised by a quarter, until it is back at the configured
+ * limit. Without a configured limit, the controller only limits IO between backing off and getting back up to the
+ * rate it backed off from.
+ * <p>
+ * The limit and the mode follow their settings, and can also be changed with {@link #configure(long, boolean)}.
+ */
+public class CommunityIOController implements IOController {
+    static final long QUANTUM_MILLIS = 100;
+    static final int LATENCY_TOLERANCE = 2;
+    static final long MIN_ADAPTIVE_LIMIT = 100;
+    static final long NO_LIMIT = -1;
+    private static final long QUANTUM_NANOS = MILLISECONDS.toNanos(QUANTUM_MILLIS);
+    private static final long QUANTUMS_PER_SECOND = SECONDS.toMillis(1) / QUANTUM_MILLIS;
+    private static final long ADAPT_INTERVAL_NANOS = SECONDS.toNanos(1);
+    private static final long MIN_FAULTS_TO_ADAPT = 16;
+
+    private final PageCacheCounters pageCacheCounters;
+    private final SystemNanoClock clock;
+    private final LongAdder externalIOs = new LongAdder();
+    private final LongAdder limitedTimes = new LongAdder();
+    private final LongAdder limitedNanos = new LongAdder();
+    private final AtomicInteger disabledCounter = new AtomicInteger();
+
+    private volatile long configuredLimit;
+    private volatile boolean adaptive;
+    private volatile long currentLimit;
+
+    // Guarded by this
+    private long quantumStartNanos;
+    private long quantumIOs;
+    private long intervalStartNanos;
+    private long intervalIOs;
+    private long intervalFaults;
+    private long intervalFaultNanos;
+    private long baselineFaultNanos;
+    private long backOffCeiling;
+
+    public CommunityIOController(Config config, PageCacheCounters pageCacheCounters, SystemNanoClock clock) {
+        this.pageCacheCounters = pageCacheCounters;
+        this.clock = clock;
+        configure(config.get(check_point_iops_limit), config.get(checkpoint_iops_adaptive));
+        config.addListener(check_point_iops_limit, (before, after) -> configure(after, adaptive));
+        config.addListener(checkpoint_iops_adaptive, (before, after) -> configure(configuredLimit, after));
+    }
+
+    /**
+     * Change the limit and the mode of this controller, until the next time the settings of either change.
+     *
+     * @param iopsLimit the number of IOs per second that checkpoints may use, or a negative number for no limit.
+     * @param adaptive whether to lower the limit when page faults become slow while flushing.
+     */
+    public synchronized void configure(long iopsLimit, boolean adaptive) {
+        this.configuredLimit = iopsLimit > 0 ? iopsLimit : NO_LIMIT;
+        this.adaptive = adaptive;
+        this.currentLimit = configuredLimit;
+        long now = clock.nanos();
+        quantumStartNanos = now;
+        quantumIOs = 0;
+        intervalStartNanos = now;
+        intervalIOs = 0;
+        intervalFaults = pinFaults();
+        intervalFaultNanos = pageCacheCounters.faultNanos();
+    }
+
+    @Override
+    public void maybeLimitIO(int recentlyCompletedIOs, FileFlushEvent flushEvent) {
+        if (!isEnabled()) {
+            return;
+        }
+        long pauseNanos;
+        synchronized (this) {
+            long now = clock.nanos();
+            intervalIOs += recentlyCompletedIOs;
+            if (adaptive && now - intervalStartNanos >= ADAPT_INTERVAL_NANOS) {
+                adapt(now);
+            }
+            long limit = currentLimit;
+            if (limit == NO_LIMIT) {
+                return;
+            }
+            if (now - quantumStartNanos >= QUANTUM_NANOS) {
+                quantumStartNanos = now;
+                quantumIOs = 0;
+                // IO reported during quanta that have passed, e.g. long before this flush started, has already
+                // been paid for by the time that has passed since
+                externalIOs.reset();
+            }
+            quantumIOs += recentlyCompletedIOs + externalIOs.sumThenReset();
+            long budget = Math.max(1, limit / QUANTUMS_PER_SECOND);
+            if (quantumIOs < budget) {
+                return;
+            }
+            // Pay for every quantum that was used up. Threads that come by in the meantime start counting in the
+            // quantum after those, and wait for it in turn.
+            long usedQuanta = quantumIOs / budget;
+            quantumIOs -= usedQuanta * budget;
+            quantumStartNanos += usedQuanta * QUANTUM_NANOS;
+            pauseNanos = quantumStartNanos - now;
+        }
+        if (pauseNanos > 0) {
+            LockSupport.parkNanos(pauseNanos);
+            limitedTimes.increment();
+            limitedNanos.add(pauseNanos);
+            flushEvent.throttle(recentlyCompletedIOs, NANOSECONDS.toMillis(pauseNanos));
+        }
+    }
+
+    private void adapt(long now) {
+        long faults = pinFaults();
+        long faultNanos = pageCacheCounters.faultNanos();
+        long newFaults = faults - intervalFaults;
+        long iops = intervalIOs * SECONDS.toNanos(1) / (now - intervalStartNanos);
+        if (newFaults < MIN_FAULTS_TO_ADAPT) {
+            // Too few faults to tell anything about their latency. Keep counting until there are more.
+            return;
+        }
+        long latency = (faultNanos - intervalFaultNanos) / newFaults;
+        intervalStartNanos = now;
+        intervalIOs = 0;
+        intervalFaults = faults;
+        intervalFaultNanos = faultNanos;
+
+        if (baselineFaultNanos == 0 || latency < baselineFaultNanos) {
+            baselineFaultNanos = Math.max(1, latency);
+        } else if (iops == 0) {
+            // Nothing was flushed, so the device is allowed to just have gotten slower.
+            baselineFaultNanos += (latency - baselineFaultNanos) / 8;
+        }
+
+        long limit = currentLimit;
+        if (iops > 0 && latency > baselineFaultNanos * LATENCY_TOLERANCE) {
+            if (limit == NO_LIMIT) {
+                backOffCeiling = Math.max(MIN_ADAPTIVE_LIMIT, iops);
+                limit = backOffCeiling;
+            }
+            long floor =
+                    configuredLimit == NO_LIMIT ? MIN_ADAPTIVE_LIMIT : Math.min(MIN_ADAPTIVE_LIMIT, configuredLimit);
+            currentLimit = Math.max(floor, Math.min(limit, Math.max(iops, floor)) / 2);
+        } else if (limit != configuredLimit) {
+            long raised = limit + Math.max(MIN_ADAPTIVE_LIMIT, limit / 4);
+            long ceiling = configuredLimit == NO_LIMIT ? backOffCeiling : configuredLimit;
+            currentLimit = raised >= ceiling ? configuredLimit : raised;
+        }
+    }
+
+    private long pinFaults() {
+        return pageCacheCounters.faults() - pageCacheCounters.noPinFaults();
+    }
+
+    @Override
+    public void reportIO(int completedIOs) {
+        if (currentLimit != NO_LIMIT) {
+            externalIOs.add(completedIOs);
+        }
+    }
+
+    @Override
+    public long configuredLimit() {
+        return configuredLimit;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return disabledCounter.get() == 0 && (adaptive || currentLimit != NO_LIMIT);
+    }
+
+    @Override
+    public void disable() {
+        disabledCounter.incrementAndGet();
+    }
+
+    @Override
+    public void enable() {
+        disabledCounter.decrementAndGet();
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return the limit in effect right now, which is lower than the configured limit when the controller has backed
+     * off, or -1 if IO is not limited.
+     */
+    public long currentLimit() {
+        return currentLimit;
+    }
+
+    /**
+     * @return the number of times flushing was paused, since the database started.
+     */
+    public long limitedTimes() {
+        return limitedTimes.sum();
+    }
+
+    /**
+     * @return the total time flushing was paused for, in milliseconds, since the database started.
+     */
+    public long limitedMillis() {
+        return NANOSECONDS.toMillis(limitedNanos.sum());
+    }
+}
@@ -21,11 +21,18 @@ package org.neo4j.kernel.impl.pagecache;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
 import org.neo4j.time.SystemNanoClock;
 
 public class CommunityIOControllerService implements IOControllerService {
+    private final PageCacheCounters pageCacheCounters;
+
+    public CommunityIOControllerService(PageCacheCounters pageCacheCounters) {
+        this.pageCacheCounters = pageCacheCounters;
+    }
+
     @Override
     public IOController createIOController(Config config, SystemNanoClock clock) {
-        return IOController.DISABLED;
+        return new CommunityIOController(config, pageCacheCounters, clock);
     }
 }
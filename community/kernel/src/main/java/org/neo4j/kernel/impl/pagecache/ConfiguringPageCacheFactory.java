@@ -19,6 +19,13 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_eviction_partitions;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_flush_max_write_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_flush_parallelism;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_io_uring;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_io_uring_queue_depth;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_replacement_policy;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_writeback_age;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
@@ -32,11 +39,14 @@ import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.MemoryAllocator.MemoryRegionListener;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageReplacementPolicy;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.memory.MachineMemory;
@@ -109,22 +119,38 @@ public class ConfiguringPageCacheFactory {
         long pageCacheMaxMemory = getPageCacheMaxMemory(config);
         var memoryPool = memoryPools.pool(PAGE_CACHE, pageCacheMaxMemory, false, null);
         var memoryTracker = memoryPool.getPoolMemoryTracker();
-        var swapperFactory = createAndConfigureSwapperFactory(fs, pageCacheTracer, memoryTracker, log);
-        MemoryAllocator memoryAllocator = buildMemoryAllocator(pageCacheMaxMemory, memoryTracker);
+        var swapperFactory = createAndConfigureSwapperFactory(fs, config, pageCacheTracer, memoryTracker, log);
+        MemoryRegionListener regionListener = swapperFactory instanceof IoUringPageSwapperFactory ioUringSwapperFactory
+                ? ioUringSwapperFactory
+                : MemoryRegionListener.NONE;
+        MemoryAllocator memoryAllocator = buildMemoryAllocator(pageCacheMaxMemory, memoryTracker, regionListener);
         var bufferFactory = new ConfigurableIOBufferFactory(config, memoryTracker);
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(memoryAllocator)
                 .memoryTracker(memoryTracker)
                 .bufferFactory(bufferFactory)
                 .reservedPageBytes(PageCache.RESERVED_BYTES)
                 .preallocateStoreFiles(config.get(preallocate_store_files))
+                .evictionPartitions(config.get(pagecache_eviction_partitions))
+                .replacementPolicy(replacementPolicy(config))
+                .flushParallelism(config.get(pagecache_flush_parallelism))
+                .maxFlushSize(config.get(pagecache_flush_max_write_size))
+                .writebackAge(config.get(pagecache_writeback_age))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer);
         configuration = pageCacheConfigurator.apply(configuration);
         return new MuninnPageCache(swapperFactory, scheduler, configuration);
     }
 
-    private static MemoryAllocator buildMemoryAllocator(long pageCacheMaxMemory, MemoryTracker memoryTracker) {
-        return createAllocator(pageCacheMaxMemory, memoryTracker);
+    private static PageReplacementPolicy replacementPolicy(Config config) {
+        return switch (config.get(pagecache_replacement_policy)) {
+            case CLOCK -> PageReplacementPolicy.CLOCK;
+            case PROBATIONARY -> PageReplacementPolicy.PROBATIONARY;
+        };
+    }
+
+    private static MemoryAllocator buildMemoryAllocator(
+            long pageCacheMaxMemory, MemoryTracker memoryTracker, MemoryRegionListener regionListener) {
+        return createAllocator(pageCacheMaxMemory, memoryTracker, regionListener);
     }
 
     private long getPageCacheMaxMemory(Config config) {
@@ -198,12 +224,24 @@ public class ConfiguringPageCacheFactory {
     }
 
     private static PageSwapperFactory createAndConfigureSwapperFactory(
-            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, InternalLog log) {
+            FileSystemAbstraction fs,
+            Config config,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            InternalLog log) {
         if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             log.warn("Reflection access to java.nio.DirectByteBuffer is not available, using fallback mode. "
                     + "This could have negative impact on performance and memory usage. "
                     + "Consider adding --add-opens=java.base/java.nio=ALL-UNNAMED to VM options.");
         }
+        if (config.get(pagecache_io_uring)) {
+            if (IoUringPageSwapperFactory.isAvailable()) {
+                return new IoUringPageSwapperFactory(
+                        fs, pageCacheTracer, memoryTracker, config.get(pagecache_io_uring_queue_depth));
+            }
+            log.warn("The page cache was configured to use io_uring, but it is not available, using synchronous IO "
+                    + "instead. " + IoUringPageSwapperFactory.describeAvailability());
+        }
         return new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker);
     }
 }
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_io_budget;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.helpers.Exceptions;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.util.VisibleForTesting;
+
+/**
+ * Keeps a profile of the pages that are in the page cache next to every file that the database has mapped, and uses
+ * those profiles to load the same pages back into the page cache when the database starts.
+ * <p>
+ * A profile is a gzipped bitmap over the file page ids of the file, with a bit set for every page that was in memory
+ * when the profile was taken. Profiles are taken periodically, and one last time when the database stops. They are
+ * not taken while a warmup is in progress, since that would replace a good profile with a partial one.
+ * <p>
+ * The warmup loads the profiled pages of all files in parallel, in file order, and in runs of consecutive pages that
+ * are loaded with vectored reads through {@link PagedFile#touch(long, int, CursorContext)}. It is throttled by an IO
+ * budget, and gives up as soon as the page cache sees page faults from other sources than the warmup itself: at that
+ * point the database is serving real traffic, and that traffic knows better than the profile which pages it needs.
+ */
+public class PageCacheWarmer extends LifecycleAdapter {
+    public static final String SUFFIX_CACHEPROF = ".cacheprof";
+    private static final String SUFFIX_CACHEPROF_TMP = ".cacheprof.tmp";
+    private static final int PROFILE_FORMAT_VERSION = 1;
+    private static final String PROFILE_TAG = "pageCacheProfiler";
+    private static final String WARMUP_TAG = "pageCacheWarmup";
+
+    // The max number of consecutive pages that are loaded with a single vectored read.
+    private static final int MAX_PAGES_PER_READ =
+            FeatureToggles.getInteger(PageCacheWarmer.class, "maxPagesPerRead", 64);
+    // The warmup is cancelled when more than this many page faults, that were not caused by the warmup itself,
+    // happen between two checks for competing page faults.
+    private static final long COMPETING_FAULTS_THRESHOLD =
+            FeatureToggles.getLong(PageCacheWarmer.class, "competingFaultsThreshold", 1000);
+    private static final long COMPETING_FAULTS_CHECK_INTERVAL_NANOS = MILLISECONDS.toNanos(100);
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final PageCacheTracer pageCacheTracer;
+    private final CursorContextFactory contextFactory;
+    private final InternalLog log;
+    private final String databaseName;
+    private final long profileIntervalMillis;
+    private final boolean blocking;
+    private final long ioBudget;
+    private final Pattern preloadAllowlist;
+
+    private volatile boolean stopped;
+    private volatile boolean warmingUp;
+    private volatile JobHandle<?> profileHandle;
+    private volatile JobHandle<?> warmupHandle;
+
+    public PageCacheWarmer(
+            FileSystemAbstraction fs,
+            PageCache pageCache,
+            JobScheduler scheduler,
+            PageCacheTracer pageCacheTracer,
+            CursorContextFactory contextFactory,
+            Config config,
+            InternalLogProvider logProvider,
+            String databaseName) {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.pageCacheTracer = pageCacheTracer;
+        this.contextFactory = contextFactory;
+        this.log = logProvider.getLog(PageCacheWarmer.class);
+        this.databaseName = databaseName;
+        this.profileIntervalMillis =
+                config.get(pagecache_warmup_profiling_interval).toMillis();
+        this.blocking = config.get(pagecache_warmup_blocking);
+        this.ioBudget = config.get(pagecache_warmup_io_budget);
+        this.preloadAllowlist = config.get(pagecache_warmup_prefetch)
+                ? Pattern.compile(config.get(pagecache_warmup_prefetch_allowlist))
+                : null;
+    }
+
+    @Override
+    public void start() throws Exception {
+        stopped = false;
+        warmingUp = true;
+        // The warmup of the individual files runs in the page cache warmer group, which has a bounded number of
+        // threads. The job that waits for them to complete must not take up one of those threads.
+        warmupHandle = scheduler.schedule(
+                Group.FILE_IO_HELPER, systemJob(databaseName, "Page cache warmup"), this::warmUpInBackground);
+        if (blocking) {
+            warmupHandle.waitTermination();
+        }
+        profileHandle = scheduler.scheduleRecurring(
+                Group.PAGE_CACHE_WARMER,
+                systemJob(databaseName, "Page cache profiling"),
+                this::profileInBackground,
+                profileIntervalMillis,
+                profileIntervalMillis,
+                MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        stopped = true;
+        JobHandle<?> profile = profileHandle;
+        if (profile != null) {
+            profile.cancel();
+            waitTermination(profile);
+            profileHandle = null;
+        }
+        JobHandle<?> warmup = warmupHandle;
+        if (warmup != null) {
+            waitTermination(warmup);
+            warmupHandle = null;
+        }
+        if (!warmingUp) {
+            // A final profile, that captures the state of the page cache right before the database stops.
+            profile();
+        }
+    }
+
+    private static void waitTermination(JobHandle<?> handle) throws InterruptedException {
+        try {
+            handle.waitTermination();
+        } catch (ExecutionException | CancellationException ignore) {
+            // Failures are logged by the jobs themselves.
+        }
+    }
+
+    private void warmUpInBackground() {
+        try {
+            long pagesLoaded = warmUp();
+            if (pagesLoaded > 0) {
+                log.info("Page cache warmup completed. %d pages loaded.", pagesLoaded);
+            }
+        } catch (Exception e) {
+            log.warn("Page cache warmup failed.", e);
+        } finally {
+            if (!stopped) {
+                // A warmup that was interrupted by stop leaves a partially warmed cache that is not worth profiling.
+                warmingUp = false;
+            }
+        }
+    }
+
+    private void profileInBackground() {
+        if (stopped || warmingUp) {
+            return;
+        }
+        try {
+            profile();
+        } catch (Exception e) {
+            log.warn("Page cache profiling failed.", e);
+        }
+    }
+
+    /**
+     * Load the profiled pages of all files mapped by the page cache, in parallel.
+     * @return the number of pages that were loaded.
+     */
+    @VisibleForTesting
+    long warmUp() throws Exception {
+        List<PagedFile> files = pageCache.listExistingMappings();
+        WarmupRun run = new WarmupRun(pageCacheTracer, ioBudget, pageCache.maxCachedPages());
+        List<JobHandle<Long>> jobs = new ArrayList<>(files.size());
+        for (PagedFile file : files) {
+            BitSet pages = pagesToLoad(file);
+            if (pages != null && !pages.isEmpty()) {
+                jobs.add(scheduler.schedule(
+                        Group.PAGE_CACHE_WARMER,
+                        systemJob(
+                                databaseName,
+                                "Page cache warmup of " + file.path().getFileName()),
+                        () -> warmUp(file, pages, run)));
+            }
+        }
+        long pagesLoaded = 0;
+        ExecutionException failure = null;
+        for (JobHandle<Long> job : jobs) {
+            // Wait for all jobs to finish, even if some of them fail, so no warmup is left running in the background.
+            try {
+                pagesLoaded += job.get();
+            } catch (ExecutionException e) {
+                run.cancelled = true;
+                failure = Exceptions.chain(failure, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (run.cancelled) {
+            log.info(
+                    "Page cache warmup cancelled after loading %d pages, because the page cache is busy serving other "
+                            + "page faults.",
+                    pagesLoaded);
+        }
+        return pagesLoaded;
+    }
+
+    private BitSet pagesToLoad(PagedFile file) throws IOException {
+        if (preloadAllowlist != null) {
+            if (!preloadAllowlist.matcher(file.path().getFileName().toString()).matches()) {
+                return null;
+            }
+            long lastPageId = file.getLastPageId();
+            BitSet pages = new BitSet();
+            if (lastPageId >= 0) {
+                pages.set(0, (int) Math.min(lastPageId + 1, Integer.MAX_VALUE));
+            }
+            return pages;
+        }
+        Path profile = profilePath(file.path());
+        try {
+            return readProfile(fs, profile, file.pageSize(), file.getLastPageId());
+        } catch (IOException e) {
+            // A bad profile only means that this file is not warmed up, it's replaced by the next profile anyway.
+            log.warn("Ignoring page cache profile " + profile + " that can not be read.", e);
+            return null;
+        }
+    }
+
+    private long warmUp(PagedFile file, BitSet pages, WarmupRun run) throws IOException, InterruptedException {
+        long pagesLoaded = 0;
+        int pageSize = file.pageSize();
+        try (CursorContext cursorContext = contextFactory.create(WARMUP_TAG)) {
+            PageCursorTracer cursorTracer = cursorContext.getCursorTracer();
+            int pageId = pages.nextSetBit(0);
+            while (pageId >= 0 && !stopped && !run.cancelled) {
+                int count = Math.min(pages.nextClearBit(pageId) - pageId, MAX_PAGES_PER_READ);
+                if (!run.reservePages(count)) {
+                    break;
+                }
+                int touched = file.touch(pageId, count, cursorContext);
+                if (touched == 0) {
+                    // We are past the end of the file, which must have been truncated since the profile was taken.
+                    break;
+                }
+                pagesLoaded += touched;
+                run.ownFaults(cursorTracer.faults());
+                cursorTracer.reportEvents();
+                run.throttle((long) touched * pageSize);
+                // Check after throttling, so competing page faults seen while waiting stop the warmup before the next
+                // read.
+                run.checkCompetingFaults();
+                pageId = pages.nextSetBit(pageId + count);
+            }
+        }
+        return pagesLoaded;
+    }
+
+    /**
+     * Write the profile of every file mapped by the page cache.
+     */
+    @VisibleForTesting
+    void profile() throws IOException {
+        try (CursorContext cursorContext = contextFactory.create(PROFILE_TAG)) {
+            for (PagedFile file : pageCache.listExistingMappings()) {
+                if (!file.isDeleteOnClose()) {
+                    writeProfile(fs, profilePath(file.path()), file.pageSize(), residentPages(file, cursorContext));
+                }
+            }
+        }
+    }
+
+    private static BitSet residentPages(PagedFile file, CursorContext cursorContext) throws IOException {
+        BitSet pages = new BitSet();
+        // Transient no-fault cursors neither load pages, nor touch the usage counters of the pages that are in memory.
+        try (PageCursor cursor = file.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, cursorContext)) {
+            int pageId = 0;
+            while (pageId < Integer.MAX_VALUE && cursor.next()) {
+                if (cursor.getCurrentPageId() != UNBOUND_PAGE_ID) {
+                    pages.set(pageId);
+                }
+                pageId++;
+            }
+        }
+        return pages;
+    }
+
+    @VisibleForTesting
+    static Path profilePath(Path file) {
+        return file.resolveSibling(file.getFileName() + SUFFIX_CACHEPROF);
+    }
+
+    @VisibleForTesting
+    static void writeProfile(FileSystemAbstraction fs, Path profile, int pageSize, BitSet pages) throws IOException {
+        Path tmp = profile.resolveSibling(profile.getFileName() + SUFFIX_CACHEPROF_TMP);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(fs.openAsOutputStream(tmp, false)))) {
+            byte[] bitmap = pages.toByteArray();
+            out.writeInt(PROFILE_FORMAT_VERSION);
+            out.writeInt(pageSize);
+            out.writeInt(bitmap.length);
+            out.write(bitmap);
+        }
+        fs.renameFile(tmp, profile, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /**
+     * @param lastPageId the last page id of the profiled file, which bounds the size of the profile.
+     * @return the profiled pages, or {@code null} if there is no usable profile.
+     * @throws IOException if the profile can not be read, or is corrupt.
+     */
+    @VisibleForTesting
+    static BitSet readProfile(FileSystemAbstraction fs, Path profile, int pageSize, long lastPageId)
+            throws IOException {
+        if (!fs.fileExists(profile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(fs.openAsInputStream(profile)))) {
+            if (in.readInt() != PROFILE_FORMAT_VERSION || in.readInt() != pageSize) {
+                return null;
+            }
+            int length = in.readInt();
+            long maxLength = (lastPageId + Byte.SIZE) / Byte.SIZE;
+            if (length < 0 || length > maxLength) {
+                throw new IOException("Invalid profile length " + length + ", the file only has room for a profile of "
+                        + maxLength + " bytes.");
+            }
+            byte[] bitmap = new byte[length];
+            in.readFully(bitmap);
+            return BitSet.valueOf(bitmap);
+        }
+    }
+
+    /**
+     * The state shared by the parallel jobs of a single warmup.
+     */
+    private static final class WarmupRun {
+        private final PageCacheTracer pageCacheTracer;
+        private final long ioBudget;
+        private final AtomicLong pagesAvailable;
+        private final AtomicLong ownFaults = new AtomicLong();
+        private volatile boolean cancelled;
+
+        // Guarded by this.
+        private long lastCheckNanos;
+        private long lastGlobalFaults;
+        private long lastOwnFaults;
+        private long nextReadNanos;
+
+        WarmupRun(PageCacheTracer pageCacheTracer, long ioBudget, long maxCachedPages) {
+            this.pageCacheTracer = pageCacheTracer;
+            this.ioBudget = ioBudget;
+            this.pagesAvailable = new AtomicLong(maxCachedPages);
+            this.lastCheckNanos = System.nanoTime();
+            this.lastGlobalFaults = pageCacheTracer.faults();
+            this.nextReadNanos = lastCheckNanos;
+        }
+
+        /**
+         * There is no point in loading more pages than what fits in the page cache; that would only evict pages that
+         * the warmup itself loaded a moment ago.
+         */
+        boolean reservePages(int count) {
+            return pagesAvailable.addAndGet(-count) >= 0;
+        }
+
+        void ownFaults(long faults) {
+            ownFaults.addAndGet(faults);
+        }
+
+        synchronized void checkCompetingFaults() {
+            long now = System.nanoTime();
+            if (now - lastCheckNanos < COMPETING_FAULTS_CHECK_INTERVAL_NANOS) {
+                return;
+            }
+            long globalFaults = pageCacheTracer.faults();
+            long own = ownFaults.get();
+            long competingFaults = (globalFaults - lastGlobalFaults) - (own - lastOwnFaults);
+            if (competingFaults > COMPETING_FAULTS_THRESHOLD) {
+                cancelled = true;
+            }
+            lastCheckNanos = now;
+            lastGlobalFaults = globalFaults;
+            lastOwnFaults = own;
+        }
+
+        void throttle(long bytesRead) throws InterruptedException {
+            if (ioBudget == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                nextReadNanos = Math.max(nextReadNanos, now) + bytesRead * SECONDS.toNanos(1) / ioBudget;
+                waitNanos = nextReadNanos - now;
+            }
+            NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.min;
+
+import java.time.Duration;
+
+/**
+ * Decides for how long the transaction log writer should delay forcing a batch of appended transactions, to let
+ * more transactions join the batch and share the force.
+ * <p>
+ * Delaying only pays off if more transactions are expected to arrive during the delay, and only as long as the
+ * delay plus the force is expected to stay within the target latency. Expectations are based on moving averages of
+ * recent force durations and of the interval between arriving transactions. A delay is never longer than a force,
+ * since then the waiting transactions would be better off forcing in a batch of their own.
+ * <p>
+ * Not thread safe, it's only used by the log writer thread.
+ */
+final class AdaptiveGroupCommit {
+    static final long NO_DELAY = 0;
+
+    // Weight of the latest sample in the moving averages
+    private static final double SAMPLE_WEIGHT = 0.2;
+    private static final double NO_SAMPLES = -1;
+
+    private final long targetLatencyNanos;
+    private double forceNanos = NO_SAMPLES;
+    private double arrivalIntervalNanos = NO_SAMPLES;
+    private long lastArrivalNanos;
+
+    /**
+     * @param targetLatency the latency that forcing a batch, including any delay, should stay within.
+     * {@link Duration#ZERO} disables delays altogether.
+     */
+    AdaptiveGroupCommit(Duration targetLatency) {
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    boolean isEnabled() {
+        return targetLatencyNanos > 0;
+    }
+
+    /**
+     * Records that a batch of transactions was taken from the queue.
+     *
+     * @param count number of transactions in the batch.
+     * @param nowNanos time of taking the batch, from {@link System#nanoTime()}.
+     */
+    void transactionsArrived(int count, long nowNanos) {
+        if (lastArrivalNanos != 0) {
+            arrivalIntervalNanos = average(arrivalIntervalNanos, (double) (nowNanos - lastArrivalNanos) / count);
+        }
+        lastArrivalNanos = nowNanos;
+    }
+
+    /**
+     * Records the duration of a force of the transaction log.
+     */
+    void forced(long durationNanos) {
+        forceNanos = average(forceNanos, durationNanos);
+    }
+
+    /**
+     * @param batchSize number of transactions in the batch that is about to be forced.
+     * @param maxBatchSize max number of transactions in a batch.
+     * @return for how long to delay forcing the batch to let more transactions join it, or {@link #NO_DELAY}.
+     */
+    long delayNanos(int batchSize, int maxBatchSize) {
+        if (!isEnabled()
+                || batchSize >= maxBatchSize
+                || forceNanos == NO_SAMPLES
+                || arrivalIntervalNanos == NO_SAMPLES) {
+            return NO_DELAY;
+        }
+        double budgetNanos = targetLatencyNanos - forceNanos;
+        if (arrivalIntervalNanos >= budgetNanos) {
+            // Not even one more transaction is expected to arrive in time
+            return NO_DELAY;
+        }
+        return (long) min(budgetNanos, min(forceNanos, arrivalIntervalNanos * (maxBatchSize - batchSize)));
+    }
+
+    private static double average(double average, double sample) {
+        return average == NO_SAMPLES ? sample : average + SAMPLE_WEIGHT * (sample - average);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.WritableChecksumChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.CommandBatch;
+
+/**
+ * Growable off-heap buffer that committing threads serialize the commands of their transactions into before
+ * handing them over to the log writer thread, which then only has to copy the serialized bytes into the log.
+ * <p>
+ * Holds the commands of one or more command batches, each one retrievable with {@link #serializedBatch(int)}.
+ * Checksums are not supported since they also cover the start and commit entries, which are written by the
+ * log writer together with the transaction id.
+ * <p>
+ * Batches that don't fit within {@link #MAX_CAPACITY} are not serialized here, but by the log writer as usual.
+ * <p>
+ * This class is not thread safe, but is handed over from the committing thread to the log writer thread.
+ */
+final class CommandSerializationBuffer implements WritableChecksumChannel {
+    static final int INITIAL_CAPACITY = 8192;
+    static final int MAX_CAPACITY = (int) ByteUnit.mebiBytes(256);
+
+    // Same byte order as the transaction log channel, otherwise the serialized commands can't be copied as is
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int NOT_SERIALIZED = -1;
+
+    private final LogEntryWriter<CommandSerializationBuffer> writer;
+    // Start and end offset of each batch, or NOT_SERIALIZED for batches that must be serialized by the log writer
+    private final MutableIntList batchOffsets = new IntArrayList();
+    private final MemoryTracker memoryTracker;
+    private final int maxCapacity;
+    private ByteBuffer buffer;
+
+    /**
+     * @param compressCommands whether or not to compress the commands, see {@link LogEntryWriter}.
+     * @param memoryTracker tracker of the off-heap memory of this buffer, for as long as it lives.
+     */
+    CommandSerializationBuffer(boolean compressCommands, MemoryTracker memoryTracker) {
+        this(compressCommands, memoryTracker, MAX_CAPACITY);
+    }
+
+    CommandSerializationBuffer(boolean compressCommands, MemoryTracker memoryTracker, int maxCapacity) {
+        this.writer = new LogEntryWriter<>(this, compressCommands, memoryTracker);
+        this.memoryTracker = memoryTracker;
+        this.maxCapacity = maxCapacity;
+        this.buffer = ByteBuffers.allocateDirect(INITIAL_CAPACITY, BYTE_ORDER, memoryTracker);
+    }
+
+    /**
+     * Serializes the commands of {@code batch}, if possible. Only batches that know their kernel version can be
+     * serialized up front since others get their version from the log writer, at the time of writing them.
+     * Batches that would grow the buffer beyond its max capacity are left to the log writer too.
+     */
+    void serialize(CommandBatch batch) throws IOException {
+        KernelVersion kernelVersion = batch.kernelVersion();
+        if (kernelVersion == null || batch.isRollback()) {
+            notSerialized();
+            return;
+        }
+        int start = buffer.position();
+        try {
+            writer.serialize(batch, kernelVersion);
+        } catch (CapacityExceededException e) {
+            buffer.position(start);
+            notSerialized();
+            return;
+        }
+        batchOffsets.add(start);
+        batchOffsets.add(buffer.position());
+    }
+
+    private void notSerialized() {
+        batchOffsets.add(NOT_SERIALIZED);
+        batchOffsets.add(NOT_SERIALIZED);
+    }
+
+    /**
+     * @param batchIndex index of the batch, in the order they were serialized.
+     * @return the serialized commands of the batch, or {@code null} if they were not serialized.
+     */
+    ByteBuffer serializedBatch(int batchIndex) {
+        int start = batchOffsets.get(batchIndex * 2);
+        if (start == NOT_SERIALIZED) {
+            return null;
+        }
+        int end = batchOffsets.get(batchIndex * 2 + 1);
+        return buffer.slice(start, end - start);
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the number of bytes held by this buffer, including the buffer that commands are serialized into
+     * before being compressed, if they are.
+     */
+    long retainedCapacity() {
+        return (long) buffer.capacity() + writer.compressionScratchCapacity();
+    }
+
+    void clear() {
+        buffer.clear();
+        batchOffsets.clear();
+    }
+
+    @Override
+    public CommandSerializationBuffer put(byte value) {
+        ensureCapacity(Byte.BYTES).put(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putShort(short value) {
+        ensureCapacity(Short.BYTES).putShort(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putInt(int value) {
+        ensureCapacity(Integer.BYTES).putInt(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putLong(long value) {
+        ensureCapacity(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putFloat(float value) {
+        ensureCapacity(Float.BYTES).putFloat(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putDouble(double value) {
+        ensureCapacity(Double.BYTES).putDouble(value);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer put(byte[] value, int offset, int length) {
+        ensureCapacity(length).put(value, offset, length);
+        return this;
+    }
+
+    @Override
+    public CommandSerializationBuffer putAll(ByteBuffer src) {
+        ensureCapacity(src.remaining()).put(src);
+        return this;
+    }
+
+    @Override
+    public void beginChecksum() {
+        throw new UnsupportedOperationException("Checksums are calculated by the transaction log writer");
+    }
+
+    @Override
+    public int putChecksum() {
+        throw new UnsupportedOperationException("Checksums are calculated by the transaction log writer");
+    }
+
+    /**
+     * Releases the memory of this buffer, it can not be used after this call.
+     */
+    @Override
+    public void close() {
+        writer.releaseCompressionScratch();
+        ByteBuffers.releaseBuffer(buffer, memoryTracker);
+        buffer = null;
+    }
+
+    private ByteBuffer ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            long required = (long) buffer.position() + bytes;
+            if (required > maxCapacity) {
+                throw CapacityExceededException.INSTANCE;
+            }
+            int capacity = (int) min(max(buffer.capacity() * 2L, required), maxCapacity);
+            ByteBuffer grown = ByteBuffers.allocateDirect(capacity, BYTE_ORDER, memoryTracker);
+            buffer.flip();
+            grown.put(buffer);
+            ByteBuffers.releaseBuffer(buffer, memoryTracker);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    /**
+     * Thrown when a batch doesn't fit within the max capacity, and caught again in {@link #serialize(CommandBatch)}.
+     * Shared and stackless since it's only used to unwind the serialization of the batch.
+     */
+    private static final class CapacityExceededException extends RuntimeException {
+        static final CapacityExceededException INSTANCE = new CapacityExceededException();
+
+        private CapacityExceededException() {
+            super("Serialized commands exceed the max capacity of the buffer", null, false, false);
+        }
+    }
+}
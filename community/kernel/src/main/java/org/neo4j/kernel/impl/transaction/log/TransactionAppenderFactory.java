@@ -20,10 +20,12 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.group_commit_target_latency;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Panic;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.TransactionIdStore;
@@ -35,9 +37,17 @@ public class TransactionAppenderFactory {
             Config config,
             Panic databasePanic,
             JobScheduler scheduler,
-            InternalLogProvider logProvider) {
+            InternalLogProvider logProvider,
+            MemoryTracker memoryTracker) {
         if (config.get(dedicated_transaction_appender)) {
-            var queue = new TransactionLogQueue(logFiles, transactionIdStore, databasePanic, scheduler, logProvider);
+            var queue = new TransactionLogQueue(
+                    logFiles,
+                    transactionIdStore,
+                    databasePanic,
+                    scheduler,
+                    logProvider,
+                    config.get(group_commit_target_latency),
+                    memoryTracker);
             return new QueueTransactionAppender(queue);
         }
 
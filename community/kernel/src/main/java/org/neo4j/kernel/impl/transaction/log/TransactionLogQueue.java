@@ -22,12 +22,17 @@ package org.neo4j.kernel.impl.transaction.log;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.locks.LockSupport.parkNanos;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Queue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.LockSupport;
 import org.jctools.queues.MessagePassingQueue;
+import org.jctools.queues.MpmcArrayQueue;
 import org.jctools.queues.MpscUnboundedXaddArrayQueue;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
@@ -37,6 +42,7 @@ import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Panic;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
@@ -48,6 +54,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private static final int CONSUMER_MAX_BATCH = 1024;
     private static final int INITIAL_CAPACITY = 128;
     private static final int FAILED_TX_MARKER = -1;
+    private static final int MAX_POOLED_SERIALIZATION_BUFFERS = 32;
+    private static final int MAX_POOLED_SERIALIZATION_BUFFER_CAPACITY = 128 * 1024;
 
     private final LogFiles logFiles;
     private final LogRotation logRotation;
@@ -56,6 +64,9 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private final MpscUnboundedXaddArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
     private final InternalLog log;
+    private final Duration groupCommitTargetLatency;
+    private final MemoryTracker memoryTracker;
+    private SerializationBufferPool serializationBuffers;
     private TransactionWriter transactionWriter;
     private Thread logAppender;
     private volatile boolean stopped;
@@ -66,6 +77,22 @@ public class TransactionLogQueue extends LifecycleAdapter {
             Panic databasePanic,
             JobScheduler jobScheduler,
             InternalLogProvider logProvider) {
+        this(logFiles, transactionIdStore, databasePanic, jobScheduler, logProvider, Duration.ZERO, INSTANCE);
+    }
+
+    /**
+     * @param groupCommitTargetLatency latency within which forcing a batch of transactions should complete, when
+     * delaying the force to let more transactions join the batch. See {@link AdaptiveGroupCommit}.
+     * @param memoryTracker tracker of the buffers that committing threads serialize their commands into.
+     */
+    public TransactionLogQueue(
+            LogFiles logFiles,
+            TransactionIdStore transactionIdStore,
+            Panic databasePanic,
+            JobScheduler jobScheduler,
+            InternalLogProvider logProvider,
+            Duration groupCommitTargetLatency,
+            MemoryTracker memoryTracker) {
         this.logFiles = logFiles;
         this.logRotation = logFiles.getLogFile().getLogRotation();
         this.transactionIdStore = transactionIdStore;
@@ -74,15 +101,21 @@ public class TransactionLogQueue extends LifecycleAdapter {
         this.jobScheduler = jobScheduler;
         this.stopped = true;
         this.log = logProvider.getLog(getClass());
+        this.groupCommitTargetLatency = groupCommitTargetLatency;
+        this.memoryTracker = memoryTracker;
     }
 
     public TxQueueElement submit(CommandBatchToApply batch, LogAppendEvent logAppendEvent) throws IOException {
         if (stopped) {
             throw new DatabaseShutdownException();
         }
-        TxQueueElement txQueueElement = new TxQueueElement(batch, logAppendEvent);
+        // Serialize the commands here, on the committing thread, so that the log writer thread only has to copy them
+        // into the log. This way a big transaction doesn't hold up all the transactions queued up behind it.
+        TxQueueElement txQueueElement =
+                new TxQueueElement(batch, logAppendEvent, serializeCommands(batch), serializationBuffers);
         while (!txAppendQueue.offer(txQueueElement)) {
             if (stopped) {
+                txQueueElement.releaseSerializedCommands();
                 throw new DatabaseShutdownException();
             }
         }
@@ -90,10 +123,34 @@ public class TransactionLogQueue extends LifecycleAdapter {
         return txQueueElement;
     }
 
+    private CommandSerializationBuffer serializeCommands(CommandBatchToApply batch) throws IOException {
+        CommandSerializationBuffer buffer = serializationBuffers.acquire();
+        try {
+            CommandBatchToApply commands = batch;
+            while (commands != null) {
+                buffer.serialize(commands.commandBatch());
+                commands = commands.next();
+            }
+            return buffer;
+        } catch (Throwable t) {
+            serializationBuffers.release(buffer);
+            throw t;
+        }
+    }
+
     @Override
     public synchronized void start() {
+        // Serialize commands the same way as the log writer would, compressing them if it does
+        serializationBuffers = new SerializationBufferPool(
+                logFiles.getLogFile().getTransactionLogWriter().getWriter().compressesCommands(), memoryTracker);
         transactionWriter = new TransactionWriter(
-                txAppendQueue, logFiles.getLogFile(), transactionIdStore, databasePanic, logRotation, log);
+                txAppendQueue,
+                logFiles.getLogFile(),
+                transactionIdStore,
+                databasePanic,
+                logRotation,
+                log,
+                new AdaptiveGroupCommit(groupCommitTargetLatency));
         logAppender = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(transactionWriter);
         logAppender.start();
         stopped = false;
@@ -111,6 +168,10 @@ public class TransactionLogQueue extends LifecycleAdapter {
         if (appender != null) {
             appender.join();
         }
+        SerializationBufferPool buffers = this.serializationBuffers;
+        if (buffers != null) {
+            buffers.close();
+        }
     }
 
     static class TxQueueElement {
@@ -118,18 +179,38 @@ public class TransactionLogQueue extends LifecycleAdapter {
 
         private final CommandBatchToApply batch;
         private final LogAppendEvent logAppendEvent;
+        private final SerializationBufferPool serializationBuffers;
         private final Thread executor;
+        private CommandSerializationBuffer serializedCommands;
         private Throwable throwable;
         private TxQueueElement[] elementsToNotify;
         private volatile long[] txIds;
         private volatile long txId;
 
-        TxQueueElement(CommandBatchToApply batch, LogAppendEvent logAppendEvent) {
+        TxQueueElement(
+                CommandBatchToApply batch,
+                LogAppendEvent logAppendEvent,
+                CommandSerializationBuffer serializedCommands,
+                SerializationBufferPool serializationBuffers) {
             this.batch = batch;
             this.logAppendEvent = logAppendEvent;
+            this.serializedCommands = serializedCommands;
+            this.serializationBuffers = serializationBuffers;
             this.executor = Thread.currentThread();
         }
 
+        /**
+         * Hands the buffer with the serialized commands back to the pool, must be called by the thread currently
+         * owning this element, i.e. by the log writer once the element has been queued.
+         */
+        void releaseSerializedCommands() {
+            CommandSerializationBuffer buffer = serializedCommands;
+            if (buffer != null) {
+                serializedCommands = null;
+                serializationBuffers.release(buffer);
+            }
+        }
+
         public long getCommittedTxId() {
             while (txId == 0 && txIds == null) {
                 LockSupport.parkNanos(PARK_TIME);
@@ -168,6 +249,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private final int checksum;
         private volatile boolean stopped;
         private final MessagePassingQueue.WaitStrategy waitStrategy;
+        private final AdaptiveGroupCommit groupCommit;
 
         TransactionWriter(
                 MpscUnboundedXaddArrayQueue<TxQueueElement> txQueue,
@@ -175,7 +257,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 TransactionIdStore transactionIdStore,
                 Panic databasePanic,
                 LogRotation logRotation,
-                InternalLog log) {
+                InternalLog log,
+                AdaptiveGroupCommit groupCommit) {
             this.txQueue = txQueue;
             this.transactionLogWriter = logFile.getTransactionLogWriter();
             this.logFile = logFile;
@@ -184,6 +267,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
             this.logRotation = logRotation;
             this.log = log;
             this.waitStrategy = new SpinParkCombineWaitingStrategy();
+            this.groupCommit = groupCommit;
         }
 
         @Override
@@ -196,13 +280,19 @@ public class TransactionLogQueue extends LifecycleAdapter {
                     int drainedElements = txQueue.drain(txConsumer, CONSUMER_MAX_BATCH);
                     if (drainedElements > 0) {
                         idleCounter = 0;
+                        if (groupCommit.isEnabled()) {
+                            drainedElements = delayForce(txConsumer, drainedElements);
+                            groupCommit.transactionsArrived(drainedElements, System.nanoTime());
+                        }
                         txConsumer.processBatch();
 
                         LogAppendEvent logAppendEvent = txConsumer.txElements[drainedElements - 1].logAppendEvent;
                         boolean logRotated = logRotation.locklessRotateLogIfNeeded(logAppendEvent);
                         logAppendEvent.setLogRotated(logRotated);
                         if (!logRotated) {
+                            long forceStart = System.nanoTime();
                             logFile.locklessForce(logAppendEvent);
+                            groupCommit.forced(System.nanoTime() - forceStart);
                         }
                         txConsumer.complete();
                     } else {
@@ -218,10 +308,41 @@ public class TransactionLogQueue extends LifecycleAdapter {
             DatabaseShutdownException databaseShutdownException = new DatabaseShutdownException();
             TxQueueElement element;
             while ((element = txQueue.poll()) != null) {
+                element.releaseSerializedCommands();
                 element.fail(databaseShutdownException);
             }
         }
 
+        /**
+         * Keeps taking transactions from the queue into the current batch for as long as {@link AdaptiveGroupCommit}
+         * thinks it's worth delaying the force of the batch for.
+         *
+         * @return number of transactions in the batch after the delay.
+         */
+        private int delayForce(TxConsumer txConsumer, int drainedElements) {
+            long delayNanos = groupCommit.delayNanos(drainedElements, CONSUMER_MAX_BATCH);
+            if (delayNanos == AdaptiveGroupCommit.NO_DELAY) {
+                return drainedElements;
+            }
+            long start = System.nanoTime();
+            long deadline = start + delayNanos;
+            int batchSize = drainedElements;
+            long now = start;
+            while (batchSize < CONSUMER_MAX_BATCH && now < deadline && !stopped) {
+                int drained = txQueue.drain(txConsumer, CONSUMER_MAX_BATCH - batchSize);
+                if (drained == 0) {
+                    // Committing threads unpark the log writer when they queue a transaction, so this wakes up as
+                    // soon as there's more to take into the batch
+                    parkNanos(deadline - now);
+                }
+                batchSize += drained;
+                now = System.nanoTime();
+            }
+            txConsumer.txElements[batchSize - 1].logAppendEvent.setForceDelayed(
+                    System.nanoTime() - start, batchSize - drainedElements);
+            return batchSize;
+        }
+
         private static class TxConsumer implements MessagePassingQueue.Consumer<TxQueueElement> {
             private final Panic databasePanic;
             private final TransactionLogWriter transactionLogWriter;
@@ -254,10 +375,16 @@ public class TransactionLogQueue extends LifecycleAdapter {
                     LogAppendEvent logAppendEvent = txQueueElement.logAppendEvent;
                     long lastTransactionId = TransactionIdStore.BASE_TX_ID;
                     try (var appendEvent = logAppendEvent.beginAppendTransaction(drainedElements)) {
+                        CommandSerializationBuffer serializedCommands = txQueueElement.serializedCommands;
                         CommandBatchToApply commands = txQueueElement.batch;
+                        int batchIndex = 0;
                         while (commands != null) {
                             long transactionId = commands.transactionId();
-                            appendToLog(commands, transactionId, logAppendEvent);
+                            appendToLog(
+                                    commands,
+                                    serializedCommands.serializedBatch(batchIndex++),
+                                    transactionId,
+                                    logAppendEvent);
                             commands = commands.next();
                             lastTransactionId = transactionId;
                         }
@@ -266,17 +393,23 @@ public class TransactionLogQueue extends LifecycleAdapter {
                         txQueueElement.fail(e);
                         throwIfUnchecked(e);
                         throw new RuntimeException(e);
+                    } finally {
+                        txQueueElement.releaseSerializedCommands();
                     }
                 }
             }
 
             private void appendToLog(
-                    CommandBatchToApply commandBatchToApply, long transactionId, LogAppendEvent logAppendEvent)
+                    CommandBatchToApply commandBatchToApply,
+                    ByteBuffer serializedCommands,
+                    long transactionId,
+                    LogAppendEvent logAppendEvent)
                     throws IOException {
                 var logPositionBeforeCommit = transactionLogWriter.getCurrentPosition();
                 CommandBatch commandBatch = commandBatchToApply.commandBatch();
                 this.checksum = transactionLogWriter.append(
                         commandBatch,
+                        serializedCommands,
                         transactionId,
                         commandBatchToApply.chunkId(),
                         checksum,
@@ -298,6 +431,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
 
             public void cancelBatch(Throwable t) {
                 for (int i = 0; i < index; i++) {
+                    txElements[i].releaseSerializedCommands();
                     txElements[i].fail(t);
                 }
                 Arrays.fill(txElements, 0, index, null);
@@ -310,6 +444,55 @@ public class TransactionLogQueue extends LifecycleAdapter {
         }
     }
 
+    /**
+     * Pool of {@link CommandSerializationBuffer buffers} that committing threads serialize their commands into.
+     * Buffers that, together with their compression scratch buffer, have grown beyond
+     * {@link #MAX_POOLED_SERIALIZATION_BUFFER_CAPACITY} while serializing a big transaction are not kept, so that the pool doesn't hold on to more memory than needed for regular transactions.
+     */
+    static class SerializationBufferPool implements AutoCloseable {
+        private final Queue<CommandSerializationBuffer> buffers =
+                new MpmcArrayQueue<>(MAX_POOLED_SERIALIZATION_BUFFERS);
+        private final boolean compressCommands;
+        private final MemoryTracker memoryTracker;
+        private volatile boolean closed;
+
+        SerializationBufferPool(boolean compressCommands, MemoryTracker memoryTracker) {
+            this.compressCommands = compressCommands;
+            this.memoryTracker = memoryTracker;
+        }
+
+        CommandSerializationBuffer acquire() {
+            CommandSerializationBuffer buffer = buffers.poll();
+            return buffer != null ? buffer : new CommandSerializationBuffer(compressCommands, memoryTracker);
+        }
+
+        void release(CommandSerializationBuffer buffer) {
+            if (closed || buffer.retainedCapacity() > MAX_POOLED_SERIALIZATION_BUFFER_CAPACITY) {
+                buffer.close();
+                return;
+            }
+            buffer.clear();
+            if (!buffers.offer(buffer)) {
+                buffer.close();
+                return;
+            }
+            // The pool may have been closed just before the buffer was put into it, in which case the buffer
+            // needs to be released here since close will not be called again
+            if (closed && buffers.remove(buffer)) {
+                buffer.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            CommandSerializationBuffer buffer;
+            while ((buffer = buffers.poll()) != null) {
+                buffer.close();
+            }
+        }
+    }
+
     /**
      * Message wait strategy that will try to wait at first for number of times for new work by using Thread.onSpinWait, and fallback to parkNanos
      * if new work did not arrive.
@@ -69,6 +69,24 @@ public class TransactionLogWriter {
             int previousChecksum,
             LogPosition previousBatchPosition)
             throws IOException {
+        return append(batch, null, transactionId, chunkId, previousChecksum, previousBatchPosition);
+    }
+
+    /**
+     * Like {@link #append(CommandBatch, long, long, int, LogPosition)}, but with the commands of the batch already
+     * serialized into {@code serializedCommands}, using the kernel version of the batch. Only the entries around
+     * the commands are written here, the commands themselves are copied as is.
+     *
+     * @param serializedCommands the serialized commands of {@code batch}, or {@code null} to serialize them here.
+     */
+    public int append(
+            CommandBatch batch,
+            ByteBuffer serializedCommands,
+            long transactionId,
+            long chunkId,
+            int previousChecksum,
+            LogPosition previousBatchPosition)
+            throws IOException {
         KernelVersion kernelVersion = batch.kernelVersion();
         if (kernelVersion == null) {
             kernelVersion = versionProvider.kernelVersion();
@@ -90,7 +108,11 @@ public class TransactionLogWriter {
         }
 
         // Write all the commands to the log channel
-        writer.serialize(batch, kernelVersion);
+        if (serializedCommands != null) {
+            channel.putAll(serializedCommands);
+        } else {
+            writer.serialize(batch, kernelVersion);
+        }
 
         if (batch.isLast()) {
             return writer.writeCommitEntry(version, transactionId, batch.getTimeCommitted());
@@ -114,7 +114,13 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer {
     @Override
     public long forceCheckPoint(TriggerInfo info) throws IOException {
         try (Resource lock = mutex.checkPoint()) {
-            return checkpointByTrigger(info);
+            // Someone waits for forced checkpoints, like the shutdown of the database, so their IO is not limited
+            ioController.disable();
+            try {
+                return checkpointByTrigger(info);
+            } finally {
+                ioController.enable();
+            }
         }
     }
 
@@ -122,7 +128,12 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer {
     public long forceCheckPoint(TransactionId transactionId, LogPosition position, TriggerInfo triggerInfo)
             throws IOException {
         try (Resource lock = mutex.checkPoint()) {
-            return checkpointByExternalParams(transactionId, position, triggerInfo);
+            ioController.disable();
+            try {
+                return checkpointByExternalParams(transactionId, position, triggerInfo);
+            } finally {
+                ioController.enable();
+            }
         }
     }
 
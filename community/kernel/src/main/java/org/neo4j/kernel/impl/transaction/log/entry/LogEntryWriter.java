@@ -19,27 +19,60 @@
  */
 package org.neo4j.kernel.impl.transaction.log.entry;
 
+import static org.neo4j.kernel.KernelVersion.VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHUNK_END;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHUNK_START;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_ROLLBACK;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.neo4j.io.fs.WritableChannel;
 import org.neo4j.io.fs.WritableChecksumChannel;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.CommandBatch;
 import org.neo4j.storageengine.api.StorageCommand;
 
 public class LogEntryWriter<T extends WritableChecksumChannel> {
     protected final T channel;
+    private final CompressionScratchChannel compressionScratch;
 
     public LogEntryWriter(T channel) {
+        this(channel, false);
+    }
+
+    /**
+     * @param channel channel to write log entries to.
+     * @param compressCommands whether or not to compress the commands of command batches, for kernel versions
+     * supporting it. See {@link CommandCompression}.
+     */
+    public LogEntryWriter(T channel, boolean compressCommands) {
+        this(channel, compressCommands, EmptyMemoryTracker.INSTANCE);
+    }
+
+    /**
+     * @param channel channel to write log entries to.
+     * @param compressCommands whether or not to compress the commands of command batches, for kernel versions
+     * supporting it. See {@link CommandCompression}.
+     * @param memoryTracker tracker of the buffer that commands are serialized into before being compressed, until
+     * {@link #releaseCompressionScratch()}.
+     */
+    public LogEntryWriter(T channel, boolean compressCommands, MemoryTracker memoryTracker) {
+        this(channel, compressCommands, CommandCompression.MAX_UNCOMPRESSED_SIZE, memoryTracker);
+    }
+
+    LogEntryWriter(T channel, boolean compressCommands, int maxCompressedSize, MemoryTracker memoryTracker) {
         this.channel = channel;
+        this.compressionScratch =
+                compressCommands ? new CompressionScratchChannel(maxCompressedSize, memoryTracker) : null;
     }
 
     public void writeLogEntryHeader(byte version, byte type, WritableChannel channel) throws IOException {
@@ -101,6 +134,15 @@ public class LogEntryWriter<T extends WritableChecksumChannel> {
     }
 
     public void serialize(Iterable<StorageCommand> commands, KernelVersion kernelVersion) throws IOException {
+        if (compressionScratch != null && kernelVersion.isAtLeast(VERSION_COMPRESSED_TX_LOG_COMMANDS_INTRODUCED)) {
+            serializeCompressed(commands, kernelVersion);
+            return;
+        }
+        serialize(commands, kernelVersion, channel);
+    }
+
+    private void serialize(Iterable<StorageCommand> commands, KernelVersion kernelVersion, WritableChannel channel)
+            throws IOException {
         byte version = kernelVersion.version();
         for (StorageCommand storageCommand : commands) {
             writeLogEntryHeader(version, COMMAND, channel);
@@ -108,12 +150,203 @@ public class LogEntryWriter<T extends WritableChecksumChannel> {
         }
     }
 
+    private void serializeCompressed(Iterable<StorageCommand> commands, KernelVersion kernelVersion)
+            throws IOException {
+        try {
+            serializeCompressed(commands, kernelVersion, compressionScratch);
+        } finally {
+            // Also gives back the memory of the scratch buffer if these commands made it grow a lot
+            compressionScratch.clear();
+        }
+    }
+
+    private void serializeCompressed(
+            Iterable<StorageCommand> commands,
+            KernelVersion kernelVersion,
+            CompressionScratchChannel compressionScratch)
+            throws IOException {
+        try {
+            serialize(commands, kernelVersion, compressionScratch);
+        } catch (CompressionScratchChannel.CapacityExceededException e) {
+            // Too big to be compressed, write the commands straight to the channel instead
+            compressionScratch.clear();
+            serialize(commands, kernelVersion, channel);
+            return;
+        }
+        byte[] serialized = compressionScratch.array();
+        int length = compressionScratch.position();
+        byte[] compressed = length >= CommandCompression.MIN_COMPRESSED_SIZE
+                ? CommandCompression.compress(serialized, length)
+                : null;
+        if (compressed == null) {
+            // Not worth compressing, write the commands as they are
+            channel.put(serialized, length);
+            return;
+        }
+        writeLogEntryHeader(kernelVersion.version(), COMPRESSED_COMMANDS, channel);
+        channel.putInt(length).putInt(compressed.length).put(compressed, compressed.length);
+    }
+
     public void serialize(StorageCommand command, KernelVersion kernelVersion) throws IOException {
         writeLogEntryHeader(kernelVersion.version(), COMMAND, channel);
         command.serialize(channel);
     }
 
+    public boolean compressesCommands() {
+        return compressionScratch != null;
+    }
+
+    /**
+     * @return the number of bytes currently held by the buffer that commands are serialized into before being
+     * compressed, or {@code 0} if commands are not compressed.
+     */
+    public int compressionScratchCapacity() {
+        return compressionScratch != null ? compressionScratch.capacity() : 0;
+    }
+
+    /**
+     * Releases the memory of the buffer that commands are serialized into before being compressed. Commands can not
+     * be serialized by this writer after this call.
+     */
+    public void releaseCompressionScratch() {
+        if (compressionScratch != null) {
+            compressionScratch.release();
+        }
+    }
+
     public T getChannel() {
         return channel;
     }
+
+    /**
+     * Heap buffer that commands are serialized into before being compressed. Uses the byte order of the
+     * transaction log channel since it's also written as is when compression doesn't pay off. Doesn't grow beyond
+     * its max capacity, commands that don't fit are not compressed. Shrinks back to its initial capacity when cleared
+     * after having grown beyond {@link #MAX_RETAINED_CAPACITY}, so that a single big transaction doesn't pin the
+     * memory for as long as the writer lives.
+     */
+    private static class CompressionScratchChannel implements WritableChannel {
+        private static final int INITIAL_CAPACITY = 8192;
+        private static final int MAX_RETAINED_CAPACITY = 128 * 1024;
+
+        private final int maxCapacity;
+        private final MemoryTracker memoryTracker;
+        private ByteBuffer buffer;
+
+        CompressionScratchChannel(int maxCapacity, MemoryTracker memoryTracker) {
+            this.maxCapacity = maxCapacity;
+            this.memoryTracker = memoryTracker;
+            this.buffer = allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+        }
+
+        @Override
+        public WritableChannel put(byte value) {
+            ensureCapacity(Byte.BYTES).put(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putShort(short value) {
+            ensureCapacity(Short.BYTES).putShort(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putInt(int value) {
+            ensureCapacity(Integer.BYTES).putInt(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putLong(long value) {
+            ensureCapacity(Long.BYTES).putLong(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putFloat(float value) {
+            ensureCapacity(Float.BYTES).putFloat(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putDouble(double value) {
+            ensureCapacity(Double.BYTES).putDouble(value);
+            return this;
+        }
+
+        @Override
+        public WritableChannel put(byte[] value, int offset, int length) {
+            ensureCapacity(length).put(value, offset, length);
+            return this;
+        }
+
+        @Override
+        public WritableChannel putAll(ByteBuffer src) {
+            ensureCapacity(src.remaining()).put(src);
+            return this;
+        }
+
+        @Override
+        public void close() {}
+
+        byte[] array() {
+            return buffer.array();
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        void clear() {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                memoryTracker.releaseHeap(buffer.capacity());
+                buffer = allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+            } else {
+                buffer.clear();
+            }
+        }
+
+        void release() {
+            memoryTracker.releaseHeap(buffer.capacity());
+            buffer = ByteBuffer.allocate(0);
+        }
+
+        private ByteBuffer ensureCapacity(int bytes) {
+            if (buffer.remaining() < bytes) {
+                long required = (long) buffer.position() + bytes;
+                if (required > maxCapacity) {
+                    throw CapacityExceededException.INSTANCE;
+                }
+                int capacity = (int) Math.min(Math.max(buffer.capacity() * 2L, required), maxCapacity);
+                ByteBuffer grown = allocate(capacity);
+                buffer.flip();
+                grown.put(buffer);
+                memoryTracker.releaseHeap(buffer.capacity());
+                buffer = grown;
+            }
+            return buffer;
+        }
+
+        private ByteBuffer allocate(int capacity) {
+            memoryTracker.allocateHeap(capacity);
+            return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Thrown when commands don't fit within the max capacity. Shared and stackless since it's only used to
+         * unwind the serialization into the scratch buffer.
+         */
+        static final class CapacityExceededException extends RuntimeException {
+            static final CapacityExceededException INSTANCE = new CapacityExceededException();
+
+            private CapacityExceededException() {
+                super("Commands exceed the max capacity of the compression scratch buffer", null, false, false);
+            }
+        }
+    }
 }
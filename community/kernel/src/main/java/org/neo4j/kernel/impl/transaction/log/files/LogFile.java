@@ -157,4 +157,13 @@ public interface LogFile extends RotatableFile {
      * @param maxDeletedVersion version up to terminate external readers.
      */
     void terminateExternalReaders(long maxDeletedVersion);
+
+    /**
+     * Keeps the log file of a version that is being pruned for reuse as a future log file, if reuse of log files
+     * is enabled, there's room for more reusable files and no channel opened by this log file still reads it.
+     * @param version the version that is being pruned.
+     * @return {@code true} if the file was kept for reuse, {@code false} if it should be deleted.
+     * @throws IOException on failure to prepare the file for reuse.
+     */
+    boolean recycle(long version) throws IOException;
 }
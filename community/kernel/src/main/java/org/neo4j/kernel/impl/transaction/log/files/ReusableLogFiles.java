@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.regex.Pattern.compile;
+import static java.util.regex.Pattern.quote;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * Ring of pruned transaction log files that are kept around, zero-filled, to be reused as new log files.
+ * <p>
+ * A new log file is normally preallocated, which leaves its blocks allocated but unwritten, so that every force
+ * of the file while it's being filled up also has to persist the conversion of those blocks to written ones.
+ * Reused files have already been written in full, which means that forcing them is a pure data flush.
+ * <p>
+ * Reusable files live next to the log files, named with a {@link #REUSABLE_FILE_PREFIX prefix} so that they're
+ * not mistaken for log files. They're zero-filled when pruned, rather than when reused, to keep that work off
+ * the path of log rotation. A pruned file is moved away from its log file name before it's zero-filled, so that a
+ * crash in the middle of it can't leave a partially zero-filled file behind under a log file name.
+ * <p>
+ * Recycling is serialized by the log pruning lock. The monitor of this class only guards listing and renaming of
+ * the reusable files, so that {@link #reuse(Path)} never waits for a file to be zero-filled.
+ */
+class ReusableLogFiles {
+    static final String REUSABLE_FILE_PREFIX = "reusable.";
+    static final String RECYCLING_FILE_SUFFIX = "recycling";
+    static final ReusableLogFiles DISABLED = new ReusableLogFiles(null, null, null, 0, null, null);
+
+    private static final String VERSION_SUFFIX = ".";
+    private static final int ZERO_BUFFER_SIZE = (int) ByteUnit.mebiBytes(1);
+
+    private final FileSystemAbstraction fileSystem;
+    private final Path logDirectory;
+    private final String reusableBaseName;
+    private final int maxReusableFiles;
+    private final AtomicLong rotationThreshold;
+    private final MemoryTracker memoryTracker;
+    private final Path recyclingFile;
+    private final Pattern reusableFilePattern;
+
+    ReusableLogFiles(
+            FileSystemAbstraction fileSystem,
+            Path logDirectory,
+            String baseName,
+            int maxReusableFiles,
+            AtomicLong rotationThreshold,
+            MemoryTracker memoryTracker) {
+        this.fileSystem = fileSystem;
+        this.logDirectory = logDirectory;
+        this.reusableBaseName = REUSABLE_FILE_PREFIX + baseName + VERSION_SUFFIX;
+        this.maxReusableFiles = maxReusableFiles;
+        this.rotationThreshold = rotationThreshold;
+        this.memoryTracker = memoryTracker;
+        this.recyclingFile =
+                logDirectory != null ? logDirectory.resolve(reusableBaseName + RECYCLING_FILE_SUFFIX) : null;
+        this.reusableFilePattern = compile(quote(reusableBaseName) + "\\d+");
+    }
+
+    boolean isEnabled() {
+        return maxReusableFiles > 0;
+    }
+
+    /**
+     * Zero-fills the given, pruned, log file and keeps it for reuse, unless there are already as many reusable
+     * files as configured, or the file is still being read. Must only be called by one thread at a time.
+     *
+     * @param logFile the log file that is being pruned.
+     * @param readersOpen tells whether there still are readers of the log file. It's checked after the file has been
+     * moved away from its log file name, when no new readers can open it.
+     * @return {@code true} if the file was kept for reuse, otherwise {@code false} and the caller should delete it.
+     */
+    boolean recycle(Path logFile, BooleanSupplier readersOpen) throws IOException {
+        if (!isEnabled()) {
+            return false;
+        }
+        synchronized (this) {
+            if (reusableFiles().length >= maxReusableFiles) {
+                return false;
+            }
+        }
+        // Replaces whatever is left of a recycling that was interrupted by a crash
+        fileSystem.renameFile(logFile, recyclingFile, StandardCopyOption.REPLACE_EXISTING);
+        if (readersOpen.getAsBoolean()) {
+            // Zero-filling would overwrite what they are reading, leave it to be deleted instead
+            fileSystem.renameFile(recyclingFile, logFile);
+            return false;
+        }
+        try (StoreChannel channel = fileSystem.write(recyclingFile)) {
+            zeroFill(channel, max(channel.size(), rotationThreshold.get()));
+        }
+        synchronized (this) {
+            Path[] reusableFiles = reusableFiles();
+            long nextIndex = reusableFiles.length == 0 ? 0 : index(reusableFiles[reusableFiles.length - 1]) + 1;
+            fileSystem.renameFile(recyclingFile, logDirectory.resolve(reusableBaseName + nextIndex));
+        }
+        return true;
+    }
+
+    /**
+     * Moves the oldest reusable file, if any, in place as the given new log file.
+     *
+     * @param logFile the log file to create.
+     * @return {@code true} if a reusable file now is in place as {@code logFile}, otherwise {@code false}.
+     */
+    synchronized boolean reuse(Path logFile) throws IOException {
+        if (!isEnabled()) {
+            return false;
+        }
+        Path[] reusableFiles = reusableFiles();
+        if (reusableFiles.length == 0) {
+            return false;
+        }
+        fileSystem.renameFile(reusableFiles[0], logFile);
+        return true;
+    }
+
+    private void zeroFill(StoreChannel channel, long size) throws IOException {
+        try (var scopedBuffer = new HeapScopedBuffer(ZERO_BUFFER_SIZE, ByteOrder.LITTLE_ENDIAN, memoryTracker)) {
+            ByteBuffer zeros = scopedBuffer.getBuffer();
+            for (long position = 0; position < size; position += zeros.limit()) {
+                zeros.clear().limit((int) min(ZERO_BUFFER_SIZE, size - position));
+                channel.writeAll(zeros, position);
+            }
+        }
+        channel.force(true);
+    }
+
+    private Path[] reusableFiles() throws IOException {
+        Path[] files = fileSystem.listFiles(logDirectory, file -> reusableFilePattern
+                .matcher(file.getFileName().toString())
+                .matches());
+        Arrays.sort(files, Comparator.comparingLong(this::index));
+        return files;
+    }
+
+    private long index(Path reusableFile) {
+        return Long.parseLong(reusableFile.getFileName().toString().substring(reusableBaseName.length()));
+    }
+}
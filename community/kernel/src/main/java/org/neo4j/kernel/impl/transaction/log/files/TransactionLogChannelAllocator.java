@@ -29,6 +29,8 @@ import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.LongSupplier;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
@@ -47,18 +49,31 @@ public class TransactionLogChannelAllocator {
     private final LogHeaderCache logHeaderCache;
     private final ChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final ReusableLogFiles reusableLogFiles;
+    // Number of channels opened by openLogChannel that are not closed yet, per log version
+    private final ConcurrentMap<Long, Integer> openReaders = new ConcurrentHashMap<>();
 
     public TransactionLogChannelAllocator(
             TransactionLogFilesContext logFilesContext,
             TransactionLogFilesHelper fileHelper,
             LogHeaderCache logHeaderCache,
             ChannelNativeAccessor nativeChannelAccessor) {
+        this(logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, ReusableLogFiles.DISABLED);
+    }
+
+    TransactionLogChannelAllocator(
+            TransactionLogFilesContext logFilesContext,
+            TransactionLogFilesHelper fileHelper,
+            LogHeaderCache logHeaderCache,
+            ChannelNativeAccessor nativeChannelAccessor,
+            ReusableLogFiles reusableLogFiles) {
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
         this.databaseTracer = logFilesContext.getDatabaseTracers().getDatabaseTracer();
         this.fileHelper = fileHelper;
         this.logHeaderCache = logHeaderCache;
         this.nativeChannelAccessor = nativeChannelAccessor;
+        this.reusableLogFiles = reusableLogFiles;
     }
 
     public PhysicalLogVersionedStoreChannel createLogChannel(long version, LongSupplier lastCommittedTransactionId)
@@ -93,6 +108,31 @@ public class TransactionLogChannelAllocator {
     }
 
     public PhysicalLogVersionedStoreChannel openLogChannel(long version, boolean raw) throws IOException {
+        // Counted before the file is opened, so that anyone checking for readers after the file has been moved away
+        // sees every reader that may have opened it
+        openReaders.merge(version, 1, Integer::sum);
+        try {
+            return openReaderChannel(version, raw);
+        } catch (Throwable t) {
+            readerClosed(version);
+            throw t;
+        }
+    }
+
+    /**
+     * @param version the log version to check.
+     * @return whether there are channels opened by {@link #openLogChannel(long, boolean)} for the given version that
+     * are not closed yet.
+     */
+    boolean hasOpenReaders(long version) {
+        return openReaders.containsKey(version);
+    }
+
+    private void readerClosed(long version) {
+        openReaders.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+    }
+
+    private PhysicalLogVersionedStoreChannel openReaderChannel(long version, boolean raw) throws IOException {
         Path fileToOpen = fileHelper.getLogFileForVersion(version);
 
         if (!fileSystem.fileExists(fileToOpen)) {
@@ -109,14 +149,29 @@ public class TransactionLogChannelAllocator {
                         "Unexpected log file header. Expected header version: %d, actual header: %s",
                         version, header != null ? header.toString() : "null header."));
             }
-            var versionedStoreChannel = new PhysicalLogVersionedStoreChannel(
-                    rawChannel,
-                    version,
-                    header.getLogFormatVersion(),
-                    fileToOpen,
-                    nativeChannelAccessor,
-                    databaseTracer,
-                    raw);
+            var versionedStoreChannel =
+                    new PhysicalLogVersionedStoreChannel(
+                            rawChannel,
+                            version,
+                            header.getLogFormatVersion(),
+                            fileToOpen,
+                            nativeChannelAccessor,
+                            databaseTracer,
+                            raw) {
+                        private boolean closed;
+
+                        @Override
+                        public void close() throws IOException {
+                            try {
+                                super.close();
+                            } finally {
+                                if (!closed) {
+                                    closed = true;
+                                    readerClosed(version);
+                                }
+                            }
+                        }
+                    };
             if (!raw) {
                 nativeChannelAccessor.adviseSequentialAccessAndKeepInCache(rawChannel, version);
             }
@@ -140,8 +195,10 @@ public class TransactionLogChannelAllocator {
     private AllocatedFile allocateFile(long version) throws IOException {
         Path file = fileHelper.getLogFileForVersion(version);
         boolean fileExist = fileSystem.fileExists(file);
+        // A reused file is already zero-filled and fully written, so there's no need to preallocate it
+        boolean reused = !fileExist && reusableLogFiles.reuse(file);
         StoreChannel storeChannel = fileSystem.write(file);
-        if (fileExist) {
+        if (fileExist || reused) {
             nativeChannelAccessor.adviseSequentialAccessAndKeepInCache(storeChannel, version);
         } else if (logFilesContext.getTryPreallocateTransactionLogs().get()) {
             nativeChannelAccessor.preallocateSpace(storeChannel, version);
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.compress_transaction_log_commands;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.reusable_transaction_log_files;
 import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_buffer_size;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.rotation.FileLogRotation.transactionLogRotation;
@@ -65,6 +67,7 @@ import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
@@ -92,6 +95,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     private final MemoryTracker memoryTracker;
     private final TransactionLogFileInformation logFileInformation;
     private final TransactionLogChannelAllocator channelAllocator;
+    private final ReusableLogFiles reusableLogFiles;
     private final DatabaseHealth databaseHealth;
     private final LogFiles logFiles;
     private final String baseName;
@@ -115,8 +119,19 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         this.fileHelper = new TransactionLogFilesHelper(fileSystem, logFiles.logFilesDirectory(), baseName);
         this.logHeaderCache = new LogHeaderCache(1000);
         this.logFileInformation = new TransactionLogFileInformation(logFiles, logHeaderCache, context);
+        this.reusableLogFiles = new ReusableLogFiles(
+                fileSystem,
+                logFiles.logFilesDirectory(),
+                baseName,
+                context.getConfig().get(reusable_transaction_log_files),
+                rotateAtSize,
+                context.getMemoryTracker());
         this.channelAllocator = new TransactionLogChannelAllocator(
-                context, fileHelper, logHeaderCache, new LogFileChannelNativeAccessor(fileSystem, context));
+                context,
+                fileHelper,
+                logHeaderCache,
+                new LogFileChannelNativeAccessor(fileSystem, context),
+                reusableLogFiles);
         this.readerLogVersionBridge = new ReaderLogVersionBridge(this);
         this.logRotation = transactionLogRotation(
                 this, context.getClock(), databaseHealth, context.getMonitors().newMonitor(LogRotationMonitor.class));
@@ -142,7 +157,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
                 channel,
                 new NativeScopedBuffer(
                         context.getConfig().get(transaction_log_buffer_size), ByteOrder.LITTLE_ENDIAN, memoryTracker));
-        transactionLogWriter = new TransactionLogWriter(writer, context.getKernelVersionProvider());
+        transactionLogWriter = new TransactionLogWriter(
+                writer,
+                new LogEntryWriter<>(writer, context.getConfig().get(compress_transaction_log_commands), memoryTracker),
+                context.getKernelVersionProvider());
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -150,6 +168,9 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     // checkpoint) are already in
     @Override
     public void shutdown() throws IOException {
+        if (transactionLogWriter != null) {
+            transactionLogWriter.getWriter().releaseCompressionScratch();
+        }
         IOUtils.closeAll(writer);
     }
 
@@ -515,6 +536,11 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         });
     }
 
+    @Override
+    public boolean recycle(long version) throws IOException {
+        return reusableLogFiles.recycle(getLogFileForVersion(version), () -> channelAllocator.hasOpenReaders(version));
+    }
+
     @VisibleForTesting
     public ConcurrentMap<Long, List<StoreChannel>> getExternalFileReaders() {
         return externalFileReaders;
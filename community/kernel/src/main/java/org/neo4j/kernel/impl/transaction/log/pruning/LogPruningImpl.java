@@ -151,6 +151,9 @@ public class LogPruningImpl implements LogPruning {
             toVersion = toVersion == NO_VERSION ? version : Math.max(toVersion, version);
             Path logFilePath = logFile.getLogFileForVersion(version);
             try {
+                if (logFile.recycle(version)) {
+                    return;
+                }
                 fs.deleteFile(logFilePath);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
@@ -50,6 +50,24 @@ public interface TransactionLogCounters {
      */
     long numberOfFlushes();
 
+    /**
+     * Total number of transaction log forces that were delayed to let more transactions join the batch
+     * @return number of delayed forces
+     */
+    long numberOfDelayedForces();
+
+    /**
+     * Accumulated time that transaction log forces were delayed for, in milliseconds
+     * @return accumulated force delay time in milliseconds
+     */
+    long delayedForceAccumulatedTotalTimeMillis();
+
+    /**
+     * Total number of items that joined a batch while the transaction log force was delayed
+     * @return number of items that joined delayed batches
+     */
+    long delayedForceJoinedItems();
+
     /**
      * Size of last batch of transactions that was appended to transaction log
      * @return last append batch size
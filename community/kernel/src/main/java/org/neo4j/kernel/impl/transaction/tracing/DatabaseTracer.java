@@ -120,6 +120,21 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
             return 0;
         }
 
+        @Override
+        public long numberOfDelayedForces() {
+            return 0;
+        }
+
+        @Override
+        public long delayedForceAccumulatedTotalTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public long delayedForceJoinedItems() {
+            return 0;
+        }
+
         @Override
         public long lastTransactionLogAppendBatch() {
             return 0;
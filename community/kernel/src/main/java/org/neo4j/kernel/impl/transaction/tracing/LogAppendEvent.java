@@ -47,6 +47,13 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
      */
     void setLogRotated(boolean logRotated);
 
+    /**
+     * Note that forcing the log was delayed to let more items join the batch this transaction was appended in.
+     * @param delayNanos time that the force was delayed for
+     * @param joinedItems number of items that joined the batch during the delay
+     */
+    void setForceDelayed(long delayNanos, int joinedItems);
+
     /**
      * Begin serializing and writing out the commands for this transaction.
      * @param appendItems number of items we desire to append
@@ -63,6 +70,9 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void setForceDelayed(long delayNanos, int joinedItems) {}
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return LogRotateEvent.NULL;
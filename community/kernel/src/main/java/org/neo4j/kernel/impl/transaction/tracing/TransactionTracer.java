@@ -65,6 +65,21 @@ public interface TransactionTracer extends TransactionLogCounters {
             return 0;
         }
 
+        @Override
+        public long numberOfDelayedForces() {
+            return 0;
+        }
+
+        @Override
+        public long delayedForceAccumulatedTotalTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public long delayedForceJoinedItems() {
+            return 0;
+        }
+
         @Override
         public long lastTransactionLogAppendBatch() {
             return 0;
@@ -648,8 +648,8 @@ public final class Recovery {
                 failOnCorruptedLogFiles,
                 config);
 
-        var transactionAppender =
-                createTransactionAppender(logFiles, metadataProvider, config, databaseHealth, scheduler, logProvider);
+        var transactionAppender = createTransactionAppender(
+                logFiles, metadataProvider, config, databaseHealth, scheduler, logProvider, memoryTracker);
 
         LifeSupport schemaLife = new LifeSupport();
         schemaLife.add(storageEngine.schemaAndTokensLifecycle());
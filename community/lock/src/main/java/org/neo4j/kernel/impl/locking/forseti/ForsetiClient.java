@@ -30,12 +30,14 @@ import static org.neo4j.lock.LockType.SHARED;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 import org.eclipse.collections.api.block.procedure.primitive.LongProcedure;
+import org.neo4j.collection.StripedLongObjectHashMap;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
 import org.neo4j.collection.trackable.HeapTrackingLongIntHashMap;
 import org.neo4j.configuration.Config;
@@ -75,12 +77,14 @@ import org.neo4j.util.VisibleForTesting;
  */
 public class ForsetiClient implements Locks.Client {
     private static final int MAX_SPINS = 1000;
-    private static final long MULTIPLY_UNTIL_ITERATION = MAX_SPINS + 2;
     private static final int NO_CLIENT_ID = -1;
     private static final int NO_DEADLOCK_DEPTH = -1;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final StripedLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps;
+
+    /** Queues of the clients that are parked while waiting for locks, shared across all clients. */
+    private final LockWaitQueues waitQueues;
 
     /**
      * The client uses this to track which locks it holds. It is solely an optimization to ensure we don't need to
@@ -141,6 +145,11 @@ public class ForsetiClient implements Locks.Client {
     private volatile long waitingForResourceId;
     private volatile LockType waitingForLockType;
 
+    /** The wait queue we are in, if we are parked or about to park while waiting for a lock. */
+    private Queue<ForsetiClient> waitQueue;
+
+    private volatile Thread waitingThread;
+
     private volatile long transactionId;
     private final long clientId;
     private volatile DeferredScopedMemoryTracker memoryTracker;
@@ -148,11 +157,13 @@ public class ForsetiClient implements Locks.Client {
     private volatile long prepareThreadId;
 
     public ForsetiClient(
-            ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
+            StripedLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps,
+            LockWaitQueues waitQueues,
             SystemNanoClock clock,
             boolean verboseDeadlocks,
             long clientId) {
         this.lockMaps = lockMaps;
+        this.waitQueues = waitQueues;
         this.sharedLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.clock = clock;
@@ -181,7 +192,7 @@ public class ForsetiClient implements Locks.Client {
 
         try {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
@@ -255,6 +266,7 @@ public class ForsetiClient implements Locks.Client {
                     // And take note of who we are waiting for. This is used for deadlock detection.
                     waitFor(existingLock, resourceType, resourceId, SHARED, tries++);
                 }
+                leaveWaitQueue();
 
                 // Make a local note about the fact that we now hold this lock
                 activeLockCount.incrementAndGet();
@@ -278,6 +290,7 @@ public class ForsetiClient implements Locks.Client {
     }
 
     private void clearWaitState() {
+        leaveWaitQueue();
         clearWaitList();
         waitingForLock = null;
         waitingForResourceId = -1;
@@ -311,7 +324,7 @@ public class ForsetiClient implements Locks.Client {
         LockWaitEvent waitEvent = null;
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             for (long resourceId : resourceIds) {
@@ -348,6 +361,7 @@ public class ForsetiClient implements Locks.Client {
                     }
                     waitFor(existingLock, resourceType, resourceId, EXCLUSIVE, tries++);
                 }
+                leaveWaitQueue();
 
                 if (upgraded) {
                     // return this memory in case of upgrade as shared lock already tracks it
@@ -372,7 +386,7 @@ public class ForsetiClient implements Locks.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             int heldCount = heldLocks.getIfAbsent(resourceId, NO_CLIENT_ID);
@@ -394,6 +408,7 @@ public class ForsetiClient implements Locks.Client {
                             return true;
                         } else {
                             sharedLock.releaseUpdateLock();
+                            waitQueues.wakeNext(resourceType, resourceId);
                             memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
                             return false;
                         }
@@ -417,7 +432,7 @@ public class ForsetiClient implements Locks.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount(resourceType);
 
@@ -480,14 +495,14 @@ public class ForsetiClient implements Locks.Client {
         try {
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
             for (long resourceId : resourceIds) {
                 if (releaseLocalLock(resourceType, resourceId, sharedLocks)) {
                     continue;
                 }
                 // Only release if we were not holding an exclusive lock as well
                 if (!exclusiveLocks.containsKey(resourceId)) {
-                    releaseGlobalLock(resourceTypeLocks, resourceId);
+                    releaseGlobalLock(resourceType, resourceTypeLocks, resourceId);
                 }
             }
         } finally {
@@ -500,7 +515,7 @@ public class ForsetiClient implements Locks.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             for (long resourceId : resourceIds) {
@@ -514,6 +529,7 @@ public class ForsetiClient implements Locks.Client {
                     if (lock instanceof SharedLock sharedLock) {
                         if (sharedLock.isUpdateLock()) {
                             sharedLock.releaseUpdateLock();
+                            waitQueues.wakeNext(resourceType, resourceId);
                         } else {
                             throw new IllegalStateException("Incorrect state of exclusive lock. Lock should be updated "
                                     + "to exclusive before attempt to release it. Lock: " + this);
@@ -522,10 +538,11 @@ public class ForsetiClient implements Locks.Client {
                         // in case if current lock is exclusive we swap it to new shared lock
                         SharedLock sharedLock = new SharedLock(this);
                         resourceTypeLocks.put(resourceId, sharedLock);
+                        waitQueues.wakeNext(resourceType, resourceId);
                     }
                 } else {
                     // we do not hold shared lock so we just releasing it
-                    releaseGlobalLock(resourceTypeLocks, resourceId);
+                    releaseGlobalLock(resourceType, resourceTypeLocks, resourceId);
                 }
             }
         } finally {
@@ -543,14 +560,16 @@ public class ForsetiClient implements Locks.Client {
             // and so releasing exclusive locks means we can "throw away" our shared lock (which would normally have
             // been re-instated after releasing the exclusive lock).
             if (exclusiveLocks != null) {
-                exclusiveLocks.forEachKey(releaseExclusiveAndClearSharedVisitor.initialize(sharedLocks, lockMaps[i]));
+                exclusiveLocks.forEachKey(releaseExclusiveAndClearSharedVisitor.initialize(
+                        ResourceTypes.fromId(i), sharedLocks, lockMaps[i]));
                 exclusiveLockCounts[i] = null;
                 exclusiveLocks.close();
             }
 
             // Then release all remaining shared locks
             if (sharedLocks != null) {
-                sharedLocks.forEachKey(releaseSharedDontCheckExclusiveVisitor.initialize(lockMaps[i]));
+                sharedLocks.forEachKey(
+                        releaseSharedDontCheckExclusiveVisitor.initialize(ResourceTypes.fromId(i), lockMaps[i]));
                 sharedLockCounts[i] = null;
                 sharedLocks.close();
             }
@@ -570,7 +589,9 @@ public class ForsetiClient implements Locks.Client {
         try {
             // marking client as stopped
             if (stateHolder.stopClient()) {
-                // waiting for all operations to be completed
+                // waking up our thread, in case it is parked waiting for a lock, and waiting for all operations to be
+                // completed
+                wakeUp();
                 waitForStopBeOnlyClient();
                 memoryTracker
                         .stop(); // Stopping tracker to defer all released memory until we close the client, to ensure
@@ -626,7 +647,7 @@ public class ForsetiClient implements Locks.Client {
         List<ActiveLock> locks = new ArrayList<>();
         for (int typeId = 0; typeId < lockMaps.length; typeId++) {
             ResourceType resourceType = ResourceTypes.fromId(typeId);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[typeId];
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[typeId];
             if (lockMap != null) {
                 lockMap.forEach((resourceId, lock) -> {
                     if (lock.isOwnedBy(this)) {
@@ -640,7 +661,7 @@ public class ForsetiClient implements Locks.Client {
 
     @Override
     public boolean holdsLock(long id, ResourceType resource, LockType lockType) {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
+        StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
         ForsetiLockManager.Lock lock = lockMap.get(id);
         if (lock == null) {
             return false;
@@ -695,15 +716,23 @@ public class ForsetiClient implements Locks.Client {
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId) {
+    private void releaseGlobalLock(
+            ResourceType resourceType, StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap, long resourceId) {
         ForsetiLockManager.Lock lock = lockMap.get(resourceId);
         if (lock instanceof ExclusiveLock) {
             lockMap.remove(resourceId);
             memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
-        } else if (lock instanceof SharedLock && ((SharedLock) lock).release(this)) {
-            // We were the last to hold this lock
-            lockMap.remove(resourceId);
-            memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+            waitQueues.wakeNext(resourceType, resourceId);
+        } else if (lock instanceof SharedLock sharedLock) {
+            if (sharedLock.release(this)) {
+                // We were the last to hold this lock
+                lockMap.remove(resourceId);
+                memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                waitQueues.wakeNext(resourceType, resourceId);
+            } else if (sharedLock.isUpdateLock() && sharedLock.numberOfHolders() == 1) {
+                // The one left is waiting for us to leave, to upgrade the lock
+                waitQueues.wakeHolder(resourceType, resourceId, sharedLock);
+            }
         }
         activeLockCount.decrementAndGet();
     }
@@ -730,7 +759,7 @@ public class ForsetiClient implements Locks.Client {
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+            StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartNano)
@@ -751,11 +780,11 @@ public class ForsetiClient implements Locks.Client {
                         tracer, waitEvent, resourceType, resourceId, sharedLock, tries, waitStartNano)) {
                     return true;
                 } else {
-                    releaseGlobalLock(lockMap, resourceId);
+                    releaseGlobalLock(resourceType, lockMap, resourceId);
                     return false;
                 }
             } catch (Throwable e) {
-                releaseGlobalLock(lockMap, resourceId);
+                releaseGlobalLock(resourceType, lockMap, resourceId);
                 throw e;
             }
         } else {
@@ -786,10 +815,12 @@ public class ForsetiClient implements Locks.Client {
                     }
                     waitFor(sharedLock, resourceType, resourceId, EXCLUSIVE, tries++);
                 }
+                leaveWaitQueue();
 
                 return true;
             } catch (Throwable e) {
                 sharedLock.releaseUpdateLock();
+                waitQueues.wakeNext(resourceType, resourceId);
                 if (e instanceof DeadlockDetectedException || e instanceof LockClientStoppedException) {
                     throw (RuntimeException) e;
                 }
@@ -812,37 +843,49 @@ public class ForsetiClient implements Locks.Client {
             ForsetiLockManager.Lock lock, ResourceType type, long resourceId, LockType lockType, int tries) {
         clearAndCopyWaitList(lock);
         noteWaitingForLock(lock, type, resourceId, lockType);
-        incrementalBackoffWait(tries);
+        // Having just joined the queue, we retry once before parking, so that we don't miss a release that
+        // happened before we joined
+        boolean parking = tries >= MAX_SPINS;
+        if (!parking || !joinWaitQueue(type, resourceId)) {
+            incrementalBackoffWait(tries);
+        }
 
         ForsetiClient clientId = lock.detectDeadlock(this);
-        if (clientId != null && shouldAbort(clientId)) {
-            // If the deadlock is real, then an owner of this lock must be (transitively) waiting on a lock that
-            // we own. So to verify the deadlock, we traverse the lock owners and their `waitingForLock` fields,
-            // to find a lock that has us among the owners.
-            // We only act upon the result of this method if the `tries` count is above some threshold. The reason
-            // is that the Lock.collectOwners, which is algorithm relies upon, is inherently racy, and so only
-            // reduces the probability of a false positive, but does not eliminate them.
-            int depth;
-            if (tries > 100 && ((depth = isDeadlockReal(lock)) != NO_DEADLOCK_DEPTH)) {
-                // After checking several times, this really does look like a real deadlock.
-                if (verboseDeadlocks) {
-                    var deadlockCycleMessage = findDeadlockPath(lock, type, resourceId, depth);
-                    if (deadlockCycleMessage != null) {
-                        var message = String.format(
-                                "%s can't acquire %s %s because it would form this deadlock wait cycle:%n%s",
-                                this, lockType, lockString(type, resourceId), deadlockCycleMessage);
-                        throw new DeadlockDetectedException(message);
+        if (clientId != null) {
+            if (shouldAbort(clientId)) {
+                // If the deadlock is real, then an owner of this lock must be (transitively) waiting on a lock that
+                // we own. So to verify the deadlock, we traverse the lock owners and their `waitingForLock` fields,
+                // to find a lock that has us among the owners. The Lock.collectOwners, which this algorithm relies
+                // upon, is inherently racy, and so only reduces the probability of a false positive, but does not
+                // eliminate them. We therefore don't verify the deadlock while spinning, where the owner may just be
+                // about to release the lock, but when we join the wait queue behind the owner, or are woken up and
+                // find the lock still held. The wait cycle also has to be seen twice, a little while apart.
+                int depth;
+                if (parking && (depth = isDeadlockReal(lock)) != NO_DEADLOCK_DEPTH) {
+                    // After checking twice, this really does look like a real deadlock.
+                    if (verboseDeadlocks) {
+                        var deadlockCycleMessage = findDeadlockPath(lock, type, resourceId, depth);
+                        if (deadlockCycleMessage != null) {
+                            var message = String.format(
+                                    "%s can't acquire %s %s because it would form this deadlock wait cycle:%n%s",
+                                    this, lockType, lockString(type, resourceId), deadlockCycleMessage);
+                            throw new DeadlockDetectedException(message);
+                        }
+                        // else we tried to find a precise deadlock cycle, but found none - which means that
+                        // there was no real deadlock
+                    } else {
+                        throw new DeadlockDetectedException(format(
+                                "%s can't acquire %s on %s because holders of that lock are waiting for %s.%n Wait list:%s",
+                                this, lock, lockString(type, resourceId), this, lock.describeWaitList()));
                     }
-                    // else we tried to find a precise deadlock cycle, but found none - which means that
-                    // there was no real deadlock
-                } else {
-                    throw new DeadlockDetectedException(format(
-                            "%s can't acquire %s on %s because holders of that lock are waiting for %s.%n Wait list:%s",
-                            this, lock, lockString(type, resourceId), this, lock.describeWaitList()));
                 }
+            } else if (parking) {
+                // We closed a wait cycle that the other client is the one to break. It may be parked, and would
+                // otherwise only notice when it wakes up by itself.
+                clientId.wakeUp();
             }
             Thread.yield();
-        } else if ((tries & 8191) == 8191) // Each try sleeps for up to 1ms, so 8k tries will be every ~8s
+        } else if ((tries & 511) == 511) // Parked tries wait for up to 10ms, so 512 tries will be every ~5s at most
         {
             for (ForsetiClient client : waitList) {
                 if (clientCommittingByCurrentThread(client) && isDeadlockReal(lock) != -1) {
@@ -855,24 +898,63 @@ public class ForsetiClient implements Locks.Client {
     }
 
     @VisibleForTesting
-    public static void incrementalBackoffWait(long iteration) throws AcquireLockTimeoutException {
+    public void incrementalBackoffWait(long iteration) throws AcquireLockTimeoutException {
         if (iteration < MAX_SPINS) {
             Thread.onSpinWait();
             return;
         }
 
-        try {
-            if (iteration < MULTIPLY_UNTIL_ITERATION) {
-                parkNanos(500);
-            } else {
-                Thread.sleep(1);
-            }
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-            throw new AcquireLockTimeoutException("Interrupted while waiting.", e, Interrupted);
+        // Wait to be woken up when the lock we wait for is released, but not for so long that a missed wake-up
+        // or a change in the wait graph goes unnoticed for long
+        parkNanos(waitQueues.maxParkNanos());
+        if (Thread.interrupted()) {
+            throw new AcquireLockTimeoutException("Interrupted while waiting.", Interrupted);
         }
     }
 
+    /**
+     * Join the wait queue of the given resource, unless we are already in it.
+     *
+     * @return {@code true} if we joined the queue, {@code false} if we were already in it.
+     */
+    private boolean joinWaitQueue(ResourceType resourceType, long resourceId) {
+        Queue<ForsetiClient> queue = waitQueues.queueFor(resourceType, resourceId);
+        if (waitQueue == queue) {
+            return false;
+        }
+        leaveWaitQueue();
+        waitingThread = Thread.currentThread();
+        queue.offer(this);
+        waitQueue = queue;
+        return true;
+    }
+
+    private void leaveWaitQueue() {
+        if (waitQueue != null) {
+            waitQueue.remove(this);
+            waitQueue = null;
+            waitingThread = null;
+        }
+    }
+
+    /**
+     * Wake up the thread of this client, if it is parked waiting for a lock.
+     */
+    void wakeUp() {
+        Thread thread = waitingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * @return the type of lock this client waits for on the given resource, or {@code null} if it does not wait for it.
+     */
+    LockType waitingForLockType(ResourceType resourceType, long resourceId) {
+        LockType lockType = waitingForLockType;
+        return waitingForResourceType == resourceType && waitingForResourceId == resourceId ? lockType : null;
+    }
+
     /**
      * When a deadlock occurs, the client with the fewest number of held locks is aborted. If both clients hold the same
      * number of
@@ -1081,16 +1163,19 @@ public class ForsetiClient implements Locks.Client {
      * is no need to check for those. It is used when releasing all locks.
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements LongProcedure {
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private ResourceType resourceType;
+        private StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap;
 
-        private LongProcedure initialize(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(
+                ResourceType resourceType, StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap) {
+            this.resourceType = resourceType;
             this.lockMap = lockMap;
             return this;
         }
 
         @Override
         public void value(long resourceId) {
-            releaseGlobalLock(lockMap, resourceId);
+            releaseGlobalLock(resourceType, lockMap, resourceId);
         }
     }
 
@@ -1099,11 +1184,15 @@ public class ForsetiClient implements Locks.Client {
      * This is an optimization used when releasing all locks.
      */
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements LongProcedure {
+        private ResourceType resourceType;
         private HeapTrackingLongIntHashMap sharedLockCounts;
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap;
 
         private LongProcedure initialize(
-                HeapTrackingLongIntHashMap sharedLockCounts, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+                ResourceType resourceType,
+                HeapTrackingLongIntHashMap sharedLockCounts,
+                StripedLongObjectHashMap<ForsetiLockManager.Lock> lockMap) {
+            this.resourceType = resourceType;
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
             return this;
@@ -1111,7 +1200,7 @@ public class ForsetiClient implements Locks.Client {
 
         @Override
         public void value(long resourceId) {
-            releaseGlobalLock(lockMap, resourceId);
+            releaseGlobalLock(resourceType, lockMap, resourceId);
 
             // If we hold this as a shared lock, we can throw that shared lock away directly, since we haven't
             // followed the down-grade protocol.
@@ -21,18 +21,17 @@ package org.neo4j.kernel.impl.locking.forseti;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_verbose_deadlocks;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.set.primitive.LongSet;
+import org.neo4j.collection.StripedLongObjectHashMap;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.SettingChangeListener;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceType;
 import org.neo4j.time.SystemNanoClock;
+import org.neo4j.util.VisibleForTesting;
 
 /**
  * <h1>Forseti, the Nordic god of justice</h1>
@@ -59,6 +58,10 @@ import org.neo4j.time.SystemNanoClock;
  * <p/>
  * Once the client is in the holder list, it has the lock.
  * <p/>
+ * A client that can not get a lock spins for a little while, and then joins a FIFO queue of waiters for the resource
+ * and parks. Releasing a lock wakes the waiters that are next in line, who then retry to grab the lock. Parked clients
+ * also wake up on their own every now and then, to refresh their wait lists and check for deadlocks and timeouts.
+ * <p/>
  * <h2>Deadlock detection</h2>
  * <p/>
  * Each Client maintains a waiting-for list, which by default always contains the client itself. This list indicates
@@ -156,7 +159,10 @@ public class ForsetiLockManager implements Locks {
     private final SettingChangeListener<Boolean> verboseDeadlocksSettingListener;
 
     /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final StripedLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps;
+
+    /** Queues of the clients that are parked while waiting for locks, shared by all clients. */
+    private final LockWaitQueues waitQueues;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
@@ -168,15 +174,21 @@ public class ForsetiLockManager implements Locks {
     private volatile boolean verboseDeadlocks;
     private volatile boolean closed;
 
-    @SuppressWarnings("unchecked")
     public ForsetiLockManager(Config config, SystemNanoClock clock, ResourceType... resourceTypes) {
+        this(config, clock, LockWaitQueues.DEFAULT_MAX_PARK_NANOS, resourceTypes);
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("unchecked")
+    ForsetiLockManager(Config config, SystemNanoClock clock, long maxParkNanos, ResourceType... resourceTypes) {
         this.config = config;
+        this.waitQueues = new LockWaitQueues(maxParkNanos);
         int maxResourceId = findMaxResourceId(resourceTypes);
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new StripedLongObjectHashMap[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
         for (ResourceType type : resourceTypes) {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>(16, 0.6f, 512);
+            this.lockMaps[type.typeId()] = new StripedLongObjectHashMap<>();
             this.resourceTypes[type.typeId()] = type;
         }
         this.clock = clock;
@@ -194,7 +206,7 @@ public class ForsetiLockManager implements Locks {
             throw new IllegalStateException(this + " already closed");
         }
 
-        return new ForsetiClient(lockMaps, clock, verboseDeadlocks, clientIds.incrementAndGet());
+        return new ForsetiClient(lockMaps, waitQueues, clock, verboseDeadlocks, clientIds.incrementAndGet());
     }
 
     @Override
@@ -202,14 +214,13 @@ public class ForsetiLockManager implements Locks {
         for (int i = 0; i < lockMaps.length; i++) {
             if (lockMaps[i] != null) {
                 var resourceType = resourceTypes[i];
-                for (Map.Entry<Long, Lock> entry : lockMaps[i].entrySet()) {
-                    var lock = entry.getValue();
+                lockMaps[i].forEach((resourceId, lock) -> {
                     var description = lock.describeWaitList();
                     var transactionIds = lock.transactionIds();
                     int lockIdentityHashCode = System.identityHashCode(lock);
                     transactionIds.forEach(txId -> out.visit(
-                            lock.type(), resourceType, txId, entry.getKey(), description, 0, lockIdentityHashCode));
-                }
+                            lock.type(), resourceType, txId, resourceId, description, 0, lockIdentityHashCode));
+                });
             }
         }
     }
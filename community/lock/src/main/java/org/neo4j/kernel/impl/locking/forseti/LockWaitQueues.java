@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.lock.LockType.EXCLUSIVE;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.ResourceType;
+
+/**
+ * FIFO queues of the clients that are parked while waiting for a lock.
+ * <p>
+ * The lock instances in the lock maps come and go as locks are taken and released, and a client uses the same
+ * {@link ExclusiveLock} for every resource it holds exclusively, so the queues are not kept on the locks. Instead,
+ * the resources are hashed into a fixed number of queues, and clients waiting for different resources may share a
+ * queue. Clients only join a queue once they are done spinning, and stay in it, in their place, until they get the
+ * lock or give up. Whoever releases a lock wakes up the clients that are next in line for its resource.
+ * <p>
+ * Waking a client does not hand the lock over to it; the client retries to grab the lock itself. Clients always
+ * retry once after joining a queue before they park, and never park for longer than a short while, so a wake-up that
+ * is missed in a race only ever delays a waiter.
+ */
+class LockWaitQueues {
+    static final long DEFAULT_MAX_PARK_NANOS = MILLISECONDS.toNanos(10);
+    private static final int QUEUES = 1024;
+
+    private final Queue<ForsetiClient>[] queues;
+    private final long maxParkNanos;
+
+    @SuppressWarnings("unchecked")
+    LockWaitQueues(long maxParkNanos) {
+        this.maxParkNanos = maxParkNanos;
+        queues = new Queue[QUEUES];
+        for (int i = 0; i < QUEUES; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @return how long a client may stay parked before it checks the lock it waits for again, without being woken up.
+     */
+    long maxParkNanos() {
+        return maxParkNanos;
+    }
+
+    Queue<ForsetiClient> queueFor(ResourceType resourceType, long resourceId) {
+        long hash = (resourceId * 31 + resourceType.typeId()) * 0x9E3779B97F4A7C15L;
+        return queues[(int) (hash >>> 32) & (QUEUES - 1)];
+    }
+
+    /**
+     * Wake up the first client in line for the given resource. If that client wants a shared lock, the clients
+     * right behind it that also want a shared lock are woken up as well, since they can all get it together.
+     */
+    void wakeNext(ResourceType resourceType, long resourceId) {
+        Queue<ForsetiClient> queue = queueFor(resourceType, resourceId);
+        if (queue.isEmpty()) {
+            return;
+        }
+        boolean wokeShared = false;
+        for (ForsetiClient waiter : queue) {
+            LockType lockType = waiter.waitingForLockType(resourceType, resourceId);
+            if (lockType == null) {
+                continue;
+            }
+            if (lockType == EXCLUSIVE) {
+                if (!wokeShared) {
+                    waiter.wakeUp();
+                }
+                return;
+            }
+            waiter.wakeUp();
+            wokeShared = true;
+        }
+    }
+
+    /**
+     * Wake up the client in line for the given resource that already holds the given lock, which is a client that
+     * waits for the other holders of a shared lock to leave, to upgrade it to an exclusive lock.
+     */
+    void wakeHolder(ResourceType resourceType, long resourceId, ForsetiLockManager.Lock lock) {
+        Queue<ForsetiClient> queue = queueFor(resourceType, resourceId);
+        if (queue.isEmpty()) {
+            return;
+        }
+        for (ForsetiClient waiter : queue) {
+            if (waiter.waitingForLockType(resourceType, resourceId) != null && lock.isOwnedBy(waiter)) {
+                waiter.wakeUp();
+                return;
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -259,6 +260,92 @@ class ForsetiLockManagerTest {
         assertThat(memoryTracker.estimatedHeapMemory()).isZero();
     }
 
+    @Test
+    void shouldWakeUpParkedClientsWhenLocksAreReleased() throws Exception {
+        // Parked clients would not check the lock again before the test times out, unless they are woken up
+        manager.close();
+        manager = new ForsetiLockManager(config, Clocks.nanoClock(), TimeUnit.HOURS.toNanos(1), ResourceTypes.values());
+        try (OtherThreadExecutor executor1 = new OtherThreadExecutor("reader1");
+                OtherThreadExecutor executor2 = new OtherThreadExecutor("reader2");
+                OtherThreadExecutor executor3 = new OtherThreadExecutor("writer");
+                Locks.Client holder = manager.newClient();
+                Locks.Client reader1 = manager.newClient();
+                Locks.Client reader2 = manager.newClient();
+                Locks.Client writer = manager.newClient()) {
+            holder.initialize(LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, config);
+            reader1.initialize(LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, config);
+            reader2.initialize(LeaseService.NoLeaseClient.INSTANCE, 3, EmptyMemoryTracker.INSTANCE, config);
+            writer.initialize(LeaseService.NoLeaseClient.INSTANCE, 4, EmptyMemoryTracker.INSTANCE, config);
+            holder.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+
+            // Both readers park in the wait queue of the node
+            Future<Object> read1 = executor1.executeDontWait(() -> {
+                reader1.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 1);
+                return null;
+            });
+            executor1.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "incrementalBackoffWait"));
+            Future<Object> read2 = executor2.executeDontWait(() -> {
+                reader2.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 1);
+                return null;
+            });
+            executor2.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "incrementalBackoffWait"));
+
+            // Releasing the exclusive lock lets both of them in
+            holder.releaseExclusive(ResourceTypes.NODE, 1);
+            read1.get(1, TimeUnit.MINUTES);
+            read2.get(1, TimeUnit.MINUTES);
+            assertTrue(reader1.holdsLock(1, ResourceTypes.NODE, LockType.SHARED));
+            assertTrue(reader2.holdsLock(1, ResourceTypes.NODE, LockType.SHARED));
+
+            // The writer parks until the last reader leaves
+            Future<Object> write = executor3.executeDontWait(() -> {
+                writer.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+                return null;
+            });
+            executor3.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "incrementalBackoffWait"));
+            reader1.releaseShared(ResourceTypes.NODE, 1);
+            reader2.releaseShared(ResourceTypes.NODE, 1);
+            write.get(1, TimeUnit.MINUTES);
+            assertTrue(writer.holdsLock(1, ResourceTypes.NODE, LockType.EXCLUSIVE));
+        }
+    }
+
+    @Test
+    void shouldDetectDeadlocksWithoutWaitingForParkedClientsToWakeUpByThemselves() throws Exception {
+        // Parked clients would not check for deadlocks again before the test times out, unless they are woken up
+        manager.close();
+        manager = new ForsetiLockManager(config, Clocks.nanoClock(), TimeUnit.HOURS.toNanos(1), ResourceTypes.values());
+        try (OtherThreadExecutor executor1 = new OtherThreadExecutor("client1");
+                OtherThreadExecutor executor2 = new OtherThreadExecutor("client2");
+                Locks.Client client1 = manager.newClient();
+                Locks.Client client2 = manager.newClient()) {
+            client1.initialize(LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, config);
+            client2.initialize(LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, config);
+            // The client holding the fewest locks is the one to break the deadlock
+            client1.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+            client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 2);
+            client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 3);
+
+            Future<Object> acquire1 = executor1.executeDontWait(() -> {
+                client1.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 2);
+                return null;
+            });
+            executor1.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "incrementalBackoffWait"));
+
+            // Closing the wait cycle wakes up the parked client, which finds the deadlock
+            Future<Object> acquire2 = executor2.executeDontWait(() -> {
+                client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+                return null;
+            });
+            assertThatThrownBy(() -> acquire1.get(1, TimeUnit.MINUTES))
+                    .hasCauseInstanceOf(DeadlockDetectedException.class);
+
+            client1.releaseExclusive(ResourceTypes.NODE, 1);
+            acquire2.get(1, TimeUnit.MINUTES);
+            assertTrue(client2.holdsLock(1, ResourceTypes.NODE, LockType.EXCLUSIVE));
+        }
+    }
+
     private void takeAndAssertActiveLocks(Locks.Client client, boolean allowedToDeadlock) {
         Map<Long, Integer> exclusiveLocks = new HashMap<>();
         Map<Long, Integer> sharedLocks = new HashMap<>();
@@ -30,6 +30,10 @@ public class LinuxErrorTranslator implements ErrorTranslator {
     static final int EINVAL = 22;
     // Numerical result out of range
     static final int ERANGE = 34;
+    // Interrupted system call
+    static final int EINTR = 4;
+    // Resource temporarily unavailable
+    static final int EAGAIN = 11;
 
     @Override
     public boolean isOutOfDiskSpace(NativeCallResult callResult) {
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+import static org.neo4j.internal.nativeimpl.LinuxErrorTranslator.EAGAIN;
+import static org.neo4j.internal.nativeimpl.LinuxErrorTranslator.EINTR;
+
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+
+/**
+ * A single io_uring submission and completion queue pair, accessed through the {@code liburing-ffi} library.
+ * <p>
+ * Reads and writes are first prepared, which puts them in the submission queue, and then submitted to the kernel in
+ * one system call with {@link #submitAndWait(int)}. The results are picked up from the completion queue with
+ * {@link #reapCompletions(long[], int[], int)}, in whatever order the kernel completed them, and are matched with the
+ * prepared operations through the user data given when they were prepared.
+ * <p>
+ * A ring is not thread safe. Callers must make sure that only one thread at a time uses it.
+ */
+public final class LinuxIoUring implements AutoCloseable {
+    /**
+     * Buffer index to use when preparing reads and writes into memory that is not registered with the ring.
+     */
+    public static final int UNREGISTERED_BUFFER = -1;
+
+    /**
+     * The kernel does not accept more than this many registered buffers per ring.
+     */
+    public static final int MAX_REGISTERED_BUFFERS = 1 << 14;
+
+    // Generously sized for struct io_uring, which is around 216 bytes in liburing 2.x.
+    private static final int RING_STRUCT_SIZE = 1024;
+    // struct iovec { void *iov_base; size_t iov_len; }
+    private static final int IOVEC_SIZE = 16;
+    // struct io_uring_cqe { __u64 user_data; __s32 res; __u32 flags; }
+    private static final int CQE_RES_OFFSET = 8;
+
+    private static final boolean IO_URING_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static {
+        Throwable initFailure = null;
+        boolean available = false;
+        try {
+            if (Platform.isLinux() && Platform.is64Bit()) {
+                Native.register("uring-ffi");
+                // The library can be there while the kernel is too old, or io_uring is disabled by a seccomp profile
+                // or the io_uring_disabled sysctl. The only way to know is to try.
+                new LinuxIoUring(2).close();
+                available = true;
+            }
+        } catch (Throwable t) {
+            initFailure = t;
+        }
+        IO_URING_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private static native int io_uring_queue_init(int entries, long ring, int flags);
+
+    private static native void io_uring_queue_exit(long ring);
+
+    private static native long io_uring_get_sqe(long ring);
+
+    private static native void io_uring_prep_read(long sqe, int fd, long buf, int nbytes, long offset);
+
+    private static native void io_uring_prep_write(long sqe, int fd, long buf, int nbytes, long offset);
+
+    private static native void io_uring_prep_read_fixed(
+            long sqe, int fd, long buf, int nbytes, long offset, int bufIndex);
+
+    private static native void io_uring_prep_write_fixed(
+            long sqe, int fd, long buf, int nbytes, long offset, int bufIndex);
+
+    private static native void io_uring_sqe_set_data64(long sqe, long data);
+
+    private static native int io_uring_submit_and_wait(long ring, int waitNr);
+
+    private static native int io_uring_wait_cqe(long ring, long cqePtr);
+
+    private static native int io_uring_peek_cqe(long ring, long cqePtr);
+
+    private static native void io_uring_cqe_seen(long ring, long cqe);
+
+    private static native int io_uring_register_buffers(long ring, long iovecs, int nrIovecs);
+
+    private static native int io_uring_unregister_buffers(long ring);
+
+    private final int entries;
+    private final long ring;
+    // Scratch space for the struct io_uring_cqe pointer that the wait and peek functions hand back.
+    private final long cqePtr;
+    private boolean buffersRegistered;
+    private boolean closed;
+
+    /**
+     * Create a ring with room for the given number of submissions.
+     * @param entries the depth of the submission queue. The kernel rounds it up to a power of two.
+     * @throws IOException if the kernel refused to set up the ring.
+     */
+    public LinuxIoUring(int entries) throws IOException {
+        this.entries = entries;
+        this.ring = Native.malloc(RING_STRUCT_SIZE);
+        this.cqePtr = Native.malloc(Native.POINTER_SIZE);
+        if (ring == 0 || cqePtr == 0) {
+            free();
+            throw new OutOfMemoryError("Unable to allocate memory for io_uring.");
+        }
+        new Pointer(ring).clear(RING_STRUCT_SIZE);
+        int result = io_uring_queue_init(entries, ring, 0);
+        if (result < 0) {
+            free();
+            throw failure("io_uring_queue_init", result);
+        }
+    }
+
+    /**
+     * @return {@code true} if io_uring can be used on this system.
+     */
+    public static boolean isAvailable() {
+        return IO_URING_AVAILABLE;
+    }
+
+    /**
+     * @return a human readable description of why io_uring is, or is not, available.
+     */
+    public static String describe() {
+        if (IO_URING_AVAILABLE) {
+            return "io_uring is available.";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder("io_uring is not available.");
+        if (INITIALIZATION_FAILURE != null) {
+            descriptionBuilder.append(" Details: ").append(getStackTrace(INITIALIZATION_FAILURE));
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * @return the number of operations that can be prepared before they have to be submitted.
+     */
+    public int entries() {
+        return entries;
+    }
+
+    /**
+     * Register the given memory regions with the ring, replacing any previously registered regions. Reads and writes
+     * into registered memory can be prepared with the index of their region, which saves the kernel from mapping the
+     * memory on every operation.
+     * @param addresses the start addresses of the memory regions.
+     * @param lengths the lengths of the memory regions.
+     * @param count the number of regions to register.
+     * @throws IOException if the kernel refused to register the regions, typically because of the memlock limit.
+     */
+    public void registerBuffers(long[] addresses, long[] lengths, int count) throws IOException {
+        if (count > MAX_REGISTERED_BUFFERS) {
+            throw new IllegalArgumentException(
+                    "Can not register more than " + MAX_REGISTERED_BUFFERS + " buffers, but got " + count + ".");
+        }
+        unregisterBuffers();
+        if (count == 0) {
+            return;
+        }
+        long iovecs = Native.malloc((long) count * IOVEC_SIZE);
+        if (iovecs == 0) {
+            throw new OutOfMemoryError("Unable to allocate memory for io_uring buffer registration.");
+        }
+        try {
+            Pointer pointer = new Pointer(iovecs);
+            for (int i = 0; i < count; i++) {
+                pointer.setLong((long) i * IOVEC_SIZE, addresses[i]);
+                pointer.setLong((long) i * IOVEC_SIZE + 8, lengths[i]);
+            }
+            int result = io_uring_register_buffers(ring, iovecs, count);
+            if (result < 0) {
+                throw failure("io_uring_register_buffers", result);
+            }
+            buffersRegistered = true;
+        } finally {
+            Native.free(iovecs);
+        }
+    }
+
+    /**
+     * Drop all memory regions registered with {@link #registerBuffers(long[], long[], int)}.
+     */
+    public void unregisterBuffers() throws IOException {
+        if (buffersRegistered) {
+            buffersRegistered = false;
+            int result = io_uring_unregister_buffers(ring);
+            if (result < 0) {
+                throw failure("io_uring_unregister_buffers", result);
+            }
+        }
+    }
+
+    /**
+     * Put a read of {@code length} bytes at {@code offset} of the given file into memory at {@code address} in the
+     * submission queue.
+     * @param bufferIndex the index of the registered memory region that the buffer is in, or
+     * {@link #UNREGISTERED_BUFFER}.
+     * @param userData identifies the read in the completion queue.
+     * @return {@code false} if the submission queue is full, and the read was not prepared.
+     */
+    public boolean prepareRead(int fd, long address, int length, long offset, int bufferIndex, long userData) {
+        long sqe = io_uring_get_sqe(ring);
+        if (sqe == 0) {
+            return false;
+        }
+        if (bufferIndex == UNREGISTERED_BUFFER) {
+            io_uring_prep_read(sqe, fd, address, length, offset);
+        } else {
+            io_uring_prep_read_fixed(sqe, fd, address, length, offset, bufferIndex);
+        }
+        io_uring_sqe_set_data64(sqe, userData);
+        return true;
+    }
+
+    /**
+     * Put a write of {@code length} bytes from memory at {@code address} to {@code offset} of the given file in the
+     * submission queue.
+     * @param bufferIndex the index of the registered memory region that the buffer is in, or
+     * {@link #UNREGISTERED_BUFFER}.
+     * @param userData identifies the write in the completion queue.
+     * @return {@code false} if the submission queue is full, and the write was not prepared.
+     */
+    public boolean prepareWrite(int fd, long address, int length, long offset, int bufferIndex, long userData) {
+        long sqe = io_uring_get_sqe(ring);
+        if (sqe == 0) {
+            return false;
+        }
+        if (bufferIndex == UNREGISTERED_BUFFER) {
+            io_uring_prep_write(sqe, fd, address, length, offset);
+        } else {
+            io_uring_prep_write_fixed(sqe, fd, address, length, offset, bufferIndex);
+        }
+        io_uring_sqe_set_data64(sqe, userData);
+        return true;
+    }
+
+    /**
+     * Submit all prepared operations to the kernel, and wait for at least the given number of them to complete.
+     * The wait is retried if it is interrupted by a signal.
+     * @return the number of operations submitted.
+     */
+    public int submitAndWait(int waitFor) throws IOException {
+        int result;
+        do {
+            result = io_uring_submit_and_wait(ring, waitFor);
+        } while (result == -EINTR);
+        if (result < 0) {
+            throw failure("io_uring_submit_and_wait", result);
+        }
+        return result;
+    }
+
+    /**
+     * Take completed operations off the completion queue, waiting for at least {@code minimum} of them.
+     * @param userData receives the user data of the completed operations.
+     * @param results receives the results of the completed operations: the number of bytes transferred, or a negated
+     * error number.
+     * @param minimum the number of completions to wait for. No more than the length of the arrays are reaped.
+     * @return the number of completions reaped.
+     */
+    public int reapCompletions(long[] userData, int[] results, int minimum) throws IOException {
+        int reaped = 0;
+        Pointer cqePointer = new Pointer(cqePtr);
+        while (reaped < userData.length) {
+            int result = reaped < minimum ? io_uring_wait_cqe(ring, cqePtr) : io_uring_peek_cqe(ring, cqePtr);
+            if (result == -EAGAIN && reaped >= minimum) {
+                break;
+            }
+            if (result == -EINTR) {
+                continue;
+            }
+            if (result < 0) {
+                throw failure("io_uring_wait_cqe", result);
+            }
+            long cqe = cqePointer.getLong(0);
+            Pointer completion = new Pointer(cqe);
+            userData[reaped] = completion.getLong(0);
+            results[reaped] = completion.getInt(CQE_RES_OFFSET);
+            io_uring_cqe_seen(ring, cqe);
+            reaped++;
+        }
+        return reaped;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            io_uring_queue_exit(ring);
+            free();
+        }
+    }
+
+    private void free() {
+        if (ring != 0) {
+            Native.free(ring);
+        }
+        if (cqePtr != 0) {
+            Native.free(cqePtr);
+        }
+    }
+
+    /**
+     * @return an exception for an io_uring function that returned the given negated error number.
+     */
+    public static IOException failure(String function, int negatedErrorNumber) {
+        int errorNumber = -negatedErrorNumber;
+        return new IOException(function + " failed with error code " + errorNumber + ": "
+                + LinuxNativeAccess.tryExtractError(errorNumber));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.reflect.FieldUtils.getDeclaredField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.UNREGISTERED_BUFFER;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class LinuxIoUringTest {
+    private static final int BLOCK_SIZE = 4096;
+    private static final int BLOCKS = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisabledOnOs(OS.LINUX)
+    void notAvailableOnNonLinux() {
+        assertFalse(LinuxIoUring.isAvailable());
+        assertThat(LinuxIoUring.describe()).startsWith("io_uring is not available.");
+    }
+
+    @Test
+    @EnabledIf("ioUringAvailable")
+    void writeAndReadBlocksWithUnregisteredBuffers() throws Exception {
+        writeAndReadBlocks(false);
+    }
+
+    @Test
+    @EnabledIf("ioUringAvailable")
+    void writeAndReadBlocksWithRegisteredBuffers() throws Exception {
+        writeAndReadBlocks(true);
+    }
+
+    @Test
+    @EnabledIf("ioUringAvailable")
+    void reportFailedOperationsAsNegatedErrorNumbers() throws Exception {
+        long buffer = Native.malloc(BLOCK_SIZE);
+        try (LinuxIoUring ring = new LinuxIoUring(4)) {
+            assertTrue(ring.prepareRead(-1, buffer, BLOCK_SIZE, 0, UNREGISTERED_BUFFER, 7));
+            assertEquals(1, ring.submitAndWait(1));
+
+            long[] userData = new long[1];
+            int[] results = new int[1];
+            assertEquals(1, ring.reapCompletions(userData, results, 1));
+            assertEquals(7, userData[0]);
+            assertThat(results[0]).isNegative();
+            assertThat(LinuxIoUring.failure("read", results[0])).hasMessageContaining("read failed");
+        } finally {
+            Native.free(buffer);
+        }
+    }
+
+    @Test
+    @EnabledIf("ioUringAvailable")
+    void refuseToRegisterTooManyBuffers() throws Exception {
+        int count = LinuxIoUring.MAX_REGISTERED_BUFFERS + 1;
+        try (LinuxIoUring ring = new LinuxIoUring(4)) {
+            long[] addresses = new long[count];
+            long[] lengths = new long[count];
+            assertThrows(IllegalArgumentException.class, () -> ring.registerBuffers(addresses, lengths, count));
+        }
+    }
+
+    private void writeAndReadBlocks(boolean registerBuffers) throws Exception {
+        long memory = Native.malloc(2L * BLOCKS * BLOCK_SIZE);
+        long source = memory;
+        long target = memory + (long) BLOCKS * BLOCK_SIZE;
+        Pointer pointer = new Pointer(memory);
+        pointer.clear(2L * BLOCKS * BLOCK_SIZE);
+        for (int i = 0; i < BLOCKS * BLOCK_SIZE; i++) {
+            pointer.setByte(i, (byte) (i * 31));
+        }
+
+        Path file = directory.resolve("file");
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE, CREATE);
+                LinuxIoUring ring = new LinuxIoUring(BLOCKS / 2)) {
+            int fd = getDescriptor(channel);
+            int bufferIndex = UNREGISTERED_BUFFER;
+            if (registerBuffers) {
+                ring.registerBuffers(new long[] {memory}, new long[] {2L * BLOCKS * BLOCK_SIZE}, 1);
+                bufferIndex = 0;
+            }
+
+            for (int block = 0; block < BLOCKS; block++) {
+                long address = source + (long) block * BLOCK_SIZE;
+                assertTrue(ring.prepareWrite(fd, address, BLOCK_SIZE, (long) block * BLOCK_SIZE, bufferIndex, block));
+                if (block % ring.entries() == ring.entries() - 1) {
+                    awaitAll(ring, ring.entries());
+                }
+            }
+            assertEquals(BLOCKS * BLOCK_SIZE, channel.size());
+
+            for (int block = 0; block < BLOCKS; block++) {
+                long address = target + (long) block * BLOCK_SIZE;
+                assertTrue(ring.prepareRead(fd, address, BLOCK_SIZE, (long) block * BLOCK_SIZE, bufferIndex, block));
+                if (block % ring.entries() == ring.entries() - 1) {
+                    awaitAll(ring, ring.entries());
+                }
+            }
+
+            ByteBuffer written = pointer.getByteBuffer(0, (long) BLOCKS * BLOCK_SIZE);
+            ByteBuffer read = pointer.getByteBuffer((long) BLOCKS * BLOCK_SIZE, (long) BLOCKS * BLOCK_SIZE);
+            assertEquals(written, read);
+        } finally {
+            Native.free(memory);
+        }
+    }
+
+    private static void awaitAll(LinuxIoUring ring, int count) throws IOException {
+        assertEquals(count, ring.submitAndWait(count));
+        long[] userData = new long[count];
+        int[] results = new int[count];
+        int reaped = 0;
+        while (reaped < count) {
+            int completions = ring.reapCompletions(userData, results, 1);
+            for (int i = 0; i < completions; i++) {
+                assertEquals(BLOCK_SIZE, results[i]);
+            }
+            reaped += completions;
+        }
+    }
+
+    private static boolean ioUringAvailable() {
+        return LinuxIoUring.isAvailable();
+    }
+
+    private static int getDescriptor(FileChannel channel) throws ClassNotFoundException, IllegalAccessException {
+        Class<?> fileChannelImpl = Class.forName("sun.nio.ch.FileChannelImpl");
+        FileDescriptor fd =
+                (FileDescriptor) getDeclaredField(fileChannelImpl, "fd", true).get(channel);
+        return getDeclaredField(FileDescriptor.class, "fd", true).getInt(fd);
+    }
+}
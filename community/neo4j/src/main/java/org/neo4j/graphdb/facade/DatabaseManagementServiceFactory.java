@@ -45,6 +45,7 @@ import org.neo4j.common.DependencyResolver;
 import org.neo4j.common.Edition;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
 import org.neo4j.configuration.connectors.HttpConnector;
 import org.neo4j.configuration.connectors.HttpsConnector;
 import org.neo4j.dbms.DatabaseStateService;
@@ -179,8 +180,10 @@ public class DatabaseManagementServiceFactory {
                         globalModule.getGlobalClock(),
                         logService);
 
-        var transactionManager =
-                new TransactionManagerImpl(boltGraphDatabaseManagementServiceSPI, globalModule.getGlobalClock());
+        var transactionManager = new TransactionManagerImpl(
+                boltGraphDatabaseManagementServiceSPI,
+                globalModule.getGlobalClock(),
+                globalModule.getGlobalConfig().get(BoltConnectorInternalSettings.result_prefetch_size));
         globalDependencies.satisfyDependency(transactionManager);
 
         var boltServer = createBoltServer(
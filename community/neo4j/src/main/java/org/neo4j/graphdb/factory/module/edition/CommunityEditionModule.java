@@ -149,7 +149,7 @@ public class CommunityEditionModule extends AbstractEditionModule implements Def
                 getTransactionMonitorFactory(),
                 createIdContextFactory(globalModule),
                 deviceMapper,
-                new CommunityIOControllerService(),
+                new CommunityIOControllerService(globalModule.getTracers().getPageCacheTracer()),
                 createCommitProcessFactory(),
                 this);
 
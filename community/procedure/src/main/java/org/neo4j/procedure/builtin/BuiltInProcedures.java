@@ -20,9 +20,11 @@
 package org.neo4j.procedure.builtin;
 
 import static org.neo4j.internal.helpers.collection.Iterators.stream;
+import static org.neo4j.kernel.api.exceptions.Status.Procedure.ProcedureCallFailed;
 import static org.neo4j.kernel.impl.api.TokenAccess.LABELS;
 import static org.neo4j.kernel.impl.api.TokenAccess.PROPERTY_KEYS;
 import static org.neo4j.kernel.impl.api.TokenAccess.RELATIONSHIP_TYPES;
+import static org.neo4j.procedure.Mode.DBMS;
 import static org.neo4j.procedure.Mode.READ;
 import static org.neo4j.procedure.builtin.ProceduresTimeFormatHelper.formatTime;
 import static org.neo4j.storageengine.util.StoreIdDecodeUtils.decodeId;
@@ -47,10 +49,12 @@ import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.procedure.SystemProcedure;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.pagecache.CommunityIOController;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.procedure.Admin;
@@ -274,6 +278,35 @@ public class BuiltInProcedures {
         return Stream.of(new BooleanResult(Boolean.TRUE));
     }
 
+    @Admin
+    @SystemProcedure
+    @Description("Report the IO limit of checkpoints of the database, and how much they have been throttled by it.")
+    @Procedure(name = "db.checkpoint.ioLimit", mode = DBMS)
+    public Stream<IOLimitResult> checkpointIOLimit() throws ProcedureException {
+        return Stream.of(new IOLimitResult(communityIOController("db.checkpoint.ioLimit")));
+    }
+
+    @Admin
+    @SystemProcedure
+    @Description("Change the IO limit of checkpoints of the database, until the next change of the "
+            + "`db.checkpoint.iops.limit` setting. A negative limit removes the limit. In adaptive mode, the limit "
+            + "is lowered while page faults are markedly slower than usual.")
+    @Procedure(name = "db.checkpoint.setIOLimit", mode = DBMS)
+    public Stream<IOLimitResult> setCheckpointIOLimit(
+            @Name("iopsLimit") long iopsLimit, @Name("adaptive") boolean adaptive) throws ProcedureException {
+        CommunityIOController ioController = communityIOController("db.checkpoint.setIOLimit");
+        ioController.configure(iopsLimit, adaptive);
+        return Stream.of(new IOLimitResult(ioController));
+    }
+
+    private CommunityIOController communityIOController(String procedureName) throws ProcedureException {
+        if (resolver.resolveDependency(IOController.class) instanceof CommunityIOController ioController) {
+            return ioController;
+        }
+        throw new ProcedureException(
+                ProcedureCallFailed, "The IO controller of this database can not be managed by " + procedureName);
+    }
+
     private ZoneId getConfiguredTimeZone() {
         Config config = resolver.resolveDependency(Config.class);
         return config.get(GraphDatabaseSettings.db_timezone).getZoneId();
@@ -299,6 +332,18 @@ public class BuiltInProcedures {
 
     public record DatabaseInfo(String id, String name, String creationDate) {}
 
+    public record IOLimitResult(
+            long iopsLimit, boolean adaptive, long currentIopsLimit, long limitedTimes, long limitedMillis) {
+        IOLimitResult(CommunityIOController ioController) {
+            this(
+                    ioController.configuredLimit(),
+                    ioController.isAdaptive(),
+                    ioController.currentLimit(),
+                    ioController.limitedTimes(),
+                    ioController.limitedMillis());
+        }
+    }
+
     public static class RelationshipTypeResult {
         public final String relationshipType;
 
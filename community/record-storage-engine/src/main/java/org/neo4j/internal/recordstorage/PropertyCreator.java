@@ -134,7 +134,7 @@ public class PropertyCreator {
         if (freeHostProxy == null) {
             // We couldn't find free space along the way, so create a new host record
             freeHost = propertyRecords
-                    .create(propertyStore.nextId(cursorContext), primitive, cursorContext)
+                    .create(propertyStore.nextIdNear(primitive.getNextProp(), cursorContext), primitive, cursorContext)
                     .forChangingData();
             freeHost.setInUse(true);
             if (primitive.getNextProp() != Record.NO_NEXT_PROPERTY.intValue()) {
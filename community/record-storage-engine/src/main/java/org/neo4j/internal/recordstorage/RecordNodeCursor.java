@@ -409,9 +409,10 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
     }
 
     private void selectScanCursor() {
-        // For node scans we used a local cursor to skip the overhead of positioning it on every node
+        // For node scans we used a local cursor to skip the overhead of positioning it on every node,
+        // which also marks the pages as scanned to not evict the working set of other queries
         if (scanCursor == null) {
-            scanCursor = read.openPageCursorForReading(0, cursorContext);
+            scanCursor = read.openPageCursorForScanning(0, cursorContext);
         }
         currentCursor = scanCursor;
     }
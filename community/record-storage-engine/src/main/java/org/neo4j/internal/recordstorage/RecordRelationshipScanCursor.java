@@ -182,9 +182,10 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     }
 
     private void selectScanCursor() {
-        // For node scans we used a local cursor to skip the overhead of positioning it on every node
+        // For node scans we used a local cursor to skip the overhead of positioning it on every node,
+        // which also marks the pages as scanned to not evict the working set of other queries
         if (scanCursor == null) {
-            scanCursor = relationshipStore.openPageCursorForReading(0, cursorContext);
+            scanCursor = relationshipStore.openPageCursorForScanning(0, cursorContext);
         }
         currentCursor = scanCursor;
     }
@@ -20,18 +20,24 @@
 package org.neo4j.internal.recordstorage;
 
 import static java.lang.Math.toIntExact;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
 
 import java.util.function.Supplier;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.recordstorage.RecordAccess.LoadMonitor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.KernelVersionProvider;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.StandardDynamicRecordAllocator;
 import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.InternalLogProvider;
@@ -49,6 +55,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext {
     private final TokenNameLookup tokenNameLookup;
     private final InternalLogProvider logProvider;
     private final int denseNodeThreshold;
+    private final boolean localityAwareIdAllocation;
 
     private KernelVersionProvider kernelVersionProvider;
     private PropertyCreator propertyCreator;
@@ -71,6 +78,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext {
         this.neoStores = neoStores;
         this.config = config;
         this.propertyStore = neoStores.getPropertyStore();
+        this.localityAwareIdAllocation = config.get(GraphDatabaseInternalSettings.locality_aware_id_allocation);
     }
 
     @Override
@@ -123,9 +131,22 @@ class RecordStorageCommandCreationContext implements CommandCreationContext {
             int relationshipType,
             boolean sourceNodeAddedInTx,
             boolean targetNodeAddedInTx) {
+        if (localityAwareIdAllocation && !sourceNodeAddedInTx) {
+            // Place the new relationship close to the existing relationships of its source node, since those
+            // are the relationships it will be chained together with and traversed alongside of
+            return neoStores.getRelationshipStore().nextIdNear(firstRelationshipOf(sourceNode), cursorContext);
+        }
         return nextId(StoreType.RELATIONSHIP);
     }
 
+    private long firstRelationshipOf(long nodeId) {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        NodeRecord node = nodeStore.getRecordByCursor(
+                nodeId, nodeStore.newRecord(), RecordLoad.LENIENT_CHECK, storeCursors.readCursor(NODE_CURSOR));
+        // The relationships of a dense node are spread out over its groups, so there's no single one to be close to
+        return node.inUse() && !node.isDense() ? node.getNextRel() : Record.NO_NEXT_RELATIONSHIP.longValue();
+    }
+
     @Override
     public long reserveSchema() {
         return nextId(StoreType.SCHEMA);
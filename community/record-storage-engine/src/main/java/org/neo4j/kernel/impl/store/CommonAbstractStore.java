@@ -27,6 +27,7 @@ import static org.neo4j.internal.recordstorage.InconsistentDataReadException.CYC
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
@@ -421,11 +422,23 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
      * DANGER: make sure to always close this cursor.
      *
      * Opens a {@link PageCursor} to this store, mainly for use in {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)}.
-     * The opened cursor will make use of the {@link PagedFile#PF_READ_AHEAD} flag for optimal scanning performance.
+     * The opened cursor will make use of the {@link PagedFile#PF_READ_AHEAD} flag for optimal scanning performance,
+     * and the {@link PagedFile#PF_SCAN} flag to not push the working set of other queries out of the page cache.
      */
     @Override
     public PageCursor openPageCursorForReadingWithPrefetching(long id, CursorContext cursorContext) {
-        return openPageCursorForReading(0, PF_READ_AHEAD, cursorContext);
+        return openPageCursorForReading(0, PF_READ_AHEAD | PF_SCAN, cursorContext);
+    }
+
+    /**
+     * DANGER: make sure to always close this cursor.
+     *
+     * The opened cursor will make use of the {@link PagedFile#PF_SCAN} flag to not push the working set of other
+     * queries out of the page cache, but does not read ahead.
+     */
+    @Override
+    public PageCursor openPageCursorForScanning(long id, CursorContext cursorContext) {
+        return openPageCursorForReading(id, PF_SCAN, cursorContext);
     }
 
     /**
@@ -490,6 +503,12 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         return idGenerator.nextId(cursorContext);
     }
 
+    @Override
+    public long nextIdNear(long nearId, CursorContext cursorContext) {
+        assertIdGeneratorInitialized();
+        return idGenerator.nextIdNear(nearId, cursorContext);
+    }
+
     private void assertIdGeneratorInitialized() {
         if (idGenerator == null) {
             throw new IllegalStateException("IdGenerator is not initialized");
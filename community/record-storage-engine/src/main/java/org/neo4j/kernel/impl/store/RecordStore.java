@@ -60,6 +60,15 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     long getHighId();
 
+    /**
+     * Like {@link #nextId(CursorContext)}, but favors an id close to {@code nearId} if there are reusable ids available.
+     *
+     * @param nearId id to allocate an id close to, or a negative value if there's no preference.
+     * @param cursorContext underlying page cursor context.
+     * @return the next free id.
+     */
+    long nextIdNear(long nearId, CursorContext cursorContext);
+
     /**
      * @param cursorContext underlying page cursor context.
      * @return highest id in use in this store.
@@ -104,6 +113,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     PageCursor openPageCursorForReadingWithPrefetching(long id, CursorContext cursorContext);
 
+    /**
+     * Opens a {@link PageCursor} on this store, capable of reading records using
+     * {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)}.
+     * The caller is responsible for closing it when done with it.
+     * The pages read by the opened cursor are marked as scanned, so they don't push the working set of other queries
+     * out of the page cache.
+     *
+     * @param id cursor will initially be placed at the page containing this record id.
+     * @param cursorContext underlying page cursor context.
+     * @return PageCursor for reading records.
+     */
+    PageCursor openPageCursorForScanning(long id, CursorContext cursorContext);
+
     /**
      * Opens a {@link PageCursor} on this store, capable of writing records using
      * {@link #updateRecord(AbstractBaseRecord, PageCursor, CursorContext, StoreCursors)}.
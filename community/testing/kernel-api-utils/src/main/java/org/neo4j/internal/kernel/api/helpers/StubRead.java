@@ -67,6 +67,16 @@ public class StubRead implements Read {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean nodeIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PartitionedScan<NodeValueIndexCursor> nodeIndexSeek(
             IndexReadSession index,
@@ -86,6 +96,16 @@ public class StubRead implements Read {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean relationshipIndexBatchedSeek(
+            QueryContext queryContext,
+            IndexReadSession index,
+            RelationshipValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            List<PropertyIndexQuery[]> queries) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PartitionedScan<RelationshipValueIndexCursor> relationshipIndexSeek(
             IndexReadSession index,
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import com.github.luben.zstd.Zstd;
+import java.io.IOException;
+import org.neo4j.io.ByteUnit;
+
+/**
+ * Compression of the commands in {@link LogEntryTypeCodes#COMPRESSED_COMMANDS} log entries, using zstd.
+ * <pre>
+ *     COMPRESSED COMMANDS LOG ENTRY: [VERSION][TYPE][UNCOMPRESSED_LENGTH][COMPRESSED_LENGTH][COMPRESSED_DATA]
+ * </pre>
+ * Where the uncompressed data is exactly what would otherwise have been written for the commands, i.e. one
+ * {@link LogEntryTypeCodes#COMMAND} log entry per command, all of the same version as the compressed entry itself.
+ */
+public final class CommandCompression {
+    /**
+     * Commands smaller than this, serialized, are not worth the overhead of compressing them.
+     */
+    public static final int MIN_COMPRESSED_SIZE = 512;
+
+    /**
+     * Commands larger than this, serialized, are written uncompressed. Also bounds what the reader is willing to
+     * allocate for a compressed entry, so that a corrupt length can't have it allocate arbitrary amounts of memory.
+     */
+    public static final int MAX_UNCOMPRESSED_SIZE = (int) ByteUnit.gibiBytes(1);
+
+    private static final int COMPRESSION_LEVEL = 3;
+
+    private CommandCompression() {}
+
+    /**
+     * @param source array holding the serialized commands to compress.
+     * @param length number of bytes to compress, starting at the beginning of {@code source}.
+     * @return the compressed data, or {@code null} if the data didn't get smaller by compressing it or is larger
+     * than {@link #MAX_UNCOMPRESSED_SIZE}.
+     */
+    public static byte[] compress(byte[] source, int length) throws IOException {
+        if (length > MAX_UNCOMPRESSED_SIZE) {
+            return null;
+        }
+        byte[] target = new byte[(int) Zstd.compressBound(length)];
+        long compressedLength = Zstd.compressByteArray(target, 0, target.length, source, 0, length, COMPRESSION_LEVEL);
+        if (Zstd.isError(compressedLength)) {
+            throw new IOException("Unable to compress commands: " + Zstd.getErrorName(compressedLength));
+        }
+        if (compressedLength >= length) {
+            return null;
+        }
+        byte[] compressed = new byte[(int) compressedLength];
+        System.arraycopy(target, 0, compressed, 0, compressed.length);
+        return compressed;
+    }
+
+    /**
+     * Verifies the lengths read from a compressed commands log entry before anything gets allocated for them.
+     * The compressor only ever produces entries that are smaller than their uncompressed size, which in turn is
+     * at least {@link #MIN_COMPRESSED_SIZE} and at most {@link #MAX_UNCOMPRESSED_SIZE}.
+     */
+    static void checkLengths(int uncompressedLength, int compressedLength) throws IOException {
+        if (uncompressedLength < MIN_COMPRESSED_SIZE || uncompressedLength > MAX_UNCOMPRESSED_SIZE) {
+            throw new IOException("Invalid uncompressed length " + uncompressedLength + " of compressed commands");
+        }
+        if (compressedLength <= 0 || compressedLength >= uncompressedLength) {
+            throw new IOException("Invalid compressed length " + compressedLength + " of compressed commands with "
+                    + "uncompressed length " + uncompressedLength);
+        }
+    }
+
+    static byte[] decompress(byte[] compressed, int uncompressedLength) throws IOException {
+        long frameContentSize = Zstd.decompressedSize(compressed);
+        if (frameContentSize != uncompressedLength) {
+            throw new IOException("Expected " + uncompressedLength + " bytes of decompressed commands, but the "
+                    + "compressed data holds " + frameContentSize);
+        }
+        byte[] target = new byte[uncompressedLength];
+        long length = Zstd.decompressByteArray(target, 0, uncompressedLength, compressed, 0, compressed.length);
+        if (Zstd.isError(length)) {
+            throw new IOException("Unable to decompress commands: " + Zstd.getErrorName(length));
+        }
+        if (length != uncompressedLength) {
+            throw new IOException(
+                    "Expected " + uncompressedLength + " bytes of decompressed commands, but got " + length);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.ReadableChecksumChannel;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+/**
+ * Parses {@link LogEntryTypeCodes#COMPRESSED_COMMANDS} log entries, see {@link CommandCompression} for the format.
+ * The decompressed commands are parsed with the {@link LogEntryTypeCodes#COMMAND} parser of the same parser set.
+ */
+class CompressedCommandsLogEntryParser extends LogEntryParser {
+    private final LogEntryParser commandParser;
+
+    CompressedCommandsLogEntryParser(LogEntryParser commandParser) {
+        super(COMPRESSED_COMMANDS);
+        this.commandParser = commandParser;
+    }
+
+    @Override
+    public LogEntry parse(
+            KernelVersion version,
+            ReadableChecksumChannel channel,
+            LogPositionMarker marker,
+            CommandReaderFactory commandReaderFactory)
+            throws IOException {
+        int uncompressedLength = channel.getInt();
+        int compressedLength = channel.getInt();
+        CommandCompression.checkLengths(uncompressedLength, compressedLength);
+        byte[] compressed = new byte[compressedLength];
+        channel.get(compressed, compressedLength);
+
+        ByteBuffer commands = ByteBuffer.wrap(CommandCompression.decompress(compressed, uncompressedLength))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ReadableChecksumChannel commandChannel = new DecompressedCommandsChannel(commands);
+        List<LogEntryCommand> entries = new ArrayList<>();
+        while (commands.hasRemaining()) {
+            byte commandVersion = commandChannel.get();
+            byte type = commandChannel.get();
+            if (commandVersion != version.version() || type != COMMAND) {
+                throw new IOException("Unexpected log entry with version " + commandVersion + " and type " + type
+                        + " among compressed commands of version " + version.version());
+            }
+            LogEntry entry = commandParser.parse(version, commandChannel, marker, commandReaderFactory);
+            if (entry != null) {
+                entries.add((LogEntryCommand) entry);
+            }
+        }
+        return new LogEntryCompressedCommands(entries);
+    }
+
+    /**
+     * Channel over the decompressed commands. They are covered by the checksum of the transaction in their
+     * compressed form, so there's no checksum to calculate here.
+     */
+    private static class DecompressedCommandsChannel implements ReadableChecksumChannel {
+        private final ByteBuffer buffer;
+
+        DecompressedCommandsChannel(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public byte get() throws IOException {
+            try {
+                return buffer.get();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public short getShort() throws IOException {
+            try {
+                return buffer.getShort();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public int getInt() throws IOException {
+            try {
+                return buffer.getInt();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public long getLong() throws IOException {
+            try {
+                return buffer.getLong();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public float getFloat() throws IOException {
+            try {
+                return buffer.getFloat();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public double getDouble() throws IOException {
+            try {
+                return buffer.getDouble();
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public void get(byte[] bytes, int length) throws IOException {
+            try {
+                buffer.get(bytes, 0, length);
+            } catch (BufferUnderflowException e) {
+                throw ReadPastEndException.INSTANCE;
+            }
+        }
+
+        @Override
+        public void beginChecksum() {}
+
+        @Override
+        public int getChecksum() {
+            return 0;
+        }
+
+        @Override
+        public int endChecksumAndValidate() {
+            return 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -24,5 +24,6 @@ import org.neo4j.kernel.KernelVersion;
 public class LogEntryParserSetVGloriousFuture extends LogEntryParserSetV5_6 {
     LogEntryParserSetVGloriousFuture() {
         super(KernelVersion.GLORIOUS_FUTURE);
+        register(new CompressedCommandsLogEntryParser(select(LogEntryTypeCodes.COMMAND)));
     }
 }
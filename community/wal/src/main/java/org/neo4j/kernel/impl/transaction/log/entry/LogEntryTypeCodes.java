@@ -44,4 +44,7 @@ public class LogEntryTypeCodes {
 
     // transaction roll back entry code
     public static final byte TX_ROLLBACK = 13;
+
+    // Commands of a command batch compressed together into one entry
+    public static final byte COMPRESSED_COMMANDS = 14;
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction.log.entry;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
 import java.io.IOException;
+import java.util.Iterator;
 import org.neo4j.io.fs.PositionableChannel;
 import org.neo4j.io.fs.ReadPastEndException;
 import org.neo4j.kernel.KernelVersion;
@@ -44,6 +45,9 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
     private final boolean verifyChecksumChain;
     private LogEntryParserSet parserSet;
     private int lastTxChecksum = BASE_TX_CHECKSUM;
+    // Commands of the last read compressed commands entry, handed out one by one as if they were separate entries
+    private Iterator<LogEntryCommand> pendingCommands;
+    private ReadableClosablePositionAwareChecksumChannel pendingCommandsChannel;
 
     public VersionAwareLogEntryReader(
             CommandReaderFactory commandReaderFactory, KernelVersion latestRecognizedKernelVersion) {
@@ -62,6 +66,13 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
 
     @Override
     public LogEntry readLogEntry(ReadableClosablePositionAwareChecksumChannel channel) throws IOException {
+        if (pendingCommands != null) {
+            if (pendingCommandsChannel == channel && pendingCommands.hasNext()) {
+                return pendingCommands.next();
+            }
+            pendingCommands = null;
+            pendingCommandsChannel = null;
+        }
         try {
             byte versionCode = channel.markAndGet(positionMarker);
             if (versionCode == 0) {
@@ -129,6 +140,12 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
                 throw new IOException(message, e);
             }
 
+            if (entry instanceof LogEntryCompressedCommands compressedCommands) {
+                pendingCommands = compressedCommands.getCommands().iterator();
+                pendingCommandsChannel = channel;
+                // There's always at least one command, since empty batches are never compressed
+                return pendingCommands.next();
+            }
             verifyChecksumChain(entry);
             return entry;
         } catch (ReadPastEndException e) {